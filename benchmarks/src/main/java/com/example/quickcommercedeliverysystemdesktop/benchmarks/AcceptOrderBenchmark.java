@@ -0,0 +1,107 @@
+package com.example.quickcommercedeliverysystemdesktop.benchmarks;
+
+import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A partner accepting a pending order (status update, delivery insert, customer notification).
+ *
+ * Runs on a private copy of the dataset. Accepted orders are put back to PENDING
+ * outside the measured region whenever the pool of pending orders runs dry.
+ * Each invocation commits to disk, so Level.Invocation setup is cheap in comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AcceptOrderBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int orders;
+
+    private Path workingCopy;
+    private int partnerId;
+    private long deliveryWatermark;
+    private long notificationWatermark;
+    private final List<Integer> pendingPool = new ArrayList<>();
+    private final ArrayDeque<Integer> available = new ArrayDeque<>();
+    private int nextOrderId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Path dataset = BenchmarkDataset.ensure(orders);
+        workingCopy = BenchmarkDataset.workingCopy(dataset, "accept");
+        BenchmarkDataset.useDatabase(workingCopy);
+        partnerId = BenchmarkDataset.busiestUser(workingCopy, "Deliveries", "delivery_person_id");
+
+        try (Connection conn = BenchmarkDataset.open(workingCopy);
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT order_id FROM orders WHERE status = 'PENDING' ORDER BY order_id")) {
+                while (rs.next()) {
+                    pendingPool.add(rs.getInt(1));
+                }
+            }
+            deliveryWatermark = maxId(stmt, "SELECT MAX(delivery_id) FROM Deliveries");
+            notificationWatermark = maxId(stmt, "SELECT MAX(notification_id) FROM Notifications");
+        }
+        available.addAll(pendingPool);
+    }
+
+    @Setup(Level.Invocation)
+    public void nextOrder() throws Exception {
+        if (available.isEmpty()) {
+            restorePendingOrders();
+        }
+        nextOrderId = available.poll();
+    }
+
+    @Benchmark
+    public boolean acceptOrder() {
+        return DeliveryDAO.acceptOrder(nextOrderId, partnerId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(workingCopy);
+    }
+
+    /**
+     * Undo every accept made so far: reopen the orders and drop the rows the DAO added
+     */
+    private void restorePendingOrders() throws Exception {
+        try (Connection conn = BenchmarkDataset.open(workingCopy)) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement reopen = conn.prepareStatement("UPDATE orders SET status = 'PENDING' WHERE order_id = ?");
+                 Statement stmt = conn.createStatement()) {
+                for (int orderId : pendingPool) {
+                    reopen.setInt(1, orderId);
+                    reopen.addBatch();
+                }
+                reopen.executeBatch();
+                stmt.executeUpdate("DELETE FROM Deliveries WHERE delivery_id > " + deliveryWatermark);
+                stmt.executeUpdate("DELETE FROM Notifications WHERE notification_id > " + notificationWatermark);
+            }
+            conn.commit();
+        }
+        available.addAll(pendingPool);
+    }
+
+    private static long maxId(Statement stmt, String sql) throws Exception {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.quickcommercedeliverysystemdesktop.benchmarks;
+
+import com.example.quickcommercedeliverysystemdesktop.SyntheticDataGenerator;
+import com.example.quickcommercedeliverysystemdesktop.database.Database;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+/**
+ * Seeded SQLite databases for the benchmarks.
+ *
+ * Each size is generated once into benchmarks/datasets/orders-N.db with a fixed
+ * seed by the app's SyntheticDataGenerator and reused by later runs.
+ */
+public final class BenchmarkDataset {
+
+    /** Bump when the generated shape changes so cached files are rebuilt */
+    private static final int DATASET_VERSION = 4;
+    private static final long SEED = 42L;
+    /** Fixed end of the generated date span so every machine builds identical files */
+    private static final LocalDate END_DATE = LocalDate.of(2025, 1, 1);
+
+    private static final Path DATASET_DIR = Paths.get(System.getProperty("bench.datasetDir", "datasets"));
+
+    private BenchmarkDataset() {
+    }
+
+    /**
+     * Get a seeded database with the given number of orders, generating it if needed
+     */
+    public static Path ensure(int orderCount) throws SQLException, IOException {
+        Path file = DATASET_DIR.resolve("orders-" + orderCount + ".db");
+        if (Files.exists(file) && isCurrent(file, orderCount)) {
+            return file;
+        }
+
+        Files.createDirectories(DATASET_DIR);
+        Files.deleteIfExists(file);
+
+        long start = System.nanoTime();
+        System.out.println("Seeding " + file + " with " + orderCount + " orders...");
+        seed(file, orderCount);
+        System.out.printf("Seeded %s in %.1f s%n", file, (System.nanoTime() - start) / 1e9);
+        return file;
+    }
+
+    /**
+     * Copy a seeded database so write benchmarks never touch the cached original
+     */
+    public static Path workingCopy(Path dataset, String suffix) throws IOException {
+        Path copy = dataset.resolveSibling(dataset.getFileName().toString().replace(".db", "-" + suffix + ".db"));
+        Files.copy(dataset, copy, StandardCopyOption.REPLACE_EXISTING);
+        return copy;
+    }
+
+    /**
+     * Point the DAO layer at the given database file
+     */
+    public static void useDatabase(Path file) {
+        System.setProperty(Database.PATH_PROPERTY, file.toString());
+    }
+
+    public static Connection open(Path file) throws SQLException {
+        return DriverManager.getConnection("jdbc:sqlite:" + file);
+    }
+
+    /**
+     * Get the user with the most rows in the given table column, e.g. the busiest partner
+     */
+    public static int busiestUser(Path file, String table, String column) throws SQLException {
+        String sql = "SELECT " + column + " FROM " + table + " GROUP BY " + column + " ORDER BY COUNT(*) DESC LIMIT 1";
+        try (Connection conn = open(file);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static boolean isCurrent(Path file, int orderCount) {
+        try (Connection conn = open(file);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, orders FROM BenchmarkDataset")) {
+            return rs.next() && rs.getInt("version") == DATASET_VERSION && rs.getInt("orders") == orderCount;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void seed(Path file, int orderCount) throws SQLException {
+        SyntheticDataGenerator.Config config = new SyntheticDataGenerator.Config()
+                .dbPath(file.toString())
+                .orders(orderCount)
+                .seed(SEED)
+                .endDate(END_DATE)
+                .overwrite(true);
+        System.out.println(SyntheticDataGenerator.generate(config));
+
+        try (Connection conn = open(file);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE BenchmarkDataset (version INTEGER, orders INTEGER)");
+            stmt.execute("INSERT INTO BenchmarkDataset VALUES (" + DATASET_VERSION + ", " + orderCount + ")");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.quickcommercedeliverysystemdesktop.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Entry point of benchmarks.jar.
+ *
+ * Accepts the usual JMH command line (benchmark regex, -p orders=10000, -f, -wi ...)
+ * and always writes JSON results, by default to target/jmh-result.json.
+ * Use -Dbench.result=path to choose another file.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        String resultFile = System.getProperty("bench.result", "target/jmh-result.json");
+        new File(resultFile).getAbsoluteFile().getParentFile().mkdirs();
+
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(BenchmarkRunner.class.getPackageName() + ".*Benchmark");
+        }
+        Options options = builder
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+
+        new Runner(options).run();
+        System.out.println("Results written to " + resultFile);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.quickcommercedeliverysystemdesktop.benchmarks;
+
+import com.example.quickcommercedeliverysystemdesktop.services.DispatchSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Auto-dispatch solve time on a synthetic market spread over central Dhaka:
+ * greedy alone and greedy plus auction refinement. No database is involved;
+ * the problem is rebuilt from a fixed seed for every trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatchSolverBenchmark {
+
+    @Param({"100", "1000"})
+    public int jobs;
+
+    @Param({"100", "1000"})
+    public int couriers;
+
+    private DispatchSolver solver;
+    private DispatchSolver.Problem problem;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42L);
+        solver = new DispatchSolver();
+        problem = new DispatchSolver.Problem(12 * 60);
+
+        for (int i = 0; i < jobs; i++) {
+            int windowStart = random.nextInt(20 * 60);
+            problem.addJob(i, 1_000_000 + i,
+                    23.70 + random.nextDouble() * 0.20, 90.33 + random.nextDouble() * 0.15,
+                    20 + random.nextInt(81), windowStart, windowStart + 60 + random.nextInt(121));
+        }
+        for (int j = 0; j < couriers; j++) {
+            problem.addCourier(j, 23.70 + random.nextDouble() * 0.20, 90.33 + random.nextDouble() * 0.15);
+        }
+    }
+
+    @Benchmark
+    public DispatchSolver.Solution greedy() {
+        return solver.solve(problem, false, 0);
+    }
+
+    @Benchmark
+    public DispatchSolver.Solution greedyWithAuction() {
+        return solver.solve(problem, true, TimeUnit.SECONDS.toNanos(10));
+    }
+}
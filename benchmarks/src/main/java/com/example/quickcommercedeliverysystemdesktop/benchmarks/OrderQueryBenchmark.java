@@ -0,0 +1,36 @@
+package com.example.quickcommercedeliverysystemdesktop.benchmarks;
+
+import com.example.quickcommercedeliverysystemdesktop.database.OrderDAO;
+import com.example.quickcommercedeliverysystemdesktop.models.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admin "all orders" load. Measured single-shot because one call walks the
+ * whole table (plus the per-row user, delivery and rating lookups).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class OrderQueryBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int orders;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Path dataset = BenchmarkDataset.ensure(orders);
+        BenchmarkDataset.useDatabase(dataset);
+    }
+
+    @Benchmark
+    public List<Order> getAllOrders() {
+        return OrderDAO.getAllOrders();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.quickcommercedeliverysystemdesktop.benchmarks;
+
+import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO;
+import com.example.quickcommercedeliverysystemdesktop.database.NotificationDAO;
+import com.example.quickcommercedeliverysystemdesktop.models.Notification;
+import com.example.quickcommercedeliverysystemdesktop.models.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user screens: a partner's earnings history, a customer's notification list
+ * and the 50 pending orders nearest to a partner in central Dhaka.
+ * Per-user queries run for the busiest user in the dataset, the worst case a real user sees.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PartnerQueryBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int orders;
+
+    private int partnerId;
+    private int customerId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Path dataset = BenchmarkDataset.ensure(orders);
+        BenchmarkDataset.useDatabase(dataset);
+        partnerId = BenchmarkDataset.busiestUser(dataset, "Earnings", "delivery_person_id");
+        customerId = BenchmarkDataset.busiestUser(dataset, "Notifications", "user_id");
+    }
+
+    @Benchmark
+    public List<DeliveryDAO.EarningRecord> getEarningsHistory() {
+        return DeliveryDAO.getEarningsHistory(partnerId);
+    }
+
+    @Benchmark
+    public List<Notification> getNotificationsByUser() {
+        return NotificationDAO.getNotificationsByUser(customerId);
+    }
+
+    @Benchmark
+    public List<Order> getNearestAvailableOrders() {
+        // Farmgate, roughly the middle of the generated areas
+        return DeliveryDAO.getNearestAvailableOrders(23.7561, 90.3872, 50);
+    }
+}
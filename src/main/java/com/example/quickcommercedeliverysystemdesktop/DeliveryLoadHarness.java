@@ -0,0 +1,350 @@
+package com.example.quickcommercedeliverysystemdesktop;
+
+import com.example.quickcommercedeliverysystemdesktop.database.Database;
+import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO;
+import com.example.quickcommercedeliverysystemdesktop.database.OrderDAO;
+import com.example.quickcommercedeliverysystemdesktop.metrics.DaoMetric;
+import com.example.quickcommercedeliverysystemdesktop.metrics.LatencyHistogram;
+import com.example.quickcommercedeliverysystemdesktop.metrics.MetricsRegistry;
+import com.example.quickcommercedeliverysystemdesktop.models.Money;
+import com.example.quickcommercedeliverysystemdesktop.models.Order;
+import com.example.quickcommercedeliverysystemdesktop.models.Order.OrderStatus;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivery Load Harness
+ * Runs many customers and delivery partners against the real DAOs at once,
+ * each on its own virtual thread, and reports throughput, lock contention,
+ * lifecycle violations and latency percentiles.
+ *
+ * Customers place orders (and sometimes cancel one that is still pending,
+ * with the same status guard the app uses). Partners poll the
+ * available list, race for one of the newest few orders, and carry every won
+ * order through pick-up, on-the-way and delivery.
+ *
+ * Usage (all options are optional):
+ *   java ... DeliveryLoadHarness --db=database/loadtest.db --partners=200 --customers=50
+ *        --orders-per-customer=20 --race-width=5 --cancel-rate=0.05 --think-ms=20
+ *        --duration=120 --export=loadtest-metrics.csv
+ *
+ * The target database is recreated on every run. Exits with status 1 if any
+ * lifecycle violation is found and 2 if the options cannot be parsed.
+ */
+public class DeliveryLoadHarness {
+
+    private static final String[] PRODUCTS = {"Groceries", "Medicine", "Documents", "Bakery Items", "Flowers"};
+    private static final String[] AREAS = {"Dhanmondi", "Gulshan", "Banani", "Mirpur", "Uttara", "Motijheel"};
+
+    private String dbPath = "database/loadtest.db";
+    private int partners = 200;
+    private int customers = 50;
+    private int ordersPerCustomer = 20;
+    private int raceWidth = 5;
+    private double cancelRate = 0.05;
+    private int thinkMs = 20;
+    private int durationSeconds = 120;
+    private String exportPath;
+
+    // Outcome counters
+    private final LongAdder ordersCreated = new LongAdder();
+    private final LongAdder ordersCancelled = new LongAdder();
+    private final LongAdder cancelsRejected = new LongAdder();
+    private final LongAdder acceptsWon = new LongAdder();
+    private final LongAdder acceptsLost = new LongAdder();
+    private final LongAdder pickUpFailures = new LongAdder();
+    private final LongAdder completeFailures = new LongAdder();
+    private final LongAdder deliveriesCompleted = new LongAdder();
+    private final LongAdder harnessDoubleAccepts = new LongAdder();
+    private final ConcurrentHashMap<Integer, Integer> acceptedBy = new ConcurrentHashMap<>();
+    private final LatencyHistogram lifecycleLatency = new LatencyHistogram();
+    private final AtomicInteger customersRunning = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== Quick Commerce Delivery Load Harness ===\n");
+
+        DeliveryLoadHarness harness = new DeliveryLoadHarness();
+        try {
+            harness.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        int violations = harness.run();
+        System.exit(violations == 0 ? 0 : 1);
+    }
+
+    private void parse(String[] args) {
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --option=value, got " + arg);
+            }
+            String key = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            try {
+                switch (key) {
+                    case "db" -> dbPath = value;
+                    case "partners" -> partners = Integer.parseInt(value);
+                    case "customers" -> customers = Integer.parseInt(value);
+                    case "orders-per-customer" -> ordersPerCustomer = Integer.parseInt(value);
+                    case "race-width" -> raceWidth = Integer.parseInt(value);
+                    case "cancel-rate" -> cancelRate = Double.parseDouble(value);
+                    case "think-ms" -> thinkMs = Integer.parseInt(value);
+                    case "duration" -> durationSeconds = Integer.parseInt(value);
+                    case "export" -> exportPath = value;
+                    default -> throw new IllegalArgumentException("Unknown option: --" + key);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for --" + key + ": " + value);
+            }
+        }
+        if (partners < 1 || customers < 1 || ordersPerCustomer < 1 || raceWidth < 1 || durationSeconds < 1) {
+            throw new IllegalArgumentException("Counts and duration must be at least 1");
+        }
+    }
+
+    private int run() throws Exception {
+        // Fresh database with users only; every order is created under load
+        SyntheticDataGenerator.generate(new SyntheticDataGenerator.Config()
+                .dbPath(dbPath)
+                .overwrite(true)
+                .orders(0)
+                .customers(customers)
+                .partners(partners)
+                .admins(1)
+                .notifications(SyntheticDataGenerator.NotificationLevel.CUSTOMER));
+        System.setProperty(Database.PATH_PROPERTY, dbPath);
+
+        List<Integer> customerIds = userIds("customer%");
+        List<Integer> partnerIds = userIds("partner%");
+
+        System.out.printf("Running %d partners and %d customers (%d orders each) for up to %d s...%n",
+                partnerIds.size(), customerIds.size(), ordersPerCustomer, durationSeconds);
+
+        MetricsRegistry.reset();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        CountDownLatch startGate = new CountDownLatch(1);
+        customersRunning.set(customerIds.size());
+
+        long start;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int customerId : customerIds) {
+                executor.submit(() -> runCustomer(customerId, startGate, deadline));
+            }
+            for (int partnerId : partnerIds) {
+                executor.submit(() -> runPartner(partnerId, startGate, deadline));
+            }
+            start = System.nanoTime();
+            startGate.countDown();
+        } // close() waits for every thread
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int violations = report(seconds);
+
+        if (exportPath != null) {
+            MetricsRegistry.exportSnapshot(new File(exportPath));
+            System.out.println("\nMetrics exported to " + exportPath);
+        }
+        return violations;
+    }
+
+    private void runCustomer(int customerId, CountDownLatch startGate, long deadline) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            startGate.await();
+            for (int i = 0; i < ordersPerCustomer && System.nanoTime() < deadline; i++) {
+                int from = 9 + random.nextInt(10);
+                Order order = new Order(customerId,
+                        PRODUCTS[random.nextInt(PRODUCTS.length)],
+                        "Load test order",
+                        AREAS[random.nextInt(AREAS.length)],
+                        String.format("%02d:00 - %02d:00", from, from + 2),
+                        Money.ofMinor((20 + random.nextInt(130)) * 100L),
+                        null, "", "");
+                if (OrderDAO.createOrder(order)) {
+                    ordersCreated.increment();
+                }
+
+                if (random.nextDouble() < cancelRate) {
+                    cancelOnePending(customerId);
+                }
+                think(random);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            customersRunning.decrementAndGet();
+        }
+    }
+
+    private void cancelOnePending(int customerId) {
+        for (Order order : OrderDAO.getOrdersByUser(customerId)) {
+            if (order.getStatus() == OrderStatus.PENDING) {
+                // Guarded, so a partner who accepted in the meantime wins
+                if (OrderDAO.cancelIfPending(order.getOrderId())) {
+                    ordersCancelled.increment();
+                } else {
+                    cancelsRejected.increment();
+                }
+                return;
+            }
+        }
+    }
+
+    private void runPartner(int partnerId, CountDownLatch startGate, long deadline) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            startGate.await();
+            while (System.nanoTime() < deadline) {
+                List<Order> available = DeliveryDAO.getAvailableOrders();
+                if (available.isEmpty()) {
+                    if (customersRunning.get() == 0) {
+                        return;
+                    }
+                    think(random);
+                    continue;
+                }
+
+                // Everyone aims at the newest few orders, which is where real contention happens
+                Order target = available.get(random.nextInt(Math.min(raceWidth, available.size())));
+                int orderId = target.getOrderId();
+
+                if (!DeliveryDAO.acceptOrder(orderId, partnerId)) {
+                    acceptsLost.increment();
+                    continue;
+                }
+                acceptsWon.increment();
+                Integer previous = acceptedBy.putIfAbsent(orderId, partnerId);
+                if (previous != null) {
+                    harnessDoubleAccepts.increment();
+                }
+
+                if (!DeliveryDAO.markAsPickedUp(orderId, partnerId)) {
+                    pickUpFailures.increment();
+                    continue;
+                }
+                DeliveryDAO.markAsOnTheWay(orderId);
+                if (DeliveryDAO.completeDelivery(orderId, partnerId, target.getDeliveryFee())) {
+                    deliveriesCompleted.increment();
+                    lifecycleLatency.record(Duration.between(target.getOrderDate(), LocalDateTime.now()).toNanos() / 1_000);
+                } else {
+                    completeFailures.increment();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void think(ThreadLocalRandom random) throws InterruptedException {
+        if (thinkMs > 0) {
+            Thread.sleep(random.nextInt(thinkMs + 1));
+        }
+    }
+
+    /**
+     * Print the run summary and return the number of violations found
+     */
+    private int report(double seconds) throws Exception {
+        List<DaoMetric.Snapshot> metrics = MetricsRegistry.snapshotAll();
+        long calls = 0;
+        long errors = 0;
+        long busy = 0;
+        for (DaoMetric.Snapshot s : metrics) {
+            calls += s.getCalls();
+            errors += s.getErrors();
+            busy += s.getBusyErrors();
+        }
+
+        long dbDoubleAccepts = count("SELECT COUNT(*) FROM (SELECT order_id FROM Deliveries GROUP BY order_id HAVING COUNT(*) > 1)");
+        long duplicateEarnings = count("SELECT COUNT(*) FROM (SELECT order_id FROM Earnings GROUP BY order_id HAVING COUNT(*) > 1)");
+        long cancelledAfterAccept = count("SELECT COUNT(*) FROM orders o WHERE o.status = 'CANCELLED' " +
+                "AND EXISTS (SELECT 1 FROM Deliveries d WHERE d.order_id = o.order_id)");
+        long deliveredWithoutEarning = count("SELECT COUNT(*) FROM orders o WHERE o.status = 'DELIVERED' " +
+                "AND NOT EXISTS (SELECT 1 FROM Earnings e WHERE e.order_id = o.order_id)");
+
+        System.out.println("\n═══════════════════════════════════");
+        System.out.println("Load Harness Report");
+        System.out.println("═══════════════════════════════════");
+        System.out.printf("  Elapsed:              %.1f s%n", seconds);
+        System.out.printf("  Orders created:       %,d%n", ordersCreated.sum());
+        System.out.printf("  Orders cancelled:     %,d%n", ordersCancelled.sum());
+        System.out.printf("  Cancels rejected:     %,d%n", cancelsRejected.sum());
+        System.out.printf("  Accepts won / lost:   %,d / %,d%n", acceptsWon.sum(), acceptsLost.sum());
+        System.out.printf("  Pick-up failures:     %,d%n", pickUpFailures.sum());
+        System.out.printf("  Complete failures:    %,d%n", completeFailures.sum());
+        System.out.printf("  Deliveries completed: %,d%n", deliveriesCompleted.sum());
+        System.out.println();
+        System.out.printf("  Throughput:           %.1f deliveries/s, %.1f DAO calls/s%n",
+                deliveriesCompleted.sum() / seconds, calls / seconds);
+        System.out.printf("  DAO errors:           %,d of %,d calls%n", errors, calls);
+        System.out.printf("  SQLITE_BUSY rate:     %,d (%.3f%%)%n", busy, calls == 0 ? 0.0 : busy * 100.0 / calls);
+
+        System.out.println("\n  Violations");
+        System.out.printf("    Double accepts (harness):       %,d%n", harnessDoubleAccepts.sum());
+        System.out.printf("    Double accepts (Deliveries):    %,d%n", dbDoubleAccepts);
+        System.out.printf("    Duplicate earnings:             %,d%n", duplicateEarnings);
+        System.out.printf("    Cancelled after accept:         %,d%n", cancelledAfterAccept);
+        System.out.printf("    Delivered without earning:      %,d%n", deliveredWithoutEarning);
+
+        System.out.println("\n  Latency (ms)");
+        System.out.printf("    %-40s %9s %8s %8s %8s %8s%n", "Operation", "Calls", "p50", "p95", "p99", "Max");
+        for (DaoMetric.Snapshot s : metrics) {
+            System.out.printf("    %-40s %,9d %8.2f %8.2f %8.2f %8.2f%n",
+                    s.getName(), s.getCalls(),
+                    s.getP50Micros() / 1_000.0, s.getP95Micros() / 1_000.0,
+                    s.getP99Micros() / 1_000.0, s.getMaxMicros() / 1_000.0);
+        }
+
+        LatencyHistogram.Snapshot lifecycle = lifecycleLatency.snapshot();
+        if (lifecycle.getTotal() > 0) {
+            System.out.printf("    %-40s %,9d %8.2f %8.2f %8.2f%n", "Order created -> delivered",
+                    lifecycle.getTotal(),
+                    lifecycle.percentile(50) / 1_000.0, lifecycle.percentile(95) / 1_000.0,
+                    lifecycle.percentile(99) / 1_000.0);
+        }
+
+        long violations = harnessDoubleAccepts.sum() + dbDoubleAccepts + duplicateEarnings
+                + cancelledAfterAccept + deliveredWithoutEarning;
+        System.out.println(violations == 0 ? "\n✅ No lifecycle violations" : "\n❌ " + violations + " lifecycle violation(s)");
+        return (int) Math.min(Integer.MAX_VALUE, violations);
+    }
+
+    private List<Integer> userIds(String emailPattern) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT user_id FROM users WHERE email LIKE '" + emailPattern + "' ORDER BY user_id")) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    private long count(String sql) throws Exception {
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
@@ -2,6 +2,15 @@ package com.example.quickcommercedeliverysystemdesktop;
 
 import com.example.quickcommercedeliverysystemdesktop.database.Database;
 import com.example.quickcommercedeliverysystemdesktop.database.DatabaseInitializer;
+import com.example.quickcommercedeliverysystemdesktop.services.AutoDispatchService;
+import com.example.quickcommercedeliverysystemdesktop.services.BackgroundScheduler;
+import com.example.quickcommercedeliverysystemdesktop.services.BackupService;
+import com.example.quickcommercedeliverysystemdesktop.services.DeliveryTimeSketcher;
+import com.example.quickcommercedeliverysystemdesktop.services.MaintenanceScheduler;
+import com.example.quickcommercedeliverysystemdesktop.services.NotificationRetentionJob;
+import com.example.quickcommercedeliverysystemdesktop.services.OrderArchiver;
+import com.example.quickcommercedeliverysystemdesktop.services.SlaMonitor;
+import com.example.quickcommercedeliverysystemdesktop.services.StatsRollupJob;
 import com.example.quickcommercedeliverysystemdesktop.utils.ErrorHandler;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
@@ -18,13 +27,13 @@ public class Main extends Application {
     public void start(Stage primaryStage) {
         try {
             // Initialize DB (creates tables if missing)
-            System.out.println("Initializing database...");
+            ErrorHandler.logInfo("Initializing database...");
             DatabaseInitializer.initialize();
 
             // Test DB connection
             try (Connection c = Database.getConnection()) {
                 if (c != null) {
-                    System.out.println("✓ Database connected successfully.");
+                    ErrorHandler.logInfo("Database connected successfully.");
                 } else {
                     throw new RuntimeException("Database connection returned null");
                 }
@@ -36,7 +45,7 @@ public class Main extends Application {
             }
 
             // Load main login screen
-            System.out.println("Loading application UI...");
+            ErrorHandler.logInfo("Loading application UI...");
             Parent root = FXMLLoader.load(
                 getClass().getResource("/com/example/quickcommercedeliverysystemdesktop/views/auth/Login.fxml")
             );
@@ -73,7 +82,22 @@ public class Main extends Application {
 
             primaryStage.show();
 
-            System.out.println("✓ Application started successfully!");
+            // Background assignment of pending orders to opted-in partners
+            AutoDispatchService.start();
+
+            // Stale and late order alerts
+            SlaMonitor.start();
+
+            // Trend chart rollups and delivery-time percentiles
+            StatsRollupJob.start();
+            DeliveryTimeSketcher.start();
+
+            // Housekeeping: order archive, notification retention, database maintenance, backups
+            OrderArchiver.start();
+            NotificationRetentionJob.start();
+            MaintenanceScheduler.start();
+            BackupService.start();
+
             ErrorHandler.logInfo("Quick Commerce Delivery System started");
 
         } catch (Exception ex) {
@@ -87,6 +111,19 @@ public class Main extends Application {
         }
     }
 
+    @Override
+    public void stop() {
+        AutoDispatchService.stop();
+        SlaMonitor.stop();
+        OrderArchiver.stop();
+        NotificationRetentionJob.stop();
+        MaintenanceScheduler.stop();
+        StatsRollupJob.stop();
+        DeliveryTimeSketcher.stop();
+        BackupService.stop();
+        BackgroundScheduler.shutdown();
+    }
+
     /**
      * Show startup error dialog
      */
@@ -0,0 +1,657 @@
+package com.example.quickcommercedeliverysystemdesktop;
+
+import com.example.quickcommercedeliverysystemdesktop.database.Database;
+import com.example.quickcommercedeliverysystemdesktop.database.DatabaseInitializer;
+import com.example.quickcommercedeliverysystemdesktop.models.Money;
+import com.example.quickcommercedeliverysystemdesktop.models.Order.OrderStatus;
+import com.example.quickcommercedeliverysystemdesktop.models.TimeWindow;
+import com.example.quickcommercedeliverysystemdesktop.utils.PasswordUtil;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic Data Generator
+ * Builds a realistic, reproducible database for scale testing and benchmarks.
+ *
+ * Usage (all options are optional):
+ *   java ... SyntheticDataGenerator --db=database/synthetic.db --orders=1000000 --seed=42
+ *        --customers=50000 --partners=5000 --admins=2 --days=365 --end=2025-01-01
+ *        --status-mix=PENDING:10,ACCEPTED:5,PICKED_UP:3,ON_THE_WAY:2,DELIVERED:70,CANCELLED:10
+ *        --rating-rate=0.5 --star-mix=3,4,10,33,50 --fee-min=20 --fee-max=150
+ *        --partner-skew=1.0 --customer-skew=0.8 --read-rate=0.8
+ *        --notifications=full|customer|none --overwrite
+ *
+ * The same seed and end date always produce the same rows. Every synthetic
+ * user can log in with the password "password123".
+ */
+public class SyntheticDataGenerator {
+
+    public static final String DEFAULT_PASSWORD = "password123";
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private static final String[] PRODUCTS = {
+            "Groceries", "Medicine", "Electronics", "Documents", "Flowers", "Bakery Items",
+            "Stationery", "Clothing", "Books", "Baby Care", "Pet Food", "Cosmetics"
+    };
+
+    private static final String[] AREAS = {
+            "Dhanmondi", "Gulshan", "Banani", "Mirpur", "Uttara", "Mohammadpur", "Motijheel",
+            "Bashundhara", "Farmgate", "Tejgaon", "Badda", "Rampura", "Khilgaon", "Old Dhaka"
+    };
+
+    private static final String[] FIRST_NAMES = {
+            "Rahim", "Karim", "Fatima", "Ayesha", "Tanvir", "Nusrat", "Sabbir", "Farhana",
+            "Imran", "Sadia", "Arif", "Mitu", "Rakib", "Tania", "Hasan", "Jannat"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Ahmed", "Hossain", "Islam", "Rahman", "Khan", "Chowdhury", "Akter", "Uddin", "Sarkar", "Das"
+    };
+
+    private static final String[] COMMENTS = {
+            "Great service!", "Fast delivery", "On time", "Friendly partner", "Package was fine",
+            "A bit late", "Could be better", null
+    };
+
+    /** Orders per hour of day, loosely shaped like lunch and evening peaks */
+    private static final int[] HOUR_WEIGHTS = {
+            1, 1, 1, 1, 1, 2, 3, 5, 7, 8, 9, 11, 13, 12, 9, 8, 9, 11, 14, 15, 13, 9, 5, 2
+    };
+
+    public static void main(String[] args) {
+        System.out.println("=== Quick Commerce Synthetic Data Generator ===\n");
+
+        Config config;
+        try {
+            config = Config.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            return;
+        }
+
+        try {
+            Summary summary = generate(config);
+            System.out.println("\n✅ Generated " + config.dbPath + " in " + summary.getSeconds() + " s");
+            System.out.println(summary);
+        } catch (Exception e) {
+            System.err.println("❌ Generation failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Generate a fresh database as described by the config
+     */
+    public static Summary generate(Config config) throws SQLException {
+        config.resolve();
+        File file = new File(config.dbPath);
+        if (file.exists()) {
+            if (!config.overwrite) {
+                throw new SQLException(config.dbPath + " already exists (use --overwrite to replace it)");
+            }
+            file.delete();
+        }
+
+        long start = System.nanoTime();
+
+        // Create the schema through the app's own initializer
+        String previousPath = System.getProperty(Database.PATH_PROPERTY);
+        System.setProperty(Database.PATH_PROPERTY, config.dbPath);
+        try {
+            DatabaseInitializer.initialize();
+        } finally {
+            if (previousPath != null) {
+                System.setProperty(Database.PATH_PROPERTY, previousPath);
+            } else {
+                System.clearProperty(Database.PATH_PROPERTY);
+            }
+        }
+
+        Summary summary = new Summary();
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + config.dbPath)) {
+            try (Statement stmt = conn.createStatement()) {
+                // Bulk-load settings: the file is thrown away if the load fails
+                stmt.execute("PRAGMA journal_mode = OFF");
+                stmt.execute("PRAGMA synchronous = OFF");
+                stmt.execute("PRAGMA cache_size = -262144");
+                stmt.execute("PRAGMA temp_store = MEMORY");
+                stmt.execute("PRAGMA locking_mode = EXCLUSIVE");
+            }
+            conn.setAutoCommit(false);
+
+            new Loader(config, conn, summary).run();
+
+            conn.commit();
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA journal_mode = DELETE");
+                stmt.execute("ANALYZE");
+            }
+        }
+
+        summary.nanos = System.nanoTime() - start;
+        return summary;
+    }
+
+    /**
+     * Does the actual inserts; one instance per run
+     */
+    private static class Loader {
+        private final Config config;
+        private final Connection conn;
+        private final Summary summary;
+        private final SplittableRandom random;
+        private final LocalDateTime spanStart;
+        private final double[] customerWeights;
+        private final double[] partnerWeights;
+        private final OrderStatus[] statuses;
+        private final double[] statusWeights;
+        private final String passwordHash = PasswordUtil.hash(DEFAULT_PASSWORD);
+        private final double[][] areaCoordinates = new double[AREAS.length][];
+
+        private int firstAdminId;
+        private int firstCustomerId;
+        private int firstPartnerId;
+
+        private PreparedStatement orders;
+        private PreparedStatement deliveries;
+        private PreparedStatement earnings;
+        private PreparedStatement ratings;
+        private PreparedStatement notifications;
+        private int pendingRows;
+
+        Loader(Config config, Connection conn, Summary summary) {
+            this.config = config;
+            this.conn = conn;
+            this.summary = summary;
+            this.random = new SplittableRandom(config.seed);
+            LocalDateTime end = config.endDate.atStartOfDay();
+            this.spanStart = end.minusDays(config.days);
+            this.customerWeights = zipfCumulative(config.customers, config.customerSkew);
+            this.partnerWeights = zipfCumulative(config.partners, config.partnerSkew);
+            this.statuses = config.statusMix.keySet().toArray(new OrderStatus[0]);
+            this.statusWeights = cumulative(config.statusMix.values().stream().mapToDouble(Integer::doubleValue).toArray());
+        }
+
+        void run() throws SQLException {
+            loadAreaCoordinates();
+            insertUsers();
+
+            try (PreparedStatement o = conn.prepareStatement(
+                    "INSERT INTO orders (order_id, customer_id, product_name, description, photo, delivery_location, " +
+                    "time_from, time_to, fee_minor, status, created_at, latitude, longitude, window_start, window_end) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+                 PreparedStatement d = conn.prepareStatement(
+                    "INSERT INTO Deliveries (order_id, delivery_person_id, status, pickup_time, delivered_time, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)");
+                 PreparedStatement e = conn.prepareStatement(
+                    "INSERT INTO Earnings (delivery_person_id, order_id, amount_minor, created_at) VALUES (?, ?, ?, ?)");
+                 PreparedStatement r = conn.prepareStatement(
+                    "INSERT INTO Ratings (order_id, customer_id, delivery_person_id, rating, comment, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)");
+                 PreparedStatement n = conn.prepareStatement(
+                    "INSERT INTO Notifications (user_id, title, message, type, order_id, is_read, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                orders = o;
+                deliveries = d;
+                earnings = e;
+                ratings = r;
+                notifications = n;
+
+                for (int orderId = 1; orderId <= config.orders; orderId++) {
+                    insertOrder(orderId);
+
+                    if (pendingRows >= BATCH_SIZE) {
+                        flush();
+                    }
+                    if (orderId % config.ordersPerTransaction == 0) {
+                        flush();
+                        conn.commit();
+                        System.out.printf("  %,d / %,d orders%n", orderId, config.orders);
+                    }
+                }
+                flush();
+            }
+        }
+
+        private void insertUsers() throws SQLException {
+            String sql = "INSERT INTO users (user_id, name, email, phone, password, default_address, profile_image, " +
+                         "is_admin, is_banned, created_at, latitude, longitude) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                int userId = 0;
+
+                firstAdminId = userId + 1;
+                for (int i = 0; i < config.admins; i++) {
+                    addUser(ps, ++userId, "admin" + (i + 1), true);
+                }
+                firstCustomerId = userId + 1;
+                for (int i = 0; i < config.customers; i++) {
+                    addUser(ps, ++userId, "customer" + (i + 1), false);
+                    if (userId % BATCH_SIZE == 0) ps.executeBatch();
+                }
+                firstPartnerId = userId + 1;
+                for (int i = 0; i < config.partners; i++) {
+                    addUser(ps, ++userId, "partner" + (i + 1), false);
+                    if (userId % BATCH_SIZE == 0) ps.executeBatch();
+                }
+                ps.executeBatch();
+                summary.users = userId;
+            }
+        }
+
+        private void addUser(PreparedStatement ps, int userId, String handle, boolean admin) throws SQLException {
+            ps.setInt(1, userId);
+            ps.setString(2, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+            ps.setString(3, handle + "@example.test");
+            ps.setString(4, String.format("017%08d", random.nextInt(100_000_000)));
+            ps.setString(5, passwordHash);
+            int area = random.nextInt(AREAS.length);
+            ps.setString(6, AREAS[area] + ", Dhaka");
+            ps.setString(7, "");
+            ps.setInt(8, admin ? 1 : 0);
+            ps.setInt(9, !admin && random.nextInt(500) == 0 ? 1 : 0);
+            ps.setString(10, timestamp(spanStart.minusDays(random.nextInt(365))));
+            setCoordinates(ps, 11, area);
+            ps.addBatch();
+        }
+
+        private void insertOrder(int orderId) throws SQLException {
+            int customerId = firstCustomerId + pick(customerWeights);
+            int partnerId = firstPartnerId + pick(partnerWeights);
+            OrderStatus status = statuses[pick(statusWeights)];
+            LocalDateTime createdAt = randomOrderTime();
+            String product = PRODUCTS[random.nextInt(PRODUCTS.length)];
+            int area = random.nextInt(AREAS.length);
+            String location = "House " + (1 + random.nextInt(120)) + ", Road " + (1 + random.nextInt(30)) + ", " + AREAS[area];
+            long feeMinor = Math.round((config.feeMin + random.nextDouble() * (config.feeMax - config.feeMin)) * 100);
+            int windowStart = Math.min(createdAt.getHour() + 1, 21) * 60;
+            int windowEnd = windowStart + (1 + random.nextInt(2)) * 60;
+
+            orders.setInt(1, orderId);
+            orders.setInt(2, customerId);
+            orders.setString(3, product);
+            orders.setString(4, "Synthetic order " + orderId);
+            orders.setString(5, "");
+            orders.setString(6, location);
+            orders.setString(7, TimeWindow.formatMinuteOfDay(windowStart));
+            orders.setString(8, TimeWindow.formatMinuteOfDay(windowEnd));
+            orders.setLong(9, feeMinor);
+            orders.setString(10, status.name());
+            orders.setString(11, timestamp(createdAt));
+            setCoordinates(orders, 12, area);
+            orders.setInt(14, windowStart);
+            orders.setInt(15, windowEnd);
+            orders.addBatch();
+            pendingRows++;
+            summary.count(status);
+
+            notifyUser(customerId, "Order Created",
+                    "Your order for '" + product + "' has been created and is waiting for a delivery partner.",
+                    "ORDER_UPDATE", orderId, createdAt);
+            if (config.notifications == NotificationLevel.FULL) {
+                for (int adminId = firstAdminId; adminId < firstAdminId + config.admins; adminId++) {
+                    notifyUser(adminId, "New Order in System",
+                            "Order #" + orderId + " created: " + product + " - " + location,
+                            "INFO", orderId, createdAt);
+                }
+            }
+
+            if (status == OrderStatus.PENDING || status == OrderStatus.CANCELLED) {
+                return;
+            }
+
+            // Lifecycle timestamps for everything that was accepted
+            LocalDateTime acceptedAt = createdAt.plusMinutes(1 + random.nextInt(30));
+            LocalDateTime pickedUpAt = acceptedAt.plusMinutes(5 + random.nextInt(25));
+            LocalDateTime onTheWayAt = pickedUpAt.plusMinutes(1 + random.nextInt(5));
+            LocalDateTime deliveredAt = onTheWayAt.plusMinutes(10 + random.nextInt(50));
+            boolean pickedUp = status != OrderStatus.ACCEPTED;
+            boolean delivered = status == OrderStatus.DELIVERED;
+
+            deliveries.setInt(1, orderId);
+            deliveries.setInt(2, partnerId);
+            deliveries.setString(3, delivered ? "Delivered" : pickedUp ? "Picked Up" : "Accepted");
+            deliveries.setObject(4, pickedUp ? epochMillis(pickedUpAt) : null);
+            deliveries.setObject(5, delivered ? epochMillis(deliveredAt) : null);
+            deliveries.setLong(6, epochMillis(acceptedAt));
+            deliveries.addBatch();
+            pendingRows++;
+            summary.deliveries++;
+
+            notifyUser(customerId, "Order Accepted",
+                    "A delivery partner has accepted your order #" + orderId, "ORDER_UPDATE", orderId, acceptedAt);
+            if (pickedUp) {
+                notifyUser(customerId, "Order Picked Up",
+                        "Your order #" + orderId + " has been picked up by the delivery partner",
+                        "ORDER_UPDATE", orderId, pickedUpAt);
+            }
+            if (status == OrderStatus.ON_THE_WAY || delivered) {
+                notifyUser(customerId, "Order On The Way",
+                        "Your order #" + orderId + " is on the way to your location!",
+                        "ORDER_UPDATE", orderId, onTheWayAt);
+            }
+            if (!delivered) {
+                return;
+            }
+
+            earnings.setInt(1, partnerId);
+            earnings.setInt(2, orderId);
+            earnings.setLong(3, feeMinor);
+            earnings.setLong(4, epochMillis(deliveredAt));
+            earnings.addBatch();
+            pendingRows++;
+            summary.earnings++;
+
+            notifyUser(customerId, "Order Delivered",
+                    "Your order #" + orderId + " has been successfully delivered!", "SUCCESS", orderId, deliveredAt);
+            if (config.notifications != NotificationLevel.NONE) {
+                notifyUser(partnerId, "Delivery Completed",
+                        "You earned " + Money.format(feeMinor) + " from order #" + orderId, "EARNING", orderId, deliveredAt);
+            }
+
+            if (random.nextDouble() < config.ratingRate) {
+                ratings.setInt(1, orderId);
+                ratings.setInt(2, customerId);
+                ratings.setInt(3, partnerId);
+                ratings.setInt(4, 1 + pick(config.starWeights));
+                ratings.setString(5, COMMENTS[random.nextInt(COMMENTS.length)]);
+                ratings.setLong(6, epochMillis(deliveredAt.plusMinutes(5 + random.nextInt(24 * 60))));
+                ratings.addBatch();
+                pendingRows++;
+                summary.ratings++;
+            }
+        }
+
+        private void notifyUser(int userId, String title, String message, String type,
+                                int orderId, LocalDateTime createdAt) throws SQLException {
+            if (config.notifications == NotificationLevel.NONE) {
+                return;
+            }
+            notifications.setInt(1, userId);
+            notifications.setString(2, title);
+            notifications.setString(3, message);
+            notifications.setString(4, type);
+            notifications.setInt(5, orderId);
+            notifications.setInt(6, random.nextDouble() < config.readRate ? 1 : 0);
+            notifications.setLong(7, epochMillis(createdAt));
+            notifications.addBatch();
+            pendingRows++;
+            summary.notifications++;
+        }
+
+        /** Centroids of AREAS from the gazetteer the schema migration seeds */
+        private void loadAreaCoordinates() throws SQLException {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT latitude, longitude FROM Gazetteer WHERE name_key = ?")) {
+                for (int i = 0; i < AREAS.length; i++) {
+                    ps.setString(1, AREAS[i].toLowerCase());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) {
+                            areaCoordinates[i] = new double[] {rs.getDouble(1), rs.getDouble(2)};
+                        }
+                    }
+                }
+            }
+        }
+
+        /** Area centroid jittered by up to about a kilometre, or NULLs for an unknown area */
+        private void setCoordinates(PreparedStatement ps, int index, int area) throws SQLException {
+            double[] centre = areaCoordinates[area];
+            if (centre == null) {
+                ps.setObject(index, null);
+                ps.setObject(index + 1, null);
+                return;
+            }
+            ps.setDouble(index, centre[0] + (random.nextDouble() - 0.5) * 0.02);
+            ps.setDouble(index + 1, centre[1] + (random.nextDouble() - 0.5) * 0.02);
+        }
+
+        private void flush() throws SQLException {
+            orders.executeBatch();
+            deliveries.executeBatch();
+            earnings.executeBatch();
+            ratings.executeBatch();
+            notifications.executeBatch();
+            pendingRows = 0;
+        }
+
+        /** A uniformly random day in the span, at an hour drawn from the daily demand curve */
+        private LocalDateTime randomOrderTime() {
+            int day = random.nextInt(config.days);
+            int hour = pick(HOUR_CUMULATIVE);
+            int minute = random.nextInt(60);
+            return spanStart.plusDays(day).plusHours(hour).plusMinutes(minute).plusSeconds(random.nextInt(60));
+        }
+
+        /** Index drawn from a cumulative weight table */
+        private int pick(double[] cumulative) {
+            double target = random.nextDouble() * cumulative[cumulative.length - 1];
+            int index = Arrays.binarySearch(cumulative, target);
+            index = index >= 0 ? index + 1 : -index - 1;
+            return Math.min(index, cumulative.length - 1);
+        }
+    }
+
+    private static final double[] HOUR_CUMULATIVE = cumulative(Arrays.stream(HOUR_WEIGHTS).asDoubleStream().toArray());
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+
+    /** Popularity by rank: weight 1/rank^skew, so skew 0 is uniform and 1 is classic Zipf */
+    private static double[] zipfCumulative(int size, double skew) {
+        double[] weights = new double[size];
+        for (int i = 0; i < size; i++) {
+            weights[i] = 1.0 / Math.pow(i + 1, skew);
+        }
+        return cumulative(weights);
+    }
+
+    /** Local-time text, as OrderDAO writes Orders.created_at with Timestamp.toString() */
+    private static String timestamp(LocalDateTime dateTime) {
+        return Timestamp.valueOf(dateTime).toString();
+    }
+
+    /** Epoch milliseconds, the INTEGER form setTimestamp stores for the other tables */
+    private static long epochMillis(LocalDateTime dateTime) {
+        return Timestamp.valueOf(dateTime).getTime();
+    }
+
+    public enum NotificationLevel {
+        /** Every notification the live app would send, including admin copies */
+        FULL,
+        /** Customer and partner notifications only */
+        CUSTOMER,
+        NONE
+    }
+
+    /**
+     * Generator settings; defaults are derived from the order count
+     */
+    public static class Config {
+        private String dbPath = "database/synthetic.db";
+        private boolean overwrite;
+        private long seed = 42L;
+        private int orders = 100_000;
+        private int customers = -1;
+        private int partners = -1;
+        private int admins = 2;
+        private int days = 365;
+        private LocalDate endDate = LocalDate.now();
+        private Map<OrderStatus, Integer> statusMix = defaultStatusMix();
+        private double ratingRate = 0.5;
+        private double[] starWeights = cumulative(new double[] {3, 4, 10, 33, 50});
+        private double feeMin = 20;
+        private double feeMax = 150;
+        private double partnerSkew = 1.0;
+        private double customerSkew = 0.8;
+        private double readRate = 0.8;
+        private NotificationLevel notifications = NotificationLevel.FULL;
+        private int ordersPerTransaction = 250_000;
+
+        public static Config parse(String[] args) {
+            Config config = new Config();
+            for (String arg : args) {
+                if (!arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Unknown argument: " + arg);
+                }
+                int eq = arg.indexOf('=');
+                String key = eq > 0 ? arg.substring(2, eq) : arg.substring(2);
+                String value = eq > 0 ? arg.substring(eq + 1) : "true";
+                try {
+                    config.set(key, value);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid value for --" + key + ": " + value);
+                }
+            }
+            return config.resolve();
+        }
+
+        private void set(String key, String value) {
+            switch (key) {
+                case "db" -> dbPath = value;
+                case "overwrite" -> overwrite = Boolean.parseBoolean(value);
+                case "seed" -> seed = Long.parseLong(value);
+                case "orders" -> orders = Integer.parseInt(value);
+                case "customers" -> customers = Integer.parseInt(value);
+                case "partners" -> partners = Integer.parseInt(value);
+                case "admins" -> admins = Integer.parseInt(value);
+                case "days" -> days = Integer.parseInt(value);
+                case "end" -> endDate = LocalDate.parse(value);
+                case "status-mix" -> statusMix = parseStatusMix(value);
+                case "rating-rate" -> ratingRate = Double.parseDouble(value);
+                case "star-mix" -> starWeights = cumulative(Arrays.stream(value.split(","))
+                        .mapToDouble(s -> Double.parseDouble(s.trim())).toArray());
+                case "fee-min" -> feeMin = Double.parseDouble(value);
+                case "fee-max" -> feeMax = Double.parseDouble(value);
+                case "partner-skew" -> partnerSkew = Double.parseDouble(value);
+                case "customer-skew" -> customerSkew = Double.parseDouble(value);
+                case "read-rate" -> readRate = Double.parseDouble(value);
+                case "notifications" -> notifications = NotificationLevel.valueOf(value.toUpperCase());
+                case "txn-orders" -> ordersPerTransaction = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Unknown option: --" + key);
+            }
+        }
+
+        private Config resolve() {
+            if (customers < 0) customers = Math.max(50, orders / 20);
+            if (partners < 0) partners = Math.max(10, orders / 200);
+            if (orders < 0 || customers < 1 || partners < 1 || admins < 0 || days < 1) {
+                throw new IllegalArgumentException("Counts must be positive (orders >= 0, days >= 1)");
+            }
+            if (feeMax < feeMin) {
+                throw new IllegalArgumentException("--fee-max must not be below --fee-min");
+            }
+            if (starWeights.length != 5) {
+                throw new IllegalArgumentException("--star-mix needs five weights (1 to 5 stars)");
+            }
+            if (ordersPerTransaction < 1) {
+                throw new IllegalArgumentException("--txn-orders must be at least 1");
+            }
+            return this;
+        }
+
+        private static Map<OrderStatus, Integer> defaultStatusMix() {
+            Map<OrderStatus, Integer> mix = new EnumMap<>(OrderStatus.class);
+            mix.put(OrderStatus.PENDING, 10);
+            mix.put(OrderStatus.ACCEPTED, 5);
+            mix.put(OrderStatus.PICKED_UP, 3);
+            mix.put(OrderStatus.ON_THE_WAY, 2);
+            mix.put(OrderStatus.DELIVERED, 70);
+            mix.put(OrderStatus.CANCELLED, 10);
+            return mix;
+        }
+
+        private static Map<OrderStatus, Integer> parseStatusMix(String value) {
+            Map<OrderStatus, Integer> mix = new EnumMap<>(OrderStatus.class);
+            for (String part : value.split(",")) {
+                String[] pair = part.split(":");
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Expected STATUS:weight in --status-mix, got " + part);
+                }
+                mix.put(OrderStatus.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+            }
+            if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+                throw new IllegalArgumentException("--status-mix weights must add up to more than zero");
+            }
+            return mix;
+        }
+
+        public Config dbPath(String dbPath) { this.dbPath = dbPath; return this; }
+        public Config overwrite(boolean overwrite) { this.overwrite = overwrite; return this; }
+        public Config seed(long seed) { this.seed = seed; return this; }
+        public Config orders(int orders) { this.orders = orders; return this; }
+        public Config customers(int customers) { this.customers = customers; return this; }
+        public Config partners(int partners) { this.partners = partners; return this; }
+        public Config admins(int admins) { this.admins = admins; return this; }
+        public Config endDate(LocalDate endDate) { this.endDate = endDate; return this; }
+        public Config notifications(NotificationLevel notifications) { this.notifications = notifications; return this; }
+
+        public String getDbPath() { return dbPath; }
+        public int getOrders() { return orders; }
+        public long getSeed() { return seed; }
+    }
+
+    /**
+     * Row counts written by one run
+     */
+    public static class Summary {
+        private final Map<OrderStatus, Long> ordersByStatus = new EnumMap<>(OrderStatus.class);
+        private long users;
+        private long deliveries;
+        private long earnings;
+        private long ratings;
+        private long notifications;
+        private long nanos;
+
+        void count(OrderStatus status) {
+            ordersByStatus.merge(status, 1L, Long::sum);
+        }
+
+        public long getOrders() {
+            return ordersByStatus.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public long getTotalRows() {
+            return users + getOrders() + deliveries + earnings + ratings + notifications;
+        }
+
+        public String getSeconds() {
+            return String.format("%.1f", nanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("  Users:         %,d%n", users));
+            sb.append(String.format("  Orders:        %,d%n", getOrders()));
+            ordersByStatus.forEach((status, count) ->
+                    sb.append(String.format("    %-12s %,d%n", status.name(), count)));
+            sb.append(String.format("  Deliveries:    %,d%n", deliveries));
+            sb.append(String.format("  Earnings:      %,d%n", earnings));
+            sb.append(String.format("  Ratings:       %,d%n", ratings));
+            sb.append(String.format("  Notifications: %,d%n", notifications));
+            sb.append(String.format("  Total rows:    %,d", getTotalRows()));
+            return sb.toString();
+        }
+    }
+}
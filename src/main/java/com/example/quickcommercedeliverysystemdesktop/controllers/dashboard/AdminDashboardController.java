@@ -1,14 +1,38 @@
 package com.example.quickcommercedeliverysystemdesktop.controllers.dashboard;
 
 import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO;
+import com.example.quickcommercedeliverysystemdesktop.database.DeliveryTimeDAO;
+import com.example.quickcommercedeliverysystemdesktop.database.DeliveryTimeDAO.Leg;
+import com.example.quickcommercedeliverysystemdesktop.database.DeliveryTimeDAO.PartnerDeliveryTimes;
 import com.example.quickcommercedeliverysystemdesktop.database.OrderDAO;
 import com.example.quickcommercedeliverysystemdesktop.database.UserDAO;
+import com.example.quickcommercedeliverysystemdesktop.database.RollupDAO;
+import com.example.quickcommercedeliverysystemdesktop.models.Money;
+import com.example.quickcommercedeliverysystemdesktop.services.DeliveryTimeSketcher;
+import com.example.quickcommercedeliverysystemdesktop.services.PartnerLeaderboard;
+import com.example.quickcommercedeliverysystemdesktop.services.PartnerLeaderboard.Ranking;
+import com.example.quickcommercedeliverysystemdesktop.services.PartnerLeaderboard.Standing;
+import com.example.quickcommercedeliverysystemdesktop.services.PartnerLeaderboard.Window;
+import com.example.quickcommercedeliverysystemdesktop.services.StatsRollupJob;
+import com.example.quickcommercedeliverysystemdesktop.services.TrendSeries;
+import com.example.quickcommercedeliverysystemdesktop.services.TrendSeries.Metric;
+import com.example.quickcommercedeliverysystemdesktop.services.TrendSeries.Point;
+import com.example.quickcommercedeliverysystemdesktop.services.TrendSeries.Range;
+import com.example.quickcommercedeliverysystemdesktop.utils.ErrorHandler;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.chart.BarChart;
 import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.LineChart;
 import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.XYChart;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import java.time.LocalDate;
 
 /**
  * Admin Dashboard Controller - Day 11
@@ -39,10 +63,48 @@ public class AdminDashboardController {
     @FXML private CategoryAxis xAxis;
     @FXML private NumberAxis yAxis;
 
+    // Trend Chart
+    @FXML private LineChart<String, Number> trendChart;
+    @FXML private NumberAxis trendYAxis;
+    @FXML private ComboBox<Range> trendRangeComboBox;
+    @FXML private ComboBox<Metric> trendMetricComboBox;
+
+    // Delivery Times
+    @FXML private TableView<PartnerDeliveryTimes> deliveryTimesTable;
+    @FXML private TableColumn<PartnerDeliveryTimes, String> dtPartnerColumn;
+    @FXML private TableColumn<PartnerDeliveryTimes, String> dtDeliveriesColumn;
+    @FXML private TableColumn<PartnerDeliveryTimes, String> dtPickupP50Column;
+    @FXML private TableColumn<PartnerDeliveryTimes, String> dtPickupP90Column;
+    @FXML private TableColumn<PartnerDeliveryTimes, String> dtPickupP99Column;
+    @FXML private TableColumn<PartnerDeliveryTimes, String> dtDropoffP50Column;
+    @FXML private TableColumn<PartnerDeliveryTimes, String> dtDropoffP90Column;
+    @FXML private TableColumn<PartnerDeliveryTimes, String> dtDropoffP99Column;
+
+    private static final int DELIVERY_TIME_DAYS = 30;
+
+    // Partner Leaderboard
+    @FXML private ComboBox<Window> leaderboardWindowComboBox;
+    @FXML private ComboBox<Ranking> leaderboardRankingComboBox;
+    @FXML private TableView<Standing> leaderboardTable;
+    @FXML private TableColumn<Standing, String> lbRankColumn;
+    @FXML private TableColumn<Standing, String> lbPartnerColumn;
+    @FXML private TableColumn<Standing, String> lbDeliveriesColumn;
+    @FXML private TableColumn<Standing, String> lbEarningsColumn;
+    @FXML private TableColumn<Standing, String> lbRatingColumn;
+
+    private static final int LEADERBOARD_SIZE = 10;
+
+    /** Plot at most one point per this many pixels of chart width */
+    private static final int TREND_PIXELS_PER_POINT = 4;
+    private static final int DEFAULT_TREND_POINTS = 200;
+
     @FXML
     public void initialize() {
         loadStatistics();
         setupChart();
+        setupTrendChart();
+        setupDeliveryTimesTable();
+        setupLeaderboard();
     }
 
 
@@ -69,10 +131,10 @@ public class AdminDashboardController {
         todayDeliveriesLabel.setText("+" + todayDeliveries + " today");
 
         // Earnings Statistics (Using Taka symbol)
-        double totalEarnings = DeliveryDAO.getTotalEarnings();
-        double todayEarnings = DeliveryDAO.getTodayEarnings();
-        totalEarningsLabel.setText(String.format("৳%.2f", totalEarnings));
-        todayEarningsLabel.setText(String.format("+৳%.2f today", todayEarnings));
+        Money totalEarnings = DeliveryDAO.getTotalEarnings();
+        Money todayEarnings = DeliveryDAO.getTodayEarnings();
+        totalEarningsLabel.setText("৳" + totalEarnings.toPlainString());
+        todayEarningsLabel.setText("+৳" + todayEarnings.toPlainString() + " today");
 
         // Order Status Breakdown
         pendingOrdersLabel.setText(String.valueOf(OrderDAO.getOrderCountByStatus("PENDING")));
@@ -105,14 +167,140 @@ public class AdminDashboardController {
         statsChart.getData().add(series);
     }
 
+    /**
+     * Setup the range and metric pickers of the trend chart
+     */
+    private void setupTrendChart() {
+        trendRangeComboBox.setItems(FXCollections.observableArrayList(Range.values()));
+        trendRangeComboBox.setValue(Range.LAST_30_DAYS);
+        trendMetricComboBox.setItems(FXCollections.observableArrayList(Metric.values()));
+        trendMetricComboBox.setValue(Metric.ORDERS);
+
+        trendRangeComboBox.valueProperty().addListener((obs, oldVal, newVal) -> loadTrendChart());
+        trendMetricComboBox.valueProperty().addListener((obs, oldVal, newVal) -> loadTrendChart());
+        loadTrendChart();
+    }
+
+    /**
+     * Load the selected range and metric from the rollups
+     */
+    private void loadTrendChart() {
+        Range range = trendRangeComboBox.getValue();
+        Metric metric = trendMetricComboBox.getValue();
+        if (range == null || metric == null) {
+            return;
+        }
+
+        int width = (int) trendChart.getWidth();
+        int maxPoints = width > 0 ? width / TREND_PIXELS_PER_POINT : DEFAULT_TREND_POINTS;
+
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        series.setName(metric.toString());
+        for (Point point : TrendSeries.load(range, RollupDAO.ALL_PARTNERS, metric, maxPoints)) {
+            series.getData().add(new XYChart.Data<>(point.getLabel(), point.getValue()));
+        }
+
+        trendYAxis.setLabel(metric == Metric.EARNINGS ? "Earnings (৳)" : "Count");
+        trendChart.getData().clear();
+        trendChart.getData().add(series);
+    }
+
+    /**
+     * Setup the delivery-time percentile columns
+     */
+    private void setupDeliveryTimesTable() {
+        dtPartnerColumn.setCellValueFactory(cellData ->
+            new SimpleStringProperty(cellData.getValue().getName())
+        );
+        dtDeliveriesColumn.setCellValueFactory(cellData ->
+            new SimpleStringProperty(String.valueOf(cellData.getValue().getDeliveries()))
+        );
+        bindPercentile(dtPickupP50Column, Leg.ACCEPT_TO_PICKUP, 0);
+        bindPercentile(dtPickupP90Column, Leg.ACCEPT_TO_PICKUP, 1);
+        bindPercentile(dtPickupP99Column, Leg.ACCEPT_TO_PICKUP, 2);
+        bindPercentile(dtDropoffP50Column, Leg.PICKUP_TO_DELIVERED, 0);
+        bindPercentile(dtDropoffP90Column, Leg.PICKUP_TO_DELIVERED, 1);
+        bindPercentile(dtDropoffP99Column, Leg.PICKUP_TO_DELIVERED, 2);
+        loadDeliveryTimes();
+    }
+
+    /**
+     * Show one of the DeliveryTimeDAO.PERCENTILES of a leg in a column
+     */
+    private void bindPercentile(TableColumn<PartnerDeliveryTimes, String> column, Leg leg, int index) {
+        column.setCellValueFactory(cellData -> new SimpleStringProperty(
+            DeliveryTimeDAO.formatDuration(cellData.getValue().getPercentiles(leg)[index])
+        ));
+    }
+
+    /**
+     * Load the delivery-time percentiles of the last 30 days from the sketches
+     */
+    private void loadDeliveryTimes() {
+        LocalDate today = LocalDate.now();
+        deliveryTimesTable.setItems(FXCollections.observableArrayList(
+            DeliveryTimeDAO.getDeliveryTimes(today.minusDays(DELIVERY_TIME_DAYS - 1), today)
+        ));
+    }
+
+    /**
+     * Setup the leaderboard pickers and columns
+     */
+    private void setupLeaderboard() {
+        leaderboardWindowComboBox.setItems(FXCollections.observableArrayList(Window.values()));
+        leaderboardWindowComboBox.setValue(Window.THIS_WEEK);
+        leaderboardRankingComboBox.setItems(FXCollections.observableArrayList(Ranking.values()));
+        leaderboardRankingComboBox.setValue(Ranking.EARNINGS);
+
+        lbRankColumn.setCellValueFactory(cellData ->
+            new SimpleStringProperty("#" + cellData.getValue().getRank())
+        );
+        lbPartnerColumn.setCellValueFactory(cellData ->
+            new SimpleStringProperty(cellData.getValue().getName())
+        );
+        lbDeliveriesColumn.setCellValueFactory(cellData ->
+            new SimpleStringProperty(String.valueOf(cellData.getValue().getDeliveries()))
+        );
+        lbEarningsColumn.setCellValueFactory(cellData ->
+            new SimpleStringProperty("৳" + cellData.getValue().getEarnings().toPlainString())
+        );
+        lbRatingColumn.setCellValueFactory(cellData ->
+            new SimpleStringProperty(cellData.getValue().getFormattedRating())
+        );
+
+        leaderboardWindowComboBox.valueProperty().addListener((obs, oldVal, newVal) -> loadLeaderboard());
+        leaderboardRankingComboBox.valueProperty().addListener((obs, oldVal, newVal) -> loadLeaderboard());
+        loadLeaderboard();
+    }
+
+    /**
+     * Load the top partners for the selected window and ranking
+     */
+    private void loadLeaderboard() {
+        Window window = leaderboardWindowComboBox.getValue();
+        Ranking ranking = leaderboardRankingComboBox.getValue();
+        if (window == null || ranking == null) {
+            return;
+        }
+        leaderboardTable.setItems(FXCollections.observableArrayList(
+            PartnerLeaderboard.top(window, ranking, LEADERBOARD_SIZE)
+        ));
+    }
+
     /**
      * Refresh all data
      */
     @FXML
     private void handleRefresh() {
+        StatsRollupJob.runOnce();
+        DeliveryTimeSketcher.runOnce();
+        PartnerLeaderboard.refresh();
         loadStatistics();
         setupChart();
-        System.out.println("Admin dashboard refreshed");
+        loadTrendChart();
+        loadDeliveryTimes();
+        loadLeaderboard();
+        ErrorHandler.logInfo("Admin dashboard refreshed");
     }
 }
 
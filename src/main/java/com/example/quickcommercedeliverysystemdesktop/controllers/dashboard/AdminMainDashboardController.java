@@ -25,6 +25,7 @@ public class AdminMainDashboardController {
     @FXML private Button manageUsersBtn;
     @FXML private Button manageOrdersBtn;
     @FXML private Button manageEarningsBtn;
+    @FXML private Button diagnosticsBtn;
     @FXML private Button profileBtn;
     @FXML private Button notificationsBtn;
     @FXML private Button logoutButton;
@@ -66,6 +67,12 @@ public class AdminMainDashboardController {
         setActiveButton(manageEarningsBtn);
     }
 
+    @FXML
+    public void loadDiagnostics() {
+        loadPage("Diagnostics.fxml");
+        setActiveButton(diagnosticsBtn);
+    }
+
     @FXML
     public void loadProfile() {
         loadPage("Profile.fxml");
@@ -1,6 +1,7 @@
 package com.example.quickcommercedeliverysystemdesktop.controllers.dashboard;
 
 import com.example.quickcommercedeliverysystemdesktop.database.OrderDAO;
+import com.example.quickcommercedeliverysystemdesktop.models.Money;
 import com.example.quickcommercedeliverysystemdesktop.models.Order;
 import com.example.quickcommercedeliverysystemdesktop.utils.ErrorHandler;
 import com.example.quickcommercedeliverysystemdesktop.utils.UserSession;
@@ -162,7 +163,7 @@ public class CreateOrderController {
         Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
         confirmAlert.setTitle("Submit Orders");
         confirmAlert.setHeaderText("Submit " + validOrders.size() + " order(s)?");
-        confirmAlert.setContentText("Total Fee: ৳" + String.format("%.2f", calculateTotalFee()));
+        confirmAlert.setContentText("Total Fee: ৳" + calculateTotalFee().toPlainString());
 
         if (confirmAlert.showAndWait().get() != ButtonType.OK) {
             return;
@@ -206,20 +207,20 @@ public class CreateOrderController {
 
     private void updateSummary() {
         int count = orderCards.size();
-        double totalFee = calculateTotalFee();
+        Money totalFee = calculateTotalFee();
 
         orderCountLabel.setText(count + " Order" + (count != 1 ? "s" : ""));
         totalOrdersLabel.setText(String.valueOf(count));
-        totalFeeLabel.setText("৳" + String.format("%.2f", totalFee));
+        totalFeeLabel.setText("৳" + totalFee.toPlainString());
     }
 
-    private double calculateTotalFee() {
-        double total = 0.0;
+    private Money calculateTotalFee() {
+        Money total = Money.ZERO;
         for (OrderCard card : orderCards) {
             try {
                 String feeText = card.deliveryFeeField.getText().trim();
                 if (!feeText.isEmpty()) {
-                    total += Double.parseDouble(feeText);
+                    total = total.plus(Money.parse(feeText));
                 }
             } catch (NumberFormatException e) {
                 // Skip invalid fees
@@ -684,7 +685,7 @@ public class CreateOrderController {
                 String formattedDate = deliveryDate.format(dateFormatter);
                 String timeRange = formattedDate + " | " + timeFrom + " - " + timeTo;
 
-                double fee = Double.parseDouble(deliveryFeeField.getText().trim());
+                Money fee = Money.parse(deliveryFeeField.getText());
                 String notes = notesArea.getText().trim();
 
                 Order order = new Order(userId, productName, description, location, timeRange,
@@ -2,8 +2,16 @@ package com.example.quickcommercedeliverysystemdesktop.controllers.dashboard;
 
 import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO;
 import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO.DeliveryStats;
+import com.example.quickcommercedeliverysystemdesktop.database.UserDAO;
+import com.example.quickcommercedeliverysystemdesktop.models.GeoPoint;
+import com.example.quickcommercedeliverysystemdesktop.models.Money;
 import com.example.quickcommercedeliverysystemdesktop.models.Order;
 import com.example.quickcommercedeliverysystemdesktop.models.Order.OrderStatus;
+import com.example.quickcommercedeliverysystemdesktop.models.TimeWindow;
+import com.example.quickcommercedeliverysystemdesktop.services.PendingOrderBook;
+import com.example.quickcommercedeliverysystemdesktop.services.PendingOrderBook.Ordering;
+import com.example.quickcommercedeliverysystemdesktop.services.RoutePlanner;
+import com.example.quickcommercedeliverysystemdesktop.utils.IntervalTree;
 import com.example.quickcommercedeliverysystemdesktop.utils.UserSession;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -13,11 +21,18 @@ import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class DeliveriesController {
 
     @FXML private TabPane deliveryTabPane;
+    @FXML private CheckBox availabilityCheckBox;
 
     // Available Orders Tab - Card View
     @FXML private ScrollPane availableCardsScrollPane;
@@ -26,6 +41,7 @@ public class DeliveriesController {
     @FXML private Label availableCountLabel;
     @FXML private TextField searchTextField;
     @FXML private ComboBox<String> sortComboBox;
+    @FXML private ComboBox<String> windowFilterComboBox;
     @FXML private Button clearFiltersButton;
 
     // My Deliveries Tab - Card View
@@ -34,6 +50,12 @@ public class DeliveriesController {
     @FXML private GridPane myDeliveriesCardsContainer;
     @FXML private VBox myDeliveriesEmptyState;
     @FXML private Label myDeliveriesCountLabel;
+    @FXML private Label selectedDeliveriesLabel;
+
+    // Suggested route for open deliveries
+    @FXML private VBox routePanel;
+    @FXML private Label routeSummaryLabel;
+    @FXML private VBox routeStopsBox;
 
     // Statistics
     @FXML private Label totalDeliveriesLabel;
@@ -46,6 +68,15 @@ public class DeliveriesController {
     private ObservableList<Order> myDeliveries;
     private FilteredList<Order> filteredDeliveries;
     private int currentUserId;
+    private GeoPoint partnerLocation;
+    private final Map<Integer, RoutePlanner.Stop> routeStops = new HashMap<>();
+    private final Map<Integer, Integer> routePositions = new HashMap<>();
+    private final Set<Integer> selectedDeliveryIds = new HashSet<>();
+
+    // Delivery windows of available orders and of my open deliveries, by order ID
+    private final IntervalTree<Integer> availableWindows = new IntervalTree<>();
+    private final Set<Integer> unwindowedAvailable = new HashSet<>();
+    private final IntervalTree<Integer> commitmentWindows = new IntervalTree<>();
 
     @FXML
     public void initialize() {
@@ -58,6 +89,7 @@ public class DeliveriesController {
 
         setupSearchAndSort();
         setupFilters();
+        availabilityCheckBox.setSelected(UserDAO.isAvailable(currentUserId));
         loadData();
     }
 
@@ -72,6 +104,12 @@ public class DeliveriesController {
         sortComboBox.setItems(sortOptions);
         sortComboBox.setValue("Default");
 
+        // Delivery window filter: hours from now
+        windowFilterComboBox.setItems(FXCollections.observableArrayList(
+                "Any Time", "Next Hour", "Next 2 Hours", "Next 4 Hours"));
+        windowFilterComboBox.setValue("Any Time");
+        windowFilterComboBox.valueProperty().addListener((obs, oldVal, newVal) -> applyAvailableFiltersAndSort());
+
         // Search listener
         searchTextField.textProperty().addListener((obs, oldVal, newVal) -> applyAvailableFiltersAndSort());
 
@@ -82,8 +120,13 @@ public class DeliveriesController {
     private void applyAvailableFiltersAndSort() {
         String searchText = searchTextField.getText().toLowerCase().trim();
 
+        Set<Integer> deliverable = deliverableOrderIds();
+
         // Apply search filter
         filteredAvailableOrders.setPredicate(order -> {
+            if (deliverable != null && !deliverable.contains(order.getOrderId())) {
+                return false;
+            }
             if (searchText.isEmpty()) {
                 return true;
             }
@@ -98,16 +141,21 @@ public class DeliveriesController {
         if (sortBy != null && !sortBy.equals("Default")) {
             switch (sortBy) {
                 case "Nearest Location":
-                    // Sort alphabetically by location (in a real app, you'd use geolocation)
-                    sortedOrders.sort((o1, o2) -> o1.getDeliveryLocation().compareToIgnoreCase(o2.getDeliveryLocation()));
+                    if (partnerLocation != null) {
+                        // Every visible order by distance; orders without coordinates go last
+                        sortedOrders = RoutePlanner.nearestFirst(partnerLocation, sortedOrders);
+                    } else {
+                        // No resolvable address on the partner's profile: fall back to location name
+                        sortedOrders.sort((o1, o2) -> o1.getDeliveryLocation().compareToIgnoreCase(o2.getDeliveryLocation()));
+                    }
                     break;
                 case "Highest Fee":
-                    // Sort by fee descending
-                    sortedOrders.sort((o1, o2) -> Double.compare(o2.getDeliveryFee(), o1.getDeliveryFee()));
+                    // Fee descending, read straight off the order book's index
+                    sortedOrders = bookOrder(sortedOrders, Ordering.HIGHEST_FEE);
                     break;
                 case "Earliest Time Window":
-                    // Sort by time range
-                    sortedOrders.sort((o1, o2) -> o1.getDeliveryTimeRange().compareToIgnoreCase(o2.getDeliveryTimeRange()));
+                    // Window start ascending; orders without a window go last
+                    sortedOrders = bookOrder(sortedOrders, Ordering.EARLIEST_WINDOW);
                     break;
             }
         }
@@ -117,9 +165,57 @@ public class DeliveriesController {
         availableCountLabel.setText("Available: " + sortedOrders.size());
     }
 
+    /**
+     * The visible orders in one of the order book's pre-sorted orderings
+     */
+    private static List<Order> bookOrder(List<Order> visibleOrders, Ordering ordering) {
+        Set<Integer> visibleIds = visibleOrders.stream()
+                .map(Order::getOrderId)
+                .collect(Collectors.toSet());
+        return PendingOrderBook.top(ordering, visibleIds.size(), order -> visibleIds.contains(order.getOrderId()));
+    }
+
+    /**
+     * IDs of available orders whose window overlaps the selected span from now, or null for no filter
+     */
+    private Set<Integer> deliverableOrderIds() {
+        String choice = windowFilterComboBox.getValue();
+        int hours = switch (choice == null ? "" : choice) {
+            case "Next Hour" -> 1;
+            case "Next 2 Hours" -> 2;
+            case "Next 4 Hours" -> 4;
+            default -> 0;
+        };
+        if (hours == 0) {
+            return null;
+        }
+
+        int now = nowMinute();
+        Set<Integer> ids = new HashSet<>(availableWindows.query(now, now + hours * 60));
+        ids.addAll(unwindowedAvailable);
+        return ids;
+    }
+
+    /**
+     * [start, end) of an order's window in minutes, or null if it has no complete window
+     */
+    private static int[] windowInterval(Order order) {
+        TimeWindow window = order.getTimeWindow();
+        if (!window.hasStart() || !window.hasEnd()) {
+            return null;
+        }
+        return new int[] {window.getStartMinute(), window.getEffectiveEndMinute()};
+    }
+
+    private static int nowMinute() {
+        LocalTime now = LocalTime.now();
+        return now.getHour() * 60 + now.getMinute();
+    }
+
     @FXML
     private void handleClearFilters() {
         searchTextField.clear();
+        windowFilterComboBox.setValue("Any Time");
         sortComboBox.setValue("Default");
         applyAvailableFiltersAndSort();
     }
@@ -208,7 +304,12 @@ public class DeliveriesController {
         locationBox.setAlignment(Pos.CENTER_LEFT);
         Label locationIcon = new Label("📍");
         locationIcon.setStyle("-fx-font-size: 14px;");
-        Label locationLabel = new Label(order.getDeliveryLocation());
+        String locationText = order.getDeliveryLocation();
+        GeoPoint orderPoint = order.getLocationPoint();
+        if (partnerLocation != null && orderPoint != null) {
+            locationText += "  •  " + partnerLocation.getFormattedDistance(orderPoint) + " away";
+        }
+        Label locationLabel = new Label(locationText);
         locationLabel.setStyle("-fx-font-size: 13px; -fx-text-fill: #555;");
         locationLabel.setWrapText(true);
         locationBox.getChildren().addAll(locationIcon, locationLabel);
@@ -325,7 +426,31 @@ public class DeliveriesController {
         Label feeLabel = new Label(order.getFormattedDeliveryFee());
         feeLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: #27ae60;");
 
-        headerRow.getChildren().addAll(orderIdLabel, statusBadge, spacer, feeLabel);
+        if (isOpen(order)) {
+            CheckBox selectBox = new CheckBox();
+            selectBox.setSelected(selectedDeliveryIds.contains(order.getOrderId()));
+            selectBox.selectedProperty().addListener((obs, oldVal, selected) -> {
+                if (selected) {
+                    selectedDeliveryIds.add(order.getOrderId());
+                } else {
+                    selectedDeliveryIds.remove(order.getOrderId());
+                }
+                updateSelectionLabel();
+            });
+            headerRow.getChildren().add(selectBox);
+        }
+        headerRow.getChildren().addAll(orderIdLabel, statusBadge);
+
+        RoutePlanner.Stop stop = routeStops.get(order.getOrderId());
+        if (stop != null) {
+            Label stopBadge = new Label("Stop " + routePositions.get(order.getOrderId()) + " • ETA " + stop.getFormattedEta());
+            stopBadge.setStyle("-fx-padding: 5 12; -fx-background-radius: 12; -fx-font-size: 11px; -fx-font-weight: bold; " +
+                    (stop.isLate() ? "-fx-background-color: #f8d7da; -fx-text-fill: #721c24;"
+                                   : "-fx-background-color: #e2e3e5; -fx-text-fill: #383d41;"));
+            headerRow.getChildren().add(stopBadge);
+        }
+
+        headerRow.getChildren().addAll(spacer, feeLabel);
 
         // Product Section
         VBox productSection = new VBox(5);
@@ -468,13 +593,23 @@ public class DeliveriesController {
     }
 
     private void loadAvailableOrders() {
-        // Get all available orders
-        List<Order> allAvailableOrders = DeliveryDAO.getAvailableOrders();
-
-        // Filter out orders created by the current user (delivery partner shouldn't see their own orders)
-        List<Order> filteredOrders = allAvailableOrders.stream()
-                .filter(order -> order.getCreatedByUserId() != currentUserId)
-                .collect(java.util.stream.Collectors.toList());
+        // Partner position for distance ranking (from the profile address)
+        partnerLocation = UserDAO.getUserLocation(currentUserId);
+
+        // Pending orders from the live order book, newest first, without the partner's own orders
+        List<Order> filteredOrders = PendingOrderBook.list(Ordering.NEWEST,
+                order -> order.getCreatedByUserId() != currentUserId);
+
+        availableWindows.clear();
+        unwindowedAvailable.clear();
+        for (Order order : filteredOrders) {
+            int[] interval = windowInterval(order);
+            if (interval != null) {
+                availableWindows.insert(interval[0], interval[1], order.getOrderId());
+            } else {
+                unwindowedAvailable.add(order.getOrderId());
+            }
+        }
 
         availableOrders.setAll(filteredOrders);
         applyAvailableFiltersAndSort();
@@ -482,32 +617,209 @@ public class DeliveriesController {
 
     private void loadMyDeliveries() {
         myDeliveries.setAll(DeliveryDAO.getDeliveriesByPartner(currentUserId));
+
+        // Drop selections for orders that are no longer open
+        Set<Integer> openIds = myDeliveries.stream()
+                .filter(this::isOpen)
+                .map(Order::getOrderId)
+                .collect(Collectors.toSet());
+        selectedDeliveryIds.retainAll(openIds);
+        updateSelectionLabel();
+
+        updateRoute();
         updateCounts();
         renderMyDeliveriesCards();
     }
 
+    /**
+     * Plan the drop-off order for deliveries still in progress and show it above the cards
+     */
+    private void updateRoute() {
+        routeStops.clear();
+        routePositions.clear();
+        routeStopsBox.getChildren().clear();
+
+        List<Order> openOrders = myDeliveries.stream()
+                .filter(this::isOpen)
+                .collect(Collectors.toList());
+
+        commitmentWindows.clear();
+        for (Order order : openOrders) {
+            int[] interval = windowInterval(order);
+            if (interval != null) {
+                commitmentWindows.insert(interval[0], interval[1], order.getOrderId());
+            }
+        }
+
+        if (openOrders.size() < 2) {
+            routePanel.setVisible(false);
+            routePanel.setManaged(false);
+            return;
+        }
+
+        RoutePlanner.Route route = RoutePlanner.plan(currentUserId, partnerLocation, openOrders, nowMinute());
+
+        int position = 0;
+        for (RoutePlanner.Stop stop : route.getStops()) {
+            routeStops.put(stop.getOrder().getOrderId(), stop);
+            routePositions.put(stop.getOrder().getOrderId(), position + 1);
+
+            String text = String.format("%d. Order #%d  •  %s  •  %.1f km  •  ETA %s",
+                    ++position, stop.getOrder().getOrderId(), stop.getOrder().getDeliveryLocation(),
+                    stop.getLegKm(), stop.getFormattedEta());
+            if (stop.isLate()) {
+                text += "  •  ⚠ " + stop.getLateMinutes() + " min past window";
+            }
+            Label stopLabel = new Label(text);
+            stopLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: " + (stop.isLate() ? "#c0392b;" : "#34495e;"));
+            routeStopsBox.getChildren().add(stopLabel);
+        }
+
+        if (!route.getUnplaced().isEmpty()) {
+            String unplaced = route.getUnplaced().stream()
+                    .map(order -> "#" + order.getOrderId())
+                    .collect(Collectors.joining(", "));
+            Label unplacedLabel = new Label("Address not located, visit last: " + unplaced);
+            unplacedLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #7f8c8d;");
+            routeStopsBox.getChildren().add(unplacedLabel);
+        }
+
+        String start = partnerLocation != null ? "from your address" : "set a default address for distances from you";
+        routeSummaryLabel.setText(String.format("%.1f km %s  •  %s", route.getTotalKm(), start,
+                route.isFeasible() ? "all within windows" : route.getTotalLateMinutes() + " min late in total"));
+
+        routePanel.setVisible(true);
+        routePanel.setManaged(true);
+    }
+
     private void loadStatistics() {
         DeliveryStats stats = DeliveryDAO.getDeliveryStats(currentUserId);
         totalDeliveriesLabel.setText(String.valueOf(stats.getTotalDeliveries()));
         completedDeliveriesLabel.setText(String.valueOf(stats.getCompletedDeliveries()));
         inProgressLabel.setText(String.valueOf(stats.getInProgressDeliveries()));
-        totalEarningsLabel.setText(String.format("$%.2f", stats.getTotalEarnings()));
+        totalEarningsLabel.setText(stats.getTotalEarnings().toString());
     }
 
     private void updateCounts() {
         myDeliveriesCountLabel.setText("My Deliveries: " + filteredDeliveries.size());
     }
 
+    private boolean isOpen(Order order) {
+        return order.getStatus() == OrderStatus.ACCEPTED
+                || order.getStatus() == OrderStatus.PICKED_UP
+                || order.getStatus() == OrderStatus.ON_THE_WAY;
+    }
+
+    private void updateSelectionLabel() {
+        selectedDeliveriesLabel.setText(selectedDeliveryIds.size() + " selected");
+    }
+
+    /**
+     * Selected deliveries currently in one of the given statuses
+     */
+    private List<Order> selectedInStatus(OrderStatus... statuses) {
+        Set<OrderStatus> wanted = Set.of(statuses);
+        return myDeliveries.stream()
+                .filter(order -> selectedDeliveryIds.contains(order.getOrderId()))
+                .filter(order -> wanted.contains(order.getStatus()))
+                .collect(Collectors.toList());
+    }
+
+    @FXML
+    private void handlePickUpSelected() {
+        List<Order> orders = selectedInStatus(OrderStatus.ACCEPTED);
+        if (orders.isEmpty()) {
+            showAlert("Select one or more accepted orders to pick up.", Alert.AlertType.WARNING);
+            return;
+        }
+
+        Alert confirmation = new Alert(Alert.AlertType.CONFIRMATION);
+        confirmation.setTitle("Mark as Picked Up");
+        confirmation.setHeaderText("Pick up " + orders.size() + " orders");
+        confirmation.setContentText("Have you picked up all of these orders?\n\n" + orderList(orders));
+
+        confirmation.showAndWait().ifPresent(response -> {
+            if (response == ButtonType.OK) {
+                List<Integer> moved = DeliveryDAO.markAsPickedUp(
+                        orders.stream().map(Order::getOrderId).collect(Collectors.toList()), currentUserId);
+                selectedDeliveryIds.clear();
+                loadData();
+                if (moved.isEmpty()) {
+                    showAlert("Failed to update order status.", Alert.AlertType.ERROR);
+                } else {
+                    showAlert(moved.size() + " of " + orders.size() + " orders marked as picked up!",
+                            Alert.AlertType.INFORMATION);
+                }
+            }
+        });
+    }
+
+    @FXML
+    private void handleDeliverSelected() {
+        List<Order> orders = selectedInStatus(OrderStatus.PICKED_UP, OrderStatus.ON_THE_WAY);
+        if (orders.isEmpty()) {
+            showAlert("Select one or more picked up or on-the-way orders to deliver.", Alert.AlertType.WARNING);
+            return;
+        }
+        long totalMinor = orders.stream().mapToLong(order -> order.getDeliveryFee().getMinor()).sum();
+
+        Alert confirmation = new Alert(Alert.AlertType.CONFIRMATION);
+        confirmation.setTitle("Complete Deliveries");
+        confirmation.setHeaderText("Mark " + orders.size() + " orders as Delivered");
+        confirmation.setContentText(String.format(
+                "Have you successfully delivered all of these orders?\n\n%s\n\nYou will earn: %s",
+                orderList(orders), Money.format(totalMinor)
+        ));
+
+        confirmation.showAndWait().ifPresent(response -> {
+            if (response == ButtonType.OK) {
+                List<Integer> delivered = DeliveryDAO.completeDeliveries(
+                        orders.stream().map(Order::getOrderId).collect(Collectors.toList()), currentUserId);
+                selectedDeliveryIds.clear();
+                loadData();
+                if (delivered.isEmpty()) {
+                    showAlert("Failed to complete deliveries.", Alert.AlertType.ERROR);
+                } else {
+                    showAlert(delivered.size() + " of " + orders.size() + " deliveries completed! Earnings recorded.",
+                            Alert.AlertType.INFORMATION);
+                }
+            }
+        });
+    }
+
+    @FXML
+    private void handleClearSelection() {
+        selectedDeliveryIds.clear();
+        updateSelectionLabel();
+        renderMyDeliveriesCards();
+    }
+
+    private String orderList(List<Order> orders) {
+        return orders.stream()
+                .map(order -> "#" + order.getOrderId())
+                .collect(Collectors.joining(", "));
+    }
+
     private void acceptOrder(Order order) {
         Alert confirmation = new Alert(Alert.AlertType.CONFIRMATION);
         confirmation.setTitle("Accept Order");
         confirmation.setHeaderText("Accept Order #" + order.getOrderId());
-        confirmation.setContentText(String.format(
+        String content = String.format(
                 "Do you want to accept this delivery?\n\nProduct: %s\nLocation: %s\nFee: %s",
                 order.getProductName(),
                 order.getDeliveryLocation(),
                 order.getFormattedDeliveryFee()
-        ));
+        );
+
+        // Warn when the window clashes with deliveries already in progress
+        int[] interval = windowInterval(order);
+        if (interval != null && commitmentWindows.overlapsAny(interval[0], interval[1])) {
+            String clashing = commitmentWindows.query(interval[0], interval[1]).stream()
+                    .map(id -> "#" + id)
+                    .collect(Collectors.joining(", "));
+            content += "\n\n⚠ Its delivery window overlaps your open deliveries " + clashing + ".";
+        }
+        confirmation.setContentText(content);
 
         confirmation.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
@@ -611,8 +923,26 @@ public class DeliveriesController {
         }
     }
 
+    @FXML
+    private void handleAvailabilityToggle() {
+        boolean available = availabilityCheckBox.isSelected();
+        if (available && partnerLocation == null) {
+            availabilityCheckBox.setSelected(false);
+            showAlert("Set a default address in your profile first so orders near you can be assigned.",
+                    Alert.AlertType.WARNING);
+            return;
+        }
+
+        if (!UserDAO.setAvailability(currentUserId, available)) {
+            availabilityCheckBox.setSelected(!available);
+            showAlert("Failed to update availability.", Alert.AlertType.ERROR);
+        }
+    }
+
     @FXML
     private void handleRefresh() {
+        // Pick up orders changed by other app instances on the same database
+        PendingOrderBook.refreshIfStale();
         loadData();
         showAlert("Data refreshed!", Alert.AlertType.INFORMATION);
     }
@@ -0,0 +1,209 @@
+package com.example.quickcommercedeliverysystemdesktop.controllers.dashboard;
+
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.metrics.DaoMetric;
+import com.example.quickcommercedeliverysystemdesktop.metrics.MetricsRegistry;
+import com.example.quickcommercedeliverysystemdesktop.utils.ErrorHandler;
+import com.example.quickcommercedeliverysystemdesktop.utils.ValidationUtil;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.SimpleLongProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.stage.FileChooser;
+import javafx.util.Duration;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Diagnostics Controller
+ * Admin view of live DAO call counts and latency percentiles
+ */
+public class DiagnosticsController {
+
+    private static final Duration REFRESH_INTERVAL = Duration.seconds(2);
+
+    @FXML private TableView<DaoMetric.Snapshot> metricsTable;
+    @FXML private TableColumn<DaoMetric.Snapshot, String> operationColumn;
+    @FXML private TableColumn<DaoMetric.Snapshot, Long> callsColumn;
+    @FXML private TableColumn<DaoMetric.Snapshot, Long> errorsColumn;
+    @FXML private TableColumn<DaoMetric.Snapshot, Long> busyColumn;
+    @FXML private TableColumn<DaoMetric.Snapshot, Long> rowsColumn;
+    @FXML private TableColumn<DaoMetric.Snapshot, String> meanColumn;
+    @FXML private TableColumn<DaoMetric.Snapshot, String> p50Column;
+    @FXML private TableColumn<DaoMetric.Snapshot, String> p95Column;
+    @FXML private TableColumn<DaoMetric.Snapshot, String> p99Column;
+    @FXML private TableColumn<DaoMetric.Snapshot, String> maxColumn;
+    @FXML private Label totalCallsLabel;
+    @FXML private Label operationsLabel;
+    @FXML private Label totalErrorsLabel;
+    @FXML private Label busyErrorsLabel;
+    @FXML private Label slowestLabel;
+    @FXML private Label slowestOperationLabel;
+    @FXML private Label logDropsLabel;
+    @FXML private CheckBox liveUpdateCheckBox;
+
+    private final ObservableList<DaoMetric.Snapshot> snapshots = FXCollections.observableArrayList();
+    private Timeline refreshTimeline;
+
+    @FXML
+    public void initialize() {
+        try {
+            setupTable();
+            refresh();
+            startLiveUpdates();
+        } catch (Exception e) {
+            ErrorHandler.handleException(e, "Failed to initialize Diagnostics page");
+        }
+    }
+
+    private void setupTable() {
+        operationColumn.setCellValueFactory(cellData ->
+            new SimpleStringProperty(cellData.getValue().getName())
+        );
+        callsColumn.setCellValueFactory(cellData ->
+            new SimpleLongProperty(cellData.getValue().getCalls()).asObject()
+        );
+        errorsColumn.setCellValueFactory(cellData ->
+            new SimpleLongProperty(cellData.getValue().getErrors()).asObject()
+        );
+        busyColumn.setCellValueFactory(cellData ->
+            new SimpleLongProperty(cellData.getValue().getBusyErrors()).asObject()
+        );
+        rowsColumn.setCellValueFactory(cellData ->
+            new SimpleLongProperty(cellData.getValue().getRows()).asObject()
+        );
+        meanColumn.setCellValueFactory(cellData ->
+            new SimpleStringProperty(formatMillis(cellData.getValue().getMeanMicros()))
+        );
+        p50Column.setCellValueFactory(cellData ->
+            new SimpleStringProperty(formatMillis(cellData.getValue().getP50Micros()))
+        );
+        p95Column.setCellValueFactory(cellData ->
+            new SimpleStringProperty(formatMillis(cellData.getValue().getP95Micros()))
+        );
+        p99Column.setCellValueFactory(cellData ->
+            new SimpleStringProperty(formatMillis(cellData.getValue().getP99Micros()))
+        );
+        maxColumn.setCellValueFactory(cellData ->
+            new SimpleStringProperty(formatMillis(cellData.getValue().getMaxMicros()))
+        );
+
+        metricsTable.setItems(snapshots);
+    }
+
+    /**
+     * Poll the registry on the FX thread; the timeline stops once the view leaves the scene
+     */
+    private void startLiveUpdates() {
+        refreshTimeline = new Timeline(new KeyFrame(REFRESH_INTERVAL, event -> {
+            if (liveUpdateCheckBox == null || liveUpdateCheckBox.isSelected()) {
+                refresh();
+            }
+        }));
+        refreshTimeline.setCycleCount(Animation.INDEFINITE);
+        refreshTimeline.play();
+
+        metricsTable.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene == null && refreshTimeline != null) {
+                refreshTimeline.stop();
+            }
+        });
+    }
+
+    private void refresh() {
+        List<DaoMetric.Snapshot> current = MetricsRegistry.snapshotAll();
+
+        // Keep the user's sort order across refreshes
+        List<TableColumn<DaoMetric.Snapshot, ?>> sortOrder = List.copyOf(metricsTable.getSortOrder());
+        snapshots.setAll(current);
+        if (!sortOrder.isEmpty()) {
+            metricsTable.getSortOrder().setAll(sortOrder);
+            metricsTable.sort();
+        }
+
+        updateStatistics(current);
+    }
+
+    private void updateStatistics(List<DaoMetric.Snapshot> current) {
+        long calls = 0;
+        long errors = 0;
+        long busy = 0;
+        DaoMetric.Snapshot slowest = null;
+
+        for (DaoMetric.Snapshot snapshot : current) {
+            calls += snapshot.getCalls();
+            errors += snapshot.getErrors();
+            busy += snapshot.getBusyErrors();
+            if (slowest == null || snapshot.getP99Micros() > slowest.getP99Micros()) {
+                slowest = snapshot;
+            }
+        }
+
+        totalCallsLabel.setText(String.valueOf(calls));
+        operationsLabel.setText(current.size() + " operation" + (current.size() != 1 ? "s" : ""));
+        totalErrorsLabel.setText(String.valueOf(errors));
+        busyErrorsLabel.setText(busy + " busy/locked");
+        if (slowest != null) {
+            slowestLabel.setText(formatMillis(slowest.getP99Micros()) + " ms");
+            slowestOperationLabel.setText(slowest.getName());
+        } else {
+            slowestLabel.setText("-");
+            slowestOperationLabel.setText("");
+        }
+        logDropsLabel.setText(String.valueOf(LogManager.getDroppedCount()));
+    }
+
+    private String formatMillis(double micros) {
+        return String.format("%.2f", micros / 1_000.0);
+    }
+
+    @FXML
+    private void handleRefresh() {
+        refresh();
+    }
+
+    @FXML
+    private void handleReset() {
+        boolean confirmed = ValidationUtil.showConfirmation("Reset Metrics",
+            "Clear all recorded DAO metrics?\n\nExport a snapshot first if you need the current numbers.");
+        if (confirmed) {
+            MetricsRegistry.reset();
+            refresh();
+            ErrorHandler.logInfo("DAO metrics reset");
+        }
+    }
+
+    @FXML
+    private void handleExportSnapshot() {
+        try {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("Export Metrics Snapshot");
+            fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("CSV Files", "*.csv")
+            );
+
+            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+            fileChooser.setInitialFileName("dao_metrics_" + timestamp + ".csv");
+
+            File file = fileChooser.showSaveDialog(metricsTable.getScene().getWindow());
+
+            if (file != null) {
+                MetricsRegistry.exportSnapshot(file);
+                ValidationUtil.showAlert("Export Successful",
+                    "Metrics snapshot exported successfully!\n\nLocation: " + file.getAbsolutePath(),
+                    Alert.AlertType.INFORMATION);
+                ErrorHandler.logInfo("Exported DAO metrics snapshot: " + file.getName());
+            }
+        } catch (Exception e) {
+            ErrorHandler.handleFileException(e, "exporting metrics snapshot");
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package com.example.quickcommercedeliverysystemdesktop.controllers.dashboard;
 
 import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO;
-import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO.DailyEarning;
 import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO.DeliveryStats;
 import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO.EarningRecord;
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.models.Money;
+import com.example.quickcommercedeliverysystemdesktop.services.StatsRollupJob;
+import com.example.quickcommercedeliverysystemdesktop.services.TrendSeries;
+import com.example.quickcommercedeliverysystemdesktop.services.TrendSeries.Metric;
+import com.example.quickcommercedeliverysystemdesktop.services.TrendSeries.Point;
+import com.example.quickcommercedeliverysystemdesktop.services.TrendSeries.Range;
 import com.example.quickcommercedeliverysystemdesktop.utils.UserSession;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -20,6 +27,8 @@ import java.util.List;
 
 public class EarningsController {
 
+    private static final Logger log = LogManager.getLogger(EarningsController.class);
+
     // Statistics Labels
     @FXML private Label totalEarningsLabel;
     @FXML private Label todayEarningsLabel;
@@ -32,6 +41,11 @@ public class EarningsController {
     @FXML private BarChart<String, Number> earningsChart;
     @FXML private CategoryAxis xAxis;
     @FXML private NumberAxis yAxis;
+    @FXML private ComboBox<Range> chartRangeComboBox;
+
+    /** At most one bar per this many pixels; longer ranges are downsampled */
+    private static final int PIXELS_PER_BAR = 8;
+    private static final int DEFAULT_BARS = 90;
 
     // Earnings History Table
     @FXML private TableView<EarningRecord> earningsTable;
@@ -130,6 +144,10 @@ public class EarningsController {
             // Enable auto-ranging
             yAxis.setAutoRanging(true);
             yAxis.setForceZeroInRange(true);
+
+            chartRangeComboBox.setItems(FXCollections.observableArrayList(Range.values()));
+            chartRangeComboBox.setValue(Range.LAST_30_DAYS);
+            chartRangeComboBox.valueProperty().addListener((obs, oldVal, newVal) -> loadChartData());
         }
     }
 
@@ -140,38 +158,29 @@ public class EarningsController {
     }
 
     private void loadStatistics() {
-        System.out.println("=== LOADING EARNINGS STATISTICS ===");
-        System.out.println("Current User ID: " + currentUserId);
-
         // Get overall stats
         DeliveryStats stats = DeliveryDAO.getDeliveryStats(currentUserId);
-        System.out.println("Total Earnings: " + stats.getTotalEarnings());
-        System.out.println("Completed Deliveries: " + stats.getCompletedDeliveries());
 
-        totalEarningsLabel.setText(String.format("৳%.2f", stats.getTotalEarnings()));
+        totalEarningsLabel.setText("৳" + stats.getTotalEarnings().toPlainString());
         completedDeliveriesLabel.setText(String.valueOf(stats.getCompletedDeliveries()));
 
         // Calculate average
-        double average = stats.getCompletedDeliveries() > 0
-                ? stats.getTotalEarnings() / stats.getCompletedDeliveries()
-                : 0.0;
-        System.out.println("Average: " + average);
-        averageEarningLabel.setText(String.format("৳%.2f", average));
+        Money average = stats.getCompletedDeliveries() > 0
+                ? stats.getTotalEarnings().dividedBy(stats.getCompletedDeliveries())
+                : Money.ZERO;
+        averageEarningLabel.setText("৳" + average.toPlainString());
 
         // Get period-specific earnings
-        double todayEarnings = DeliveryDAO.getEarningsForPeriod(currentUserId, "TODAY");
-        System.out.println("Today's Earnings: " + todayEarnings);
-        todayEarningsLabel.setText(String.format("৳%.2f", todayEarnings));
+        Money todayEarnings = DeliveryDAO.getEarningsForPeriod(currentUserId, "TODAY");
+        todayEarningsLabel.setText("৳" + todayEarnings.toPlainString());
 
-        double weekEarnings = DeliveryDAO.getEarningsForPeriod(currentUserId, "WEEK");
-        System.out.println("Week Earnings: " + weekEarnings);
-        weekEarningsLabel.setText(String.format("৳%.2f", weekEarnings));
+        Money weekEarnings = DeliveryDAO.getEarningsForPeriod(currentUserId, "WEEK");
+        weekEarningsLabel.setText("৳" + weekEarnings.toPlainString());
 
-        double monthEarnings = DeliveryDAO.getEarningsForPeriod(currentUserId, "MONTH");
-        System.out.println("Month Earnings: " + monthEarnings);
-        monthEarningsLabel.setText(String.format("৳%.2f", monthEarnings));
+        Money monthEarnings = DeliveryDAO.getEarningsForPeriod(currentUserId, "MONTH");
+        monthEarningsLabel.setText("৳" + monthEarnings.toPlainString());
 
-        System.out.println("=== STATISTICS LOADED ===");
+        log.debug("Loaded earnings statistics for user {}", currentUserId);
     }
 
     private void loadEarningsHistory() {
@@ -181,49 +190,20 @@ public class EarningsController {
     }
 
     private void loadChartData() {
-        System.out.println("=== LOADING CHART DATA ===");
         if (earningsChart != null) {
-            List<DailyEarning> dailyEarnings = DeliveryDAO.getDailyEarnings(currentUserId, 7);
-            System.out.println("Retrieved " + dailyEarnings.size() + " daily earning records");
+            Range range = chartRangeComboBox.getValue() != null ? chartRangeComboBox.getValue() : Range.LAST_30_DAYS;
+            int width = (int) earningsChart.getWidth();
+            int maxBars = width > 0 ? width / PIXELS_PER_BAR : DEFAULT_BARS;
+
+            List<Point> points = TrendSeries.load(range, currentUserId, Metric.EARNINGS, maxBars);
+            log.debug("Loaded {} earning points for {}", points.size(), range);
 
             earningsChart.getData().clear();
 
             XYChart.Series<String, Number> series = new XYChart.Series<>();
-            series.setName("Daily Earnings");
-
-            if (dailyEarnings != null && !dailyEarnings.isEmpty()) {
-                // Format dates for better display
-                java.time.format.DateTimeFormatter inputFormatter =
-                    java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd");
-                java.time.format.DateTimeFormatter outputFormatter =
-                    java.time.format.DateTimeFormatter.ofPattern("MMM dd");
-
-                for (DailyEarning daily : dailyEarnings) {
-                    System.out.println("  Date: " + daily.getDate() + ", Amount: " + daily.getTotalAmount());
-                    try {
-                        // Parse and format the date
-                        java.time.LocalDate date = java.time.LocalDate.parse(daily.getDate(), inputFormatter);
-                        String formattedDate = date.format(outputFormatter);
-
-                        XYChart.Data<String, Number> data = new XYChart.Data<>(
-                            formattedDate,
-                            daily.getTotalAmount()
-                        );
-                        series.getData().add(data);
-                    } catch (Exception e) {
-                        System.err.println("Error parsing date: " + daily.getDate());
-                        // If date parsing fails, use original date
-                        XYChart.Data<String, Number> data = new XYChart.Data<>(
-                            daily.getDate(),
-                            daily.getTotalAmount()
-                        );
-                        series.getData().add(data);
-                    }
-                }
-            } else {
-                System.out.println("No earnings data - showing placeholder");
-                // Add placeholder data to show empty chart
-                series.getData().add(new XYChart.Data<>("No Data", 0));
+            series.setName("Earnings");
+            for (Point point : points) {
+                series.getData().add(new XYChart.Data<>(point.getLabel(), point.getValue()));
             }
 
             earningsChart.getData().add(series);
@@ -242,7 +222,6 @@ public class EarningsController {
                     }
                 }
             });
-            System.out.println("=== CHART DATA LOADED ===");
         }
     }
 
@@ -271,6 +250,7 @@ public class EarningsController {
 
     @FXML
     private void handleRefresh() {
+        StatsRollupJob.runOnce();
         loadData();
         showAlert("Data refreshed successfully!", Alert.AlertType.INFORMATION);
     }
@@ -2,6 +2,7 @@ package com.example.quickcommercedeliverysystemdesktop.controllers.dashboard;
 
 import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO;
 import com.example.quickcommercedeliverysystemdesktop.database.OrderDAO;
+import com.example.quickcommercedeliverysystemdesktop.models.Money;
 import com.example.quickcommercedeliverysystemdesktop.models.Order;
 import com.example.quickcommercedeliverysystemdesktop.models.User;
 import com.example.quickcommercedeliverysystemdesktop.utils.UserSession;
@@ -74,14 +75,14 @@ public class HomeController {
 
         // Load earnings
         DeliveryDAO.DeliveryStats stats = DeliveryDAO.getDeliveryStats(userId);
-        earningsLabel.setText(String.format("৳%.2f", stats.getTotalEarnings()));
+        earningsLabel.setText("৳" + stats.getTotalEarnings().toPlainString());
 
         // Calculate average earnings
         if (avgEarningsLabel != null) {
-            double avgEarnings = stats.getCompletedDeliveries() > 0
-                    ? stats.getTotalEarnings() / stats.getCompletedDeliveries()
-                    : 0.0;
-            avgEarningsLabel.setText(String.format("৳%.2f avg", avgEarnings));
+            Money avgEarnings = stats.getCompletedDeliveries() > 0
+                    ? stats.getTotalEarnings().dividedBy(stats.getCompletedDeliveries())
+                    : Money.ZERO;
+            avgEarningsLabel.setText("৳" + avgEarnings.toPlainString() + " avg");
         }
 
         // Load recent activity
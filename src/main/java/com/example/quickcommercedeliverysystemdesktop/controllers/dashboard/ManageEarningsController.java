@@ -3,19 +3,32 @@ package com.example.quickcommercedeliverysystemdesktop.controllers.dashboard;
 import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO;
 import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO.AdminEarningRecord;
 import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO.DeliveryPersonSummary;
+import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO.EarningsPage;
+import com.example.quickcommercedeliverysystemdesktop.database.EarningsQuery;
+import com.example.quickcommercedeliverysystemdesktop.models.Money;
+import com.example.quickcommercedeliverysystemdesktop.services.EarningsCsvExporter;
+import com.example.quickcommercedeliverysystemdesktop.services.PartnerLeaderboard;
+import com.example.quickcommercedeliverysystemdesktop.services.PartnerLeaderboard.Ranking;
+import com.example.quickcommercedeliverysystemdesktop.services.PartnerLeaderboard.Standing;
+import com.example.quickcommercedeliverysystemdesktop.services.PartnerLeaderboard.Window;
 import com.example.quickcommercedeliverysystemdesktop.utils.ErrorHandler;
 import com.example.quickcommercedeliverysystemdesktop.utils.ValidationUtil;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
 import javafx.stage.FileChooser;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Manage Earnings Controller - Day 13 & 14
@@ -37,8 +50,20 @@ public class ManageEarningsController {
     @FXML private TableColumn<AdminEarningRecord, String> dateColumn;
     @FXML private Label totalEarningsLabel;
     @FXML private Label earningsCountLabel;
+    @FXML private Label pageLabel;
+    @FXML private Button previousPageButton;
+    @FXML private Button nextPageButton;
+    @FXML private Button exportButton;
+    @FXML private HBox exportProgressBox;
+    @FXML private ProgressBar exportProgressBar;
+    @FXML private Label exportStatusLabel;
+
+    private static final int PAGE_SIZE = EarningsQuery.DEFAULT_PAGE_SIZE;
 
     private ObservableList<AdminEarningRecord> allEarnings;
+    private EarningsQuery currentQuery = EarningsQuery.create();
+    private EarningsPage currentPage;
+    private Task<EarningsCsvExporter.Result> exportTask;
 
     @FXML
     public void initialize() {
@@ -92,10 +117,28 @@ public class ManageEarningsController {
 
     private void loadDeliveryPersons() {
         try {
-            List<DeliveryPersonSummary> persons = DeliveryDAO.getDeliveryPersonsWithEarnings();
+            // Every partner, live or archived, with the all-time leaderboard's live
+            // totals added to the archived ones; top earners first
+            Map<Integer, DeliveryPersonSummary> byId = new LinkedHashMap<>();
+            for (DeliveryPersonSummary person : DeliveryDAO.getDeliveryPersons()) {
+                byId.put(person.getUserId(), person);
+            }
+            for (Standing standing : PartnerLeaderboard.all(Window.ALL_TIME, Ranking.EARNINGS)) {
+                DeliveryPersonSummary archived = byId.get(standing.getPartnerId());
+                int deliveries = (int) standing.getDeliveries();
+                Money earned = standing.getEarnings();
+                if (archived != null) {
+                    deliveries += archived.getDeliveryCount();
+                    earned = earned.plus(archived.getTotalEarned());
+                }
+                byId.put(standing.getPartnerId(), new DeliveryPersonSummary(standing.getPartnerId(),
+                        archived != null ? archived.getName() : standing.getName(), deliveries, earned));
+            }
+            List<DeliveryPersonSummary> persons = new ArrayList<>(byId.values());
+            persons.sort(Comparator.comparing(DeliveryPersonSummary::getTotalEarned).reversed());
 
             // Add "All" option at the beginning
-            DeliveryPersonSummary allOption = new DeliveryPersonSummary(0, "All Delivery Persons", 0, 0.0);
+            DeliveryPersonSummary allOption = new DeliveryPersonSummary(0, "All Delivery Persons", 0, Money.ZERO);
             persons.add(0, allOption);
 
             deliveryPersonComboBox.setItems(FXCollections.observableArrayList(persons));
@@ -103,42 +146,64 @@ public class ManageEarningsController {
         } catch (Exception e) {
             ErrorHandler.handleDatabaseException(e, "loading delivery persons");
             // Set default value even if loading fails
-            DeliveryPersonSummary defaultOption = new DeliveryPersonSummary(0, "All Delivery Persons", 0, 0.0);
+            DeliveryPersonSummary defaultOption = new DeliveryPersonSummary(0, "All Delivery Persons", 0, Money.ZERO);
             deliveryPersonComboBox.setItems(FXCollections.observableArrayList(defaultOption));
             deliveryPersonComboBox.setValue(defaultOption);
         }
     }
 
     private void loadAllEarnings() {
+        currentQuery = EarningsQuery.create();
+        loadPage(0);
+    }
+
+    /**
+     * Fetch one page of the current query; the totals cover every matching row
+     */
+    private void loadPage(int pageIndex) {
         try {
-            List<AdminEarningRecord> earnings = DeliveryDAO.getAllEarningsWithDetails();
-            allEarnings.setAll(earnings);
+            currentPage = DeliveryDAO.queryEarnings(currentQuery.page(pageIndex, PAGE_SIZE));
+            allEarnings.setAll(currentPage.getRecords());
             updateStatistics();
 
-            if (earnings.isEmpty()) {
+            if (currentPage.getTotalCount() == 0) {
                 ErrorHandler.logInfo("No earnings found in the system");
             } else {
-                ErrorHandler.logInfo("Loaded " + earnings.size() + " earning records");
+                ErrorHandler.logInfo("Loaded page " + (pageIndex + 1) + " of " + currentPage.getPageCount() +
+                        " (" + currentPage.getTotalCount() + " earning records)");
             }
         } catch (Exception e) {
             ErrorHandler.handleDatabaseException(e, "loading earnings");
+            currentPage = null;
             allEarnings.clear();
             updateStatistics();
         }
     }
 
     private void updateStatistics() {
-        try {
-            double total = allEarnings.stream()
-                .mapToDouble(AdminEarningRecord::getAmount)
-                .sum();
+        long count = currentPage != null ? currentPage.getTotalCount() : 0;
+        Money total = currentPage != null ? currentPage.getTotalAmount() : Money.ZERO;
+        int pageIndex = currentPage != null ? currentPage.getPageIndex() : 0;
+        int pageCount = currentPage != null ? currentPage.getPageCount() : 1;
+
+        totalEarningsLabel.setText(total.toString());
+        earningsCountLabel.setText(count + " transaction" + (count != 1 ? "s" : ""));
+        pageLabel.setText("Page " + (pageIndex + 1) + " of " + pageCount);
+        previousPageButton.setDisable(pageIndex <= 0);
+        nextPageButton.setDisable(pageIndex + 1 >= pageCount);
+    }
 
-            totalEarningsLabel.setText(String.format("$%.2f", total));
-            earningsCountLabel.setText(allEarnings.size() + " transaction" + (allEarnings.size() != 1 ? "s" : ""));
-        } catch (Exception e) {
-            ErrorHandler.logError(e);
-            totalEarningsLabel.setText("$0.00");
-            earningsCountLabel.setText("0 transactions");
+    @FXML
+    private void handlePreviousPage() {
+        if (currentPage != null && currentPage.getPageIndex() > 0) {
+            loadPage(currentPage.getPageIndex() - 1);
+        }
+    }
+
+    @FXML
+    private void handleNextPage() {
+        if (currentPage != null && currentPage.getPageIndex() + 1 < currentPage.getPageCount()) {
+            loadPage(currentPage.getPageIndex() + 1);
         }
     }
 
@@ -167,39 +232,14 @@ public class ManageEarningsController {
                 }
             }
 
-            List<AdminEarningRecord> filteredEarnings;
+            // Partner, date range and paging all go to SQL
+            currentQuery = EarningsQuery.create()
+                .deliveryPerson(selectedPerson != null ? selectedPerson.getUserId() : 0)
+                .between(fromDate, toDate);
+            loadPage(0);
 
-            // Apply filters
-            if (fromDate != null && toDate != null) {
-                if (selectedPerson != null && selectedPerson.getUserId() > 0) {
-                    // Filter by both person and date
-                    filteredEarnings = DeliveryDAO.getEarningsByDateRange(
-                        fromDate.toString(),
-                        toDate.toString()
-                    );
-                    int personId = selectedPerson.getUserId();
-                    filteredEarnings = filteredEarnings.stream()
-                        .filter(e -> e.getDeliveryPersonId() == personId)
-                        .toList();
-                } else {
-                    // Filter by date only
-                    filteredEarnings = DeliveryDAO.getEarningsByDateRange(
-                        fromDate.toString(),
-                        toDate.toString()
-                    );
-                }
-            } else if (selectedPerson != null && selectedPerson.getUserId() > 0) {
-                // Filter by person only
-                filteredEarnings = DeliveryDAO.getEarningsByDeliveryPerson(selectedPerson.getUserId());
-            } else {
-                // No filter - show all
-                filteredEarnings = DeliveryDAO.getAllEarningsWithDetails();
-            }
-
-            allEarnings.setAll(filteredEarnings);
-            updateStatistics();
-
-            ErrorHandler.logInfo("Applied filters: " + filteredEarnings.size() + " records found");
+            ErrorHandler.logInfo("Applied filters: " + (currentPage != null ? currentPage.getTotalCount() : 0) +
+                    " records found");
 
         } catch (Exception e) {
             ErrorHandler.handleDatabaseException(e, "applying filters");
@@ -221,6 +261,9 @@ public class ManageEarningsController {
 
     @FXML
     private void handleExportCSV() {
+        if (exportTask != null && exportTask.isRunning()) {
+            return;
+        }
         if (allEarnings.isEmpty()) {
             ValidationUtil.showAlert("No Data",
                 "There are no earnings to export.\n\nComplete some deliveries first to generate earnings.",
@@ -241,70 +284,88 @@ public class ManageEarningsController {
             File file = fileChooser.showSaveDialog(earningsTable.getScene().getWindow());
 
             if (file != null) {
-                exportToCSV(file);
+                startExport(file, currentQuery);
             }
         } catch (Exception e) {
             ErrorHandler.handleFileException(e, "exporting earnings to CSV");
         }
     }
 
-    private void exportToCSV(File file) {
-        try (FileWriter writer = new FileWriter(file)) {
-            // Write header
-            writer.write("Earning ID,Order ID,Delivery Person,Customer,Product,Amount,Date\n");
-
-            // Write data
-            for (AdminEarningRecord record : allEarnings) {
-                writer.write(String.format("%d,%d,\"%s\",\"%s\",\"%s\",%.2f,%s\n",
-                    record.getEarningId(),
-                    record.getOrderId(),
-                    escapeCSV(record.getDeliveryPersonName()),
-                    escapeCSV(record.getCustomerName()),
-                    escapeCSV(record.getProductName()),
-                    record.getAmount(),
-                    record.getFormattedDateTime()
-                ));
+    /**
+     * Stream the report on a background thread; the table only holds one page,
+     * so the export re-reads the whole filtered history in constant memory
+     */
+    private void startExport(File file, EarningsQuery query) {
+        Task<EarningsCsvExporter.Result> task = new Task<>() {
+            @Override
+            protected EarningsCsvExporter.Result call() throws Exception {
+                updateMessage("Counting earnings...");
+                return EarningsCsvExporter.export(file, query,
+                    (written, total) -> {
+                        updateProgress(written, total);
+                        updateMessage(total >= 0
+                            ? String.format("Exported %,d of %,d rows", written, total)
+                            : String.format("Exported %,d rows", written));
+                    },
+                    this::isCancelled);
             }
+        };
 
-            // Write summary
-            double total = allEarnings.stream()
-                .mapToDouble(AdminEarningRecord::getAmount)
-                .sum();
-            writer.write(String.format("\nTotal:,,,,,%.2f,\n", total));
-            writer.write(String.format("Transactions:,,,,,%d,\n", allEarnings.size()));
-            writer.write(String.format("Export Date:,,,,,,%s\n", LocalDate.now()));
-
+        task.setOnSucceeded(event -> {
+            finishExport();
+            EarningsCsvExporter.Result result = task.getValue();
             ValidationUtil.showAlert("Export Successful",
                 "Earnings report exported successfully!\n\n" +
                 "Location: " + file.getAbsolutePath() + "\n" +
-                "Records: " + allEarnings.size(),
+                "Records: " + result.getRows(),
                 Alert.AlertType.INFORMATION);
+            ErrorHandler.logInfo("Exported " + result.getRows() + " earnings to CSV: " + file.getName());
+        });
+        task.setOnCancelled(event -> {
+            finishExport();
+            ErrorHandler.logInfo("Earnings export cancelled: " + file.getName());
+        });
+        task.setOnFailed(event -> {
+            finishExport();
+            Throwable error = task.getException();
+            ErrorHandler.handleFileException(
+                error instanceof Exception ? (Exception) error : new Exception(error), "writing CSV file");
+        });
+
+        exportTask = task;
+        exportProgressBar.progressProperty().bind(task.progressProperty());
+        exportStatusLabel.textProperty().bind(task.messageProperty());
+        exportProgressBox.setVisible(true);
+        exportProgressBox.setManaged(true);
+        exportButton.setDisable(true);
+
+        Thread thread = new Thread(task, "earnings-export");
+        thread.setDaemon(true);
+        thread.start();
+    }
 
-            ErrorHandler.logInfo("Exported " + allEarnings.size() + " earnings to CSV: " + file.getName());
-
-        } catch (Exception e) {
-            ErrorHandler.handleFileException(e, "writing CSV file");
-        }
+    private void finishExport() {
+        exportTask = null;
+        exportProgressBar.progressProperty().unbind();
+        exportStatusLabel.textProperty().unbind();
+        exportProgressBox.setVisible(false);
+        exportProgressBox.setManaged(false);
+        exportButton.setDisable(false);
     }
 
-    /**
-     * Escape special characters in CSV fields
-     */
-    private String escapeCSV(String value) {
-        if (value == null) {
-            return "";
-        }
-        // Escape quotes and wrap in quotes if contains comma
-        String escaped = value.replace("\"", "\"\"");
-        if (escaped.contains(",")) {
-            return "\"" + escaped + "\"";
+    @FXML
+    private void handleCancelExport() {
+        if (exportTask != null) {
+            // The exporter checks for cancellation on every row; no interrupt needed
+            exportTask.cancel(false);
         }
-        return escaped;
     }
 
     @FXML
     private void handleRefresh() {
         try {
+            PartnerLeaderboard.refresh();
+            loadDeliveryPersons();
             handleClearFilters();
             ErrorHandler.logInfo("Earnings data refreshed");
         } catch (Exception e) {
@@ -14,7 +14,11 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Manage Orders Controller - Day 13
@@ -37,6 +41,7 @@ public class ManageOrdersController {
     @FXML private Label pendingOrdersLabel;
     @FXML private Label deliveredOrdersLabel;
     @FXML private Label cancelledOrdersLabel;
+    @FXML private Label selectionLabel;
 
     private ObservableList<Order> allOrders;
     private FilteredList<Order> filteredOrders;
@@ -66,7 +71,7 @@ public class ManageOrdersController {
             new SimpleStringProperty(cellData.getValue().getDeliveryLocation())
         );
         feeColumn.setCellValueFactory(cellData ->
-            new SimpleStringProperty(String.format("$%.2f", cellData.getValue().getDeliveryFee()))
+            new SimpleStringProperty(cellData.getValue().getFormattedDeliveryFee())
         );
         statusColumn.setCellValueFactory(cellData ->
             new SimpleStringProperty(getStatusBadge(cellData.getValue().getStatus().name()))
@@ -109,6 +114,14 @@ public class ManageOrdersController {
         });
 
         ordersTable.setItems(filteredOrders);
+        ordersTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        ordersTable.getSelectionModel().getSelectedItems().addListener(
+            (javafx.collections.ListChangeListener<Order>) change -> updateSelectionLabel()
+        );
+    }
+
+    private void updateSelectionLabel() {
+        selectionLabel.setText("Selected: " + ordersTable.getSelectionModel().getSelectedItems().size());
     }
 
     private void setupFilters() {
@@ -185,7 +198,7 @@ public class ManageOrdersController {
             new Label("Description: " + (order.getDescription() != null ? order.getDescription() : "N/A")),
             new Label("Location: " + order.getDeliveryLocation()),
             new Label("Time Range: " + order.getDeliveryTimeRange()),
-            new Label("Delivery Fee: $" + String.format("%.2f", order.getDeliveryFee())),
+            new Label("Delivery Fee: " + order.getFormattedDeliveryFee()),
             new Label("Status: " + order.getStatus().name()),
             new Label("Created: " + order.getOrderDate().toString()),
             new Label("Notes: " + (order.getNotesForDelivery() != null ? order.getNotesForDelivery() : "None"))
@@ -217,13 +230,78 @@ public class ManageOrdersController {
 
             if (success) {
                 showAlert("Success", "Order deleted successfully", Alert.AlertType.INFORMATION);
-                loadOrders();
+                allOrders.remove(order);
+                updateStatistics();
             } else {
                 showAlert("Error", "Failed to delete order", Alert.AlertType.ERROR);
             }
         }
     }
 
+    // ===== BULK ACTIONS =====
+
+    @FXML
+    private void handleCancelSelected() {
+        List<Order> selected = new ArrayList<>(ordersTable.getSelectionModel().getSelectedItems());
+        selected.removeIf(order -> order.getStatus() == Order.OrderStatus.DELIVERED
+            || order.getStatus() == Order.OrderStatus.CANCELLED);
+        if (selected.isEmpty() || !confirmBulk("Cancel Orders", "Cancel " + selected.size() + " open order(s)?")) {
+            return;
+        }
+
+        Set<Integer> cancelled = new HashSet<>(OrderDAO.cancelOrders(idsOf(selected)));
+        for (Order order : selected) {
+            if (cancelled.contains(order.getOrderId())) {
+                order.setStatus(Order.OrderStatus.CANCELLED);
+            }
+        }
+        applyFilters();
+        ordersTable.refresh();
+        showAlert("Success", cancelled.size() + " order(s) cancelled", Alert.AlertType.INFORMATION);
+    }
+
+    @FXML
+    private void handleDeleteSelected() {
+        List<Order> selected = new ArrayList<>(ordersTable.getSelectionModel().getSelectedItems());
+        if (selected.isEmpty() || !confirmBulk("Delete Orders",
+                "Permanently delete " + selected.size() + " order(s) with their deliveries, earnings, " +
+                "history, notifications and ratings?\n\nThis action cannot be undone!")) {
+            return;
+        }
+
+        int deleted = OrderDAO.purgeOrders(idsOf(selected));
+        if (deleted < 0) {
+            showAlert("Error", "Failed to delete orders", Alert.AlertType.ERROR);
+            return;
+        }
+        ordersTable.getSelectionModel().clearSelection();
+        if (deleted == selected.size()) {
+            allOrders.removeAll(selected);
+            updateStatistics();
+        } else {
+            // Some were already gone or changed elsewhere; show what the database holds
+            loadOrders();
+        }
+        showAlert("Success", deleted + " order(s) deleted", Alert.AlertType.INFORMATION);
+    }
+
+    private Set<Integer> idsOf(List<Order> orders) {
+        Set<Integer> ids = new HashSet<>();
+        for (Order order : orders) {
+            ids.add(order.getOrderId());
+        }
+        return ids;
+    }
+
+    private boolean confirmBulk(String header, String message) {
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.setTitle("Confirm Action");
+        confirm.setHeaderText(header);
+        confirm.setContentText(message);
+        Optional<ButtonType> result = confirm.showAndWait();
+        return result.isPresent() && result.get() == ButtonType.OK;
+    }
+
     @FXML
     private void handleRefresh() {
         loadOrders();
@@ -3,6 +3,7 @@ package com.example.quickcommercedeliverysystemdesktop.controllers.dashboard;
 import com.example.quickcommercedeliverysystemdesktop.database.UserDAO;
 import com.example.quickcommercedeliverysystemdesktop.models.User;
 import com.example.quickcommercedeliverysystemdesktop.utils.ErrorHandler;
+import com.example.quickcommercedeliverysystemdesktop.utils.UserSession;
 import com.example.quickcommercedeliverysystemdesktop.utils.ValidationUtil;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -16,7 +17,11 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Manage Users Controller - Day 12
@@ -37,6 +42,7 @@ public class ManageUsersController {
     @FXML private Label totalUsersLabel;
     @FXML private Label bannedUsersLabel;
     @FXML private Label adminUsersLabel;
+    @FXML private Label selectionLabel;
 
     private ObservableList<User> allUsers;
     private FilteredList<User> filteredUsers;
@@ -123,6 +129,14 @@ public class ManageUsersController {
         });
 
         usersTable.setItems(filteredUsers);
+        usersTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        usersTable.getSelectionModel().getSelectedItems().addListener(
+            (javafx.collections.ListChangeListener<User>) change -> updateSelectionLabel()
+        );
+    }
+
+    private void updateSelectionLabel() {
+        selectionLabel.setText("Selected: " + usersTable.getSelectionModel().getSelectedItems().size());
     }
 
     private void setupFilters() {
@@ -282,7 +296,8 @@ public class ManageUsersController {
                 showAlert("Success",
                     user.isBanned() ? "User unbanned successfully" : "User banned successfully",
                     Alert.AlertType.INFORMATION);
-                loadUsers();
+                user.setBanned(!user.isBanned());
+                patchTable();
             } else {
                 showAlert("Error", "Failed to update user status", Alert.AlertType.ERROR);
             }
@@ -294,7 +309,8 @@ public class ManageUsersController {
         confirm.setTitle("Confirm Delete");
         confirm.setHeaderText("Delete User");
         confirm.setContentText("Are you sure you want to permanently delete " + user.getName() + "?\n" +
-                              "This action cannot be undone and will also delete all their orders and deliveries.");
+                              "This action cannot be undone. Their open orders will be cancelled and their own " +
+                              "deliveries and earnings deleted; completed orders are kept.");
 
         Optional<ButtonType> result = confirm.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
@@ -302,13 +318,130 @@ public class ManageUsersController {
 
             if (success) {
                 showAlert("Success", "User deleted successfully", Alert.AlertType.INFORMATION);
-                loadUsers();
+                allUsers.remove(user);
+                updateStatistics();
             } else {
                 showAlert("Error", "Failed to delete user", Alert.AlertType.ERROR);
             }
         }
     }
 
+    // ===== BULK ACTIONS =====
+
+    @FXML
+    private void handleBanSelected() {
+        applyBanToSelection(true);
+    }
+
+    @FXML
+    private void handleUnbanSelected() {
+        applyBanToSelection(false);
+    }
+
+    @FXML
+    private void handleMakeAdminSelected() {
+        applyAdminToSelection(true);
+    }
+
+    @FXML
+    private void handleRemoveAdminSelected() {
+        applyAdminToSelection(false);
+    }
+
+    @FXML
+    private void handleDeleteSelected() {
+        List<User> selected = selectedOtherUsers();
+        if (selected.isEmpty() || !confirmBulk("Delete Users",
+                "Permanently delete " + selected.size() + " user(s)?\n" +
+                "This cannot be undone. Their open orders will be cancelled and their own " +
+                "deliveries and earnings deleted; completed orders are kept.")) {
+            return;
+        }
+
+        int deleted = UserDAO.purgeUsers(idsOf(selected));
+        if (deleted < 0) {
+            showAlert("Error", "Failed to delete users", Alert.AlertType.ERROR);
+            return;
+        }
+        allUsers.removeAll(selected);
+        usersTable.getSelectionModel().clearSelection();
+        updateStatistics();
+        showAlert("Success", deleted + " user(s) deleted", Alert.AlertType.INFORMATION);
+    }
+
+    private void applyBanToSelection(boolean banned) {
+        List<User> selected = selectedOtherUsers();
+        selected.removeIf(user -> user.isBanned() == banned);
+        if (selected.isEmpty() || !confirmBulk(banned ? "Ban Users" : "Unban Users",
+                (banned ? "Ban " : "Unban ") + selected.size() + " user(s)?")) {
+            return;
+        }
+
+        if (UserDAO.setBanStatus(idsOf(selected), banned) < 0) {
+            showAlert("Error", "Failed to update user status", Alert.AlertType.ERROR);
+            return;
+        }
+        for (User user : selected) {
+            user.setBanned(banned);
+        }
+        patchTable();
+    }
+
+    private void applyAdminToSelection(boolean isAdmin) {
+        List<User> selected = isAdmin
+            ? new ArrayList<>(usersTable.getSelectionModel().getSelectedItems())
+            : selectedOtherUsers();
+        selected.removeIf(user -> user.isAdmin() == isAdmin);
+        if (selected.isEmpty() || !confirmBulk(isAdmin ? "Grant Admin" : "Revoke Admin",
+                (isAdmin ? "Make " + selected.size() + " user(s) admins?" : "Remove admin rights from " + selected.size() + " user(s)?"))) {
+            return;
+        }
+
+        if (UserDAO.setAdminStatus(idsOf(selected), isAdmin) < 0) {
+            showAlert("Error", "Failed to update user roles", Alert.AlertType.ERROR);
+            return;
+        }
+        for (User user : selected) {
+            user.setAdmin(isAdmin);
+        }
+        patchTable();
+    }
+
+    /**
+     * The selected users, minus the signed-in admin so nobody locks themselves out
+     */
+    private List<User> selectedOtherUsers() {
+        int self = UserSession.getInstance().getUserId();
+        List<User> selected = new ArrayList<>(usersTable.getSelectionModel().getSelectedItems());
+        selected.removeIf(user -> user.getUserId() == self);
+        return selected;
+    }
+
+    private Set<Integer> idsOf(List<User> users) {
+        Set<Integer> ids = new HashSet<>();
+        for (User user : users) {
+            ids.add(user.getUserId());
+        }
+        return ids;
+    }
+
+    /**
+     * Re-run the filter over the changed rows and redraw them without a reload
+     */
+    private void patchTable() {
+        applyFilters();
+        usersTable.refresh();
+    }
+
+    private boolean confirmBulk(String header, String message) {
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.setTitle("Confirm Action");
+        confirm.setHeaderText(header);
+        confirm.setContentText(message);
+        Optional<ButtonType> result = confirm.showAndWait();
+        return result.isPresent() && result.get() == ButtonType.OK;
+    }
+
     @FXML
     private void handleRefresh() {
         loadUsers();
@@ -2,6 +2,8 @@ package com.example.quickcommercedeliverysystemdesktop.controllers.dashboard;
 
 import com.example.quickcommercedeliverysystemdesktop.database.NotificationDAO;
 import com.example.quickcommercedeliverysystemdesktop.database.OrderDAO;
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
 import com.example.quickcommercedeliverysystemdesktop.models.Notification;
 import com.example.quickcommercedeliverysystemdesktop.models.Notification.NotificationType;
 import com.example.quickcommercedeliverysystemdesktop.models.Order;
@@ -24,6 +26,8 @@ import java.util.Optional;
 
 public class NotificationsController {
 
+    private static final Logger log = LogManager.getLogger(NotificationsController.class);
+
     @FXML private Label unreadCountLabel;
     @FXML private VBox notificationsContainer;
     @FXML private VBox emptyStateContainer;
@@ -59,23 +63,18 @@ public class NotificationsController {
     }
 
     public void loadNotifications() {
-        System.out.println("Loading notifications for user ID: " + currentUserId);
         allNotifications = NotificationDAO.getNotificationsByUser(currentUserId);
 
         if (allNotifications == null) {
-            System.out.println("Warning: allNotifications is null, initializing empty list");
+            log.warn("Notification list for user {} was null, using empty list", currentUserId);
             allNotifications = new ArrayList<>();
         }
 
-        System.out.println("Found " + allNotifications.size() + " notifications");
         updateUnreadCount();
         applyFilter();
     }
 
     private void applyFilter() {
-        System.out.println("Applying filter: " + currentFilter);
-        System.out.println("Total notifications: " + (allNotifications != null ? allNotifications.size() : "null"));
-
         notificationsContainer.getChildren().clear();
 
         List<Notification> filteredNotifications = allNotifications.stream()
@@ -90,13 +89,12 @@ public class NotificationsController {
                 })
                 .toList();
 
-        System.out.println("Filtered notifications: " + filteredNotifications.size());
+        log.debug("Filter {} matched {} of {} notifications",
+                currentFilter, filteredNotifications.size(), allNotifications.size());
 
         if (filteredNotifications.isEmpty()) {
-            System.out.println("Showing empty state");
             showEmptyState();
         } else {
-            System.out.println("Showing " + filteredNotifications.size() + " notification cards");
             hideEmptyState();
             for (Notification notification : filteredNotifications) {
                 notificationsContainer.getChildren().add(createNotificationCard(notification));
@@ -279,7 +277,7 @@ public class NotificationsController {
                 showAlert("Order not found", Alert.AlertType.WARNING);
             }
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to load order details", e);
             showAlert("Failed to load order details", Alert.AlertType.ERROR);
         }
     }
@@ -1,6 +1,7 @@
 package com.example.quickcommercedeliverysystemdesktop.controllers.dialogs;
 
 import com.example.quickcommercedeliverysystemdesktop.database.OrderDAO;
+import com.example.quickcommercedeliverysystemdesktop.models.Money;
 import com.example.quickcommercedeliverysystemdesktop.models.Order;
 import com.example.quickcommercedeliverysystemdesktop.utils.ValidationUtil;
 import javafx.fxml.FXML;
@@ -151,7 +152,7 @@ public class EditOrderController {
             timeToComboBox.setValue(times[1].trim());
         }
 
-        deliveryFeeField.setText(String.valueOf(order.getDeliveryFee()));
+        deliveryFeeField.setText(order.getDeliveryFee().toPlainString());
 
         // For date, we need to extract it from the time range or use current date
         // Since we don't store the date separately, we'll use today as default
@@ -193,10 +194,10 @@ public class EditOrderController {
         String location = deliveryLocationField.getText().trim();
         String timeFrom = timeFromComboBox.getValue();
         String timeTo = timeToComboBox.getValue();
-        double fee;
+        Money fee;
 
         try {
-            fee = Double.parseDouble(deliveryFeeField.getText().trim());
+            fee = Money.parse(deliveryFeeField.getText());
         } catch (NumberFormatException e) {
             ValidationUtil.showError(messageLabel, "Invalid delivery fee!");
             return;
@@ -292,8 +293,8 @@ public class EditOrderController {
         }
 
         try {
-            double fee = Double.parseDouble(feeText);
-            if (fee <= 0) {
+            Money fee = Money.parse(feeText);
+            if (!fee.isPositive()) {
                 ValidationUtil.showError(messageLabel, "Delivery fee must be greater than 0!");
                 return false;
             }
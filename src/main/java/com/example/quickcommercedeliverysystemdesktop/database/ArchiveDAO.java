@@ -0,0 +1,315 @@
+package com.example.quickcommercedeliverysystemdesktop.database;
+
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.metrics.DaoCall;
+import com.example.quickcommercedeliverysystemdesktop.metrics.MetricsRegistry;
+
+import java.io.File;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Data Access Object for the cold order archive.
+ *
+ * Closed orders are moved, with their deliveries, earnings, history and
+ * notifications, into one SQLite file per month of order creation under
+ * {@code database/archive/}. Archive files are ATTACHed only while a batch is
+ * moved or a date-range query needs them. Ratings stay in the main database
+ * because partner averages read them.
+ *
+ * ArchiveMonths and ArchivedPartnerTotals keep what was moved, so lifetime
+ * counts and totals can be answered from the main database alone.
+ */
+public class ArchiveDAO {
+
+    private static final Logger log = LogManager.getLogger(ArchiveDAO.class);
+
+    private static final String ARCHIVE_SCHEMA = "archive";
+
+    /** Child tables first: the delete order for the main database */
+    private static final String[] ORDER_TABLES = {"Notifications", "OrderHistory", "Earnings", "Deliveries", "Orders"};
+
+    @FunctionalInterface
+    public interface ArchiveQuery {
+        void run(Connection conn, String schema) throws SQLException;
+    }
+
+    /**
+     * Directory holding the monthly archive files, next to the main database
+     */
+    public static File getArchiveDirectory() {
+        File dbFile = new File(Database.getDatabasePath()).getAbsoluteFile();
+        return new File(dbFile.getParentFile(), "archive");
+    }
+
+    public static File getArchiveFile(String month) {
+        return new File(getArchiveDirectory(), "orders-" + month + ".db");
+    }
+
+    /**
+     * Move up to {@code limit} DELIVERED or CANCELLED orders created before the
+     * cutoff into their monthly archives. Each month is moved in one
+     * transaction spanning both databases. Returns the number of orders moved.
+     */
+    public static int archiveClosedOrders(LocalDateTime cutoff, int limit) {
+        DaoCall call = MetricsRegistry.begin("ArchiveDAO.archiveClosedOrders");
+        String sql = """
+                SELECT order_id, created_at FROM Orders
+                WHERE status IN ('DELIVERED', 'CANCELLED') AND created_at < ?
+                ORDER BY order_id
+                LIMIT ?
+                """;
+        int moved = 0;
+
+        try (Connection conn = Database.getConnection()) {
+            Map<String, List<Integer>> byMonth = new TreeMap<>();
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, Timestamp.valueOf(cutoff).toString());
+                ps.setInt(2, limit);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Timestamp createdAt = rs.getTimestamp("created_at");
+                        if (createdAt == null || !createdAt.toLocalDateTime().isBefore(cutoff)) {
+                            continue;
+                        }
+                        String month = YearMonth.from(createdAt.toLocalDateTime()).toString();
+                        byMonth.computeIfAbsent(month, m -> new ArrayList<>()).add(rs.getInt("order_id"));
+                    }
+                }
+            }
+
+            getArchiveDirectory().mkdirs();
+            for (Map.Entry<String, List<Integer>> entry : byMonth.entrySet()) {
+                moved += moveMonth(conn, entry.getKey(), entry.getValue());
+            }
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error archiving closed orders", e);
+        }
+
+        return call.end(moved);
+    }
+
+    /**
+     * Months with an archive file that may hold rows for [from, to].
+     * Rows are filed by order month, so the month before {@code from} is included
+     * for deliveries and earnings that happened after a month boundary.
+     */
+    public static List<String> getArchivedMonths(LocalDate from, LocalDate to) {
+        DaoCall call = MetricsRegistry.begin("ArchiveDAO.getArchivedMonths");
+        List<String> months = new ArrayList<>();
+        String sql = "SELECT month FROM ArchiveMonths WHERE month BETWEEN ? AND ? ORDER BY month";
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, YearMonth.from(from).minusMonths(1).toString());
+            ps.setString(2, YearMonth.from(to).toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    months.add(rs.getString("month"));
+                }
+            }
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error listing archived months", e);
+        }
+
+        return call.end(months);
+    }
+
+    /**
+     * Run a query against each month's archive in turn, attached to {@code conn}
+     * under the schema name passed to the query. Missing files are skipped.
+     */
+    public static void readArchives(Connection conn, List<String> months, ArchiveQuery query) throws SQLException {
+        for (String month : months) {
+            File file = getArchiveFile(month);
+            if (!file.isFile()) {
+                log.warn("Archive file for {} is missing: {}", month, file.getPath());
+                continue;
+            }
+            attach(conn, file);
+            try {
+                upgradeMoneyColumns(conn);
+                query.run(conn, ARCHIVE_SCHEMA);
+            } finally {
+                detach(conn);
+            }
+        }
+    }
+
+    // ===== MOVING =====
+
+    private static int moveMonth(Connection conn, String month, List<Integer> orderIds) throws SQLException {
+        File file = getArchiveFile(month);
+        attach(conn, file);
+        try {
+            upgradeMoneyColumns(conn);
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                for (String table : ORDER_TABLES) {
+                    ensureArchiveTable(conn, table);
+                }
+                stmt.execute("CREATE INDEX IF NOT EXISTS " + ARCHIVE_SCHEMA + ".idx_archive_orders_created ON Orders(created_at)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS " + ARCHIVE_SCHEMA + ".idx_archive_earnings_partner ON Earnings(delivery_person_id, created_at)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS " + ARCHIVE_SCHEMA + ".idx_archive_deliveries_order ON Deliveries(order_id)");
+
+                stmt.execute("CREATE TEMP TABLE IF NOT EXISTS archive_batch (order_id INTEGER PRIMARY KEY)");
+                stmt.execute("DELETE FROM temp.archive_batch");
+                try (PreparedStatement ps = conn.prepareStatement("INSERT INTO temp.archive_batch (order_id) VALUES (?)")) {
+                    for (Integer orderId : orderIds) {
+                        ps.setInt(1, orderId);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+
+                recordTotals(conn, month, file.getName());
+
+                for (String table : ORDER_TABLES) {
+                    String columns = String.join(", ", columnsOf(conn, "main", table));
+                    stmt.execute("INSERT INTO " + ARCHIVE_SCHEMA + "." + table + " (" + columns + ") " +
+                            "SELECT " + columns + " FROM main." + table +
+                            " WHERE order_id IN (SELECT order_id FROM temp.archive_batch)");
+                }
+                for (String table : ORDER_TABLES) {
+                    stmt.execute("DELETE FROM main." + table +
+                            " WHERE order_id IN (SELECT order_id FROM temp.archive_batch)");
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            detach(conn);
+        }
+        log.info("Archived {} orders into {}", orderIds.size(), file.getName());
+        return orderIds.size();
+    }
+
+    /**
+     * Add the batch to the month registry and the per-partner lifetime totals
+     */
+    private static void recordTotals(Connection conn, String month, String fileName) throws SQLException {
+        String monthSql = """
+                INSERT INTO ArchiveMonths (month, file_name, orders, deliveries, earnings_minor, last_archived_at)
+                SELECT ?, ?,
+                       (SELECT COUNT(*) FROM temp.archive_batch),
+                       (SELECT COUNT(*) FROM main.Deliveries WHERE order_id IN (SELECT order_id FROM temp.archive_batch)),
+                       (SELECT COALESCE(SUM(amount_minor), 0) FROM main.Earnings WHERE order_id IN (SELECT order_id FROM temp.archive_batch)),
+                       ?
+                ON CONFLICT(month) DO UPDATE SET
+                    orders = orders + excluded.orders,
+                    deliveries = deliveries + excluded.deliveries,
+                    earnings_minor = earnings_minor + excluded.earnings_minor,
+                    last_archived_at = excluded.last_archived_at
+                """;
+        // Same shape as getDeliveryStats so archived and hot figures add up
+        String partnerSql = """
+                INSERT INTO ArchivedPartnerTotals (delivery_person_id, deliveries, completed, earnings_minor)
+                SELECT d.delivery_person_id,
+                       COUNT(*),
+                       SUM(CASE WHEN o.status = 'DELIVERED' THEN 1 ELSE 0 END),
+                       COALESCE(SUM(e.amount_minor), 0)
+                FROM main.Deliveries d
+                INNER JOIN main.Orders o ON d.order_id = o.order_id
+                LEFT JOIN main.Earnings e ON e.order_id = o.order_id AND e.delivery_person_id = d.delivery_person_id
+                WHERE d.order_id IN (SELECT order_id FROM temp.archive_batch)
+                GROUP BY d.delivery_person_id
+                ON CONFLICT(delivery_person_id) DO UPDATE SET
+                    deliveries = deliveries + excluded.deliveries,
+                    completed = completed + excluded.completed,
+                    earnings_minor = earnings_minor + excluded.earnings_minor
+                """;
+
+        try (PreparedStatement psMonth = conn.prepareStatement(monthSql);
+             Statement stmt = conn.createStatement()) {
+            psMonth.setString(1, month);
+            psMonth.setString(2, fileName);
+            psMonth.setString(3, Timestamp.valueOf(LocalDateTime.now()).toString());
+            psMonth.executeUpdate();
+            stmt.executeUpdate(partnerSql);
+        }
+    }
+
+    /**
+     * Create the archive copy of a table, or add columns the main table gained since
+     */
+    private static void ensureArchiveTable(Connection conn, String table) throws SQLException {
+        Set<String> archived = columnsOf(conn, ARCHIVE_SCHEMA, table);
+        try (Statement stmt = conn.createStatement()) {
+            if (archived.isEmpty()) {
+                stmt.execute("CREATE TABLE " + ARCHIVE_SCHEMA + "." + table +
+                        " AS SELECT * FROM main." + table + " WHERE 0");
+                return;
+            }
+            for (String column : columnsOf(conn, "main", table)) {
+                if (!archived.contains(column)) {
+                    stmt.execute("ALTER TABLE " + ARCHIVE_SCHEMA + "." + table + " ADD COLUMN " + column);
+                }
+            }
+        }
+    }
+
+    /**
+     * Bring an archive written before money moved to minor units up to date,
+     * in one transaction so a half-converted file is never left behind
+     */
+    private static void upgradeMoneyColumns(Connection conn) throws SQLException {
+        if (!columnsOf(conn, ARCHIVE_SCHEMA, "Orders").contains("fee")
+                && !columnsOf(conn, ARCHIVE_SCHEMA, "Earnings").contains("amount")) {
+            return;
+        }
+        conn.setAutoCommit(false);
+        try {
+            SchemaMigrator.replaceWithMinorUnits(conn, ARCHIVE_SCHEMA, "Orders", "fee", "fee_minor");
+            SchemaMigrator.replaceWithMinorUnits(conn, ARCHIVE_SCHEMA, "Earnings", "amount", "amount_minor");
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static Set<String> columnsOf(Connection conn, String schema, String table) throws SQLException {
+        Set<String> columns = new LinkedHashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA " + schema + ".table_info(" + table + ")")) {
+            while (rs.next()) {
+                columns.add(rs.getString("name"));
+            }
+        }
+        return columns;
+    }
+
+    private static void attach(Connection conn, File file) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("ATTACH DATABASE ? AS " + ARCHIVE_SCHEMA)) {
+            ps.setString(1, file.getPath());
+            ps.execute();
+        }
+    }
+
+    private static void detach(Connection conn) {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DETACH DATABASE " + ARCHIVE_SCHEMA);
+        } catch (SQLException e) {
+            log.warn("Could not detach archive database", e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.quickcommercedeliverysystemdesktop.database;
+
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.metrics.DaoCall;
+import com.example.quickcommercedeliverysystemdesktop.metrics.MetricsRegistry;
+import org.sqlite.SQLiteConnection;
+
+import java.io.File;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for online backups through SQLite's backup API.
+ *
+ * The copy is made a few pages at a time; the source is only read-locked
+ * while a step runs, so writers get the database between steps. If another
+ * connection writes mid-copy SQLite restarts the copy, so the snapshot is
+ * always consistent as of the moment the last pass began.
+ */
+public class BackupDAO {
+
+    private static final Logger log = LogManager.getLogger(BackupDAO.class);
+
+    /** How long to wait, and how often, when a step finds the source locked */
+    private static final int BUSY_SLEEP_MS = 100;
+    private static final int BUSY_RETRIES = 50;
+
+    /**
+     * Called after every step with the pages still to copy and the source page count
+     */
+    @FunctionalInterface
+    public interface StepListener {
+        void afterStep(int remaining, int pageCount);
+    }
+
+    /**
+     * Copy the main database into {@code destination} in steps of
+     * {@code pagesPerStep} pages. The listener runs between steps, when no
+     * lock is held, and may pause there. Returns true once the copy is complete.
+     */
+    public static boolean backupTo(File destination, int pagesPerStep, StepListener listener) {
+        DaoCall call = MetricsRegistry.begin("BackupDAO.backupTo");
+
+        try (Connection conn = Database.getConnection()) {
+
+            SQLiteConnection sqlite = conn.unwrap(SQLiteConnection.class);
+            int rc = sqlite.getDatabase().backup("main", destination.getPath(),
+                    listener::afterStep, BUSY_SLEEP_MS, BUSY_RETRIES, pagesPerStep);
+            if (rc != 0) {
+                log.error("Backup to " + destination.getPath() + " stopped with SQLite code " + rc);
+                return call.end(false);
+            }
+            return call.end(true);
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error backing up database", e);
+            return call.end(false);
+        }
+    }
+
+    /**
+     * Run quick_check against a snapshot file; an intact copy returns just "ok".
+     * Returns null if the file could not be opened.
+     */
+    public static List<String> checkSnapshot(File snapshot, int maxErrors) {
+        DaoCall call = MetricsRegistry.begin("BackupDAO.checkSnapshot");
+        List<String> messages = new ArrayList<>();
+
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + snapshot.getPath());
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA quick_check(" + Math.max(1, maxErrors) + ")")) {
+
+            while (rs.next()) {
+                messages.add(rs.getString(1));
+            }
+            return call.end(messages);
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error checking snapshot " + snapshot.getPath(), e);
+            return call.end((List<String>) null);
+        }
+    }
+}
@@ -1,25 +1,61 @@
 package com.example.quickcommercedeliverysystemdesktop.database;
 
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+
 import java.io.File;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.util.Collection;
+import java.util.Properties;
+import java.util.StringJoiner;
 
 public class Database {
+
+    private static final Logger log = LogManager.getLogger(Database.class);
+
+    /** System property that points the app (or a benchmark) at another database file */
+    public static final String PATH_PROPERTY = "quickcommerce.db.path";
+    private static final String DEFAULT_PATH = "database/quickcommerce.db";
+
+    /**
+     * Get the database file path, honouring -Dquickcommerce.db.path
+     */
+    public static String getDatabasePath() {
+        return System.getProperty(PATH_PROPERTY, DEFAULT_PATH);
+    }
+
     public static Connection getConnection() {
         try {
 
-            File folder = new File("database");
-            if (!folder.exists()) {
+            File dbFile = new File(getDatabasePath());
+            File folder = dbFile.getAbsoluteFile().getParentFile();
+            if (folder != null && !folder.exists()) {
                 folder.mkdirs();
             }
 
-            String url = "jdbc:sqlite:database/quickcommerce.db";
-            return DriverManager.getConnection(url);
+            // SQLite leaves foreign keys unenforced unless each connection asks
+            Properties properties = new Properties();
+            properties.setProperty("foreign_keys", "true");
+
+            String url = "jdbc:sqlite:" + dbFile.getPath();
+            return DriverManager.getConnection(url, properties);
 
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to open database connection", e);
             return null;
         }
     }
 
+    /**
+     * Format ids as a JSON array so a whole set binds to one parameter:
+     * {@code WHERE id IN (SELECT value FROM json_each(?))}
+     */
+    static String toJsonArray(Collection<Integer> ids) {
+        StringJoiner json = new StringJoiner(",", "[", "]");
+        for (Integer id : ids) {
+            json.add(String.valueOf(id));
+        }
+        return json.toString();
+    }
 }
@@ -1,11 +1,25 @@
 package com.example.quickcommercedeliverysystemdesktop.database;
 
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.Statement;
 
 public class DatabaseInitializer {
+
+    private static final Logger log = LogManager.getLogger(DatabaseInitializer.class);
+
     public static void initialize() {
+        initialize(SchemaMigrator.getLatestVersion());
+    }
+
+    /**
+     * Create the base tables and migrate them up to {@code schemaVersion};
+     * tests use an older version to set up an upgrade
+     */
+    static void initialize(int schemaVersion) {
         try(Connection conn = Database.getConnection();
             Statement stmt = conn.createStatement()) {
 
@@ -132,11 +146,13 @@ public class DatabaseInitializer {
             stmt.execute(createNotifications);
             stmt.execute(createOrderHistory);
 
-            System.out.println("✔ Database tables created successfully (Users, Orders, Deliveries, Earnings, Ratings, Notifications, OrderHistory).");
+            log.info("Database tables created successfully (Users, Orders, Deliveries, Earnings, Ratings, Notifications, OrderHistory).");
+
+            // Apply versioned changes on top of the base tables
+            SchemaMigrator.migrate(conn, schemaVersion);
 
         } catch (Exception ex) {
-            System.err.println("Error initializing database: " + ex.getMessage());
-            ex.printStackTrace();
+            log.error("Error initializing database", ex);
         }
     }
 
@@ -163,19 +179,19 @@ public class DatabaseInitializer {
 
                 // If missing required columns, drop and recreate
                 if (!hasTitle || !hasType || !hasOrderId) {
-                    System.out.println("⚠ Notifications table has incorrect structure - fixing...");
+                    log.warn("Notifications table has incorrect structure - fixing...");
 
                     // Drop old table
                     stmt.execute("DROP TABLE IF EXISTS Notifications");
-                    System.out.println("✓ Dropped old Notifications table");
+                    log.info("Dropped old Notifications table");
 
                     // Table will be recreated below in the normal flow
-                    System.out.println("✓ Notifications table will be recreated with correct structure");
+                    log.info("Notifications table will be recreated with correct structure");
                 }
             }
         } catch (Exception e) {
             // Table doesn't exist yet, which is fine - it will be created below
-            System.out.println("ℹ Notifications table will be created");
+            log.info("Notifications table will be created");
         }
     }
 
@@ -193,7 +209,7 @@ public class DatabaseInitializer {
 
                 if (!rs.next()) {
                     // Table doesn't exist yet, it will be created
-                    System.out.println("ℹ Users table will be created");
+                    log.info("Users table will be created");
                     return;
                 }
                 actualTableName = rs.getString("name");
@@ -215,20 +231,19 @@ public class DatabaseInitializer {
 
                 // Add missing columns
                 if (!hasIsAdmin) {
-                    System.out.println("⚠ Adding missing 'is_admin' column to " + actualTableName + " table...");
+                    log.warn("Adding missing 'is_admin' column to {} table", actualTableName);
                     stmt.execute("ALTER TABLE " + actualTableName + " ADD COLUMN is_admin INTEGER DEFAULT 0");
-                    System.out.println("✓ Added 'is_admin' column");
+                    log.info("Added 'is_admin' column");
                 }
 
                 if (!hasIsBanned) {
-                    System.out.println("⚠ Adding missing 'is_banned' column to " + actualTableName + " table...");
+                    log.warn("Adding missing 'is_banned' column to {} table", actualTableName);
                     stmt.execute("ALTER TABLE " + actualTableName + " ADD COLUMN is_banned INTEGER DEFAULT 0");
-                    System.out.println("✓ Added 'is_banned' column");
+                    log.info("Added 'is_banned' column");
                 }
             }
         } catch (Exception e) {
-            System.err.println("Error verifying Users table: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error verifying Users table", e);
         }
     }
 }
@@ -1,44 +1,221 @@
 package com.example.quickcommercedeliverysystemdesktop.database;
 
+import com.example.quickcommercedeliverysystemdesktop.events.OrderEvent;
+import com.example.quickcommercedeliverysystemdesktop.events.OrderEventBus;
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.metrics.DaoCall;
+import com.example.quickcommercedeliverysystemdesktop.metrics.MetricsRegistry;
+import com.example.quickcommercedeliverysystemdesktop.models.GeoPoint;
+import com.example.quickcommercedeliverysystemdesktop.models.Money;
+import com.example.quickcommercedeliverysystemdesktop.models.Notification;
+import com.example.quickcommercedeliverysystemdesktop.models.Notification.NotificationType;
 import com.example.quickcommercedeliverysystemdesktop.models.Order;
 import com.example.quickcommercedeliverysystemdesktop.models.Order.OrderStatus;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Delivery operations
  */
 public class DeliveryDAO {
 
+    private static final Logger log = LogManager.getLogger(DeliveryDAO.class);
+
+    /** Nearest-order search starts with this radius and doubles it up to the maximum */
+    private static final double NEAREST_START_RADIUS_KM = 1.0;
+    private static final double NEAREST_MAX_RADIUS_KM = 128.0;
+
+    /** Orders with their customer's contact joined in, for mapPendingOrder */
+    private static final String PENDING_ORDER_SELECT =
+            "SELECT o.*, COALESCE(u.name, '') AS customer_name, COALESCE(u.phone, '') AS customer_phone " +
+            "FROM Orders o LEFT JOIN Users u ON u.user_id = o.customer_id ";
+
     /**
      * Get all available orders (PENDING status) that can be accepted by delivery partners
      */
     public static List<Order> getAvailableOrders() {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.getAvailableOrders");
         List<Order> orders = new ArrayList<>();
-        String sql = "SELECT * FROM Orders WHERE status = 'PENDING' ORDER BY created_at DESC";
+        String sql = PENDING_ORDER_SELECT + "WHERE o.status = 'PENDING' ORDER BY o.created_at DESC";
 
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
-                orders.add(mapResultSetToOrder(rs));
+                orders.add(mapPendingOrder(rs));
+            }
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error fetching available orders", e);
+        }
+
+        return call.end(orders);
+    }
+
+    /**
+     * Get one order if it is still pending, or null if it is not (or on error)
+     */
+    public static Order getPendingOrder(int orderId) {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.getPendingOrder");
+        String sql = PENDING_ORDER_SELECT + "WHERE o.order_id = ? AND o.status = 'PENDING'";
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, orderId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return call.end(mapPendingOrder(rs));
+                }
+            }
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error fetching pending order", e);
+        }
+
+        return call.end(null);
+    }
+
+    /**
+     * Count, highest id, id sum and fee sum of the pending orders, to tell
+     * whether an in-memory copy of the pending set is out of date. The sums
+     * catch one order leaving while another joins, and fee edits. Returns null
+     * on error.
+     */
+    public static PendingFingerprint getPendingFingerprint() {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.getPendingFingerprint");
+        String sql = "SELECT COUNT(*) AS count, COALESCE(MAX(order_id), 0) AS max_id, " +
+                     "COALESCE(SUM(order_id), 0) AS id_sum, COALESCE(SUM(fee_minor), 0) AS fee_sum " +
+                     "FROM Orders WHERE status = 'PENDING'";
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            if (rs.next()) {
+                return call.end(new PendingFingerprint(rs.getInt("count"), rs.getInt("max_id"),
+                        rs.getLong("id_sum"), rs.getLong("fee_sum")));
             }
         } catch (SQLException e) {
-            System.err.println("Error fetching available orders: " + e.getMessage());
-            e.printStackTrace();
+            call.fail(e);
+            log.error("Error reading pending order fingerprint", e);
         }
 
-        return orders;
+        return call.end(null);
+    }
+
+    /**
+     * Get up to {@code limit} pending orders closest to a point, nearest first.
+     *
+     * Candidates come from the PendingOrderGeo R*Tree: the search box doubles
+     * until it holds enough orders inside its inscribed circle, which makes
+     * the result exact. Orders farther than NEAREST_MAX_RADIUS_KM or without
+     * resolved coordinates are not returned.
+     */
+    public static List<Order> getNearestAvailableOrders(double latitude, double longitude, int limit) {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.getNearestAvailableOrders");
+        List<Order> orders = new ArrayList<>();
+        if (limit <= 0) {
+            return call.end(orders);
+        }
+
+        GeoPoint origin = new GeoPoint(latitude, longitude);
+        String boxSql = """
+                SELECT g.order_id, o.latitude, o.longitude
+                FROM PendingOrderGeo g
+                INNER JOIN Orders o ON o.order_id = g.order_id
+                WHERE g.max_lat >= ? AND g.min_lat <= ? AND g.max_lon >= ? AND g.min_lon <= ?
+                """;
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement psBox = conn.prepareStatement(boxSql)) {
+
+            // {order_id, distance_km} for candidates inside the current radius
+            List<double[]> candidates = new ArrayList<>();
+            double radiusKm = NEAREST_START_RADIUS_KM;
+
+            while (true) {
+                candidates.clear();
+                double latDelta = GeoPoint.latitudeDelta(radiusKm);
+                double lonDelta = origin.longitudeDelta(radiusKm);
+                psBox.setDouble(1, latitude - latDelta);
+                psBox.setDouble(2, latitude + latDelta);
+                psBox.setDouble(3, longitude - lonDelta);
+                psBox.setDouble(4, longitude + lonDelta);
+
+                try (ResultSet rs = psBox.executeQuery()) {
+                    while (rs.next()) {
+                        double distance = GeoPoint.distanceKm(latitude, longitude, rs.getDouble(2), rs.getDouble(3));
+                        if (distance <= radiusKm) {
+                            candidates.add(new double[] {rs.getInt(1), distance});
+                        }
+                    }
+                }
+
+                if (candidates.size() >= limit || radiusKm >= NEAREST_MAX_RADIUS_KM) {
+                    break;
+                }
+                radiusKm *= 2;
+            }
+
+            candidates.sort(Comparator.comparingDouble(c -> c[1]));
+            List<double[]> nearest = candidates.subList(0, Math.min(limit, candidates.size()));
+            if (nearest.isEmpty()) {
+                return call.end(orders);
+            }
+
+            // Load the full rows of the winners only
+            StringBuilder placeholders = new StringBuilder();
+            for (int i = 0; i < nearest.size(); i++) {
+                placeholders.append(i == 0 ? "?" : ", ?");
+            }
+            String rowSql = "SELECT * FROM Orders WHERE status = 'PENDING' AND order_id IN (" + placeholders + ")";
+
+            Map<Integer, Order> byId = new HashMap<>();
+            try (PreparedStatement psRows = conn.prepareStatement(rowSql)) {
+                for (int i = 0; i < nearest.size(); i++) {
+                    psRows.setInt(i + 1, (int) nearest.get(i)[0]);
+                }
+                try (ResultSet rs = psRows.executeQuery()) {
+                    while (rs.next()) {
+                        Order order = mapResultSetToOrder(rs);
+                        byId.put(order.getOrderId(), order);
+                    }
+                }
+            }
+
+            for (double[] candidate : nearest) {
+                Order order = byId.get((int) candidate[0]);
+                if (order != null) {
+                    orders.add(order);
+                }
+            }
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error fetching nearest available orders", e);
+        }
+
+        return call.end(orders);
     }
 
     /**
      * Accept an order by a delivery partner
      */
     public static boolean acceptOrder(int orderId, int deliveryPersonId) {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.acceptOrder");
         String updateOrderSql = "UPDATE Orders SET status = 'ACCEPTED' WHERE order_id = ? AND status = 'PENDING'";
         String insertDeliverySql = "INSERT INTO Deliveries (order_id, delivery_person_id, status, created_at) VALUES (?, ?, 'Accepted', ?)";
 
@@ -60,6 +237,7 @@ public class DeliveryDAO {
                     psInsert.executeUpdate();
 
                     conn.commit();
+                    OrderEventBus.publish(OrderEvent.Type.ACCEPTED, orderId, deliveryPersonId);
 
                     // Get customer ID for notification
                     int customerId = getCustomerIdForOrder(orderId);
@@ -74,21 +252,22 @@ public class DeliveryDAO {
                         );
                     }
 
-                    return true;
+                    return call.end(true);
                 }
 
                 conn.rollback();
-                return false;
+                return call.end(false);
 
             } catch (SQLException e) {
+                call.fail(e);
                 conn.rollback();
                 throw e;
             }
 
         } catch (SQLException e) {
-            System.err.println("Error accepting order: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+            call.fail(e);
+            log.error("Error accepting order", e);
+            return call.end(false);
         }
     }
 
@@ -96,6 +275,7 @@ public class DeliveryDAO {
      * Get all deliveries for a specific delivery partner
      */
     public static List<Order> getDeliveriesByPartner(int deliveryPersonId) {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.getDeliveriesByPartner");
         List<Order> orders = new ArrayList<>();
         String sql = """
                 SELECT o.* FROM Orders o
@@ -115,17 +295,18 @@ public class DeliveryDAO {
             }
 
         } catch (SQLException e) {
-            System.err.println("Error fetching deliveries for partner: " + e.getMessage());
-            e.printStackTrace();
+            call.fail(e);
+            log.error("Error fetching deliveries for partner", e);
         }
 
-        return orders;
+        return call.end(orders);
     }
 
     /**
      * Update delivery status to PICKED_UP
      */
     public static boolean markAsPickedUp(int orderId, int deliveryPersonId) {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.markAsPickedUp");
         String updateOrderSql = "UPDATE Orders SET status = 'PICKED_UP' WHERE order_id = ? AND status = 'ACCEPTED'";
         String updateDeliverySql = "UPDATE Deliveries SET status = 'Picked Up', pickup_time = ? WHERE order_id = ? AND delivery_person_id = ?";
 
@@ -147,6 +328,7 @@ public class DeliveryDAO {
                     psDelivery.executeUpdate();
 
                     conn.commit();
+                    OrderEventBus.publish(OrderEvent.Type.PICKED_UP, orderId, deliveryPersonId);
 
                     // Get customer ID for notification
                     int customerId = getCustomerIdForOrder(orderId);
@@ -161,21 +343,22 @@ public class DeliveryDAO {
                         );
                     }
 
-                    return true;
+                    return call.end(true);
                 }
 
                 conn.rollback();
-                return false;
+                return call.end(false);
 
             } catch (SQLException e) {
+                call.fail(e);
                 conn.rollback();
                 throw e;
             }
 
         } catch (SQLException e) {
-            System.err.println("Error marking order as picked up: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+            call.fail(e);
+            log.error("Error marking order as picked up", e);
+            return call.end(false);
         }
     }
 
@@ -183,6 +366,7 @@ public class DeliveryDAO {
      * Update delivery status to ON_THE_WAY
      */
     public static boolean markAsOnTheWay(int orderId) {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.markAsOnTheWay");
         String sql = "UPDATE Orders SET status = 'ON_THE_WAY' WHERE order_id = ? AND status = 'PICKED_UP'";
 
         try (Connection conn = Database.getConnection();
@@ -192,6 +376,8 @@ public class DeliveryDAO {
             int updated = ps.executeUpdate();
 
             if (updated > 0) {
+                OrderEventBus.publish(OrderEvent.Type.ON_THE_WAY, orderId);
+
                 // Get customer ID for notification
                 int customerId = getCustomerIdForOrder(orderId);
                 if (customerId > 0) {
@@ -204,25 +390,26 @@ public class DeliveryDAO {
                         orderId
                     );
                 }
-                return true;
+                return call.end(true);
             }
 
-            return false;
+            return call.end(false);
 
         } catch (SQLException e) {
-            System.err.println("Error marking order as on the way: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+            call.fail(e);
+            log.error("Error marking order as on the way", e);
+            return call.end(false);
         }
     }
 
     /**
      * Complete delivery and mark as DELIVERED
      */
-    public static boolean completeDelivery(int orderId, int deliveryPersonId, double deliveryFee) {
+    public static boolean completeDelivery(int orderId, int deliveryPersonId, Money deliveryFee) {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.completeDelivery");
         String updateOrderSql = "UPDATE Orders SET status = 'DELIVERED' WHERE order_id = ? AND (status = 'ON_THE_WAY' OR status = 'PICKED_UP')";
         String updateDeliverySql = "UPDATE Deliveries SET status = 'Delivered', delivered_time = ? WHERE order_id = ? AND delivery_person_id = ?";
-        String insertEarningSql = "INSERT INTO Earnings (delivery_person_id, order_id, amount, created_at) VALUES (?, ?, ?, ?)";
+        String insertEarningSql = "INSERT INTO Earnings (delivery_person_id, order_id, amount_minor, created_at) VALUES (?, ?, ?, ?)";
 
         try (Connection conn = Database.getConnection()) {
             conn.setAutoCommit(false);
@@ -247,11 +434,12 @@ public class DeliveryDAO {
                     // Record earning
                     psEarning.setInt(1, deliveryPersonId);
                     psEarning.setInt(2, orderId);
-                    psEarning.setDouble(3, deliveryFee);
+                    psEarning.setLong(3, deliveryFee.getMinor());
                     psEarning.setTimestamp(4, Timestamp.valueOf(now));
                     psEarning.executeUpdate();
 
                     conn.commit();
+                    OrderEventBus.publish(OrderEvent.Type.DELIVERED, orderId, deliveryPersonId);
 
                     // Get customer ID for notification
                     int customerId = getCustomerIdForOrder(orderId);
@@ -270,7 +458,7 @@ public class DeliveryDAO {
                     NotificationDAO.createNotification(
                         deliveryPersonId,
                         "Delivery Completed",
-                        String.format("You earned $%.2f from order #%d", deliveryFee, orderId),
+                        "You earned " + deliveryFee + " from order #" + orderId,
                         "EARNING",
                         orderId
                     );
@@ -288,21 +476,267 @@ public class DeliveryDAO {
                         );
                     }
 
-                    return true;
+                    return call.end(true);
                 }
 
                 conn.rollback();
-                return false;
+                return call.end(false);
 
             } catch (SQLException e) {
+                call.fail(e);
                 conn.rollback();
                 throw e;
             }
 
         } catch (SQLException e) {
-            System.err.println("Error completing delivery: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+            call.fail(e);
+            log.error("Error completing delivery", e);
+            return call.end(false);
+        }
+    }
+
+    /**
+     * Mark several of a partner's ACCEPTED orders as PICKED_UP in one transaction.
+     *
+     * Each order is guarded on its status and on being carried by this partner;
+     * orders that fail the guard are skipped. Returns the order ids that moved.
+     * Customer notifications are written in one batch after the commit.
+     */
+    public static List<Integer> markAsPickedUp(Collection<Integer> orderIds, int deliveryPersonId) {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.markAsPickedUpBatch");
+        List<Integer> moved = new ArrayList<>();
+        if (orderIds.isEmpty()) {
+            return call.end(moved);
+        }
+
+        String updateOrderSql = """
+                UPDATE Orders SET status = 'PICKED_UP'
+                WHERE order_id = ? AND status = 'ACCEPTED'
+                  AND EXISTS (SELECT 1 FROM Deliveries d WHERE d.order_id = Orders.order_id AND d.delivery_person_id = ?)
+                """;
+        String updateDeliverySql = "UPDATE Deliveries SET status = 'Picked Up', pickup_time = ? WHERE order_id = ? AND delivery_person_id = ?";
+        List<BatchRow> rows;
+
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement psOrder = conn.prepareStatement(updateOrderSql);
+                 PreparedStatement psDelivery = conn.prepareStatement(updateDeliverySql)) {
+
+                moved = applyGuardedBatch(psOrder, new LinkedHashSet<>(orderIds), deliveryPersonId);
+                if (moved.isEmpty()) {
+                    conn.rollback();
+                    return call.end(moved);
+                }
+
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                for (Integer orderId : moved) {
+                    psDelivery.setTimestamp(1, now);
+                    psDelivery.setInt(2, orderId);
+                    psDelivery.setInt(3, deliveryPersonId);
+                    psDelivery.addBatch();
+                }
+                psDelivery.executeBatch();
+
+                rows = loadBatchRows(conn, moved);
+                conn.commit();
+
+            } catch (SQLException e) {
+                call.fail(e);
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error marking orders as picked up", e);
+            return call.end(new ArrayList<>());
+        }
+
+        List<Notification> notifications = new ArrayList<>();
+        for (BatchRow row : rows) {
+            OrderEventBus.publish(OrderEvent.Type.PICKED_UP, row.orderId, deliveryPersonId);
+            if (row.customerId > 0) {
+                notifications.add(new Notification(
+                    row.customerId,
+                    "Order Picked Up",
+                    "Your order #" + row.orderId + " has been picked up by the delivery partner",
+                    NotificationType.DELIVERY_UPDATE,
+                    row.orderId
+                ));
+            }
+        }
+        NotificationDAO.createNotifications(notifications);
+
+        log.info("Partner {} picked up {} of {} orders", deliveryPersonId, moved.size(), orderIds.size());
+        return call.end(moved);
+    }
+
+    /**
+     * Complete several of a partner's PICKED_UP or ON_THE_WAY orders in one
+     * transaction. Earnings are recorded with a single insert that reads each
+     * order's fee. Orders that fail the status or ownership guard are skipped.
+     *
+     * After the commit, customers get one notification each and the partner
+     * and admins get one summary each, all written in a single batch.
+     * Returns the order ids that were delivered.
+     */
+    public static List<Integer> completeDeliveries(Collection<Integer> orderIds, int deliveryPersonId) {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.completeDeliveries");
+        List<Integer> delivered = new ArrayList<>();
+        if (orderIds.isEmpty()) {
+            return call.end(delivered);
+        }
+
+        String updateOrderSql = """
+                UPDATE Orders SET status = 'DELIVERED'
+                WHERE order_id = ? AND status IN ('ON_THE_WAY', 'PICKED_UP')
+                  AND EXISTS (SELECT 1 FROM Deliveries d WHERE d.order_id = Orders.order_id AND d.delivery_person_id = ?)
+                """;
+        String updateDeliverySql = "UPDATE Deliveries SET status = 'Delivered', delivered_time = ? WHERE order_id = ? AND delivery_person_id = ?";
+        String insertEarningsSql = """
+                INSERT INTO Earnings (delivery_person_id, order_id, amount_minor, created_at)
+                SELECT ?, order_id, fee_minor, ? FROM Orders
+                WHERE order_id IN (SELECT value FROM json_each(?))
+                """;
+        List<BatchRow> rows;
+
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement psOrder = conn.prepareStatement(updateOrderSql);
+                 PreparedStatement psDelivery = conn.prepareStatement(updateDeliverySql);
+                 PreparedStatement psEarnings = conn.prepareStatement(insertEarningsSql)) {
+
+                delivered = applyGuardedBatch(psOrder, new LinkedHashSet<>(orderIds), deliveryPersonId);
+                if (delivered.isEmpty()) {
+                    conn.rollback();
+                    return call.end(delivered);
+                }
+
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                for (Integer orderId : delivered) {
+                    psDelivery.setTimestamp(1, now);
+                    psDelivery.setInt(2, orderId);
+                    psDelivery.setInt(3, deliveryPersonId);
+                    psDelivery.addBatch();
+                }
+                psDelivery.executeBatch();
+
+                psEarnings.setInt(1, deliveryPersonId);
+                psEarnings.setTimestamp(2, now);
+                psEarnings.setString(3, Database.toJsonArray(delivered));
+                psEarnings.executeUpdate();
+
+                rows = loadBatchRows(conn, delivered);
+                conn.commit();
+
+            } catch (SQLException e) {
+                call.fail(e);
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error completing deliveries", e);
+            return call.end(new ArrayList<>());
+        }
+
+        List<Notification> notifications = new ArrayList<>();
+        long totalMinor = 0;
+        for (BatchRow row : rows) {
+            OrderEventBus.publish(OrderEvent.Type.DELIVERED, row.orderId, deliveryPersonId);
+            totalMinor += row.feeMinor;
+            if (row.customerId > 0) {
+                notifications.add(new Notification(
+                    row.customerId,
+                    "Order Delivered",
+                    "Your order #" + row.orderId + " has been successfully delivered!",
+                    NotificationType.SUCCESS,
+                    row.orderId
+                ));
+            }
+        }
+
+        // One summary for the partner and each admin instead of one per order;
+        // a single order reads the same as completeDelivery's messages
+        Integer singleOrderId = rows.size() == 1 ? rows.get(0).orderId : null;
+        String orders = singleOrderId != null ? "order #" + singleOrderId : rows.size() + " orders";
+        notifications.add(new Notification(
+            deliveryPersonId,
+            singleOrderId != null ? "Delivery Completed" : "Deliveries Completed",
+            "You earned " + Money.format(totalMinor) + " from " + orders,
+            NotificationType.EARNING,
+            singleOrderId
+        ));
+        String deliveryPersonName = getUserNameById(deliveryPersonId);
+        for (Integer adminId : UserDAO.getAdminUserIds()) {
+            notifications.add(new Notification(
+                adminId,
+                singleOrderId != null ? "Order Delivered Successfully" : "Orders Delivered Successfully",
+                (singleOrderId != null ? "Order #" + singleOrderId : rows.size() + " orders")
+                    + " delivered by " + deliveryPersonName,
+                NotificationType.SUCCESS,
+                singleOrderId
+            ));
+        }
+        NotificationDAO.createNotifications(notifications);
+
+        log.info("Partner {} delivered {} of {} orders", deliveryPersonId, delivered.size(), orderIds.size());
+        return call.end(delivered);
+    }
+
+    /**
+     * Run a guarded per-order update as one batch and return the ids it changed.
+     * The statement takes the order id and then the partner id.
+     */
+    private static List<Integer> applyGuardedBatch(PreparedStatement ps, Collection<Integer> orderIds,
+                                                   int deliveryPersonId) throws SQLException {
+        List<Integer> ids = new ArrayList<>(orderIds);
+        for (Integer orderId : ids) {
+            ps.setInt(1, orderId);
+            ps.setInt(2, deliveryPersonId);
+            ps.addBatch();
+        }
+        int[] counts = ps.executeBatch();
+
+        List<Integer> changed = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                changed.add(ids.get(i));
+            }
+        }
+        return changed;
+    }
+
+    private static List<BatchRow> loadBatchRows(Connection conn, List<Integer> orderIds) throws SQLException {
+        List<BatchRow> rows = new ArrayList<>();
+        String sql = "SELECT order_id, customer_id, fee_minor FROM Orders WHERE order_id IN (SELECT value FROM json_each(?)) ORDER BY order_id";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, Database.toJsonArray(orderIds));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new BatchRow(rs.getInt("order_id"), rs.getInt("customer_id"), rs.getLong("fee_minor")));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Order id, customer and fee of an order moved by a batch transition
+     */
+    private static class BatchRow {
+        private final int orderId;
+        private final int customerId;
+        private final long feeMinor;
+
+        private BatchRow(int orderId, int customerId, long feeMinor) {
+            this.orderId = orderId;
+            this.customerId = customerId;
+            this.feeMinor = feeMinor;
         }
     }
 
@@ -310,45 +744,73 @@ public class DeliveryDAO {
      * Get delivery statistics for a partner
      */
     public static DeliveryStats getDeliveryStats(int deliveryPersonId) {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.getDeliveryStats");
         String sql = """
                 SELECT 
-                    COUNT(*) as total_deliveries,
-                    SUM(CASE WHEN o.status = 'DELIVERED' THEN 1 ELSE 0 END) as completed,
+                    COUNT(*) + COALESCE((SELECT deliveries FROM ArchivedPartnerTotals WHERE delivery_person_id = ?1), 0) as total_deliveries,
+                    COALESCE(SUM(CASE WHEN o.status = 'DELIVERED' THEN 1 ELSE 0 END), 0)
+                        + COALESCE((SELECT completed FROM ArchivedPartnerTotals WHERE delivery_person_id = ?1), 0) as completed,
                     SUM(CASE WHEN o.status IN ('ACCEPTED', 'PICKED_UP', 'ON_THE_WAY') THEN 1 ELSE 0 END) as in_progress,
-                    COALESCE(SUM(e.amount), 0) as total_earnings
+                    COALESCE(SUM(e.amount_minor), 0)
+                        + COALESCE((SELECT earnings_minor FROM ArchivedPartnerTotals WHERE delivery_person_id = ?1), 0) as total_earnings
                 FROM Deliveries d
                 INNER JOIN Orders o ON d.order_id = o.order_id
                 LEFT JOIN Earnings e ON e.order_id = o.order_id AND e.delivery_person_id = d.delivery_person_id
-                WHERE d.delivery_person_id = ?
+                WHERE d.delivery_person_id = ?1
                 """;
 
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
+            // Archived orders count through the totals recorded when they were moved
             ps.setInt(1, deliveryPersonId);
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-                return new DeliveryStats(
+                return call.end(new DeliveryStats(
                         rs.getInt("total_deliveries"),
                         rs.getInt("completed"),
                         rs.getInt("in_progress"),
-                        rs.getDouble("total_earnings")
-                );
+                        Money.ofMinor(rs.getLong("total_earnings"))
+                ));
             }
 
         } catch (SQLException e) {
-            System.err.println("Error fetching delivery stats: " + e.getMessage());
-            e.printStackTrace();
+            call.fail(e);
+            log.error("Error fetching delivery stats", e);
         }
 
-        return new DeliveryStats(0, 0, 0, 0.0);
+        return call.end(new DeliveryStats(0, 0, 0, Money.ZERO));
+    }
+
+    /**
+     * Map a row of PENDING_ORDER_SELECT, which carries the customer's name and
+     * phone, so no second connection is opened while the result set is live
+     */
+    private static Order mapPendingOrder(ResultSet rs) throws SQLException {
+        return mapOrderRow(rs, rs.getString("customer_name"), rs.getString("customer_phone"));
     }
 
     /**
      * Helper method to map ResultSet to Order object
      */
     private static Order mapResultSetToOrder(ResultSet rs) throws SQLException {
+        // Get customer info from Users table
+        String customerName = "";
+        String customerPhone = "";
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT name, phone FROM Users WHERE user_id = ?")) {
+            ps.setInt(1, rs.getInt("customer_id"));
+            ResultSet rsUser = ps.executeQuery();
+            if (rsUser.next()) {
+                customerName = rsUser.getString("name");
+                customerPhone = rsUser.getString("phone");
+            }
+        }
+        return mapOrderRow(rs, customerName, customerPhone);
+    }
+
+    private static Order mapOrderRow(ResultSet rs, String customerName, String customerPhone) throws SQLException {
         int orderId = rs.getInt("order_id");
         int customerId = rs.getInt("customer_id");
         String productName = rs.getString("product_name");
@@ -358,31 +820,20 @@ public class DeliveryDAO {
         String timeFrom = rs.getString("time_from");
         String timeTo = rs.getString("time_to");
         String timeRange = timeFrom + " - " + timeTo;
-        double fee = rs.getDouble("fee");
+        Money fee = Money.ofMinor(rs.getLong("fee_minor"));
         String statusStr = rs.getString("status");
         OrderStatus status = OrderStatus.valueOf(statusStr);
         Timestamp createdAt = rs.getTimestamp("created_at");
         LocalDateTime orderDate = createdAt.toLocalDateTime();
 
-        // Get customer info from Users table
-        String customerName = "";
-        String customerPhone = "";
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement("SELECT name, phone FROM Users WHERE user_id = ?")) {
-            ps.setInt(1, customerId);
-            ResultSet rsUser = ps.executeQuery();
-            if (rsUser.next()) {
-                customerName = rsUser.getString("name");
-                customerPhone = rsUser.getString("phone");
-            }
-        }
-
         Order order = new Order(customerId, productName, description, deliveryLocation,
                 timeRange, fee, "", customerName, customerPhone);
         order.setOrderId(orderId);
         order.setProductPhoto(photo);
         order.setStatus(status);
         order.setOrderDate(orderDate);
+        GazetteerDAO.readCoordinates(rs, order);
+        OrderDAO.readTimeWindow(rs, order);
 
         return order;
     }
@@ -391,9 +842,10 @@ public class DeliveryDAO {
      * Get earnings history for a delivery partner
      */
     public static List<EarningRecord> getEarningsHistory(int deliveryPersonId) {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.getEarningsHistory");
         List<EarningRecord> earnings = new ArrayList<>();
         String sql = """
-                SELECT e.earning_id, e.order_id, e.amount, e.created_at,
+                SELECT e.earning_id, e.order_id, e.amount_minor, e.created_at,
                        o.product_name, o.delivery_location
                 FROM Earnings e
                 INNER JOIN Orders o ON e.order_id = o.order_id
@@ -412,7 +864,7 @@ public class DeliveryDAO {
                         rs.getInt("earning_id"),
                         rs.getInt("order_id"),
                         deliveryPersonId,
-                        rs.getDouble("amount"),
+                        Money.ofMinor(rs.getLong("amount_minor")),
                         rs.getTimestamp("created_at").toLocalDateTime(),
                         rs.getString("product_name"),
                         rs.getString("delivery_location")
@@ -421,33 +873,34 @@ public class DeliveryDAO {
             }
 
         } catch (SQLException e) {
-            System.err.println("Error fetching earnings history: " + e.getMessage());
-            e.printStackTrace();
+            call.fail(e);
+            log.error("Error fetching earnings history", e);
         }
 
-        return earnings;
+        return call.end(earnings);
     }
 
     /**
      * Get earnings for a specific time period
      */
-    public static double getEarningsForPeriod(int deliveryPersonId, String period) {
+    public static Money getEarningsForPeriod(int deliveryPersonId, String period) {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.getEarningsForPeriod");
         String dateFilter = switch (period) {
             case "TODAY" -> "DATE(e.created_at, 'localtime') = DATE('now', 'localtime')";
             case "WEEK" -> "DATE(e.created_at, 'localtime') >= DATE('now', 'localtime', '-6 days')";
             case "MONTH" -> "DATE(e.created_at, 'localtime') >= DATE('now', 'localtime', '-29 days')";
             default -> "1=1"; // All time
         };
+        // Archived orders only fall outside the recent periods
+        String archived = dateFilter.equals("1=1")
+                ? " + COALESCE((SELECT earnings_minor FROM ArchivedPartnerTotals WHERE delivery_person_id = ?1), 0)"
+                : "";
 
         String sql = String.format("""
-                SELECT COALESCE(SUM(e.amount), 0) as total
+                SELECT COALESCE(SUM(e.amount_minor), 0)%s as total
                 FROM Earnings e
-                WHERE e.delivery_person_id = ? AND %s
-                """, dateFilter);
-
-        System.out.println("Getting earnings for period: " + period);
-        System.out.println("SQL: " + sql);
-        System.out.println("Delivery Person ID: " + deliveryPersonId);
+                WHERE e.delivery_person_id = ?1 AND %s
+                """, archived, dateFilter);
 
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -456,23 +909,24 @@ public class DeliveryDAO {
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-                double total = rs.getDouble("total");
-                System.out.println("Result for " + period + ": " + total);
-                return total;
+                Money total = Money.ofMinor(rs.getLong("total"));
+                log.debug("Earnings for partner {} over {}: {}", deliveryPersonId, period, total);
+                return call.end(total);
             }
 
         } catch (SQLException e) {
-            System.err.println("Error fetching period earnings: " + e.getMessage());
-            e.printStackTrace();
+            call.fail(e);
+            log.error("Error fetching period earnings", e);
         }
 
-        return 0.0;
+        return call.end(Money.ZERO);
     }
 
     /**
      * Get daily earnings breakdown for the last N days
      */
     public static List<DailyEarning> getDailyEarnings(int deliveryPersonId, int days) {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.getDailyEarnings");
         List<DailyEarning> dailyEarnings = new ArrayList<>();
 
         // Calculate the number of days to go back (days - 1 to include today)
@@ -480,7 +934,7 @@ public class DeliveryDAO {
 
         String sql = """
                 SELECT DATE(e.created_at, 'localtime') as earning_date,
-                       COALESCE(SUM(e.amount), 0) as daily_total,
+                       COALESCE(SUM(e.amount_minor), 0) as daily_total,
                        COUNT(*) as delivery_count
                 FROM Earnings e
                 WHERE e.delivery_person_id = ?
@@ -490,9 +944,6 @@ public class DeliveryDAO {
                 ORDER BY earning_date ASC
                 """;
 
-        System.out.println("Getting daily earnings for " + days + " days (daysBack=" + daysBack + ")");
-        System.out.println("Delivery Person ID: " + deliveryPersonId);
-
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
@@ -502,23 +953,21 @@ public class DeliveryDAO {
 
             while (rs.next()) {
                 String date = rs.getString("earning_date");
-                double amount = rs.getDouble("daily_total");
+                Money amount = Money.ofMinor(rs.getLong("daily_total"));
                 int count = rs.getInt("delivery_count");
 
-                System.out.println("  Daily: " + date + " = ৳" + amount + " (" + count + " deliveries)");
-
                 DailyEarning daily = new DailyEarning(date, amount, count);
                 dailyEarnings.add(daily);
             }
 
-            System.out.println("Total daily records: " + dailyEarnings.size());
+            log.debug("Loaded {} daily earning records for partner {}", dailyEarnings.size(), deliveryPersonId);
 
         } catch (SQLException e) {
-            System.err.println("Error fetching daily earnings: " + e.getMessage());
-            e.printStackTrace();
+            call.fail(e);
+            log.error("Error fetching daily earnings", e);
         }
 
-        return dailyEarnings;
+        return call.end(dailyEarnings);
     }
 
     /**
@@ -538,8 +987,7 @@ public class DeliveryDAO {
             }
 
         } catch (SQLException e) {
-            System.err.println("Error getting customer ID for order: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error getting customer ID for order", e);
         }
 
         return -1;
@@ -562,7 +1010,7 @@ public class DeliveryDAO {
             }
 
         } catch (SQLException e) {
-            System.err.println("Error getting user name: " + e.getMessage());
+            log.error("Error getting user name", e);
         }
 
         return "Unknown User";
@@ -575,9 +1023,9 @@ public class DeliveryDAO {
         private final int totalDeliveries;
         private final int completedDeliveries;
         private final int inProgressDeliveries;
-        private final double totalEarnings;
+        private final Money totalEarnings;
 
-        public DeliveryStats(int totalDeliveries, int completedDeliveries, int inProgressDeliveries, double totalEarnings) {
+        public DeliveryStats(int totalDeliveries, int completedDeliveries, int inProgressDeliveries, Money totalEarnings) {
             this.totalDeliveries = totalDeliveries;
             this.completedDeliveries = completedDeliveries;
             this.inProgressDeliveries = inProgressDeliveries;
@@ -587,7 +1035,7 @@ public class DeliveryDAO {
         public int getTotalDeliveries() { return totalDeliveries; }
         public int getCompletedDeliveries() { return completedDeliveries; }
         public int getInProgressDeliveries() { return inProgressDeliveries; }
-        public double getTotalEarnings() { return totalEarnings; }
+        public Money getTotalEarnings() { return totalEarnings; }
     }
 
     /**
@@ -597,12 +1045,12 @@ public class DeliveryDAO {
         private final int earningId;
         private final int orderId;
         private final int deliveryPersonId;
-        private final double amount;
+        private final Money amount;
         private final LocalDateTime earnedAt;
         private final String productName;
         private final String location;
 
-        public EarningRecord(int earningId, int orderId, int deliveryPersonId, double amount,
+        public EarningRecord(int earningId, int orderId, int deliveryPersonId, Money amount,
                            LocalDateTime earnedAt, String productName, String location) {
             this.earningId = earningId;
             this.orderId = orderId;
@@ -616,13 +1064,13 @@ public class DeliveryDAO {
         public int getEarningId() { return earningId; }
         public int getOrderId() { return orderId; }
         public int getDeliveryPersonId() { return deliveryPersonId; }
-        public double getAmount() { return amount; }
+        public Money getAmount() { return amount; }
         public LocalDateTime getEarnedAt() { return earnedAt; }
         public String getProductName() { return productName; }
         public String getLocation() { return location; }
 
         public String getFormattedAmount() {
-            return String.format("$%.2f", amount);
+            return amount.toString();
         }
 
         public String getFormattedDate() {
@@ -634,26 +1082,48 @@ public class DeliveryDAO {
         }
     }
 
+    /**
+     * Inner class for the pending-order fingerprint
+     */
+    public static class PendingFingerprint {
+        private final int count;
+        private final int maxOrderId;
+        private final long orderIdSum;
+        private final long feeMinorSum;
+
+        public PendingFingerprint(int count, int maxOrderId, long orderIdSum, long feeMinorSum) {
+            this.count = count;
+            this.maxOrderId = maxOrderId;
+            this.orderIdSum = orderIdSum;
+            this.feeMinorSum = feeMinorSum;
+        }
+
+        public int getCount() { return count; }
+        public int getMaxOrderId() { return maxOrderId; }
+        public long getOrderIdSum() { return orderIdSum; }
+        public long getFeeMinorSum() { return feeMinorSum; }
+    }
+
     /**
      * Inner class to hold daily earning summary
      */
     public static class DailyEarning {
         private final String date;
-        private final double totalAmount;
+        private final Money totalAmount;
         private final int deliveryCount;
 
-        public DailyEarning(String date, double totalAmount, int deliveryCount) {
+        public DailyEarning(String date, Money totalAmount, int deliveryCount) {
             this.date = date;
             this.totalAmount = totalAmount;
             this.deliveryCount = deliveryCount;
         }
 
         public String getDate() { return date; }
-        public double getTotalAmount() { return totalAmount; }
+        public Money getTotalAmount() { return totalAmount; }
         public int getDeliveryCount() { return deliveryCount; }
 
         public String getFormattedAmount() {
-            return String.format("$%.2f", totalAmount);
+            return totalAmount.toString();
         }
     }
 
@@ -663,88 +1133,99 @@ public class DeliveryDAO {
      * Get total delivery count across all users
      */
     public static int getTotalDeliveryCount() {
-        String sql = "SELECT COUNT(*) as count FROM Deliveries";
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.getTotalDeliveryCount");
+        String sql = "SELECT (SELECT COUNT(*) FROM Deliveries) + " +
+                     "(SELECT COALESCE(SUM(deliveries), 0) FROM ArchiveMonths) as count";
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             if (rs.next()) {
-                return rs.getInt("count");
+                return call.end(rs.getInt("count"));
             }
         } catch (Exception ex) {
-            System.err.println("Get total delivery count error: " + ex.getMessage());
+            call.fail(ex);
+            log.error("Get total delivery count error", ex);
         }
-        return 0;
+        return call.end(0);
     }
 
     /**
      * Get deliveries completed today across all users
      */
     public static int getTodayDeliveryCount() {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.getTodayDeliveryCount");
         String sql = "SELECT COUNT(*) as count FROM Deliveries WHERE DATE(delivered_time) = DATE('now')";
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             if (rs.next()) {
-                return rs.getInt("count");
+                return call.end(rs.getInt("count"));
             }
         } catch (Exception ex) {
-            System.err.println("Get today delivery count error: " + ex.getMessage());
+            call.fail(ex);
+            log.error("Get today delivery count error", ex);
         }
-        return 0;
+        return call.end(0);
     }
 
     /**
      * Get total earnings across all delivery partners
      */
-    public static double getTotalEarnings() {
-        String sql = "SELECT COALESCE(SUM(amount), 0) as total FROM Earnings";
+    public static Money getTotalEarnings() {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.getTotalEarnings");
+        String sql = "SELECT (SELECT COALESCE(SUM(amount_minor), 0) FROM Earnings) + " +
+                     "(SELECT COALESCE(SUM(earnings_minor), 0) FROM ArchiveMonths) as total";
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             if (rs.next()) {
-                return rs.getDouble("total");
+                return call.end(Money.ofMinor(rs.getLong("total")));
             }
         } catch (Exception ex) {
-            System.err.println("Get total earnings error: " + ex.getMessage());
+            call.fail(ex);
+            log.error("Get total earnings error", ex);
         }
-        return 0.0;
+        return call.end(Money.ZERO);
     }
 
     /**
      * Get today's earnings across all delivery partners
      */
-    public static double getTodayEarnings() {
-        String sql = "SELECT COALESCE(SUM(amount), 0) as total FROM Earnings WHERE DATE(created_at) = DATE('now')";
+    public static Money getTodayEarnings() {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.getTodayEarnings");
+        String sql = "SELECT COALESCE(SUM(amount_minor), 0) as total FROM Earnings WHERE DATE(created_at) = DATE('now')";
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             if (rs.next()) {
-                return rs.getDouble("total");
+                return call.end(Money.ofMinor(rs.getLong("total")));
             }
         } catch (Exception ex) {
-            System.err.println("Get today earnings error: " + ex.getMessage());
+            call.fail(ex);
+            log.error("Get today earnings error", ex);
         }
-        return 0.0;
+        return call.end(Money.ZERO);
     }
 
     /**
      * Get all earnings with delivery person details (ADMIN)
      */
     public static List<AdminEarningRecord> getAllEarningsWithDetails() {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.getAllEarningsWithDetails");
         List<AdminEarningRecord> earnings = new ArrayList<>();
         String sql = """
-                SELECT e.earning_id, e.order_id, e.delivery_person_id, e.amount, e.created_at,
+                SELECT e.earning_id, e.order_id, e.delivery_person_id, e.amount_minor, e.created_at,
                        u.name as delivery_person_name,
                        o.product_name, o.customer_id,
                        c.name as customer_name
                 FROM Earnings e
                 INNER JOIN Users u ON e.delivery_person_id = u.user_id
                 INNER JOIN Orders o ON e.order_id = o.order_id
-                INNER JOIN Users c ON o.customer_id = c.user_id
+                LEFT JOIN Users c ON o.customer_id = c.user_id
                 ORDER BY e.created_at DESC
                 """;
 
@@ -761,34 +1242,35 @@ public class DeliveryDAO {
                         rs.getInt("customer_id"),
                         rs.getString("customer_name"),
                         rs.getString("product_name"),
-                        rs.getDouble("amount"),
+                        Money.ofMinor(rs.getLong("amount_minor")),
                         rs.getTimestamp("created_at").toLocalDateTime()
                 );
                 earnings.add(record);
             }
 
         } catch (SQLException e) {
-            System.err.println("Error fetching all earnings: " + e.getMessage());
-            e.printStackTrace();
+            call.fail(e);
+            log.error("Error fetching all earnings", e);
         }
 
-        return earnings;
+        return call.end(earnings);
     }
 
     /**
      * Get earnings filtered by delivery person (ADMIN)
      */
     public static List<AdminEarningRecord> getEarningsByDeliveryPerson(int deliveryPersonId) {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.getEarningsByDeliveryPerson");
         List<AdminEarningRecord> earnings = new ArrayList<>();
         String sql = """
-                SELECT e.earning_id, e.order_id, e.delivery_person_id, e.amount, e.created_at,
+                SELECT e.earning_id, e.order_id, e.delivery_person_id, e.amount_minor, e.created_at,
                        u.name as delivery_person_name,
                        o.product_name, o.customer_id,
                        c.name as customer_name
                 FROM Earnings e
                 INNER JOIN Users u ON e.delivery_person_id = u.user_id
                 INNER JOIN Orders o ON e.order_id = o.order_id
-                INNER JOIN Users c ON o.customer_id = c.user_id
+                LEFT JOIN Users c ON o.customer_id = c.user_id
                 WHERE e.delivery_person_id = ?
                 ORDER BY e.created_at DESC
                 """;
@@ -808,77 +1290,401 @@ public class DeliveryDAO {
                         rs.getInt("customer_id"),
                         rs.getString("customer_name"),
                         rs.getString("product_name"),
-                        rs.getDouble("amount"),
+                        Money.ofMinor(rs.getLong("amount_minor")),
                         rs.getTimestamp("created_at").toLocalDateTime()
                 );
                 earnings.add(record);
             }
 
         } catch (SQLException e) {
-            System.err.println("Error fetching earnings by delivery person: " + e.getMessage());
-            e.printStackTrace();
+            call.fail(e);
+            log.error("Error fetching earnings by delivery person", e);
         }
 
-        return earnings;
+        return call.end(earnings);
     }
 
     /**
      * Get earnings filtered by date range (ADMIN)
      */
     public static List<AdminEarningRecord> getEarningsByDateRange(String fromDate, String toDate) {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.getEarningsByDateRange");
         List<AdminEarningRecord> earnings = new ArrayList<>();
-        String sql = """
-                SELECT e.earning_id, e.order_id, e.delivery_person_id, e.amount, e.created_at,
+        EarningsQuery query = EarningsQuery.create().between(LocalDate.parse(fromDate), LocalDate.parse(toDate));
+
+        try (Connection conn = Database.getConnection()) {
+            collectEarningsByDateRange(conn, "main", query, earnings);
+
+            // Older rows live in monthly archives; only open the ones the range touches
+            List<String> months = ArchiveDAO.getArchivedMonths(query.getFrom(), query.getTo());
+            if (!months.isEmpty()) {
+                ArchiveDAO.readArchives(conn, months,
+                        (archiveConn, schema) -> collectEarningsByDateRange(archiveConn, schema, query, earnings));
+                earnings.sort(Comparator.comparing(AdminEarningRecord::getEarnedAt).reversed());
+            }
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error fetching earnings by date range", e);
+        }
+
+        return call.end(earnings);
+    }
+
+    /**
+     * Uses the same date predicate as queryEarnings, so archived rows match in
+     * either timestamp form
+     */
+    private static void collectEarningsByDateRange(Connection conn, String schema, EarningsQuery query,
+                                                   List<AdminEarningRecord> out) throws SQLException {
+        String sql = String.format("""
+                SELECT e.earning_id, e.order_id, e.delivery_person_id, e.amount_minor, e.created_at,
                        u.name as delivery_person_name,
                        o.product_name, o.customer_id,
                        c.name as customer_name
+                FROM %1$s.Earnings e
+                INNER JOIN main.Users u ON e.delivery_person_id = u.user_id
+                INNER JOIN %1$s.Orders o ON e.order_id = o.order_id
+                LEFT JOIN main.Users c ON o.customer_id = c.user_id
+                WHERE %2$s
+                ORDER BY %3$s DESC, e.earning_id DESC
+                """, schema, query.toWhereClause(), EarningsQuery.EARNED_MILLIS);
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            bindQuery(ps, query);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.add(new AdminEarningRecord(
+                            rs.getInt("earning_id"),
+                            rs.getInt("order_id"),
+                            rs.getInt("delivery_person_id"),
+                            rs.getString("delivery_person_name"),
+                            rs.getInt("customer_id"),
+                            rs.getString("customer_name"),
+                            rs.getString("product_name"),
+                            Money.ofMinor(rs.getLong("amount_minor")),
+                            rs.getTimestamp("created_at").toLocalDateTime()
+                    ));
+                }
+            }
+        }
+    }
+
+    /**
+     * Receives streamed earnings one row at a time; return false to stop early
+     */
+    @FunctionalInterface
+    public interface EarningVisitor {
+        boolean visit(AdminEarningRecord record);
+    }
+
+    /**
+     * Receives raw earning rows as primitives, for in-memory views that
+     * should not allocate a record per row
+     */
+    @FunctionalInterface
+    public interface EarningRowSink {
+        void accept(int earningId, int deliveryPersonId, String deliveryPersonName, int orderId,
+                    long earnedAtMillis, long amountMinor);
+    }
+
+    /**
+     * Feed every live earning with an id above {@code afterEarningId} to the
+     * sink in id order. Returns the highest id seen ({@code afterEarningId}
+     * when there were none), or -1 on error.
+     */
+    public static long loadEarningsSince(long afterEarningId, EarningRowSink sink) {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.loadEarningsSince");
+        String sql = """
+                SELECT e.earning_id, e.delivery_person_id, u.name, e.order_id, e.created_at, e.amount_minor
                 FROM Earnings e
-                INNER JOIN Users u ON e.delivery_person_id = u.user_id
-                INNER JOIN Orders o ON e.order_id = o.order_id
-                INNER JOIN Users c ON o.customer_id = c.user_id
-                WHERE DATE(e.created_at) BETWEEN ? AND ?
-                ORDER BY e.created_at DESC
+                LEFT JOIN Users u ON u.user_id = e.delivery_person_id
+                WHERE e.earning_id > ?
+                ORDER BY e.earning_id
                 """;
+        long maxId = afterEarningId;
 
         try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            ps.setLong(1, afterEarningId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int earningId = rs.getInt(1);
+                    Timestamp earnedAt = rs.getTimestamp(5);
+                    sink.accept(earningId, rs.getInt(2), rs.getString(3), rs.getInt(4),
+                            earnedAt != null ? earnedAt.getTime() : 0L,
+                            rs.getLong(6));
+                    maxId = earningId;
+                }
+            }
+            return call.end(maxId);
 
-            ps.setString(1, fromDate);
-            ps.setString(2, toDate);
-            ResultSet rs = ps.executeQuery();
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error loading earnings after id " + afterEarningId, e);
+            return call.end(-1L);
+        }
+    }
 
-            while (rs.next()) {
-                AdminEarningRecord record = new AdminEarningRecord(
-                        rs.getInt("earning_id"),
-                        rs.getInt("order_id"),
-                        rs.getInt("delivery_person_id"),
-                        rs.getString("delivery_person_name"),
-                        rs.getInt("customer_id"),
-                        rs.getString("customer_name"),
-                        rs.getString("product_name"),
-                        rs.getDouble("amount"),
-                        rs.getTimestamp("created_at").toLocalDateTime()
-                );
-                earnings.add(record);
+    /**
+     * Get one page of the earnings matching a query, with the count and sum of
+     * every matching row. Filtering, paging and both aggregates run in SQL, in
+     * one statement per database; partner and customer names are only looked
+     * up for the rows on the page.
+     *
+     * With a date range the archived months it touches are searched after the
+     * live table, newest month first, and their totals are added in.
+     * Returns an empty page on error.
+     */
+    public static EarningsPage queryEarnings(EarningsQuery query) {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.queryEarnings");
+        PageAccumulator page = new PageAccumulator(query);
+
+        try (Connection conn = Database.getConnection()) {
+            queryEarningsPage(conn, "main", query, page);
+
+            if (query.hasDateRange()) {
+                List<String> months = new ArrayList<>(ArchiveDAO.getArchivedMonths(query.getFrom(), query.getTo()));
+                Collections.reverse(months);
+                ArchiveDAO.readArchives(conn, months,
+                        (archiveConn, schema) -> queryEarningsPage(archiveConn, schema, query, page));
             }
 
         } catch (SQLException e) {
-            System.err.println("Error fetching earnings by date range: " + e.getMessage());
-            e.printStackTrace();
+            call.fail(e);
+            log.error("Error querying earnings", e);
+            return call.end(new EarningsPage(new ArrayList<>(), 0, Money.ZERO, query.getPageIndex(), query.getPageSize()));
         }
 
-        return earnings;
+        return call.end(new EarningsPage(page.rows, page.count, Money.ofMinor(page.amountMinor), query.getPageIndex(), query.getPageSize()));
+    }
+
+    /**
+     * Count the rows streamEarnings would visit for the same query, or -1 on
+     * error. Paging is ignored.
+     */
+    public static long countEarnings(EarningsQuery query) {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.countEarnings");
+        long[] count = {0};
+
+        try (Connection conn = Database.getConnection()) {
+            count[0] += countEarningsIn(conn, "main", query);
+
+            if (query.hasDateRange()) {
+                List<String> months = ArchiveDAO.getArchivedMonths(query.getFrom(), query.getTo());
+                ArchiveDAO.readArchives(conn, months, (archiveConn, schema) ->
+                        count[0] += countEarningsIn(archiveConn, schema, query));
+            }
+            return call.end(count[0]);
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error counting earnings for export", e);
+            return call.end(-1L);
+        }
+    }
+
+    /**
+     * Walk every earning matching a query through a forward-only cursor,
+     * newest first, handing each row to the visitor without keeping it, so
+     * memory use does not grow with the number of rows. Paging is ignored.
+     *
+     * With a date range the archived months it touches are read after the
+     * live table. Rows are walked in earning id order so SQLite never has to
+     * sort the whole set first. Returns the number of rows visited, or -1 on error.
+     */
+    public static long streamEarnings(EarningsQuery query, EarningVisitor visitor) {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.streamEarnings");
+        long[] visited = {0};
+
+        try (Connection conn = Database.getConnection()) {
+            boolean more = streamEarningsFrom(conn, "main", query, visitor, visited);
+
+            if (more && query.hasDateRange()) {
+                // Newest archive first, to keep the newest-first order
+                List<String> months = new ArrayList<>(ArchiveDAO.getArchivedMonths(query.getFrom(), query.getTo()));
+                Collections.reverse(months);
+                boolean[] stopped = {false};
+                ArchiveDAO.readArchives(conn, months, (archiveConn, schema) -> {
+                    if (!stopped[0]) {
+                        stopped[0] = !streamEarningsFrom(archiveConn, schema, query, visitor, visited);
+                    }
+                });
+            }
+            return call.end(visited[0]);
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error streaming earnings", e);
+            return call.end(-1L);
+        }
+    }
+
+    /**
+     * Add one database's totals to the page, and its rows if the page reaches into it.
+     * The totals row comes back even when no row of the page falls in this database.
+     */
+    private static void queryEarningsPage(Connection conn, String schema, EarningsQuery query,
+                                          PageAccumulator page) throws SQLException {
+        // Rows of earlier databases come before this one's in the overall order
+        long skip = Math.max(0, query.getOffset() - page.count);
+        int want = query.getPageSize() - page.rows.size();
+
+        String sql = String.format("""
+                WITH filtered AS (
+                    SELECT e.earning_id, e.order_id, e.delivery_person_id, e.amount_minor, e.created_at,
+                           %3$s AS earned_millis,
+                           o.product_name, o.customer_id
+                    FROM %1$s.Earnings e
+                    INNER JOIN %1$s.Orders o ON e.order_id = o.order_id
+                    WHERE %2$s
+                ),
+                totals AS (
+                    SELECT COUNT(*) AS total_count, COALESCE(SUM(amount_minor), 0) AS total_amount FROM filtered
+                ),
+                page AS (
+                    SELECT * FROM filtered
+                    ORDER BY earned_millis DESC, earning_id DESC
+                    LIMIT ? OFFSET ?
+                )
+                SELECT t.total_count, t.total_amount,
+                       p.earning_id, p.order_id, p.delivery_person_id, p.amount_minor, p.created_at,
+                       p.product_name, p.customer_id,
+                       u.name AS delivery_person_name, c.name AS customer_name
+                FROM totals t
+                LEFT JOIN page p ON 1 = 1
+                LEFT JOIN main.Users u ON u.user_id = p.delivery_person_id
+                LEFT JOIN main.Users c ON c.user_id = p.customer_id
+                ORDER BY p.earned_millis DESC, p.earning_id DESC
+                """, schema, query.toWhereClause(), EarningsQuery.EARNED_MILLIS);
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int index = bindQuery(ps, query);
+            ps.setInt(index++, want);
+            ps.setLong(index, skip);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                long count = 0;
+                long amountMinor = 0;
+                while (rs.next()) {
+                    count = rs.getLong("total_count");
+                    amountMinor = rs.getLong("total_amount");
+                    int earningId = rs.getInt("earning_id");
+                    if (rs.wasNull()) {
+                        continue;
+                    }
+                    page.rows.add(new AdminEarningRecord(
+                            earningId,
+                            rs.getInt("order_id"),
+                            rs.getInt("delivery_person_id"),
+                            rs.getString("delivery_person_name"),
+                            rs.getInt("customer_id"),
+                            rs.getString("customer_name"),
+                            rs.getString("product_name"),
+                            Money.ofMinor(rs.getLong("amount_minor")),
+                            rs.getTimestamp("created_at").toLocalDateTime()
+                    ));
+                }
+                page.count += count;
+                page.amountMinor += amountMinor;
+            }
+        }
+    }
+
+    private static long countEarningsIn(Connection conn, String schema, EarningsQuery query) throws SQLException {
+        String sql = String.format("""
+                SELECT COUNT(*)
+                FROM %1$s.Earnings e
+                INNER JOIN %1$s.Orders o ON e.order_id = o.order_id
+                WHERE %2$s
+                """, schema, query.toWhereClause());
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            bindQuery(ps, query);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Returns false once the visitor asked to stop
+     */
+    private static boolean streamEarningsFrom(Connection conn, String schema, EarningsQuery query,
+                                              EarningVisitor visitor, long[] visited) throws SQLException {
+        String sql = String.format("""
+                SELECT e.earning_id, e.order_id, e.delivery_person_id, e.amount_minor, e.created_at,
+                       u.name as delivery_person_name,
+                       o.product_name, o.customer_id,
+                       c.name as customer_name
+                FROM %1$s.Earnings e
+                INNER JOIN %1$s.Orders o ON e.order_id = o.order_id
+                LEFT JOIN main.Users u ON e.delivery_person_id = u.user_id
+                LEFT JOIN main.Users c ON o.customer_id = c.user_id
+                WHERE %2$s
+                ORDER BY e.earning_id DESC
+                """, schema, query.toWhereClause());
+
+        try (PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            bindQuery(ps, query);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    visited[0]++;
+                    boolean more = visitor.visit(new AdminEarningRecord(
+                            rs.getInt("earning_id"),
+                            rs.getInt("order_id"),
+                            rs.getInt("delivery_person_id"),
+                            rs.getString("delivery_person_name"),
+                            rs.getInt("customer_id"),
+                            rs.getString("customer_name"),
+                            rs.getString("product_name"),
+                            Money.ofMinor(rs.getLong("amount_minor")),
+                            rs.getTimestamp("created_at").toLocalDateTime()
+                    ));
+                    if (!more) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bind the query's filter values; returns the next free parameter index
+     */
+    private static int bindQuery(PreparedStatement ps, EarningsQuery query) throws SQLException {
+        int index = 1;
+        for (Object value : query.toParameters()) {
+            ps.setObject(index++, value);
+        }
+        return index;
+    }
+
+    /**
+     * Running totals and rows while a page is gathered across databases
+     */
+    private static class PageAccumulator {
+        private final List<AdminEarningRecord> rows;
+        private long count;
+        private long amountMinor;
+
+        private PageAccumulator(EarningsQuery query) {
+            this.rows = new ArrayList<>(query.getPageSize());
+        }
     }
 
     /**
      * Get all delivery persons who have earnings (ADMIN)
      */
     public static List<DeliveryPersonSummary> getDeliveryPersonsWithEarnings() {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.getDeliveryPersonsWithEarnings");
         List<DeliveryPersonSummary> persons = new ArrayList<>();
         String sql = """
                 SELECT u.user_id, u.name,
                        COUNT(e.earning_id) as delivery_count,
-                       COALESCE(SUM(e.amount), 0) as total_earned
+                       COALESCE(SUM(e.amount_minor), 0) as total_earned
                 FROM Users u
                 INNER JOIN Earnings e ON u.user_id = e.delivery_person_id
                 GROUP BY u.user_id, u.name
@@ -894,17 +1700,56 @@ public class DeliveryDAO {
                         rs.getInt("user_id"),
                         rs.getString("name"),
                         rs.getInt("delivery_count"),
-                        rs.getDouble("total_earned")
+                        Money.ofMinor(rs.getLong("total_earned"))
                 );
                 persons.add(person);
             }
 
         } catch (SQLException e) {
-            System.err.println("Error fetching delivery persons with earnings: " + e.getMessage());
-            e.printStackTrace();
+            call.fail(e);
+            log.error("Error fetching delivery persons with earnings", e);
         }
 
-        return persons;
+        return call.end(persons);
+    }
+
+    /**
+     * Every user who has taken a delivery, in the live tables or the archive,
+     * with only their archived totals; callers add the live ones (ADMIN)
+     */
+    public static List<DeliveryPersonSummary> getDeliveryPersons() {
+        DaoCall call = MetricsRegistry.begin("DeliveryDAO.getDeliveryPersons");
+        List<DeliveryPersonSummary> persons = new ArrayList<>();
+        String sql = """
+                SELECT u.user_id, u.name,
+                       COALESCE(a.completed, 0) as archived_completed,
+                       COALESCE(a.earnings_minor, 0) as archived_earned
+                FROM Users u
+                LEFT JOIN ArchivedPartnerTotals a ON a.delivery_person_id = u.user_id
+                WHERE a.delivery_person_id IS NOT NULL
+                   OR u.user_id IN (SELECT delivery_person_id FROM Deliveries)
+                ORDER BY u.name
+                """;
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                persons.add(new DeliveryPersonSummary(
+                        rs.getInt("user_id"),
+                        rs.getString("name"),
+                        rs.getInt("archived_completed"),
+                        Money.ofMinor(rs.getLong("archived_earned"))
+                ));
+            }
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error fetching delivery persons", e);
+        }
+
+        return call.end(persons);
     }
 
     /**
@@ -918,11 +1763,11 @@ public class DeliveryDAO {
         private final int customerId;
         private final String customerName;
         private final String productName;
-        private final double amount;
+        private final Money amount;
         private final LocalDateTime earnedAt;
 
         public AdminEarningRecord(int earningId, int orderId, int deliveryPersonId, String deliveryPersonName,
-                                int customerId, String customerName, String productName, double amount,
+                                int customerId, String customerName, String productName, Money amount,
                                 LocalDateTime earnedAt) {
             this.earningId = earningId;
             this.orderId = orderId;
@@ -942,11 +1787,11 @@ public class DeliveryDAO {
         public int getCustomerId() { return customerId; }
         public String getCustomerName() { return customerName; }
         public String getProductName() { return productName; }
-        public double getAmount() { return amount; }
+        public Money getAmount() { return amount; }
         public LocalDateTime getEarnedAt() { return earnedAt; }
 
         public String getFormattedAmount() {
-            return String.format("$%.2f", amount);
+            return amount.toString();
         }
 
         public String getFormattedDate() {
@@ -958,6 +1803,37 @@ public class DeliveryDAO {
         }
     }
 
+    /**
+     * Inner class for one page of admin earnings and the totals of the whole filter
+     */
+    public static class EarningsPage {
+        private final List<AdminEarningRecord> records;
+        private final long totalCount;
+        private final Money totalAmount;
+        private final int pageIndex;
+        private final int pageSize;
+
+        public EarningsPage(List<AdminEarningRecord> records, long totalCount, Money totalAmount,
+                            int pageIndex, int pageSize) {
+            this.records = records;
+            this.totalCount = totalCount;
+            this.totalAmount = totalAmount;
+            this.pageIndex = pageIndex;
+            this.pageSize = pageSize;
+        }
+
+        public List<AdminEarningRecord> getRecords() { return records; }
+        /** Rows matching the filter across all pages */
+        public long getTotalCount() { return totalCount; }
+        public Money getTotalAmount() { return totalAmount; }
+        public int getPageIndex() { return pageIndex; }
+        public int getPageSize() { return pageSize; }
+
+        public int getPageCount() {
+            return (int) Math.max(1, (totalCount + pageSize - 1) / pageSize);
+        }
+    }
+
     /**
      * Inner class for delivery person summary
      */
@@ -965,9 +1841,9 @@ public class DeliveryDAO {
         private final int userId;
         private final String name;
         private final int deliveryCount;
-        private final double totalEarned;
+        private final Money totalEarned;
 
-        public DeliveryPersonSummary(int userId, String name, int deliveryCount, double totalEarned) {
+        public DeliveryPersonSummary(int userId, String name, int deliveryCount, Money totalEarned) {
             this.userId = userId;
             this.name = name;
             this.deliveryCount = deliveryCount;
@@ -977,10 +1853,10 @@ public class DeliveryDAO {
         public int getUserId() { return userId; }
         public String getName() { return name; }
         public int getDeliveryCount() { return deliveryCount; }
-        public double getTotalEarned() { return totalEarned; }
+        public Money getTotalEarned() { return totalEarned; }
 
         public String getFormattedEarned() {
-            return String.format("$%.2f", totalEarned);
+            return totalEarned.toString();
         }
 
         @Override
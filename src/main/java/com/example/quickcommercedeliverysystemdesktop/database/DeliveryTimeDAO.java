@@ -0,0 +1,299 @@
+package com.example.quickcommercedeliverysystemdesktop.database;
+
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.metrics.DaoCall;
+import com.example.quickcommercedeliverysystemdesktop.metrics.MetricsRegistry;
+import com.example.quickcommercedeliverysystemdesktop.utils.KllSketch;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivery-duration percentiles per partner, kept as one KLL sketch per
+ * partner, leg and day in DeliveryTimeSketch.
+ *
+ * foldCompleted() adds each finished delivery to the sketches once and marks
+ * it sketched, so reading p50/p90/p99 over a month merges about 30 small
+ * sketches per partner instead of sorting every delivery. Days are the local
+ * date the delivery was completed.
+ */
+public class DeliveryTimeDAO {
+
+    private static final Logger log = LogManager.getLogger(DeliveryTimeDAO.class);
+
+    /** Percentiles shown for each leg */
+    public static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+
+    /**
+     * Timed part of a delivery
+     */
+    public enum Leg {
+        /** From the partner accepting the order to picking it up */
+        ACCEPT_TO_PICKUP,
+        /** From pickup to handing it over */
+        PICKUP_TO_DELIVERED
+    }
+
+    /**
+     * Fold up to {@code limit} completed, not yet sketched deliveries into the
+     * daily sketches, in one transaction with marking them sketched. Returns
+     * the number of deliveries folded, or -1 on error. Synchronized so two
+     * runs never fold the same delivery twice.
+     */
+    public static synchronized int foldCompleted(int limit) {
+        DaoCall call = MetricsRegistry.begin("DeliveryTimeDAO.foldCompleted");
+        String sql = """
+                SELECT delivery_id, delivery_person_id, created_at, pickup_time, delivered_time
+                FROM Deliveries
+                WHERE sketched = 0 AND delivered_time IS NOT NULL
+                ORDER BY delivery_id
+                LIMIT ?
+                """;
+
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                List<Integer> deliveryIds = new ArrayList<>();
+                Map<String, DaySketch> sketches = new HashMap<>();
+
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setInt(1, limit);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            deliveryIds.add(rs.getInt("delivery_id"));
+                            int partnerId = rs.getInt("delivery_person_id");
+                            Timestamp accepted = rs.getTimestamp("created_at");
+                            Timestamp pickedUp = rs.getTimestamp("pickup_time");
+                            Timestamp delivered = rs.getTimestamp("delivered_time");
+                            String day = delivered.toLocalDateTime().toLocalDate().toString();
+
+                            addSample(sketches, partnerId, Leg.ACCEPT_TO_PICKUP, day, accepted, pickedUp);
+                            addSample(sketches, partnerId, Leg.PICKUP_TO_DELIVERED, day, pickedUp, delivered);
+                        }
+                    }
+                }
+                if (deliveryIds.isEmpty()) {
+                    conn.rollback();
+                    return call.end(0);
+                }
+
+                for (DaySketch sketch : sketches.values()) {
+                    mergeStored(conn, sketch);
+                }
+                writeSketches(conn, sketches);
+                markSketched(conn, deliveryIds);
+                conn.commit();
+
+                log.debug("Folded {} deliveries into {} time sketches", deliveryIds.size(), sketches.size());
+                return call.end(deliveryIds.size());
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error folding delivery times", e);
+            return call.end(-1);
+        }
+    }
+
+    /**
+     * Get delivery-time sketches per partner for the days {@code from} to
+     * {@code to} inclusive, sorted by name, with the all-partner totals
+     * (partner id {@link RollupDAO#ALL_PARTNERS}) first. Empty when nothing
+     * was delivered in the range.
+     */
+    public static List<PartnerDeliveryTimes> getDeliveryTimes(LocalDate from, LocalDate to) {
+        DaoCall call = MetricsRegistry.begin("DeliveryTimeDAO.getDeliveryTimes");
+        List<PartnerDeliveryTimes> result = new ArrayList<>();
+        String sql = """
+                SELECT s.partner_id, u.name, s.leg, s.sketch
+                FROM DeliveryTimeSketch s
+                LEFT JOIN Users u ON s.partner_id = u.user_id
+                WHERE s.day BETWEEN ? AND ?
+                """;
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, from.toString());
+            ps.setString(2, to.toString());
+            Map<Integer, PartnerDeliveryTimes> byPartner = new LinkedHashMap<>();
+            PartnerDeliveryTimes all = new PartnerDeliveryTimes(RollupDAO.ALL_PARTNERS, "All partners");
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int partnerId = rs.getInt("partner_id");
+                    String name = rs.getString("name");
+                    Leg leg = Leg.valueOf(rs.getString("leg"));
+                    KllSketch sketch;
+                    try {
+                        sketch = KllSketch.fromBytes(rs.getBytes("sketch"));
+                    } catch (IllegalArgumentException e) {
+                        log.warn("Skipping unreadable delivery-time sketch of partner {}", partnerId);
+                        continue;
+                    }
+
+                    byPartner.computeIfAbsent(partnerId, id -> new PartnerDeliveryTimes(id,
+                            name != null ? name : "Partner #" + id)).getSketch(leg).merge(sketch);
+                    all.getSketch(leg).merge(sketch);
+                }
+            }
+
+            if (!byPartner.isEmpty()) {
+                result.add(all);
+                List<PartnerDeliveryTimes> partners = new ArrayList<>(byPartner.values());
+                partners.sort(Comparator.comparing(PartnerDeliveryTimes::getName, String.CASE_INSENSITIVE_ORDER));
+                result.addAll(partners);
+            }
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error loading delivery times", e);
+        }
+
+        return call.end(result);
+    }
+
+    /**
+     * Format a duration in seconds as "45s", "12m 30s" or "1h 05m"; "-" when
+     * there is none
+     */
+    public static String formatDuration(double seconds) {
+        if (Double.isNaN(seconds)) {
+            return "-";
+        }
+        long total = Math.round(seconds);
+        if (total < 60) {
+            return total + "s";
+        }
+        if (total < 3600) {
+            return String.format("%dm %02ds", total / 60, total % 60);
+        }
+        return String.format("%dh %02dm", total / 3600, (total % 3600) / 60);
+    }
+
+    // ===== FOLDING =====
+
+    private static void addSample(Map<String, DaySketch> sketches, int partnerId, Leg leg, String day,
+                                  Timestamp start, Timestamp end) {
+        if (start == null || end == null || end.before(start)) {
+            return;
+        }
+        double seconds = (end.getTime() - start.getTime()) / 1000.0;
+        sketches.computeIfAbsent(partnerId + "/" + leg + "/" + day,
+                key -> new DaySketch(partnerId, leg, day)).sketch.update(seconds);
+    }
+
+    private static void mergeStored(Connection conn, DaySketch day) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT sketch FROM DeliveryTimeSketch WHERE partner_id = ? AND leg = ? AND day = ?")) {
+            ps.setInt(1, day.partnerId);
+            ps.setString(2, day.leg.name());
+            ps.setString(3, day.day);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    try {
+                        day.sketch.merge(KllSketch.fromBytes(rs.getBytes(1)));
+                    } catch (IllegalArgumentException e) {
+                        log.warn("Replacing unreadable delivery-time sketch for {}", day.day);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void writeSketches(Connection conn, Map<String, DaySketch> sketches) throws SQLException {
+        String sql = """
+                INSERT INTO DeliveryTimeSketch (partner_id, leg, day, samples, sketch)
+                VALUES (?, ?, ?, ?, ?)
+                ON CONFLICT(partner_id, leg, day) DO UPDATE SET
+                    samples = excluded.samples,
+                    sketch = excluded.sketch
+                """;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (DaySketch day : sketches.values()) {
+                ps.setInt(1, day.partnerId);
+                ps.setString(2, day.leg.name());
+                ps.setString(3, day.day);
+                ps.setLong(4, day.sketch.getCount());
+                ps.setBytes(5, day.sketch.toBytes());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static void markSketched(Connection conn, List<Integer> deliveryIds) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "UPDATE Deliveries SET sketched = 1 WHERE delivery_id IN (SELECT value FROM json_each(?))")) {
+            ps.setString(1, Database.toJsonArray(deliveryIds));
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * One partner's sketch for one leg and day, during a fold
+     */
+    private static class DaySketch {
+        private final int partnerId;
+        private final Leg leg;
+        private final String day;
+        private final KllSketch sketch = new KllSketch();
+
+        private DaySketch(int partnerId, Leg leg, String day) {
+            this.partnerId = partnerId;
+            this.leg = leg;
+            this.day = day;
+        }
+    }
+
+    /**
+     * Inner class for one partner's merged delivery times over a range
+     */
+    public static class PartnerDeliveryTimes {
+        private final int partnerId;
+        private final String name;
+        private final KllSketch toPickup = new KllSketch();
+        private final KllSketch toDelivered = new KllSketch();
+        private double[] pickupPercentiles;
+        private double[] deliveredPercentiles;
+
+        public PartnerDeliveryTimes(int partnerId, String name) {
+            this.partnerId = partnerId;
+            this.name = name;
+        }
+
+        public int getPartnerId() { return partnerId; }
+        public String getName() { return name; }
+        public long getDeliveries() { return toDelivered.getCount(); }
+
+        public KllSketch getSketch(Leg leg) {
+            return leg == Leg.ACCEPT_TO_PICKUP ? toPickup : toDelivered;
+        }
+
+        /**
+         * The {@link #PERCENTILES} of one leg in seconds, NaN when empty.
+         * Worked out on the first call, so merge everything before reading.
+         */
+        public double[] getPercentiles(Leg leg) {
+            if (leg == Leg.ACCEPT_TO_PICKUP) {
+                if (pickupPercentiles == null) {
+                    pickupPercentiles = toPickup.quantiles(PERCENTILES);
+                }
+                return pickupPercentiles;
+            }
+            if (deliveredPercentiles == null) {
+                deliveredPercentiles = toDelivered.quantiles(PERCENTILES);
+            }
+            return deliveredPercentiles;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.quickcommercedeliverysystemdesktop.database;
+
+import com.example.quickcommercedeliverysystemdesktop.events.OrderEvent;
+import com.example.quickcommercedeliverysystemdesktop.events.OrderEventBus;
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.metrics.DaoCall;
+import com.example.quickcommercedeliverysystemdesktop.metrics.MetricsRegistry;
+import com.example.quickcommercedeliverysystemdesktop.models.Money;
+import com.example.quickcommercedeliverysystemdesktop.models.Notification;
+import com.example.quickcommercedeliverysystemdesktop.models.Notification.NotificationType;
+import com.example.quickcommercedeliverysystemdesktop.models.TimeWindow;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for auto-dispatch: consistent snapshots of the open
+ * market and batched assignment commits.
+ */
+public class DispatchDAO {
+
+    private static final Logger log = LogManager.getLogger(DispatchDAO.class);
+
+    /**
+     * Read pending orders and available partners in one read transaction so
+     * both sides of the assignment come from the same point in time.
+     *
+     * Only rows with resolved coordinates take part; partners must be opted in,
+     * not banned and below {@code maxActiveDeliveries} open deliveries.
+     */
+    public static Snapshot loadSnapshot(int maxOrders, int maxActiveDeliveries) {
+        DaoCall call = MetricsRegistry.begin("DispatchDAO.loadSnapshot");
+        List<PendingJob> jobs = new ArrayList<>();
+        List<AvailablePartner> partners = new ArrayList<>();
+
+        String jobSql = """
+                SELECT order_id, customer_id, latitude, longitude, fee_minor, window_start, window_end
+                FROM Orders
+                WHERE status = 'PENDING' AND latitude IS NOT NULL AND longitude IS NOT NULL
+                ORDER BY created_at
+                LIMIT ?
+                """;
+        String partnerSql = """
+                SELECT u.user_id, u.latitude, u.longitude,
+                       (SELECT COUNT(*) FROM Deliveries d
+                        INNER JOIN Orders o ON o.order_id = d.order_id
+                        WHERE d.delivery_person_id = u.user_id
+                          AND o.status IN ('ACCEPTED', 'PICKED_UP', 'ON_THE_WAY')) AS active
+                FROM Users u
+                WHERE u.is_available = 1 AND u.is_banned = 0
+                  AND u.latitude IS NOT NULL AND u.longitude IS NOT NULL
+                """;
+
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement psJobs = conn.prepareStatement(jobSql);
+                 PreparedStatement psPartners = conn.prepareStatement(partnerSql)) {
+
+                psJobs.setInt(1, maxOrders);
+                try (ResultSet rs = psJobs.executeQuery()) {
+                    while (rs.next()) {
+                        jobs.add(new PendingJob(
+                                rs.getInt("order_id"),
+                                rs.getInt("customer_id"),
+                                rs.getDouble("latitude"),
+                                rs.getDouble("longitude"),
+                                Money.ofMinor(rs.getLong("fee_minor")).toDecimal(),
+                                minuteOrNone(rs, "window_start"),
+                                minuteOrNone(rs, "window_end")
+                        ));
+                    }
+                }
+
+                try (ResultSet rs = psPartners.executeQuery()) {
+                    while (rs.next()) {
+                        int active = rs.getInt("active");
+                        if (active < maxActiveDeliveries) {
+                            partners.add(new AvailablePartner(
+                                    rs.getInt("user_id"),
+                                    rs.getDouble("latitude"),
+                                    rs.getDouble("longitude"),
+                                    active
+                            ));
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error loading dispatch snapshot", e);
+            jobs.clear();
+            partners.clear();
+        }
+
+        return call.end(new Snapshot(jobs, partners));
+    }
+
+    /**
+     * Commit a batch of order → partner assignments in a single transaction.
+     *
+     * Each order is guarded individually: it must still be PENDING, not the
+     * partner's own order, and the partner must still be opted in and below
+     * {@code maxActiveDeliveries} open deliveries, counting the ones this batch
+     * already gave them. Orders that lost a race are skipped rather than failing
+     * the batch. Returns the order ids that were actually assigned; notifications
+     * go out in one batch after the commit.
+     */
+    public static List<Integer> commitAssignments(Map<Integer, Integer> partnerByOrder, int maxActiveDeliveries) {
+        DaoCall call = MetricsRegistry.begin("DispatchDAO.commitAssignments");
+        List<Integer> committed = new ArrayList<>();
+        if (partnerByOrder.isEmpty()) {
+            return call.end(committed);
+        }
+
+        String updateOrderSql = """
+                UPDATE Orders SET status = 'ACCEPTED'
+                WHERE order_id = ? AND status = 'PENDING' AND customer_id <> ?
+                  AND EXISTS (SELECT 1 FROM Users WHERE user_id = ? AND is_available = 1 AND is_banned = 0)
+                  AND (SELECT COUNT(*) FROM Deliveries d
+                       INNER JOIN Orders o ON o.order_id = d.order_id
+                       WHERE d.delivery_person_id = ?
+                         AND o.status IN ('ACCEPTED', 'PICKED_UP', 'ON_THE_WAY')) < ?
+                """;
+        String insertDeliverySql = "INSERT INTO Deliveries (order_id, delivery_person_id, status, created_at) VALUES (?, ?, 'Accepted', ?)";
+        String customerSql = "SELECT order_id, customer_id FROM Orders WHERE order_id IN (SELECT value FROM json_each(?))";
+        Map<Integer, Integer> customerByOrder = new HashMap<>();
+
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement psUpdate = conn.prepareStatement(updateOrderSql);
+                 PreparedStatement psInsert = conn.prepareStatement(insertDeliverySql)) {
+
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                for (Map.Entry<Integer, Integer> entry : partnerByOrder.entrySet()) {
+                    int orderId = entry.getKey();
+                    int partnerId = entry.getValue();
+
+                    psUpdate.setInt(1, orderId);
+                    psUpdate.setInt(2, partnerId);
+                    psUpdate.setInt(3, partnerId);
+                    psUpdate.setInt(4, partnerId);
+                    psUpdate.setInt(5, maxActiveDeliveries);
+                    if (psUpdate.executeUpdate() == 0) {
+                        continue;
+                    }
+
+                    // Written now rather than batched so the next guard counts it
+                    psInsert.setInt(1, orderId);
+                    psInsert.setInt(2, partnerId);
+                    psInsert.setTimestamp(3, now);
+                    psInsert.executeUpdate();
+                    committed.add(orderId);
+                }
+
+                if (!committed.isEmpty()) {
+                    try (PreparedStatement ps = conn.prepareStatement(customerSql)) {
+                        ps.setString(1, Database.toJsonArray(committed));
+                        try (ResultSet rs = ps.executeQuery()) {
+                            while (rs.next()) {
+                                customerByOrder.put(rs.getInt("order_id"), rs.getInt("customer_id"));
+                            }
+                        }
+                    }
+                }
+                conn.commit();
+
+            } catch (SQLException e) {
+                call.fail(e);
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error committing dispatch assignments", e);
+            return call.end(new ArrayList<>());
+        }
+
+        List<Notification> notifications = new ArrayList<>();
+        for (Integer orderId : committed) {
+            int partnerId = partnerByOrder.get(orderId);
+            OrderEventBus.publish(OrderEvent.Type.ACCEPTED, orderId, partnerId);
+            int customerId = customerByOrder.getOrDefault(orderId, 0);
+            if (customerId > 0) {
+                notifications.add(new Notification(
+                    customerId,
+                    "Order Accepted",
+                    "A delivery partner has accepted your order #" + orderId,
+                    NotificationType.ORDER_UPDATE,
+                    orderId
+                ));
+            }
+            notifications.add(new Notification(
+                partnerId,
+                "New Delivery Assigned",
+                "Order #" + orderId + " was assigned to you by auto-dispatch",
+                NotificationType.DELIVERY_UPDATE,
+                orderId
+            ));
+        }
+        NotificationDAO.createNotifications(notifications);
+
+        return call.end(committed);
+    }
+
+    private static int minuteOrNone(ResultSet rs, String column) throws SQLException {
+        int minute = rs.getInt(column);
+        return rs.wasNull() ? TimeWindow.NONE : minute;
+    }
+
+    /**
+     * Inner class for one dispatch snapshot
+     */
+    public static class Snapshot {
+        private final List<PendingJob> jobs;
+        private final List<AvailablePartner> partners;
+
+        public Snapshot(List<PendingJob> jobs, List<AvailablePartner> partners) {
+            this.jobs = jobs;
+            this.partners = partners;
+        }
+
+        public List<PendingJob> getJobs() { return jobs; }
+        public List<AvailablePartner> getPartners() { return partners; }
+    }
+
+    /**
+     * Inner class for a pending order as seen by the dispatcher
+     */
+    public static class PendingJob {
+        private final int orderId;
+        private final int customerId;
+        private final double latitude;
+        private final double longitude;
+        private final double fee;
+        private final int windowStart;
+        private final int windowEnd;
+
+        public PendingJob(int orderId, int customerId, double latitude, double longitude,
+                          double fee, int windowStart, int windowEnd) {
+            this.orderId = orderId;
+            this.customerId = customerId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.fee = fee;
+            this.windowStart = windowStart;
+            this.windowEnd = windowEnd;
+        }
+
+        public int getOrderId() { return orderId; }
+        public int getCustomerId() { return customerId; }
+        public double getLatitude() { return latitude; }
+        public double getLongitude() { return longitude; }
+        public double getFee() { return fee; }
+        /** Minutes after midnight, or -1 when the order has no window */
+        public int getWindowStart() { return windowStart; }
+        public int getWindowEnd() { return windowEnd; }
+    }
+
+    /**
+     * Inner class for a partner who can take another order
+     */
+    public static class AvailablePartner {
+        private final int partnerId;
+        private final double latitude;
+        private final double longitude;
+        private final int activeDeliveries;
+
+        public AvailablePartner(int partnerId, double latitude, double longitude, int activeDeliveries) {
+            this.partnerId = partnerId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.activeDeliveries = activeDeliveries;
+        }
+
+        public int getPartnerId() { return partnerId; }
+        public double getLatitude() { return latitude; }
+        public double getLongitude() { return longitude; }
+        public int getActiveDeliveries() { return activeDeliveries; }
+    }
+}
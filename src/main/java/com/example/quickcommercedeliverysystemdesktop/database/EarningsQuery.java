@@ -0,0 +1,140 @@
+package com.example.quickcommercedeliverysystemdesktop.database;
+
+import com.example.quickcommercedeliverysystemdesktop.models.Order.OrderStatus;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filter and page for the admin earnings queries in DeliveryDAO.
+ *
+ * Every criterion is optional and is turned into a SQL predicate, so the
+ * filtering, paging and totals all happen in the database:
+ * <pre>
+ * EarningsPage page = DeliveryDAO.queryEarnings(EarningsQuery.create()
+ *         .deliveryPerson(partnerId)
+ *         .between(from, to)
+ *         .page(2, 100));
+ * </pre>
+ */
+public class EarningsQuery {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * Epoch millis of {@code e.created_at} in either storage form: the DAOs
+     * bind a Timestamp, which sqlite-jdbc stores as INTEGER millis, while
+     * generated and legacy rows hold local-time text. Order by this rather
+     * than the raw column, where the two forms sort as separate groups.
+     */
+    static final String EARNED_MILLIS = "(CASE WHEN typeof(e.created_at) = 'integer' THEN e.created_at " +
+            "ELSE CAST(strftime('%s', e.created_at, 'utc') AS INTEGER) * 1000 END)";
+
+    private int deliveryPersonId;
+    private LocalDate from;
+    private LocalDate to;
+    private OrderStatus orderStatus;
+    private int pageIndex;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+
+    public static EarningsQuery create() {
+        return new EarningsQuery();
+    }
+
+    /**
+     * Only this partner's earnings; 0 means every partner
+     */
+    public EarningsQuery deliveryPerson(int deliveryPersonId) {
+        this.deliveryPersonId = deliveryPersonId;
+        return this;
+    }
+
+    /**
+     * Earnings made on or between the two days; either bound may be null
+     */
+    public EarningsQuery between(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+        return this;
+    }
+
+    /**
+     * Only earnings whose order is currently in this status; null for any
+     */
+    public EarningsQuery orderStatus(OrderStatus orderStatus) {
+        this.orderStatus = orderStatus;
+        return this;
+    }
+
+    /**
+     * Zero-based page of {@code pageSize} rows, newest first
+     */
+    public EarningsQuery page(int pageIndex, int pageSize) {
+        this.pageIndex = Math.max(0, pageIndex);
+        this.pageSize = Math.max(1, pageSize);
+        return this;
+    }
+
+    public int getDeliveryPersonId() { return deliveryPersonId; }
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+    public OrderStatus getOrderStatus() { return orderStatus; }
+    public int getPageIndex() { return pageIndex; }
+    public int getPageSize() { return pageSize; }
+    public long getOffset() { return (long) pageIndex * pageSize; }
+
+    /** Archived months are only searched when both bounds are set */
+    public boolean hasDateRange() { return from != null && to != null; }
+
+    /**
+     * WHERE clause over Earnings {@code e} joined to Orders {@code o}
+     */
+    String toWhereClause() {
+        StringBuilder where = new StringBuilder("1 = 1");
+        if (deliveryPersonId > 0) {
+            where.append(" AND e.delivery_person_id = ?");
+        }
+        if (from != null || to != null) {
+            // INTEGER values sort below all TEXT in SQLite, so the millis bounds only
+            // match millis rows and the text bounds only text rows; both halves are
+            // plain ranges on created_at that an index can serve
+            where.append(" AND ((e.created_at >= ? AND e.created_at < ?) OR (e.created_at >= ?")
+                 .append(to != null ? " AND e.created_at < ?))" : "))");
+        }
+        if (orderStatus != null) {
+            where.append(" AND o.status = ?");
+        }
+        return where.toString();
+    }
+
+    /**
+     * Values for the placeholders of toWhereClause, in order
+     */
+    List<Object> toParameters() {
+        List<Object> parameters = new ArrayList<>();
+        if (deliveryPersonId > 0) {
+            parameters.add(deliveryPersonId);
+        }
+        if (from != null || to != null) {
+            parameters.add(from != null ? startMillis(from) : Long.MIN_VALUE);
+            parameters.add(to != null ? startMillis(to.plusDays(1)) : Long.MAX_VALUE);
+            parameters.add(from != null ? from.toString() : "");
+            if (to != null) {
+                parameters.add(to.plusDays(1).toString());
+            }
+        }
+        if (orderStatus != null) {
+            parameters.add(orderStatus.name());
+        }
+        return parameters;
+    }
+
+    /**
+     * Local midnight in the millis form setTimestamp stores
+     */
+    private static long startMillis(LocalDate day) {
+        return Timestamp.valueOf(day.atStartOfDay()).getTime();
+    }
+}
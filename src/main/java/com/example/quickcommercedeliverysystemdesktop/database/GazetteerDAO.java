@@ -0,0 +1,133 @@
+package com.example.quickcommercedeliverysystemdesktop.database;
+
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.metrics.DaoCall;
+import com.example.quickcommercedeliverysystemdesktop.metrics.MetricsRegistry;
+import com.example.quickcommercedeliverysystemdesktop.models.GeoPoint;
+import com.example.quickcommercedeliverysystemdesktop.models.Order;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Offline gazetteer: resolves free-text addresses to coordinates using the
+ * area names in the Gazetteer table. The table is small, so it is loaded once
+ * and matched in memory.
+ */
+public class GazetteerDAO {
+
+    private static final Logger log = LogManager.getLogger(GazetteerDAO.class);
+
+    private static volatile List<Place> places;
+
+    /**
+     * Resolve an address to the most specific (longest) area name it mentions
+     */
+    public static Place resolve(String address) {
+        if (address == null || address.isBlank()) {
+            return null;
+        }
+        String text = address.toLowerCase(Locale.ROOT);
+        for (Place place : getPlaces()) {
+            if (text.contains(place.getKey())) {
+                return place;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get all known places, longest name first
+     */
+    public static List<Place> getPlaces() {
+        List<Place> cached = places;
+        if (cached == null) {
+            cached = loadPlaces();
+            if (!cached.isEmpty()) {
+                places = cached;
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Drop the cached table, e.g. after adding places
+     */
+    public static void invalidate() {
+        places = null;
+    }
+
+    /**
+     * Copy the latitude/longitude columns of an orders row onto the model (null stays null)
+     */
+    static void readCoordinates(ResultSet rs, Order order) throws SQLException {
+        double latitude = rs.getDouble("latitude");
+        boolean hasLatitude = !rs.wasNull();
+        double longitude = rs.getDouble("longitude");
+        boolean hasLongitude = !rs.wasNull();
+        if (hasLatitude && hasLongitude) {
+            order.setLatitude(latitude);
+            order.setLongitude(longitude);
+        }
+    }
+
+    private static List<Place> loadPlaces() {
+        DaoCall call = MetricsRegistry.begin("GazetteerDAO.loadPlaces");
+        List<Place> result = new ArrayList<>();
+        String sql = "SELECT name, name_key, latitude, longitude FROM Gazetteer";
+
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                result.add(new Place(
+                        rs.getString("name"),
+                        rs.getString("name_key"),
+                        rs.getDouble("latitude"),
+                        rs.getDouble("longitude")
+                ));
+            }
+            result.sort(Comparator.comparingInt((Place p) -> p.getKey().length()).reversed());
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error loading gazetteer", e);
+        }
+
+        return call.end(result);
+    }
+
+    /**
+     * Inner class for a named area
+     */
+    public static class Place {
+        private final String name;
+        private final String key;
+        private final double latitude;
+        private final double longitude;
+
+        public Place(String name, String key, double latitude, double longitude) {
+            this.name = name;
+            this.key = key;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        public String getName() { return name; }
+        public String getKey() { return key; }
+        public double getLatitude() { return latitude; }
+        public double getLongitude() { return longitude; }
+
+        public GeoPoint toPoint() {
+            return new GeoPoint(latitude, longitude);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.quickcommercedeliverysystemdesktop.database;
+
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.metrics.DaoCall;
+import com.example.quickcommercedeliverysystemdesktop.metrics.MetricsRegistry;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for SQLite housekeeping: statistics, vacuuming,
+ * integrity checks and the MaintenanceLog history
+ */
+public class MaintenanceDAO {
+
+    private static final Logger log = LogManager.getLogger(MaintenanceDAO.class);
+
+    /**
+     * Return up to {@code maxPages} free pages to the file system (0 = all) in
+     * one short transaction. Only has an effect when the database uses
+     * auto_vacuum=INCREMENTAL. Returns the number of pages released, or -1 on error.
+     */
+    public static long incrementalVacuum(int maxPages) {
+        DaoCall call = MetricsRegistry.begin("MaintenanceDAO.incrementalVacuum");
+
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            long before = pragmaLong(stmt, "freelist_count");
+            long target = maxPages > 0 ? Math.min(before, maxPages) : before;
+            long remaining = before;
+
+            conn.setAutoCommit(false);
+            try {
+                // Drivers may step the pragma only once, which frees a single page;
+                // repeat until the target is met or nothing more comes back
+                while (before - remaining < target) {
+                    stmt.execute("PRAGMA incremental_vacuum(" + (target - (before - remaining)) + ")");
+                    long now = pragmaLong(stmt, "freelist_count");
+                    if (now >= remaining) {
+                        break;
+                    }
+                    remaining = now;
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            return call.end(before - remaining);
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error running incremental vacuum", e);
+            return call.end(-1L);
+        }
+    }
+
+    /**
+     * Refresh planner statistics. {@code analysisLimit} caps the rows sampled
+     * per index (0 = no limit) so the pass stays short on large tables.
+     */
+    public static boolean analyze(int analysisLimit) {
+        DaoCall call = MetricsRegistry.begin("MaintenanceDAO.analyze");
+
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            stmt.execute("PRAGMA analysis_limit = " + Math.max(0, analysisLimit));
+            stmt.execute("ANALYZE");
+            return call.end(true);
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error running ANALYZE", e);
+            return call.end(false);
+        }
+    }
+
+    /**
+     * Let SQLite decide which statistics are worth refreshing (PRAGMA optimize)
+     */
+    public static boolean optimize() {
+        DaoCall call = MetricsRegistry.begin("MaintenanceDAO.optimize");
+
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            stmt.execute("PRAGMA optimize");
+            return call.end(true);
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error running PRAGMA optimize", e);
+            return call.end(false);
+        }
+    }
+
+    /**
+     * Run quick_check (or the slower full integrity_check) and return its
+     * messages; a healthy database returns just "ok". Returns null on error.
+     */
+    public static List<String> checkIntegrity(boolean full, int maxErrors) {
+        DaoCall call = MetricsRegistry.begin("MaintenanceDAO.checkIntegrity");
+        List<String> messages = new ArrayList<>();
+        String pragma = (full ? "integrity_check" : "quick_check") + "(" + Math.max(1, maxErrors) + ")";
+
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA " + pragma)) {
+
+            while (rs.next()) {
+                messages.add(rs.getString(1));
+            }
+            return call.end(messages);
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error running " + pragma, e);
+            return call.end((List<String>) null);
+        }
+    }
+
+    /**
+     * Append one run to MaintenanceLog
+     */
+    public static boolean recordRun(String task, LocalDateTime startedAt, long durationMs,
+                                    PageStats before, PageStats after, String outcome, String detail) {
+        DaoCall call = MetricsRegistry.begin("MaintenanceDAO.recordRun");
+        String sql = "INSERT INTO MaintenanceLog (task, started_at, duration_ms, bytes_before, bytes_after, " +
+                     "free_pages_before, free_pages_after, outcome, detail) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, task);
+            ps.setString(2, Timestamp.valueOf(startedAt).toString());
+            ps.setLong(3, durationMs);
+            ps.setObject(4, before != null ? before.getFileBytes() : null);
+            ps.setObject(5, after != null ? after.getFileBytes() : null);
+            ps.setObject(6, before != null ? before.getFreePages() : null);
+            ps.setObject(7, after != null ? after.getFreePages() : null);
+            ps.setString(8, outcome);
+            ps.setString(9, detail);
+            ps.executeUpdate();
+            return call.end(true);
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error recording maintenance run", e);
+            return call.end(false);
+        }
+    }
+
+    /**
+     * When each task last started, so schedules survive restarts
+     */
+    public static Map<String, LocalDateTime> getLastRunTimes() {
+        DaoCall call = MetricsRegistry.begin("MaintenanceDAO.getLastRunTimes");
+        Map<String, LocalDateTime> lastRuns = new HashMap<>();
+        String sql = "SELECT task, MAX(started_at) AS last_started FROM MaintenanceLog GROUP BY task";
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                lastRuns.put(rs.getString("task"), Timestamp.valueOf(rs.getString("last_started")).toLocalDateTime());
+            }
+
+        } catch (SQLException | IllegalArgumentException e) {
+            call.fail(e);
+            log.error("Error reading maintenance history", e);
+        }
+
+        return call.end(lastRuns);
+    }
+
+    /**
+     * The most recent maintenance runs, newest first
+     */
+    public static List<MaintenanceRun> getRecentRuns(int limit) {
+        DaoCall call = MetricsRegistry.begin("MaintenanceDAO.getRecentRuns");
+        List<MaintenanceRun> runs = new ArrayList<>();
+        String sql = "SELECT * FROM MaintenanceLog ORDER BY log_id DESC LIMIT ?";
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    runs.add(new MaintenanceRun(
+                            rs.getString("task"),
+                            Timestamp.valueOf(rs.getString("started_at")).toLocalDateTime(),
+                            rs.getLong("duration_ms"),
+                            rs.getLong("bytes_before"),
+                            rs.getLong("bytes_after"),
+                            rs.getString("outcome"),
+                            rs.getString("detail")
+                    ));
+                }
+            }
+
+        } catch (SQLException | IllegalArgumentException e) {
+            call.fail(e);
+            log.error("Error reading maintenance runs", e);
+        }
+
+        return call.end(runs);
+    }
+
+    /**
+     * Current page size, page count, free pages and auto_vacuum mode, or null on error
+     */
+    public static PageStats getPageStats() {
+        DaoCall call = MetricsRegistry.begin("MaintenanceDAO.getPageStats");
+
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            return call.end(new PageStats(
+                    pragmaLong(stmt, "page_size"),
+                    pragmaLong(stmt, "page_count"),
+                    pragmaLong(stmt, "freelist_count"),
+                    (int) pragmaLong(stmt, "auto_vacuum")
+            ));
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error reading page stats", e);
+            return call.end(null);
+        }
+    }
+
+    static long pragmaLong(Statement stmt, String pragma) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA " + pragma)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Inner class for the database file's page accounting
+     */
+    public static class PageStats {
+        public static final int AUTO_VACUUM_NONE = 0;
+        public static final int AUTO_VACUUM_FULL = 1;
+        public static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+        private final long pageSize;
+        private final long pageCount;
+        private final long freePages;
+        private final int autoVacuum;
+
+        public PageStats(long pageSize, long pageCount, long freePages, int autoVacuum) {
+            this.pageSize = pageSize;
+            this.pageCount = pageCount;
+            this.freePages = freePages;
+            this.autoVacuum = autoVacuum;
+        }
+
+        public long getPageSize() { return pageSize; }
+        public long getPageCount() { return pageCount; }
+        public long getFreePages() { return freePages; }
+        public int getAutoVacuum() { return autoVacuum; }
+        public long getFileBytes() { return pageSize * pageCount; }
+        public long getFreeBytes() { return pageSize * freePages; }
+        public boolean isIncremental() { return autoVacuum == AUTO_VACUUM_INCREMENTAL; }
+    }
+
+    /**
+     * Inner class for one MaintenanceLog row
+     */
+    public static class MaintenanceRun {
+        private final String task;
+        private final LocalDateTime startedAt;
+        private final long durationMs;
+        private final long bytesBefore;
+        private final long bytesAfter;
+        private final String outcome;
+        private final String detail;
+
+        public MaintenanceRun(String task, LocalDateTime startedAt, long durationMs, long bytesBefore,
+                              long bytesAfter, String outcome, String detail) {
+            this.task = task;
+            this.startedAt = startedAt;
+            this.durationMs = durationMs;
+            this.bytesBefore = bytesBefore;
+            this.bytesAfter = bytesAfter;
+            this.outcome = outcome;
+            this.detail = detail;
+        }
+
+        public String getTask() { return task; }
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public long getDurationMs() { return durationMs; }
+        public long getBytesBefore() { return bytesBefore; }
+        public long getBytesAfter() { return bytesAfter; }
+        /** Bytes the file shrank by; negative if it grew */
+        public long getBytesReclaimed() { return bytesBefore - bytesAfter; }
+        public String getOutcome() { return outcome; }
+        public String getDetail() { return detail; }
+    }
+}
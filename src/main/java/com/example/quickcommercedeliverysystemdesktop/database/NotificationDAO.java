@@ -1,10 +1,15 @@
 package com.example.quickcommercedeliverysystemdesktop.database;
 
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.metrics.DaoCall;
+import com.example.quickcommercedeliverysystemdesktop.metrics.MetricsRegistry;
 import com.example.quickcommercedeliverysystemdesktop.models.Notification;
 import com.example.quickcommercedeliverysystemdesktop.models.Notification.NotificationType;
 
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -13,21 +18,17 @@ import java.util.List;
  */
 public class NotificationDAO {
 
+    private static final Logger log = LogManager.getLogger(NotificationDAO.class);
+
     /**
      * Create a new notification
      */
     public static boolean createNotification(int userId, String title, String message,
                                            String type, Integer orderId) {
+        DaoCall call = MetricsRegistry.begin("NotificationDAO.createNotification");
         String sql = "INSERT INTO Notifications (user_id, title, message, type, order_id, created_at) " +
                      "VALUES (?, ?, ?, ?, ?, ?)";
 
-        System.out.println("=== Creating Notification ===");
-        System.out.println("User ID: " + userId);
-        System.out.println("Title: " + title);
-        System.out.println("Message: " + message);
-        System.out.println("Type: " + type);
-        System.out.println("Order ID: " + orderId);
-
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
@@ -42,14 +43,61 @@ public class NotificationDAO {
             }
             ps.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
 
-            int rowsAffected = ps.executeUpdate();
-            System.out.println("✓ Notification created successfully! Rows affected: " + rowsAffected);
-            return true;
+            ps.executeUpdate();
+            log.debug("Created {} notification for user {} (order {})", type, userId, orderId);
+            return call.end(true);
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error creating notification", e);
+            return call.end(false);
+        }
+    }
+
+    /**
+     * Write several notifications in one transaction and one batched insert.
+     * Returns the number written, or -1 on error.
+     */
+    public static int createNotifications(List<Notification> notifications) {
+        DaoCall call = MetricsRegistry.begin("NotificationDAO.createNotifications");
+        if (notifications.isEmpty()) {
+            return call.end(0);
+        }
+        String sql = "INSERT INTO Notifications (user_id, title, message, type, order_id, created_at) " +
+                     "VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (Notification notification : notifications) {
+                    ps.setInt(1, notification.getUserId());
+                    ps.setString(2, notification.getTitle());
+                    ps.setString(3, notification.getMessage());
+                    ps.setString(4, notification.getType().name());
+                    if (notification.getOrderId() != null) {
+                        ps.setInt(5, notification.getOrderId());
+                    } else {
+                        ps.setNull(5, Types.INTEGER);
+                    }
+                    ps.setTimestamp(6, Timestamp.valueOf(notification.getCreatedAt()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+            log.debug("Created {} notifications in one batch", notifications.size());
+            return call.end(notifications.size());
 
         } catch (SQLException e) {
-            System.err.println("✗ Error creating notification: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+            call.fail(e);
+            log.error("Error creating notifications", e);
+            return call.end(-1);
         }
     }
 
@@ -57,11 +105,10 @@ public class NotificationDAO {
      * Get all notifications for a user
      */
     public static List<Notification> getNotificationsByUser(int userId) {
+        DaoCall call = MetricsRegistry.begin("NotificationDAO.getNotificationsByUser");
         List<Notification> notifications = new ArrayList<>();
         String sql = "SELECT * FROM Notifications WHERE user_id = ? ORDER BY created_at DESC";
 
-        System.out.println("=== Fetching Notifications for User ID: " + userId + " ===");
-
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
@@ -72,20 +119,21 @@ public class NotificationDAO {
                 notifications.add(mapResultSetToNotification(rs));
             }
 
-            System.out.println("✓ Found " + notifications.size() + " notifications for user " + userId);
+            log.debug("Found {} notifications for user {}", notifications.size(), userId);
 
         } catch (SQLException e) {
-            System.err.println("✗ Error fetching notifications: " + e.getMessage());
-            e.printStackTrace();
+            call.fail(e);
+            log.error("Error fetching notifications", e);
         }
 
-        return notifications;
+        return call.end(notifications);
     }
 
     /**
      * Get recent notifications (limited)
      */
     public static List<Notification> getRecentNotifications(int userId, int limit) {
+        DaoCall call = MetricsRegistry.begin("NotificationDAO.getRecentNotifications");
         List<Notification> notifications = new ArrayList<>();
         String sql = "SELECT * FROM Notifications WHERE user_id = ? ORDER BY created_at DESC LIMIT ?";
 
@@ -101,17 +149,18 @@ public class NotificationDAO {
             }
 
         } catch (SQLException e) {
-            System.err.println("Error fetching recent notifications: " + e.getMessage());
-            e.printStackTrace();
+            call.fail(e);
+            log.error("Error fetching recent notifications", e);
         }
 
-        return notifications;
+        return call.end(notifications);
     }
 
     /**
      * Get unread notification count
      */
     public static int getUnreadCount(int userId) {
+        DaoCall call = MetricsRegistry.begin("NotificationDAO.getUnreadCount");
         String sql = "SELECT COUNT(*) as count FROM Notifications WHERE user_id = ? AND is_read = 0";
 
         try (Connection conn = Database.getConnection();
@@ -121,21 +170,22 @@ public class NotificationDAO {
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-                return rs.getInt("count");
+                return call.end(rs.getInt("count"));
             }
 
         } catch (SQLException e) {
-            System.err.println("Error getting unread count: " + e.getMessage());
-            e.printStackTrace();
+            call.fail(e);
+            log.error("Error getting unread count", e);
         }
 
-        return 0;
+        return call.end(0);
     }
 
     /**
      * Mark notification as read
      */
     public static boolean markAsRead(int notificationId) {
+        DaoCall call = MetricsRegistry.begin("NotificationDAO.markAsRead");
         String sql = "UPDATE Notifications SET is_read = 1 WHERE notification_id = ?";
 
         try (Connection conn = Database.getConnection();
@@ -143,12 +193,12 @@ public class NotificationDAO {
 
             ps.setInt(1, notificationId);
             int updated = ps.executeUpdate();
-            return updated > 0;
+            return call.end(updated > 0);
 
         } catch (SQLException e) {
-            System.err.println("Error marking notification as read: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+            call.fail(e);
+            log.error("Error marking notification as read", e);
+            return call.end(false);
         }
     }
 
@@ -156,6 +206,7 @@ public class NotificationDAO {
      * Mark all notifications as read for a user
      */
     public static boolean markAllAsRead(int userId) {
+        DaoCall call = MetricsRegistry.begin("NotificationDAO.markAllAsRead");
         String sql = "UPDATE Notifications SET is_read = 1 WHERE user_id = ? AND is_read = 0";
 
         try (Connection conn = Database.getConnection();
@@ -163,12 +214,12 @@ public class NotificationDAO {
 
             ps.setInt(1, userId);
             ps.executeUpdate();
-            return true;
+            return call.end(true);
 
         } catch (SQLException e) {
-            System.err.println("Error marking all as read: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+            call.fail(e);
+            log.error("Error marking all as read", e);
+            return call.end(false);
         }
     }
 
@@ -176,6 +227,7 @@ public class NotificationDAO {
      * Delete a notification
      */
     public static boolean deleteNotification(int notificationId) {
+        DaoCall call = MetricsRegistry.begin("NotificationDAO.deleteNotification");
         String sql = "DELETE FROM Notifications WHERE notification_id = ?";
 
         try (Connection conn = Database.getConnection();
@@ -183,15 +235,149 @@ public class NotificationDAO {
 
             ps.setInt(1, notificationId);
             int deleted = ps.executeUpdate();
-            return deleted > 0;
+            return call.end(deleted > 0);
 
         } catch (SQLException e) {
-            System.err.println("Error deleting notification: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+            call.fail(e);
+            log.error("Error deleting notification", e);
+            return call.end(false);
         }
     }
 
+    // ===== RETENTION =====
+
+    /**
+     * created_at as epoch milliseconds. Rows written through setTimestamp hold
+     * milliseconds; older and generated rows hold local "yyyy-MM-dd HH:mm:ss" text.
+     */
+    private static final String CREATED_MILLIS = "(CASE WHEN typeof(created_at) = 'integer' THEN created_at " +
+            "ELSE CAST(strftime('%s', created_at, 'utc') AS INTEGER) * 1000 END)";
+    /**
+     * created_at before a cutoff bound as (millis, text). INTEGER values sort
+     * below all TEXT in SQLite, so each half is a plain range over one storage
+     * form; neither needs the CASE above.
+     */
+    private static final String CREATED_BEFORE =
+            "((created_at >= " + Long.MIN_VALUE + " AND created_at < ?) OR (created_at >= '' AND created_at < ?))";
+    /**
+     * Ids of read notifications created before a cutoff bound as (millis, text).
+     * The two ranges are separate SELECTs because SQLite will not split an OR
+     * into index ranges; this way each is a search of idx_notifications_read.
+     */
+    static final String READ_BEFORE =
+            "SELECT notification_id FROM Notifications " +
+            "WHERE is_read = 1 AND created_at >= " + Long.MIN_VALUE + " AND created_at < ? " +
+            "UNION ALL SELECT notification_id FROM Notifications " +
+            "WHERE is_read = 1 AND created_at >= '' AND created_at < ?";
+    private static final DateTimeFormatter CREATED_TEXT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    /** Local calendar day of created_at, for either storage form */
+    private static final String CREATED_DAY = "(CASE WHEN typeof(created_at) = 'integer' " +
+            "THEN date(created_at / 1000, 'unixepoch', 'localtime') ELSE date(created_at) END)";
+
+    /**
+     * Delete up to {@code limit} read notifications created before the cutoff.
+     * Returns the number deleted, or -1 on error.
+     */
+    public static int deleteReadBefore(LocalDateTime cutoff, int limit) {
+        DaoCall call = MetricsRegistry.begin("NotificationDAO.deleteReadBefore");
+        String sql = "DELETE FROM Notifications WHERE notification_id IN (" +
+                     READ_BEFORE + " LIMIT ?)";
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, Timestamp.valueOf(cutoff).getTime());
+            ps.setString(2, cutoff.format(CREATED_TEXT));
+            ps.setInt(3, limit);
+            return call.end(ps.executeUpdate());
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error deleting old notifications", e);
+            return call.end(-1);
+        }
+    }
+
+    /**
+     * Collapse read notices created before the cutoff into one digest row per
+     * user, title, type and day, for groups of at least {@code minGroupSize}.
+     * Handles up to {@code maxGroups} groups, each in its own transaction.
+     */
+    public static DigestResult digestReadBefore(LocalDateTime cutoff, int minGroupSize, int maxGroups) {
+        DaoCall call = MetricsRegistry.begin("NotificationDAO.digestReadBefore");
+        String groupSql = "SELECT user_id, title, type, " + CREATED_DAY + " AS day, COUNT(*) AS n, " +
+                          "MAX(" + CREATED_MILLIS + ") AS last_millis " +
+                          "FROM Notifications " +
+                          "WHERE digest_count IS NULL AND notification_id IN (" + READ_BEFORE + ") " +
+                          "GROUP BY user_id, title, type, day HAVING COUNT(*) >= ? LIMIT ?";
+        String insertSql = "INSERT INTO Notifications (user_id, title, message, type, order_id, is_read, created_at, digest_count) " +
+                           "VALUES (?, ?, ?, ?, NULL, 1, ?, ?)";
+        String deleteSql = "DELETE FROM Notifications " +
+                           "WHERE user_id = ? AND title = ? AND type IS ? AND is_read = 1 AND digest_count IS NULL " +
+                           "AND " + CREATED_DAY + " = ? AND " + CREATED_BEFORE;
+        int digests = 0;
+        int replaced = 0;
+        long cutoffMillis = Timestamp.valueOf(cutoff).getTime();
+        String cutoffText = cutoff.format(CREATED_TEXT);
+
+        try (Connection conn = Database.getConnection()) {
+            List<Object[]> groups = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(groupSql)) {
+                ps.setLong(1, cutoffMillis);
+                ps.setString(2, cutoffText);
+                ps.setInt(3, minGroupSize);
+                ps.setInt(4, maxGroups);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        groups.add(new Object[] {
+                                rs.getInt("user_id"), rs.getString("title"), rs.getString("type"),
+                                rs.getString("day"), rs.getInt("n"), rs.getLong("last_millis")
+                        });
+                    }
+                }
+            }
+
+            try (PreparedStatement psInsert = conn.prepareStatement(insertSql);
+                 PreparedStatement psDelete = conn.prepareStatement(deleteSql)) {
+                for (Object[] group : groups) {
+                    conn.setAutoCommit(false);
+                    try {
+                        psDelete.setInt(1, (Integer) group[0]);
+                        psDelete.setString(2, (String) group[1]);
+                        psDelete.setString(3, (String) group[2]);
+                        psDelete.setString(4, (String) group[3]);
+                        psDelete.setLong(5, cutoffMillis);
+                        psDelete.setString(6, cutoffText);
+                        int removed = psDelete.executeUpdate();
+
+                        psInsert.setInt(1, (Integer) group[0]);
+                        psInsert.setString(2, group[1] + " (" + removed + "×)");
+                        psInsert.setString(3, removed + " notifications titled '" + group[1] + "' on " + group[3]);
+                        psInsert.setString(4, (String) group[2]);
+                        psInsert.setTimestamp(5, new Timestamp((Long) group[5]));
+                        psInsert.setInt(6, removed);
+                        psInsert.executeUpdate();
+
+                        conn.commit();
+                        digests++;
+                        replaced += removed;
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        throw e;
+                    } finally {
+                        conn.setAutoCommit(true);
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error writing notification digests", e);
+        }
+
+        return call.end(new DigestResult(digests, replaced));
+    }
+
     /**
      * Helper method to map ResultSet to Notification object
      */
@@ -215,5 +401,20 @@ public class NotificationDAO {
 
         return new Notification(notificationId, userId, title, message, type, orderId, isRead, createdAt);
     }
-}
 
+    /**
+     * Inner class for the outcome of a digest pass
+     */
+    public static class DigestResult {
+        private final int digestsWritten;
+        private final int notificationsReplaced;
+
+        public DigestResult(int digestsWritten, int notificationsReplaced) {
+            this.digestsWritten = digestsWritten;
+            this.notificationsReplaced = notificationsReplaced;
+        }
+
+        public int getDigestsWritten() { return digestsWritten; }
+        public int getNotificationsReplaced() { return notificationsReplaced; }
+    }
+}
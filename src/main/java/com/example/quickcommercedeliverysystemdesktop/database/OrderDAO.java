@@ -1,20 +1,33 @@
 package com.example.quickcommercedeliverysystemdesktop.database;
 
+import com.example.quickcommercedeliverysystemdesktop.events.OrderEvent;
+import com.example.quickcommercedeliverysystemdesktop.events.OrderEventBus;
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.metrics.DaoCall;
+import com.example.quickcommercedeliverysystemdesktop.metrics.MetricsRegistry;
+import com.example.quickcommercedeliverysystemdesktop.models.Money;
 import com.example.quickcommercedeliverysystemdesktop.models.Order;
 import com.example.quickcommercedeliverysystemdesktop.models.Order.OrderStatus;
+import com.example.quickcommercedeliverysystemdesktop.models.TimeWindow;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class OrderDAO {
 
+    private static final Logger log = LogManager.getLogger(OrderDAO.class);
+
     // Create new order
     public static boolean createOrder(Order order) {
+        DaoCall call = MetricsRegistry.begin("OrderDAO.createOrder");
         String sql = "INSERT INTO Orders (customer_id, product_name, description, photo, " +
-                     "delivery_location, time_from, time_to, fee, status, created_at) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                     "delivery_location, time_from, time_to, fee_minor, status, created_at, latitude, longitude, " +
+                     "window_start, window_end) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
@@ -31,16 +44,23 @@ public class OrderDAO {
             ps.setString(5, order.getDeliveryLocation());
             ps.setString(6, timeFrom);
             ps.setString(7, timeTo);
-            ps.setDouble(8, order.getDeliveryFee());
+            ps.setLong(8, order.getDeliveryFee().getMinor());
             ps.setString(9, order.getStatus().name());
             ps.setString(10, Timestamp.valueOf(order.getOrderDate()).toString());
 
+            // Resolve coordinates offline so the order shows up in nearest-order searches
+            GazetteerDAO.Place place = GazetteerDAO.resolve(order.getDeliveryLocation());
+            ps.setObject(11, place != null ? place.getLatitude() : null);
+            ps.setObject(12, place != null ? place.getLongitude() : null);
+            bindTimeWindow(ps, 13, TimeWindow.parse(order.getDeliveryTimeRange()));
+
             ps.executeUpdate();
 
             // Get generated order ID
             ResultSet generatedKeys = ps.getGeneratedKeys();
             if (generatedKeys.next()) {
                 int orderId = generatedKeys.getInt(1);
+                order.setOrderId(orderId);
 
                 // Create notification for the user who created the order
                 NotificationDAO.createNotification(
@@ -65,18 +85,21 @@ public class OrderDAO {
                         );
                     }
                 }
+
+                OrderEventBus.publish(OrderEvent.Type.CREATED, orderId);
             }
 
-            return true;
+            return call.end(true);
         } catch (Exception ex) {
-            System.err.println("Error creating order: " + ex.getMessage());
-            ex.printStackTrace();
-            return false;
+            call.fail(ex);
+            log.error("Error creating order", ex);
+            return call.end(false);
         }
     }
 
     // Get orders created by a specific user (My Orders)
     public static List<Order> getOrdersByUser(int userId) {
+        DaoCall call = MetricsRegistry.begin("OrderDAO.getOrdersByUser");
         List<Order> orders = new ArrayList<>();
         String sql = "SELECT * FROM Orders WHERE customer_id = ? ORDER BY created_at DESC";
 
@@ -90,14 +113,16 @@ public class OrderDAO {
                 orders.add(mapResultSetToOrder(rs));
             }
         } catch (Exception ex) {
-            System.err.println("Error fetching user orders: " + ex.getMessage());
+            call.fail(ex);
+            log.error("Error fetching user orders", ex);
         }
 
-        return orders;
+        return call.end(orders);
     }
 
     // Get all orders (for admin)
     public static List<Order> getAllOrders() {
+        DaoCall call = MetricsRegistry.begin("OrderDAO.getAllOrders");
         List<Order> orders = new ArrayList<>();
         String sql = "SELECT * FROM Orders ORDER BY created_at DESC";
 
@@ -109,16 +134,19 @@ public class OrderDAO {
                 orders.add(mapResultSetToOrder(rs));
             }
         } catch (Exception ex) {
-            System.err.println("Error fetching all orders: " + ex.getMessage());
+            call.fail(ex);
+            log.error("Error fetching all orders", ex);
         }
 
-        return orders;
+        return call.end(orders);
     }
 
     // Update order
     public static boolean updateOrder(Order order) {
+        DaoCall call = MetricsRegistry.begin("OrderDAO.updateOrder");
         String sql = "UPDATE Orders SET product_name=?, description=?, delivery_location=?, " +
-                     "time_from=?, time_to=?, fee=?, status=? WHERE order_id=?";
+                     "time_from=?, time_to=?, fee_minor=?, status=?, latitude=?, longitude=?, " +
+                     "window_start=?, window_end=? WHERE order_id=?";
 
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -132,36 +160,92 @@ public class OrderDAO {
             ps.setString(3, order.getDeliveryLocation());
             ps.setString(4, timeFrom);
             ps.setString(5, timeTo);
-            ps.setDouble(6, order.getDeliveryFee());
+            ps.setLong(6, order.getDeliveryFee().getMinor());
             ps.setString(7, order.getStatus().name());
-            ps.setInt(8, order.getOrderId());
-
-            ps.executeUpdate();
-            return true;
+            GazetteerDAO.Place place = GazetteerDAO.resolve(order.getDeliveryLocation());
+            ps.setObject(8, place != null ? place.getLatitude() : null);
+            ps.setObject(9, place != null ? place.getLongitude() : null);
+            bindTimeWindow(ps, 10, TimeWindow.parse(order.getDeliveryTimeRange()));
+            ps.setInt(12, order.getOrderId());
+
+            if (ps.executeUpdate() > 0) {
+                OrderEventBus.publish(OrderEvent.Type.UPDATED, order.getOrderId());
+            }
+            return call.end(true);
         } catch (Exception ex) {
-            System.err.println("Error updating order: " + ex.getMessage());
-            return false;
+            call.fail(ex);
+            log.error("Error updating order", ex);
+            return call.end(false);
         }
     }
 
     // Cancel order
     public static boolean cancelOrder(int orderId) {
+        DaoCall call = MetricsRegistry.begin("OrderDAO.cancelOrder");
         String sql = "UPDATE Orders SET status='CANCELLED' WHERE order_id=?";
 
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setInt(1, orderId);
-            ps.executeUpdate();
-            return true;
+            if (ps.executeUpdate() > 0) {
+                OrderEventBus.publish(OrderEvent.Type.CANCELLED, orderId);
+            }
+            return call.end(true);
         } catch (Exception ex) {
-            System.err.println("Error cancelling order: " + ex.getMessage());
-            return false;
+            call.fail(ex);
+            log.error("Error cancelling order", ex);
+            return call.end(false);
+        }
+    }
+
+    /**
+     * Cancel many orders in one transaction. Orders already delivered or
+     * cancelled are left alone. Returns the ids that were cancelled; empty on error.
+     */
+    public static List<Integer> cancelOrders(Collection<Integer> orderIds) {
+        DaoCall call = MetricsRegistry.begin("OrderDAO.cancelOrders");
+        List<Integer> cancelled = new ArrayList<>();
+        if (orderIds.isEmpty()) {
+            return call.end(cancelled);
+        }
+        String openOrders = "order_id IN (SELECT value FROM json_each(?)) AND status NOT IN ('DELIVERED', 'CANCELLED')";
+
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement psSelect = conn.prepareStatement("SELECT order_id FROM Orders WHERE " + openOrders);
+                 PreparedStatement psUpdate = conn.prepareStatement(
+                         "UPDATE Orders SET status = 'CANCELLED' WHERE " + openOrders)) {
+
+                String ids = Database.toJsonArray(orderIds);
+                psSelect.setString(1, ids);
+                try (ResultSet rs = psSelect.executeQuery()) {
+                    while (rs.next()) {
+                        cancelled.add(rs.getInt("order_id"));
+                    }
+                }
+                psUpdate.setString(1, ids);
+                psUpdate.executeUpdate();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error cancelling orders", e);
+            return call.end(new ArrayList<>());
+        }
+
+        for (Integer orderId : cancelled) {
+            OrderEventBus.publish(OrderEvent.Type.CANCELLED, orderId);
         }
+        return call.end(cancelled);
     }
 
     // Get order by ID
     public static Order getOrderById(int orderId) {
+        DaoCall call = MetricsRegistry.begin("OrderDAO.getOrderById");
         String sql = "SELECT * FROM Orders WHERE order_id = ?";
 
         try (Connection conn = Database.getConnection();
@@ -171,13 +255,131 @@ public class OrderDAO {
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-                return mapResultSetToOrder(rs);
+                return call.end(mapResultSetToOrder(rs));
+            }
+        } catch (Exception ex) {
+            call.fail(ex);
+            log.error("Error fetching order", ex);
+        }
+
+        return call.end(null);
+    }
+
+    /**
+     * Cancel an order only if nobody has accepted it yet
+     */
+    public static boolean cancelIfPending(int orderId) {
+        DaoCall call = MetricsRegistry.begin("OrderDAO.cancelIfPending");
+        String sql = "UPDATE Orders SET status='CANCELLED' WHERE order_id=? AND status='PENDING'";
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, orderId);
+            if (ps.executeUpdate() > 0) {
+                OrderEventBus.publish(OrderEvent.Type.CANCELLED, orderId);
+                return call.end(true);
+            }
+            return call.end(false);
+        } catch (Exception ex) {
+            call.fail(ex);
+            log.error("Error cancelling pending order", ex);
+            return call.end(false);
+        }
+    }
+
+    /**
+     * Status, age and window of every open order, for the SLA monitor
+     */
+    public static List<OrderTiming> getOpenOrderTimings() {
+        DaoCall call = MetricsRegistry.begin("OrderDAO.getOpenOrderTimings");
+        List<OrderTiming> timings = new ArrayList<>();
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(ORDER_TIMING_SQL +
+                     " WHERE o.status IN ('PENDING', 'ACCEPTED', 'PICKED_UP', 'ON_THE_WAY')");
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                timings.add(mapOrderTiming(rs));
+            }
+        } catch (Exception ex) {
+            call.fail(ex);
+            log.error("Error fetching open order timings", ex);
+        }
+
+        return call.end(timings);
+    }
+
+    /**
+     * Status, age and window of one order, or null if it does not exist
+     */
+    public static OrderTiming getOrderTiming(int orderId) {
+        DaoCall call = MetricsRegistry.begin("OrderDAO.getOrderTiming");
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(ORDER_TIMING_SQL + " WHERE o.order_id = ?")) {
+
+            ps.setInt(1, orderId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return call.end(mapOrderTiming(rs));
+                }
             }
         } catch (Exception ex) {
-            System.err.println("Error fetching order: " + ex.getMessage());
+            call.fail(ex);
+            log.error("Error fetching order timing", ex);
         }
 
-        return null;
+        return call.end(null);
+    }
+
+    private static final String ORDER_TIMING_SQL = """
+            SELECT o.order_id, o.customer_id, o.status, o.created_at, o.time_from, o.time_to,
+                   o.window_start, o.window_end,
+                   (SELECT d.delivery_person_id FROM Deliveries d WHERE d.order_id = o.order_id
+                    ORDER BY d.delivery_id DESC LIMIT 1) AS partner_id
+            FROM Orders o
+            """;
+
+    private static OrderTiming mapOrderTiming(ResultSet rs) throws SQLException {
+        int start = rs.getInt("window_start");
+        boolean hasStart = !rs.wasNull();
+        int end = rs.getInt("window_end");
+        boolean hasEnd = !rs.wasNull();
+        TimeWindow window = hasStart || hasEnd
+                ? new TimeWindow(hasStart ? start : TimeWindow.NONE, hasEnd ? end : TimeWindow.NONE)
+                : TimeWindow.parse(rs.getString("time_from") + " - " + rs.getString("time_to"));
+        return new OrderTiming(
+                rs.getInt("order_id"),
+                rs.getInt("customer_id"),
+                rs.getInt("partner_id"),
+                OrderStatus.valueOf(rs.getString("status")),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                window
+        );
+    }
+
+    /**
+     * Write a window into two consecutive INTEGER parameters; missing bounds become NULL
+     */
+    static void bindTimeWindow(PreparedStatement ps, int index, TimeWindow window) throws SQLException {
+        ps.setObject(index, window.hasStart() ? window.getStartMinute() : null);
+        ps.setObject(index + 1, window.hasEnd() ? window.getEndMinute() : null);
+    }
+
+    /**
+     * Copy the window_start/window_end columns of an orders row onto the model.
+     * Rows from before the columns were filled keep parsing the text on demand.
+     */
+    static void readTimeWindow(ResultSet rs, Order order) throws SQLException {
+        int start = rs.getInt("window_start");
+        boolean hasStart = !rs.wasNull();
+        int end = rs.getInt("window_end");
+        boolean hasEnd = !rs.wasNull();
+        if (hasStart || hasEnd) {
+            order.setTimeWindow(new TimeWindow(hasStart ? start : TimeWindow.NONE, hasEnd ? end : TimeWindow.NONE));
+        }
     }
 
     // Helper method to map ResultSet to Order object
@@ -191,7 +393,7 @@ public class OrderDAO {
         String timeFrom = rs.getString("time_from");
         String timeTo = rs.getString("time_to");
         String timeRange = timeFrom + " - " + timeTo;
-        double fee = rs.getDouble("fee");
+        Money fee = Money.ofMinor(rs.getLong("fee_minor"));
         String statusStr = rs.getString("status");
         OrderStatus status = OrderStatus.valueOf(statusStr);
         Timestamp createdAt = rs.getTimestamp("created_at");
@@ -254,6 +456,8 @@ public class OrderDAO {
         Order order = new Order(orderId, customerId, acceptedByUserId, productName, description, photo,
                                deliveryLocation, timeRange, fee, null, customerName, customerPhone,
                                status, orderDate, acceptedAt, pickedUpAt, deliveryDate, ratingId);
+        GazetteerDAO.readCoordinates(rs, order);
+        readTimeWindow(rs, order);
 
         return order;
     }
@@ -264,42 +468,48 @@ public class OrderDAO {
      * Get total order count
      */
     public static int getTotalOrderCount() {
-        String sql = "SELECT COUNT(*) as count FROM Orders";
+        DaoCall call = MetricsRegistry.begin("OrderDAO.getTotalOrderCount");
+        String sql = "SELECT (SELECT COUNT(*) FROM Orders) + " +
+                     "(SELECT COALESCE(SUM(orders), 0) FROM ArchiveMonths) as count";
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             if (rs.next()) {
-                return rs.getInt("count");
+                return call.end(rs.getInt("count"));
             }
         } catch (Exception ex) {
-            System.err.println("Get order count error: " + ex.getMessage());
+            call.fail(ex);
+            log.error("Get order count error", ex);
         }
-        return 0;
+        return call.end(0);
     }
 
     /**
      * Get orders created today
      */
     public static int getTodayOrderCount() {
+        DaoCall call = MetricsRegistry.begin("OrderDAO.getTodayOrderCount");
         String sql = "SELECT COUNT(*) as count FROM Orders WHERE DATE(created_at) = DATE('now')";
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             if (rs.next()) {
-                return rs.getInt("count");
+                return call.end(rs.getInt("count"));
             }
         } catch (Exception ex) {
-            System.err.println("Get today order count error: " + ex.getMessage());
+            call.fail(ex);
+            log.error("Get today order count error", ex);
         }
-        return 0;
+        return call.end(0);
     }
 
     /**
      * Get order count by status
      */
     public static int getOrderCountByStatus(String status) {
+        DaoCall call = MetricsRegistry.begin("OrderDAO.getOrderCountByStatus");
         String sql = "SELECT COUNT(*) as count FROM Orders WHERE status = ?";
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -308,18 +518,20 @@ public class OrderDAO {
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-                return rs.getInt("count");
+                return call.end(rs.getInt("count"));
             }
         } catch (Exception ex) {
-            System.err.println("Get order count by status error: " + ex.getMessage());
+            call.fail(ex);
+            log.error("Get order count by status error", ex);
         }
-        return 0;
+        return call.end(0);
     }
 
     /**
      * Get orders by status (admin filter)
      */
     public static List<Order> getOrdersByStatus(String status) {
+        DaoCall call = MetricsRegistry.begin("OrderDAO.getOrdersByStatus");
         List<Order> orders = new ArrayList<>();
         String sql = "SELECT * FROM Orders WHERE status = ? ORDER BY created_at DESC";
 
@@ -333,16 +545,18 @@ public class OrderDAO {
                 orders.add(mapResultSetToOrder(rs));
             }
         } catch (Exception ex) {
-            System.err.println("Error fetching orders by status: " + ex.getMessage());
+            call.fail(ex);
+            log.error("Error fetching orders by status", ex);
         }
 
-        return orders;
+        return call.end(orders);
     }
 
     /**
      * Get customer name for order
      */
     public static String getCustomerName(int customerId) {
+        DaoCall call = MetricsRegistry.begin("OrderDAO.getCustomerName");
         String sql = "SELECT name FROM Users WHERE user_id = ?";
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -351,77 +565,176 @@ public class OrderDAO {
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-                return rs.getString("name");
+                return call.end(rs.getString("name"));
             }
         } catch (Exception ex) {
-            System.err.println("Get customer name error: " + ex.getMessage());
+            call.fail(ex);
+            log.error("Get customer name error", ex);
         }
-        return "Unknown";
+        return call.end("Unknown");
     }
 
     /**
      * Delete order and related data (cascade) - ADMIN ONLY
      */
     public static boolean adminDeleteOrder(int orderId) {
+        DaoCall call = MetricsRegistry.begin("OrderDAO.adminDeleteOrder");
+        return call.end(purgeOrders(List.of(orderId)) > 0);
+    }
+
+    /**
+     * Delete many orders in one transaction. Deliveries, earnings, history and
+     * notifications follow through ON DELETE CASCADE; ratings, which have no
+     * key on the order, are deleted here. Returns the number of orders deleted,
+     * or -1 on error.
+     */
+    public static int purgeOrders(Collection<Integer> orderIds) {
+        DaoCall call = MetricsRegistry.begin("OrderDAO.purgeOrders");
+        if (orderIds.isEmpty()) {
+            return call.end(0);
+        }
+
         try (Connection conn = Database.getConnection()) {
             conn.setAutoCommit(false);
-
+            List<Integer> deleted;
             try {
-                // Delete from Deliveries
-                String deleteDeliveries = "DELETE FROM Deliveries WHERE order_id = ?";
-                try (PreparedStatement ps = conn.prepareStatement(deleteDeliveries)) {
-                    ps.setInt(1, orderId);
-                    ps.executeUpdate();
-                }
-
-                // Delete from Earnings
-                String deleteEarnings = "DELETE FROM Earnings WHERE order_id = ?";
-                try (PreparedStatement ps = conn.prepareStatement(deleteEarnings)) {
-                    ps.setInt(1, orderId);
-                    ps.executeUpdate();
+                createPurgeBatch(conn);
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT OR IGNORE INTO temp.purge_batch (order_id) VALUES (?)")) {
+                    for (Integer orderId : orderIds) {
+                        ps.setInt(1, orderId);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
                 }
+                deleted = deletePurgeBatch(conn);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            for (Integer orderId : deleted) {
+                OrderEventBus.publish(OrderEvent.Type.DELETED, orderId);
+            }
+            return call.end(deleted.size());
 
-                // Delete from OrderHistory
-                String deleteHistory = "DELETE FROM OrderHistory WHERE order_id = ?";
-                try (PreparedStatement ps = conn.prepareStatement(deleteHistory)) {
-                    ps.setInt(1, orderId);
-                    ps.executeUpdate();
-                }
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error purging orders", e);
+            return call.end(-1);
+        }
+    }
 
-                // Delete from Notifications
-                String deleteNotifications = "DELETE FROM Notifications WHERE order_id = ?";
-                try (PreparedStatement ps = conn.prepareStatement(deleteNotifications)) {
-                    ps.setInt(1, orderId);
-                    ps.executeUpdate();
-                }
+    /**
+     * Delete every order matching all of the given criteria in one transaction,
+     * e.g. test or spam orders. Null criteria are ignored, but at least one is
+     * required. {@code productNamePattern} is a LIKE pattern. Returns the number
+     * of orders deleted, or -1 on error.
+     */
+    public static int purgeOrdersMatching(String productNamePattern, OrderStatus status, LocalDateTime createdBefore) {
+        DaoCall call = MetricsRegistry.begin("OrderDAO.purgeOrdersMatching");
+        List<String> conditions = new ArrayList<>();
+        List<String> params = new ArrayList<>();
+        if (productNamePattern != null) {
+            conditions.add("product_name LIKE ?");
+            params.add(productNamePattern);
+        }
+        if (status != null) {
+            conditions.add("status = ?");
+            params.add(status.name());
+        }
+        if (createdBefore != null) {
+            conditions.add("created_at < ?");
+            params.add(Timestamp.valueOf(createdBefore).toString());
+        }
+        if (conditions.isEmpty()) {
+            log.warn("Refusing to purge orders without any criteria");
+            return call.end(-1);
+        }
 
-                // Delete from Ratings
-                String deleteRatings = "DELETE FROM Ratings WHERE order_id = ?";
-                try (PreparedStatement ps = conn.prepareStatement(deleteRatings)) {
-                    ps.setInt(1, orderId);
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            List<Integer> deleted;
+            try {
+                createPurgeBatch(conn);
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO temp.purge_batch (order_id) SELECT order_id FROM Orders WHERE " +
+                        String.join(" AND ", conditions))) {
+                    for (int i = 0; i < params.size(); i++) {
+                        ps.setString(i + 1, params.get(i));
+                    }
                     ps.executeUpdate();
                 }
+                deleted = deletePurgeBatch(conn);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            for (Integer orderId : deleted) {
+                OrderEventBus.publish(OrderEvent.Type.DELETED, orderId);
+            }
+            return call.end(deleted.size());
 
-                // Finally, delete the order itself
-                String deleteOrder = "DELETE FROM Orders WHERE order_id = ?";
-                try (PreparedStatement ps = conn.prepareStatement(deleteOrder)) {
-                    ps.setInt(1, orderId);
-                    ps.executeUpdate();
-                }
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error purging matching orders", e);
+            return call.end(-1);
+        }
+    }
 
-                conn.commit();
-                return true;
+    private static void createPurgeBatch(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TEMP TABLE IF NOT EXISTS purge_batch (order_id INTEGER PRIMARY KEY)");
+            stmt.execute("DELETE FROM temp.purge_batch");
+        }
+    }
 
-            } catch (Exception ex) {
-                conn.rollback();
-                System.err.println("Error deleting order (rolled back): " + ex.getMessage());
-                ex.printStackTrace();
-                return false;
+    /**
+     * Delete the orders listed in temp.purge_batch; returns the ids that existed
+     */
+    private static List<Integer> deletePurgeBatch(Connection conn) throws SQLException {
+        List<Integer> deleted = new ArrayList<>();
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT order_id FROM Orders WHERE order_id IN (SELECT order_id FROM temp.purge_batch)")) {
+                while (rs.next()) {
+                    deleted.add(rs.getInt("order_id"));
+                }
             }
-        } catch (Exception ex) {
-            System.err.println("Database connection error: " + ex.getMessage());
-            return false;
+            stmt.executeUpdate("DELETE FROM Ratings WHERE order_id IN (SELECT order_id FROM temp.purge_batch)");
+            stmt.executeUpdate("DELETE FROM Orders WHERE order_id IN (SELECT order_id FROM temp.purge_batch)");
         }
+        return deleted;
     }
-}
 
+    /**
+     * Inner class for the timing facts the SLA monitor needs about an order
+     */
+    public static class OrderTiming {
+        private final int orderId;
+        private final int customerId;
+        private final int partnerId;
+        private final OrderStatus status;
+        private final LocalDateTime createdAt;
+        private final TimeWindow window;
+
+        public OrderTiming(int orderId, int customerId, int partnerId, OrderStatus status,
+                           LocalDateTime createdAt, TimeWindow window) {
+            this.orderId = orderId;
+            this.customerId = customerId;
+            this.partnerId = partnerId;
+            this.status = status;
+            this.createdAt = createdAt;
+            this.window = window;
+        }
+
+        public int getOrderId() { return orderId; }
+        public int getCustomerId() { return customerId; }
+        /** Partner on the latest delivery record, or 0 while pending */
+        public int getPartnerId() { return partnerId; }
+        public OrderStatus getStatus() { return status; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public TimeWindow getWindow() { return window; }
+    }
+}
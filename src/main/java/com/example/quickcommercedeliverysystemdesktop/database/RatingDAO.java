@@ -1,5 +1,12 @@
 package com.example.quickcommercedeliverysystemdesktop.database;
 
+import com.example.quickcommercedeliverysystemdesktop.events.OrderEvent;
+import com.example.quickcommercedeliverysystemdesktop.events.OrderEventBus;
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.metrics.DaoCall;
+import com.example.quickcommercedeliverysystemdesktop.metrics.MetricsRegistry;
+
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -11,6 +18,8 @@ import java.util.List;
  */
 public class RatingDAO {
 
+    private static final Logger log = LogManager.getLogger(RatingDAO.class);
+
     /**
      * Submit a rating for a delivered order
      * @param orderId The order that was delivered
@@ -21,10 +30,11 @@ public class RatingDAO {
      * @return true if rating was saved successfully
      */
     public static boolean submitRating(int orderId, int customerId, int deliveryPersonId, int rating, String comment) {
+        DaoCall call = MetricsRegistry.begin("RatingDAO.submitRating");
         // First check if rating already exists for this order
         if (hasRating(orderId)) {
-            System.err.println("Rating already exists for order #" + orderId);
-            return false;
+            log.warn("Rating already exists for order #{}", orderId);
+            return call.end(false);
         }
 
         String sql = "INSERT INTO Ratings (order_id, customer_id, delivery_person_id, rating, comment, created_at) " +
@@ -41,12 +51,15 @@ public class RatingDAO {
             ps.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
 
             int rowsInserted = ps.executeUpdate();
-            return rowsInserted > 0;
+            if (rowsInserted > 0) {
+                OrderEventBus.publish(OrderEvent.Type.RATED, orderId, deliveryPersonId);
+            }
+            return call.end(rowsInserted > 0);
 
         } catch (SQLException e) {
-            System.err.println("Error submitting rating: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+            call.fail(e);
+            log.error("Error submitting rating", e);
+            return call.end(false);
         }
     }
 
@@ -54,6 +67,7 @@ public class RatingDAO {
      * Check if a rating already exists for an order
      */
     public static boolean hasRating(int orderId) {
+        DaoCall call = MetricsRegistry.begin("RatingDAO.hasRating");
         String sql = "SELECT COUNT(*) FROM Ratings WHERE order_id = ?";
 
         try (Connection conn = Database.getConnection();
@@ -63,20 +77,22 @@ public class RatingDAO {
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-                return rs.getInt(1) > 0;
+                return call.end(rs.getInt(1) > 0);
             }
 
         } catch (SQLException e) {
-            System.err.println("Error checking rating: " + e.getMessage());
+            call.fail(e);
+            log.error("Error checking rating", e);
         }
 
-        return false;
+        return call.end(false);
     }
 
     /**
      * Get rating for a specific order
      */
     public static Rating getRatingForOrder(int orderId) {
+        DaoCall call = MetricsRegistry.begin("RatingDAO.getRatingForOrder");
         String sql = "SELECT * FROM Ratings WHERE order_id = ?";
 
         try (Connection conn = Database.getConnection();
@@ -86,7 +102,7 @@ public class RatingDAO {
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-                return new Rating(
+                return call.end(new Rating(
                     rs.getInt("rating_id"),
                     rs.getInt("order_id"),
                     rs.getInt("customer_id"),
@@ -94,20 +110,22 @@ public class RatingDAO {
                     rs.getInt("rating"),
                     rs.getString("comment"),
                     rs.getTimestamp("created_at").toLocalDateTime()
-                );
+                ));
             }
 
         } catch (SQLException e) {
-            System.err.println("Error fetching rating: " + e.getMessage());
+            call.fail(e);
+            log.error("Error fetching rating", e);
         }
 
-        return null;
+        return call.end(null);
     }
 
     /**
      * Get all ratings for a delivery person
      */
     public static List<Rating> getRatingsForDeliveryPerson(int deliveryPersonId) {
+        DaoCall call = MetricsRegistry.begin("RatingDAO.getRatingsForDeliveryPerson");
         List<Rating> ratings = new ArrayList<>();
         String sql = "SELECT * FROM Ratings WHERE delivery_person_id = ? ORDER BY created_at DESC";
 
@@ -130,16 +148,18 @@ public class RatingDAO {
             }
 
         } catch (SQLException e) {
-            System.err.println("Error fetching ratings: " + e.getMessage());
+            call.fail(e);
+            log.error("Error fetching ratings", e);
         }
 
-        return ratings;
+        return call.end(ratings);
     }
 
     /**
      * Get average rating for a delivery person
      */
     public static double getAverageRating(int deliveryPersonId) {
+        DaoCall call = MetricsRegistry.begin("RatingDAO.getAverageRating");
         String sql = "SELECT AVG(rating) as avg_rating FROM Ratings WHERE delivery_person_id = ?";
 
         try (Connection conn = Database.getConnection();
@@ -149,20 +169,22 @@ public class RatingDAO {
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-                return rs.getDouble("avg_rating");
+                return call.end(rs.getDouble("avg_rating"));
             }
 
         } catch (SQLException e) {
-            System.err.println("Error calculating average rating: " + e.getMessage());
+            call.fail(e);
+            log.error("Error calculating average rating", e);
         }
 
-        return 0.0;
+        return call.end(0.0);
     }
 
     /**
      * Get total rating count for a delivery person
      */
     public static int getRatingCount(int deliveryPersonId) {
+        DaoCall call = MetricsRegistry.begin("RatingDAO.getRatingCount");
         String sql = "SELECT COUNT(*) FROM Ratings WHERE delivery_person_id = ?";
 
         try (Connection conn = Database.getConnection();
@@ -172,20 +194,22 @@ public class RatingDAO {
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-                return rs.getInt(1);
+                return call.end(rs.getInt(1));
             }
 
         } catch (SQLException e) {
-            System.err.println("Error counting ratings: " + e.getMessage());
+            call.fail(e);
+            log.error("Error counting ratings", e);
         }
 
-        return 0;
+        return call.end(0);
     }
 
     /**
      * Get rating statistics for a delivery person
      */
     public static RatingStats getRatingStats(int deliveryPersonId) {
+        DaoCall call = MetricsRegistry.begin("RatingDAO.getRatingStats");
         String sql = """
                 SELECT 
                     COUNT(*) as total_ratings,
@@ -206,7 +230,7 @@ public class RatingDAO {
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-                return new RatingStats(
+                return call.end(new RatingStats(
                     rs.getInt("total_ratings"),
                     rs.getDouble("avg_rating"),
                     rs.getInt("five_star"),
@@ -214,14 +238,61 @@ public class RatingDAO {
                     rs.getInt("three_star"),
                     rs.getInt("two_star"),
                     rs.getInt("one_star")
-                );
+                ));
             }
 
         } catch (SQLException e) {
-            System.err.println("Error fetching rating stats: " + e.getMessage());
+            call.fail(e);
+            log.error("Error fetching rating stats", e);
         }
 
-        return new RatingStats(0, 0.0, 0, 0, 0, 0, 0);
+        return call.end(new RatingStats(0, 0.0, 0, 0, 0, 0, 0));
+    }
+
+    /**
+     * Receives raw rating rows as primitives
+     */
+    @FunctionalInterface
+    public interface RatingRowSink {
+        void accept(int ratingId, int deliveryPersonId, String deliveryPersonName, long ratedAtMillis, int rating);
+    }
+
+    /**
+     * Feed every rating with an id above {@code afterRatingId} to the sink in
+     * id order. Returns the highest id seen ({@code afterRatingId} when there
+     * were none), or -1 on error.
+     */
+    public static long loadRatingsSince(long afterRatingId, RatingRowSink sink) {
+        DaoCall call = MetricsRegistry.begin("RatingDAO.loadRatingsSince");
+        String sql = """
+                SELECT r.rating_id, r.delivery_person_id, u.name, r.created_at, r.rating
+                FROM Ratings r
+                LEFT JOIN Users u ON u.user_id = r.delivery_person_id
+                WHERE r.rating_id > ?
+                ORDER BY r.rating_id
+                """;
+        long maxId = afterRatingId;
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, afterRatingId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int ratingId = rs.getInt(1);
+                    Timestamp ratedAt = rs.getTimestamp(4);
+                    sink.accept(ratingId, rs.getInt(2), rs.getString(3),
+                            ratedAt != null ? ratedAt.getTime() : 0L, rs.getInt(5));
+                    maxId = ratingId;
+                }
+            }
+            return call.end(maxId);
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error loading ratings after id " + afterRatingId, e);
+            return call.end(-1L);
+        }
     }
 
     /**
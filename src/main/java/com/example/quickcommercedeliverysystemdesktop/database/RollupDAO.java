@@ -0,0 +1,314 @@
+package com.example.quickcommercedeliverysystemdesktop.database;
+
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.metrics.DaoCall;
+import com.example.quickcommercedeliverysystemdesktop.metrics.MetricsRegistry;
+import com.example.quickcommercedeliverysystemdesktop.models.Money;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hourly, daily and monthly rollups of orders created, deliveries completed
+ * and earnings, kept in StatsRollup for the trend charts.
+ *
+ * refresh() only reads the Orders and Earnings rows whose ids are above the
+ * watermark left by the previous run, so its cost follows the new activity
+ * rather than the size of the history. Rollups record what happened: rows
+ * deleted or archived later still count in the buckets they fell in.
+ * Buckets are in local time.
+ */
+public class RollupDAO {
+
+    private static final Logger log = LogManager.getLogger(RollupDAO.class);
+
+    /** partner_id of the rows that cover every partner */
+    public static final int ALL_PARTNERS = 0;
+
+    private static final String ORDERS_SOURCE = "orders";
+    private static final String EARNINGS_SOURCE = "earnings";
+
+    /**
+     * Bucket size; buckets are stored as text that sorts in time order
+     */
+    public enum Grain {
+        HOUR("yyyy-MM-dd HH:00"),
+        DAY("yyyy-MM-dd"),
+        MONTH("yyyy-MM");
+
+        private final DateTimeFormatter format;
+
+        Grain(String pattern) {
+            this.format = DateTimeFormatter.ofPattern(pattern);
+        }
+
+        /**
+         * Start of the bucket holding {@code time}
+         */
+        public LocalDateTime truncate(LocalDateTime time) {
+            return switch (this) {
+                case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+                case DAY -> time.toLocalDate().atStartOfDay();
+                case MONTH -> time.toLocalDate().withDayOfMonth(1).atStartOfDay();
+            };
+        }
+
+        public LocalDateTime plus(LocalDateTime bucketStart, long buckets) {
+            return switch (this) {
+                case HOUR -> bucketStart.plusHours(buckets);
+                case DAY -> bucketStart.plusDays(buckets);
+                case MONTH -> bucketStart.plusMonths(buckets);
+            };
+        }
+
+        public String bucketOf(LocalDateTime time) {
+            return format.format(time);
+        }
+
+        public LocalDateTime parse(String bucket) {
+            return switch (this) {
+                case HOUR -> LocalDateTime.parse(bucket, format);
+                case DAY -> LocalDate.parse(bucket, format).atStartOfDay();
+                case MONTH -> YearMonth.parse(bucket, format).atDay(1).atStartOfDay();
+            };
+        }
+    }
+
+    /**
+     * Fold every order and earning added since the last run into the rollups,
+     * in one transaction with the new watermarks. Returns the number of rows
+     * folded, or -1 on error. Synchronized so two runs never read the same
+     * watermark and count a row twice.
+     */
+    public static synchronized int refresh() {
+        DaoCall call = MetricsRegistry.begin("RollupDAO.refresh");
+        Map<String, Bucket> buckets = new HashMap<>();
+
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                long lastOrderId = readWatermark(conn, ORDERS_SOURCE);
+                long lastEarningId = readWatermark(conn, EARNINGS_SOURCE);
+                int[] folded = new int[1];
+
+                long maxOrderId = foldOrders(conn, lastOrderId, buckets, folded);
+                long maxEarningId = foldEarnings(conn, lastEarningId, buckets, folded);
+                if (folded[0] == 0) {
+                    conn.rollback();
+                    return call.end(0);
+                }
+
+                writeBuckets(conn, buckets);
+                writeWatermark(conn, ORDERS_SOURCE, maxOrderId);
+                writeWatermark(conn, EARNINGS_SOURCE, maxEarningId);
+                conn.commit();
+
+                log.debug("Folded {} rows into {} rollup buckets", folded[0], buckets.size());
+                return call.end(folded[0]);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error refreshing stats rollups", e);
+            return call.end(-1);
+        }
+    }
+
+    /**
+     * Get the buckets of one grain from {@code fromBucket} on, oldest first.
+     * Buckets with no activity are absent. Pass null to read from the start.
+     */
+    public static List<RollupPoint> getSeries(Grain grain, int partnerId, String fromBucket) {
+        DaoCall call = MetricsRegistry.begin("RollupDAO.getSeries");
+        List<RollupPoint> points = new ArrayList<>();
+        String sql = """
+                SELECT bucket, orders, deliveries, earnings_minor
+                FROM StatsRollup
+                WHERE grain = ? AND partner_id = ? AND bucket >= ?
+                ORDER BY bucket
+                """;
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, grain.name());
+            ps.setInt(2, partnerId);
+            ps.setString(3, fromBucket != null ? fromBucket : "");
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    points.add(new RollupPoint(
+                            rs.getString("bucket"),
+                            rs.getLong("orders"),
+                            rs.getLong("deliveries"),
+                            rs.getLong("earnings_minor")
+                    ));
+                }
+            }
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error loading " + grain + " rollups", e);
+        }
+
+        return call.end(points);
+    }
+
+    // ===== FOLDING =====
+
+    private static long foldOrders(Connection conn, long afterId, Map<String, Bucket> buckets,
+                                   int[] folded) throws SQLException {
+        long maxId = afterId;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT order_id, created_at FROM Orders WHERE order_id > ? ORDER BY order_id")) {
+            ps.setLong(1, afterId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    maxId = rs.getLong(1);
+                    Timestamp createdAt = rs.getTimestamp(2);
+                    if (createdAt == null) {
+                        continue;
+                    }
+                    LocalDateTime time = createdAt.toLocalDateTime();
+                    for (Grain grain : Grain.values()) {
+                        bucket(buckets, grain, ALL_PARTNERS, time).orders++;
+                    }
+                    folded[0]++;
+                }
+            }
+        }
+        return maxId;
+    }
+
+    private static long foldEarnings(Connection conn, long afterId, Map<String, Bucket> buckets,
+                                     int[] folded) throws SQLException {
+        long maxId = afterId;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT earning_id, delivery_person_id, created_at, amount_minor FROM Earnings " +
+                "WHERE earning_id > ? ORDER BY earning_id")) {
+            ps.setLong(1, afterId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    maxId = rs.getLong(1);
+                    int partnerId = rs.getInt(2);
+                    Timestamp createdAt = rs.getTimestamp(3);
+                    long amountMinor = rs.getLong(4);
+                    if (createdAt == null) {
+                        continue;
+                    }
+                    LocalDateTime time = createdAt.toLocalDateTime();
+                    for (Grain grain : Grain.values()) {
+                        bucket(buckets, grain, ALL_PARTNERS, time).addDelivery(amountMinor);
+                        bucket(buckets, grain, partnerId, time).addDelivery(amountMinor);
+                    }
+                    folded[0]++;
+                }
+            }
+        }
+        return maxId;
+    }
+
+    private static Bucket bucket(Map<String, Bucket> buckets, Grain grain, int partnerId, LocalDateTime time) {
+        String bucket = grain.bucketOf(time);
+        return buckets.computeIfAbsent(grain.name() + '/' + partnerId + '/' + bucket,
+                key -> new Bucket(grain, partnerId, bucket));
+    }
+
+    private static void writeBuckets(Connection conn, Map<String, Bucket> buckets) throws SQLException {
+        String sql = """
+                INSERT INTO StatsRollup (grain, bucket, partner_id, orders, deliveries, earnings_minor)
+                VALUES (?, ?, ?, ?, ?, ?)
+                ON CONFLICT(grain, partner_id, bucket) DO UPDATE SET
+                    orders = orders + excluded.orders,
+                    deliveries = deliveries + excluded.deliveries,
+                    earnings_minor = earnings_minor + excluded.earnings_minor
+                """;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (Bucket bucket : buckets.values()) {
+                ps.setString(1, bucket.grain.name());
+                ps.setString(2, bucket.bucket);
+                ps.setInt(3, bucket.partnerId);
+                ps.setLong(4, bucket.orders);
+                ps.setLong(5, bucket.deliveries);
+                ps.setLong(6, bucket.earningsMinor);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static long readWatermark(Connection conn, String source) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT last_id FROM RollupWatermark WHERE source = ?")) {
+            ps.setString(1, source);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private static void writeWatermark(Connection conn, String source, long lastId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO RollupWatermark (source, last_id) VALUES (?, ?) " +
+                "ON CONFLICT(source) DO UPDATE SET last_id = excluded.last_id")) {
+            ps.setString(1, source);
+            ps.setLong(2, lastId);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Counts gathered for one bucket during a refresh
+     */
+    private static class Bucket {
+        private final Grain grain;
+        private final int partnerId;
+        private final String bucket;
+        private long orders;
+        private long deliveries;
+        private long earningsMinor;
+
+        private Bucket(Grain grain, int partnerId, String bucket) {
+            this.grain = grain;
+            this.partnerId = partnerId;
+            this.bucket = bucket;
+        }
+
+        private void addDelivery(long amountMinor) {
+            deliveries++;
+            earningsMinor += amountMinor;
+        }
+    }
+
+    /**
+     * Inner class for one stored rollup bucket
+     */
+    public static class RollupPoint {
+        private final String bucket;
+        private final long orders;
+        private final long deliveries;
+        private final long earningsMinor;
+
+        public RollupPoint(String bucket, long orders, long deliveries, long earningsMinor) {
+            this.bucket = bucket;
+            this.orders = orders;
+            this.deliveries = deliveries;
+            this.earningsMinor = earningsMinor;
+        }
+
+        public String getBucket() { return bucket; }
+        public long getOrders() { return orders; }
+        public long getDeliveries() { return deliveries; }
+        public long getEarningsMinor() { return earningsMinor; }
+        public Money getEarnings() { return Money.ofMinor(earningsMinor); }
+    }
+}
@@ -0,0 +1,837 @@
+package com.example.quickcommercedeliverysystemdesktop.database;
+
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.models.TimeWindow;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Versioned schema migrations on top of the tables created by DatabaseInitializer.
+ *
+ * The applied version is kept in PRAGMA user_version. Each migration runs in
+ * its own transaction and bumps the version only if every statement succeeded,
+ * so a failed step is retried on the next start.
+ */
+public class SchemaMigrator {
+
+    private static final Logger log = LogManager.getLogger(SchemaMigrator.class);
+
+    @FunctionalInterface
+    private interface MigrationStep {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final MigrationStep step;
+        /** False for steps such as VACUUM that SQLite refuses inside a transaction */
+        private final boolean transactional;
+
+        Migration(int version, String description, MigrationStep step) {
+            this(version, description, step, true);
+        }
+
+        Migration(int version, String description, MigrationStep step, boolean transactional) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+            this.transactional = transactional;
+        }
+    }
+
+    /** Append only; never renumber or edit a released migration */
+    private static final Migration[] MIGRATIONS = {
+            new Migration(1, "Gazetteer, order/user coordinates and pending-order R*Tree", SchemaMigrator::addGeospatialIndex),
+            new Migration(2, "Partner availability for auto-dispatch", SchemaMigrator::addPartnerAvailability),
+            new Migration(3, "Minute-of-day delivery window columns", SchemaMigrator::addWindowColumns),
+            new Migration(4, "Archive registry and archived totals", SchemaMigrator::addArchiveRegistry),
+            new Migration(5, "Notification digests and retention indexes", SchemaMigrator::addNotificationRetention),
+            new Migration(6, "Incremental auto-vacuum and maintenance log", SchemaMigrator::enableIncrementalVacuum, false),
+            new Migration(7, "ON DELETE rules on foreign keys", SchemaMigrator::addCascadingForeignKeys, false),
+            new Migration(8, "Money in integer minor units", SchemaMigrator::storeMoneyInMinorUnits),
+            new Migration(9, "Hourly, daily and monthly stats rollups", SchemaMigrator::addStatsRollups),
+            new Migration(10, "Delivery-time quantile sketches", SchemaMigrator::addDeliveryTimeSketches),
+    };
+
+    /**
+     * Apply every migration newer than the database's user_version
+     */
+    public static void migrate(Connection conn) {
+        migrate(conn, getLatestVersion());
+    }
+
+    /**
+     * Apply the migrations newer than the database's user_version, up to and
+     * including {@code targetVersion}; tests use it to build an older schema
+     */
+    static void migrate(Connection conn, int targetVersion) {
+        int current = getVersion(conn);
+
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version <= current) {
+                continue;
+            }
+            if (migration.version > targetVersion) {
+                break;
+            }
+
+            long start = System.nanoTime();
+            try {
+                conn.setAutoCommit(!migration.transactional);
+                migration.step.apply(conn);
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("PRAGMA user_version = " + migration.version);
+                }
+                if (migration.transactional) {
+                    conn.commit();
+                }
+                current = migration.version;
+                log.info("Applied schema migration {} ({}) in {} ms", migration.version, migration.description,
+                        (System.nanoTime() - start) / 1_000_000);
+            } catch (SQLException e) {
+                log.error("Schema migration " + migration.version + " failed; later migrations skipped", e);
+                try {
+                    if (migration.transactional) {
+                        conn.rollback();
+                    }
+                } catch (SQLException rollbackError) {
+                    log.error("Rollback of schema migration failed", rollbackError);
+                }
+                break;
+            } finally {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException ignored) {
+                    // Connection is unusable anyway
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the schema version recorded in the database
+     */
+    public static int getVersion(Connection conn) {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            log.error("Error reading schema version", e);
+            return 0;
+        }
+    }
+
+    public static int getLatestVersion() {
+        return MIGRATIONS[MIGRATIONS.length - 1].version;
+    }
+
+    // ===== MIGRATIONS =====
+
+    /**
+     * Version 1: coordinates for orders and users, resolved through a local
+     * gazetteer, and an R*Tree over PENDING orders kept current by triggers.
+     */
+    private static void addGeospatialIndex(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS Gazetteer (
+                        place_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        name TEXT NOT NULL,
+                        name_key TEXT NOT NULL UNIQUE,
+                        latitude REAL NOT NULL,
+                        longitude REAL NOT NULL
+                    )
+                    """);
+
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT OR IGNORE INTO Gazetteer (name, name_key, latitude, longitude) VALUES (?, ?, ?, ?)")) {
+                for (Object[] place : DHAKA_AREAS) {
+                    ps.setString(1, (String) place[0]);
+                    ps.setString(2, ((String) place[0]).toLowerCase(Locale.ROOT));
+                    ps.setDouble(3, (Double) place[1]);
+                    ps.setDouble(4, (Double) place[2]);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+
+            addColumnIfMissing(conn, "orders", "latitude", "REAL");
+            addColumnIfMissing(conn, "orders", "longitude", "REAL");
+            addColumnIfMissing(conn, "users", "latitude", "REAL");
+            addColumnIfMissing(conn, "users", "longitude", "REAL");
+
+            // Backfill from the most specific area name each address mentions
+            stmt.execute("""
+                    UPDATE orders SET
+                        latitude = (SELECT g.latitude FROM Gazetteer g
+                                    WHERE instr(lower(orders.delivery_location), g.name_key) > 0
+                                    ORDER BY length(g.name_key) DESC LIMIT 1),
+                        longitude = (SELECT g.longitude FROM Gazetteer g
+                                     WHERE instr(lower(orders.delivery_location), g.name_key) > 0
+                                     ORDER BY length(g.name_key) DESC LIMIT 1)
+                    WHERE latitude IS NULL
+                    """);
+            stmt.execute("""
+                    UPDATE users SET
+                        latitude = (SELECT g.latitude FROM Gazetteer g
+                                    WHERE instr(lower(users.default_address), g.name_key) > 0
+                                    ORDER BY length(g.name_key) DESC LIMIT 1),
+                        longitude = (SELECT g.longitude FROM Gazetteer g
+                                     WHERE instr(lower(users.default_address), g.name_key) > 0
+                                     ORDER BY length(g.name_key) DESC LIMIT 1)
+                    WHERE latitude IS NULL
+                    """);
+
+            // Only PENDING orders are indexed, so the tree stays as small as the open market
+            stmt.execute("CREATE VIRTUAL TABLE IF NOT EXISTS PendingOrderGeo USING rtree(order_id, min_lat, max_lat, min_lon, max_lon)");
+            stmt.execute("DELETE FROM PendingOrderGeo");
+            stmt.execute("""
+                    INSERT INTO PendingOrderGeo (order_id, min_lat, max_lat, min_lon, max_lon)
+                    SELECT order_id, latitude, latitude, longitude, longitude FROM orders
+                    WHERE status = 'PENDING' AND latitude IS NOT NULL AND longitude IS NOT NULL
+                    """);
+
+            stmt.execute("""
+                    CREATE TRIGGER IF NOT EXISTS trg_orders_geo_insert AFTER INSERT ON orders
+                    WHEN NEW.status = 'PENDING' AND NEW.latitude IS NOT NULL AND NEW.longitude IS NOT NULL
+                    BEGIN
+                        INSERT INTO PendingOrderGeo (order_id, min_lat, max_lat, min_lon, max_lon)
+                        VALUES (NEW.order_id, NEW.latitude, NEW.latitude, NEW.longitude, NEW.longitude);
+                    END
+                    """);
+            stmt.execute("""
+                    CREATE TRIGGER IF NOT EXISTS trg_orders_geo_update AFTER UPDATE OF status, latitude, longitude ON orders
+                    BEGIN
+                        DELETE FROM PendingOrderGeo WHERE order_id = OLD.order_id;
+                        INSERT INTO PendingOrderGeo (order_id, min_lat, max_lat, min_lon, max_lon)
+                        SELECT NEW.order_id, NEW.latitude, NEW.latitude, NEW.longitude, NEW.longitude
+                        WHERE NEW.status = 'PENDING' AND NEW.latitude IS NOT NULL AND NEW.longitude IS NOT NULL;
+                    END
+                    """);
+            stmt.execute("""
+                    CREATE TRIGGER IF NOT EXISTS trg_orders_geo_delete AFTER DELETE ON orders
+                    BEGIN
+                        DELETE FROM PendingOrderGeo WHERE order_id = OLD.order_id;
+                    END
+                    """);
+        }
+        GazetteerDAO.invalidate();
+    }
+
+    /**
+     * Version 2: partners opt in to auto-dispatch; everyone starts unavailable
+     */
+    private static void addPartnerAvailability(Connection conn) throws SQLException {
+        addColumnIfMissing(conn, "users", "is_available", "INTEGER DEFAULT 0");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_users_available ON users(is_available) WHERE is_available = 1");
+        }
+    }
+
+    /**
+     * Version 3: time_from/time_to as minutes after midnight, parsed once here
+     * instead of on every read. The text columns stay for display.
+     */
+    private static void addWindowColumns(Connection conn) throws SQLException {
+        addColumnIfMissing(conn, "orders", "window_start", "INTEGER");
+        addColumnIfMissing(conn, "orders", "window_end", "INTEGER");
+
+        // Parse everything first; updating orders while still scanning it is not well defined
+        List<int[]> parsed = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT order_id, time_from, time_to FROM orders WHERE window_start IS NULL AND window_end IS NULL")) {
+            while (rs.next()) {
+                int start = TimeWindow.parseMinuteOfDay(rs.getString("time_from"));
+                int end = TimeWindow.parseMinuteOfDay(rs.getString("time_to"));
+                if (start != TimeWindow.NONE || end != TimeWindow.NONE) {
+                    parsed.add(new int[] {rs.getInt("order_id"), start, end});
+                }
+            }
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement(
+                "UPDATE orders SET window_start = ?, window_end = ? WHERE order_id = ?")) {
+            int pending = 0;
+            for (int[] row : parsed) {
+                ps.setObject(1, row[1] != TimeWindow.NONE ? row[1] : null);
+                ps.setObject(2, row[2] != TimeWindow.NONE ? row[2] : null);
+                ps.setInt(3, row[0]);
+                ps.addBatch();
+                if (++pending % 10_000 == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_status_window ON orders(status, window_start)");
+        }
+    }
+
+    /**
+     * Version 4: which monthly archive files exist, and what was moved into them,
+     * so lifetime counts and totals stay right without opening the archives.
+     */
+    private static void addArchiveRegistry(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS ArchiveMonths (
+                        month TEXT PRIMARY KEY,
+                        file_name TEXT NOT NULL,
+                        orders INTEGER NOT NULL DEFAULT 0,
+                        deliveries INTEGER NOT NULL DEFAULT 0,
+                        earnings REAL NOT NULL DEFAULT 0,
+                        last_archived_at DATETIME
+                    )
+                    """);
+            stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS ArchivedPartnerTotals (
+                        delivery_person_id INTEGER PRIMARY KEY,
+                        deliveries INTEGER NOT NULL DEFAULT 0,
+                        completed INTEGER NOT NULL DEFAULT 0,
+                        earnings REAL NOT NULL DEFAULT 0
+                    )
+                    """);
+        }
+    }
+
+    /**
+     * Version 5: digest rows remember how many notices they replaced; indexes
+     * for the inbox query and for finding read rows past their TTL.
+     */
+    private static void addNotificationRetention(Connection conn) throws SQLException {
+        addColumnIfMissing(conn, "Notifications", "digest_count", "INTEGER");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_notifications_user_created ON Notifications(user_id, created_at)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_notifications_read ON Notifications(is_read, created_at)");
+        }
+    }
+
+    /**
+     * Version 6: auto_vacuum=INCREMENTAL so deleted pages can be handed back a
+     * little at a time, and a log of maintenance runs. Changing auto_vacuum on
+     * an existing file only takes effect after a full VACUUM, which cannot run
+     * in a transaction; every statement here is safe to repeat if interrupted.
+     */
+    private static void enableIncrementalVacuum(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS MaintenanceLog (
+                        log_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        task TEXT NOT NULL,
+                        started_at DATETIME NOT NULL,
+                        duration_ms INTEGER NOT NULL,
+                        bytes_before INTEGER,
+                        bytes_after INTEGER,
+                        free_pages_before INTEGER,
+                        free_pages_after INTEGER,
+                        outcome TEXT NOT NULL,
+                        detail TEXT
+                    )
+                    """);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_maintenance_log_task ON MaintenanceLog(task, started_at)");
+
+            if (MaintenanceDAO.pragmaLong(stmt, "auto_vacuum") != MaintenanceDAO.PageStats.AUTO_VACUUM_INCREMENTAL) {
+                stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+                stmt.execute("VACUUM");
+            }
+        }
+    }
+
+    /**
+     * Version 7: rebuild the order and user child tables with ON DELETE rules.
+     * Deleting an order takes its deliveries, earnings, history and
+     * notifications with it. Deleting a customer keeps their orders and ratings
+     * with customer_id set to NULL, so partners keep the deliveries and
+     * earnings they were paid for. SQLite cannot alter a constraint in place,
+     * so each table is copied into a new one with the same columns, indexes
+     * and triggers.
+     *
+     * Rows that already point at a missing parent are set to NULL where the
+     * new rule would have done so, and the open orders among them cancelled.
+     * Any others, such as earnings whose order
+     * was deleted by hand, are copied into archive/orphans.db and counted in
+     * ArchivedPartnerTotals before they leave the main tables; nothing is
+     * dropped.
+     *
+     * foreign_keys and ATTACH only work outside a transaction, which is why
+     * this step manages its own.
+     */
+    private static void addCascadingForeignKeys(Connection conn) throws SQLException {
+        File orphanFile = new File(ArchiveDAO.getArchiveDirectory(), ORPHAN_FILE);
+        boolean fileExisted = orphanFile.exists();
+        boolean attached = false;
+        Map<String, Integer> moved = new LinkedHashMap<>();
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA foreign_keys = OFF");
+            try {
+                if (!findOrphans(conn).isEmpty()) {
+                    orphanFile.getParentFile().mkdirs();
+                    try (PreparedStatement ps = conn.prepareStatement("ATTACH DATABASE ? AS " + ORPHAN_SCHEMA)) {
+                        ps.setString(1, orphanFile.getPath());
+                        ps.execute();
+                    }
+                    attached = true;
+                }
+
+                conn.setAutoCommit(false);
+                try {
+                    for (String[] rule : CASCADE_RULES) {
+                        rebuildWithForeignKeys(conn, rule[0], Arrays.copyOfRange(rule, 1, rule.length));
+                    }
+                    // As UserDAO.purgeUsers does for a customer deleted from now on
+                    int cancelled = stmt.executeUpdate("""
+                            UPDATE orders SET status = 'CANCELLED'
+                            WHERE UPPER(status) NOT IN ('DELIVERED', 'CANCELLED')
+                              AND customer_id NOT IN (SELECT user_id FROM users)
+                            """);
+                    if (cancelled > 0) {
+                        log.info("Cancelled {} open orders of deleted customers", cancelled);
+                    }
+                    Map<String, Integer> nulled = nullMissingParents(conn);
+                    if (!nulled.isEmpty()) {
+                        log.info("Cleared references to deleted parents: {}", nulled);
+                    }
+                    if (attached) {
+                        moveOrphans(conn, moved);
+                    }
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } finally {
+                if (attached) {
+                    try {
+                        stmt.execute("DETACH DATABASE " + ORPHAN_SCHEMA);
+                    } catch (SQLException e) {
+                        log.warn("Could not detach orphan archive", e);
+                    }
+                }
+                stmt.execute("PRAGMA foreign_keys = ON");
+            }
+        }
+
+        if (!moved.isEmpty()) {
+            log.warn("Moved rows whose parent no longer exists to {}: {}", orphanFile, moved);
+        } else if (attached && !fileExisted && !orphanFile.delete()) {
+            log.warn("Could not remove empty orphan archive {}", orphanFile);
+        }
+    }
+
+    /**
+     * Version 8: fees, earnings and archived totals as whole cents instead of
+     * REAL dollars, so sums are exact. Archive files are upgraded by ArchiveDAO
+     * the first time they are attached, since ATTACH cannot run in here.
+     */
+    private static void storeMoneyInMinorUnits(Connection conn) throws SQLException {
+        replaceWithMinorUnits(conn, "main", "Orders", "fee", "fee_minor");
+        replaceWithMinorUnits(conn, "main", "Earnings", "amount", "amount_minor");
+        replaceWithMinorUnits(conn, "main", "ArchiveMonths", "earnings", "earnings_minor");
+        replaceWithMinorUnits(conn, "main", "ArchivedPartnerTotals", "earnings", "earnings_minor");
+    }
+
+    /**
+     * Version 9: order, delivery and earnings counts per hour, day and month,
+     * overall (partner_id 0) and per partner, for the trend charts. RollupDAO
+     * fills them incrementally from the ids recorded in RollupWatermark.
+     */
+    private static void addStatsRollups(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS StatsRollup (
+                        grain TEXT NOT NULL,
+                        bucket TEXT NOT NULL,
+                        partner_id INTEGER NOT NULL DEFAULT 0,
+                        orders INTEGER NOT NULL DEFAULT 0,
+                        deliveries INTEGER NOT NULL DEFAULT 0,
+                        earnings_minor INTEGER NOT NULL DEFAULT 0,
+                        PRIMARY KEY (grain, partner_id, bucket)
+                    ) WITHOUT ROWID
+                    """);
+            stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS RollupWatermark (
+                        source TEXT PRIMARY KEY,
+                        last_id INTEGER NOT NULL DEFAULT 0
+                    )
+                    """);
+        }
+    }
+
+    /**
+     * Version 10: a KLL sketch of accept-to-pickup and pickup-to-delivered
+     * seconds per partner and day. Deliveries.sketched marks the rows already
+     * folded in, so every delivered row starts out pending and the first run
+     * of DeliveryTimeDAO.foldCompleted backfills the history.
+     */
+    private static void addDeliveryTimeSketches(Connection conn) throws SQLException {
+        addColumnIfMissing(conn, "Deliveries", "sketched", "INTEGER NOT NULL DEFAULT 0");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS DeliveryTimeSketch (
+                        partner_id INTEGER NOT NULL,
+                        leg TEXT NOT NULL,
+                        day TEXT NOT NULL,
+                        samples INTEGER NOT NULL,
+                        sketch BLOB NOT NULL,
+                        PRIMARY KEY (partner_id, leg, day)
+                    ) WITHOUT ROWID
+                    """);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_delivery_time_sketch_day ON DeliveryTimeSketch(day)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_deliveries_unsketched ON Deliveries(delivery_id) " +
+                    "WHERE sketched = 0 AND delivered_time IS NOT NULL");
+        }
+    }
+
+    /**
+     * Child table, then the foreign keys it is rebuilt with. Ratings keep no
+     * key on order_id: they stay in the main database when their order is
+     * archived. Columns under SET NULL lose any NOT NULL constraint.
+     */
+    private static final String[][] CASCADE_RULES = {
+            {"orders",
+                    "FOREIGN KEY (customer_id) REFERENCES Users(user_id) ON DELETE SET NULL"},
+            {"Deliveries",
+                    "FOREIGN KEY (order_id) REFERENCES Orders(order_id) ON DELETE CASCADE",
+                    "FOREIGN KEY (delivery_person_id) REFERENCES Users(user_id) ON DELETE CASCADE"},
+            {"Earnings",
+                    "FOREIGN KEY (delivery_person_id) REFERENCES Users(user_id) ON DELETE CASCADE",
+                    "FOREIGN KEY (order_id) REFERENCES Orders(order_id) ON DELETE CASCADE"},
+            {"Ratings",
+                    "FOREIGN KEY (customer_id) REFERENCES Users(user_id) ON DELETE SET NULL",
+                    "FOREIGN KEY (delivery_person_id) REFERENCES Users(user_id) ON DELETE CASCADE"},
+            {"Notifications",
+                    "FOREIGN KEY (user_id) REFERENCES Users(user_id) ON DELETE CASCADE",
+                    "FOREIGN KEY (order_id) REFERENCES Orders(order_id) ON DELETE CASCADE"},
+            {"OrderHistory",
+                    "FOREIGN KEY (order_id) REFERENCES Orders(order_id) ON DELETE CASCADE",
+                    "FOREIGN KEY (changed_by) REFERENCES Users(user_id) ON DELETE SET NULL"},
+    };
+
+    /** Archive file, next to the monthly ones, for rows version 7 found without a parent */
+    static final String ORPHAN_FILE = "orphans.db";
+    private static final String ORPHAN_SCHEMA = "orphans";
+
+    private static final Pattern SET_NULL_RULE = Pattern.compile(
+            "FOREIGN KEY \\((\\w+)\\) REFERENCES (\\w+)\\((\\w+)\\) ON DELETE SET NULL");
+
+    private static final Pattern FOREIGN_KEY_CLAUSE = Pattern.compile(
+            ",\\s*FOREIGN\\s+KEY\\s*\\([^)]*\\)\\s*REFERENCES\\s+[\"\\w]+\\s*\\([^)]*\\)" +
+            "(\\s+ON\\s+(DELETE|UPDATE)\\s+(CASCADE|SET\\s+NULL|SET\\s+DEFAULT|RESTRICT|NO\\s+ACTION))*",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Replace a table's foreign keys by copying it into a new table built from
+     * its stored CREATE statement. Indexes, triggers and the AUTOINCREMENT
+     * counter are carried over. Must run with foreign_keys off.
+     */
+    private static void rebuildWithForeignKeys(Connection conn, String table, String[] foreignKeys) throws SQLException {
+        String name = null;
+        String createSql = null;
+        List<String> dependents = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT type, name, sql FROM sqlite_master WHERE tbl_name = ? COLLATE NOCASE AND sql IS NOT NULL")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if ("table".equals(rs.getString("type"))) {
+                        name = rs.getString("name");
+                        createSql = rs.getString("sql");
+                    } else {
+                        dependents.add(rs.getString("sql"));
+                    }
+                }
+            }
+        }
+        if (createSql == null) {
+            return;
+        }
+
+        String body = FOREIGN_KEY_CLAUSE.matcher(createSql).replaceAll("");
+        String columnsAndChecks = body.substring(body.indexOf('(') + 1, body.lastIndexOf(')')).stripTrailing();
+        for (String foreignKey : foreignKeys) {
+            Matcher setNull = SET_NULL_RULE.matcher(foreignKey);
+            if (setNull.matches()) {
+                columnsAndChecks = Pattern.compile("((?:^|,)\\s*\"?" + setNull.group(1) + "\"?\\s[^,]*?)\\s+NOT\\s+NULL",
+                        Pattern.CASE_INSENSITIVE).matcher(columnsAndChecks).replaceFirst("$1");
+            }
+        }
+        String rebuilt = name + "_rebuild";
+        List<String> columns = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + name + ")")) {
+            while (rs.next()) {
+                columns.add(rs.getString("name"));
+            }
+        }
+        String columnList = String.join(", ", columns);
+
+        long sequence = 0;
+        try (PreparedStatement ps = conn.prepareStatement("SELECT seq FROM sqlite_sequence WHERE name = ?")) {
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    sequence = rs.getLong(1);
+                }
+            }
+        } catch (SQLException e) {
+            // No AUTOINCREMENT table has been created yet
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS " + rebuilt);
+            stmt.execute("CREATE TABLE " + rebuilt + " (" + columnsAndChecks + ",\n    " +
+                    String.join(",\n    ", foreignKeys) + "\n)");
+            stmt.execute("INSERT INTO " + rebuilt + " (" + columnList + ") SELECT " + columnList + " FROM " + name);
+            stmt.execute("DROP TABLE " + name);
+            stmt.execute("ALTER TABLE " + rebuilt + " RENAME TO " + name);
+            for (String sql : dependents) {
+                stmt.execute(sql);
+            }
+        }
+
+        if (sequence > 0) {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE sqlite_sequence SET seq = MAX(seq, ?) WHERE name = ?")) {
+                ps.setLong(1, sequence);
+                ps.setString(2, name);
+                if (ps.executeUpdate() == 0) {
+                    try (PreparedStatement insert = conn.prepareStatement(
+                            "INSERT INTO sqlite_sequence (name, seq) VALUES (?, ?)")) {
+                        insert.setString(1, name);
+                        insert.setLong(2, sequence);
+                        insert.executeUpdate();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply every SET NULL rule to rows whose parent is already gone. Returns
+     * rows changed per table and column.
+     */
+    private static Map<String, Integer> nullMissingParents(Connection conn) throws SQLException {
+        Map<String, Integer> nulled = new LinkedHashMap<>();
+        try (Statement stmt = conn.createStatement()) {
+            for (String[] rule : CASCADE_RULES) {
+                for (int i = 1; i < rule.length; i++) {
+                    Matcher setNull = SET_NULL_RULE.matcher(rule[i]);
+                    if (!setNull.matches()) {
+                        continue;
+                    }
+                    String column = setNull.group(1);
+                    int changed = stmt.executeUpdate("UPDATE " + rule[0] + " SET " + column + " = NULL" +
+                            " WHERE " + column + " IS NOT NULL AND " + column + " NOT IN" +
+                            " (SELECT " + setNull.group(3) + " FROM " + setNull.group(2) + ")");
+                    if (changed > 0) {
+                        nulled.put(rule[0] + "." + column, changed);
+                    }
+                }
+            }
+        }
+        return nulled;
+    }
+
+    /**
+     * Rowids of the main database rows that fail a foreign key check, by table
+     */
+    private static Map<String, List<Long>> findOrphans(Connection conn) throws SQLException {
+        Map<String, List<Long>> orphans = new LinkedHashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA main.foreign_key_check")) {
+            while (rs.next()) {
+                orphans.computeIfAbsent(rs.getString("table"), t -> new ArrayList<>()).add(rs.getLong("rowid"));
+            }
+        }
+        return orphans;
+    }
+
+    /**
+     * Copy rows that fail a foreign key check into the attached orphan archive,
+     * add orphaned deliveries and earnings to their partner's archived totals,
+     * then remove them. Repeats until none are left, since removing one row can
+     * orphan another. Copies are keyed by source rowid, so a retried run does
+     * not duplicate them.
+     */
+    private static void moveOrphans(Connection conn, Map<String, Integer> moved) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TEMP TABLE IF NOT EXISTS orphan_rows (row_id INTEGER PRIMARY KEY)");
+
+            while (true) {
+                Map<String, List<Long>> orphans = findOrphans(conn);
+                if (orphans.isEmpty()) {
+                    return;
+                }
+                for (Map.Entry<String, List<Long>> entry : orphans.entrySet()) {
+                    String table = entry.getKey();
+                    stmt.execute("DELETE FROM temp.orphan_rows");
+                    try (PreparedStatement ps = conn.prepareStatement(
+                            "INSERT OR IGNORE INTO temp.orphan_rows (row_id) VALUES (?)")) {
+                        for (Long rowid : entry.getValue()) {
+                            ps.setLong(1, rowid);
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                    }
+
+                    String rows = "rowid IN (SELECT row_id FROM temp.orphan_rows)";
+                    stmt.execute("CREATE TABLE IF NOT EXISTS " + ORPHAN_SCHEMA + "." + table +
+                            " AS SELECT rowid AS source_rowid, * FROM main." + table + " WHERE 0");
+                    stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + ORPHAN_SCHEMA + "." + table +
+                            "_source_rowid ON " + table + "(source_rowid)");
+                    stmt.executeUpdate("INSERT OR IGNORE INTO " + ORPHAN_SCHEMA + "." + table +
+                            " SELECT rowid, * FROM main." + table + " WHERE " + rows);
+                    creditArchivedTotals(stmt, table, rows);
+                    moved.merge(table, stmt.executeUpdate("DELETE FROM main." + table + " WHERE " + rows),
+                            Integer::sum);
+                }
+            }
+        }
+    }
+
+    /**
+     * Orphaned deliveries and earnings of partners who still exist go into
+     * ArchivedPartnerTotals, as archived ones do, so lifetime totals keep them.
+     * Money is still in REAL dollars at version 7.
+     */
+    private static void creditArchivedTotals(Statement stmt, String table, String rows) throws SQLException {
+        String livePartner = "delivery_person_id IN (SELECT user_id FROM main.users)";
+        if ("Deliveries".equalsIgnoreCase(table)) {
+            stmt.executeUpdate("""
+                    INSERT INTO ArchivedPartnerTotals (delivery_person_id, deliveries, completed)
+                    SELECT delivery_person_id, COUNT(*), SUM(CASE WHEN delivered_time IS NOT NULL THEN 1 ELSE 0 END)
+                    FROM main.Deliveries
+                    WHERE %s AND %s
+                    GROUP BY delivery_person_id
+                    ON CONFLICT(delivery_person_id) DO UPDATE SET
+                        deliveries = deliveries + excluded.deliveries,
+                        completed = completed + excluded.completed
+                    """.formatted(rows, livePartner));
+        } else if ("Earnings".equalsIgnoreCase(table)) {
+            stmt.executeUpdate("""
+                    INSERT INTO ArchivedPartnerTotals (delivery_person_id, earnings)
+                    SELECT delivery_person_id, COALESCE(SUM(amount), 0)
+                    FROM main.Earnings
+                    WHERE %s AND %s
+                    GROUP BY delivery_person_id
+                    ON CONFLICT(delivery_person_id) DO UPDATE SET
+                        earnings = earnings + excluded.earnings
+                    """.formatted(rows, livePartner));
+        }
+    }
+
+    /**
+     * Add a column unless an earlier partial run (or a hand fix) already did
+     */
+    static void addColumnIfMissing(Connection conn, String table, String column, String type) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return;
+                }
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + type);
+        }
+    }
+
+    /**
+     * Swap a REAL money column for an INTEGER column of minor units, rounding
+     * each value to the nearest cent. Does nothing once the legacy column is gone.
+     */
+    static void replaceWithMinorUnits(Connection conn, String schema, String table,
+                                      String legacy, String minor) throws SQLException {
+        boolean hasLegacy = false;
+        boolean hasMinor = false;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA " + schema + ".table_info(" + table + ")")) {
+            while (rs.next()) {
+                String name = rs.getString("name");
+                hasLegacy |= legacy.equalsIgnoreCase(name);
+                hasMinor |= minor.equalsIgnoreCase(name);
+            }
+        }
+        if (!hasLegacy) {
+            return;
+        }
+
+        String qualified = schema + "." + table;
+        try (Statement stmt = conn.createStatement()) {
+            if (!hasMinor) {
+                stmt.execute("ALTER TABLE " + qualified + " ADD COLUMN " + minor + " INTEGER NOT NULL DEFAULT 0");
+            }
+            stmt.execute("UPDATE " + qualified + " SET " + minor +
+                    " = CAST(ROUND(COALESCE(" + legacy + ", 0) * 100) AS INTEGER)");
+            stmt.execute("ALTER TABLE " + qualified + " DROP COLUMN " + legacy);
+        }
+    }
+
+    /** Approximate area centroids for Dhaka; name, latitude, longitude */
+    private static final Object[][] DHAKA_AREAS = {
+            {"Dhanmondi", 23.7465, 90.3760},
+            {"Gulshan", 23.7925, 90.4078},
+            {"Banani", 23.7940, 90.4043},
+            {"Baridhara", 23.8000, 90.4210},
+            {"Niketan", 23.7725, 90.4080},
+            {"Mohakhali", 23.7780, 90.3990},
+            {"Mirpur", 23.8223, 90.3654},
+            {"Pallabi", 23.8270, 90.3640},
+            {"Kafrul", 23.7880, 90.3850},
+            {"Agargaon", 23.7780, 90.3780},
+            {"Shyamoli", 23.7745, 90.3650},
+            {"Mohammadpur", 23.7662, 90.3589},
+            {"Uttara", 23.8759, 90.3795},
+            {"Airport", 23.8433, 90.3978},
+            {"Khilkhet", 23.8310, 90.4240},
+            {"Cantonment", 23.8200, 90.4000},
+            {"Bashundhara", 23.8193, 90.4526},
+            {"Badda", 23.7806, 90.4260},
+            {"Rampura", 23.7612, 90.4194},
+            {"Malibagh", 23.7485, 90.4140},
+            {"Moghbazar", 23.7490, 90.4050},
+            {"Eskaton", 23.7460, 90.4000},
+            {"Khilgaon", 23.7516, 90.4262},
+            {"Tejgaon", 23.7590, 90.3990},
+            {"Farmgate", 23.7561, 90.3872},
+            {"Karwan Bazar", 23.7510, 90.3935},
+            {"Kawran Bazar", 23.7510, 90.3935},
+            {"Panthapath", 23.7520, 90.3880},
+            {"Kalabagan", 23.7480, 90.3820},
+            {"Hazaribagh", 23.7330, 90.3680},
+            {"Azimpur", 23.7272, 90.3842},
+            {"Lalbagh", 23.7190, 90.3880},
+            {"Shahbagh", 23.7383, 90.3958},
+            {"Paltan", 23.7358, 90.4124},
+            {"Motijheel", 23.7330, 90.4172},
+            {"Wari", 23.7190, 90.4180},
+            {"Old Dhaka", 23.7104, 90.4074},
+            {"Jatrabari", 23.7104, 90.4347},
+            {"Keraniganj", 23.6980, 90.3450},
+            {"Savar", 23.8583, 90.2667},
+            {"Tongi", 23.8980, 90.4080},
+            {"Narayanganj", 23.6238, 90.5000},
+    };
+}
@@ -1,16 +1,28 @@
 package com.example.quickcommercedeliverysystemdesktop.database;
 
+import com.example.quickcommercedeliverysystemdesktop.events.OrderEvent;
+import com.example.quickcommercedeliverysystemdesktop.events.OrderEventBus;
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.metrics.DaoCall;
+import com.example.quickcommercedeliverysystemdesktop.metrics.MetricsRegistry;
+import com.example.quickcommercedeliverysystemdesktop.models.GeoPoint;
 import com.example.quickcommercedeliverysystemdesktop.models.User;
 import com.example.quickcommercedeliverysystemdesktop.utils.PasswordUtil;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 
 public class UserDAO {
 
+    private static final Logger log = LogManager.getLogger(UserDAO.class);
+
     // Register user (returns true if success)
     public static boolean register(String name, String email, String phone, String passwordPlain) {
+        DaoCall call = MetricsRegistry.begin("UserDAO.register");
         String sql = "INSERT INTO Users (name, email, phone, password, default_address, profile_image) VALUES (?, ?, ?, ?, ?, ?)";
         String hashed = PasswordUtil.hash(passwordPlain);
         try (Connection conn = Database.getConnection();
@@ -24,15 +36,17 @@ public class UserDAO {
             ps.setString(6, ""); // profile image path empty
 
             ps.executeUpdate();
-            return true;
+            return call.end(true);
         } catch (Exception ex) {
-            System.err.println("Register error: " + ex.getMessage());
-            return false;
+            call.fail(ex);
+            log.error("Register error", ex);
+            return call.end(false);
         }
     }
 
     // Login (returns User if success)
     public static User login(String email, String passwordPlain) {
+        DaoCall call = MetricsRegistry.begin("UserDAO.login");
         String sql = "SELECT user_id, name, email, phone, default_address, profile_image, " +
                     "COALESCE(is_admin, 0) as is_admin, COALESCE(is_banned, 0) as is_banned " +
                     "FROM Users WHERE email = ? AND password = ?";
@@ -45,7 +59,7 @@ public class UserDAO {
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return new User(
+                    return call.end(new User(
                             rs.getInt("user_id"),
                             rs.getString("name"),
                             rs.getString("email"),
@@ -54,17 +68,19 @@ public class UserDAO {
                             rs.getString("profile_image"),
                             rs.getInt("is_admin") == 1,
                             rs.getInt("is_banned") == 1
-                    );
+                    ));
                 }
             }
         } catch (Exception ex) {
-            System.err.println("Login error: " + ex.getMessage());
+            call.fail(ex);
+            log.error("Login error", ex);
         }
-        return null;
+        return call.end(null);
     }
 
     // Get user by ID (returns full User object)
     public static User getUserById(int userId) {
+        DaoCall call = MetricsRegistry.begin("UserDAO.getUserById");
         String sql = "SELECT user_id, name, email, phone, default_address, profile_image FROM Users WHERE user_id = ?";
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -73,24 +89,26 @@ public class UserDAO {
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return new User(
+                    return call.end(new User(
                             rs.getInt("user_id"),
                             rs.getString("name"),
                             rs.getString("email"),
                             rs.getString("phone"),
                             rs.getString("default_address"),
                             rs.getString("profile_image")
-                    );
+                    ));
                 }
             }
         } catch (Exception ex) {
-            System.err.println("Get user error: " + ex.getMessage());
+            call.fail(ex);
+            log.error("Get user error", ex);
         }
-        return null;
+        return call.end(null);
     }
 
     // Update user profile (name, email, phone)
     public static boolean updateProfile(int userId, String name, String email, String phone) {
+        DaoCall call = MetricsRegistry.begin("UserDAO.updateProfile");
         String sql = "UPDATE Users SET name = ?, email = ?, phone = ? WHERE user_id = ?";
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -101,32 +119,100 @@ public class UserDAO {
             ps.setInt(4, userId);
 
             int rowsAffected = ps.executeUpdate();
-            return rowsAffected > 0;
+            return call.end(rowsAffected > 0);
         } catch (Exception ex) {
-            System.err.println("Update profile error: " + ex.getMessage());
-            return false;
+            call.fail(ex);
+            log.error("Update profile error", ex);
+            return call.end(false);
         }
     }
 
     // Update default address
     public static boolean updateAddress(int userId, String address) {
-        String sql = "UPDATE Users SET default_address = ? WHERE user_id = ?";
+        DaoCall call = MetricsRegistry.begin("UserDAO.updateAddress");
+        String sql = "UPDATE Users SET default_address = ?, latitude = ?, longitude = ? WHERE user_id = ?";
+        GazetteerDAO.Place place = GazetteerDAO.resolve(address);
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setString(1, address);
-            ps.setInt(2, userId);
+            ps.setObject(2, place != null ? place.getLatitude() : null);
+            ps.setObject(3, place != null ? place.getLongitude() : null);
+            ps.setInt(4, userId);
 
             int rowsAffected = ps.executeUpdate();
-            return rowsAffected > 0;
+            return call.end(rowsAffected > 0);
         } catch (Exception ex) {
-            System.err.println("Update address error: " + ex.getMessage());
-            return false;
+            call.fail(ex);
+            log.error("Update address error", ex);
+            return call.end(false);
+        }
+    }
+
+    /**
+     * Get the user's resolved location, or null if their address is not in the gazetteer
+     */
+    public static GeoPoint getUserLocation(int userId) {
+        DaoCall call = MetricsRegistry.begin("UserDAO.getUserLocation");
+        String sql = "SELECT latitude, longitude FROM Users WHERE user_id = ? AND latitude IS NOT NULL AND longitude IS NOT NULL";
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return call.end(new GeoPoint(rs.getDouble("latitude"), rs.getDouble("longitude")));
+                }
+            }
+        } catch (Exception ex) {
+            call.fail(ex);
+            log.error("Get user location error", ex);
+        }
+        return call.end(null);
+    }
+
+    /**
+     * Opt a partner in to (or out of) auto-dispatch
+     */
+    public static boolean setAvailability(int userId, boolean available) {
+        DaoCall call = MetricsRegistry.begin("UserDAO.setAvailability");
+        String sql = "UPDATE Users SET is_available = ? WHERE user_id = ?";
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, available ? 1 : 0);
+            ps.setInt(2, userId);
+            return call.end(ps.executeUpdate() > 0);
+        } catch (Exception ex) {
+            call.fail(ex);
+            log.error("Set availability error", ex);
+            return call.end(false);
+        }
+    }
+
+    /**
+     * Check whether a partner is taking auto-dispatched orders
+     */
+    public static boolean isAvailable(int userId) {
+        DaoCall call = MetricsRegistry.begin("UserDAO.isAvailable");
+        String sql = "SELECT is_available FROM Users WHERE user_id = ?";
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return call.end(rs.next() && rs.getInt("is_available") == 1);
+            }
+        } catch (Exception ex) {
+            call.fail(ex);
+            log.error("Get availability error", ex);
+            return call.end(false);
         }
     }
 
     // Update profile image path
     public static boolean updateProfileImage(int userId, String imagePath) {
+        DaoCall call = MetricsRegistry.begin("UserDAO.updateProfileImage");
         String sql = "UPDATE Users SET profile_image = ? WHERE user_id = ?";
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -135,15 +221,17 @@ public class UserDAO {
             ps.setInt(2, userId);
 
             int rowsAffected = ps.executeUpdate();
-            return rowsAffected > 0;
+            return call.end(rowsAffected > 0);
         } catch (Exception ex) {
-            System.err.println("Update profile image error: " + ex.getMessage());
-            return false;
+            call.fail(ex);
+            log.error("Update profile image error", ex);
+            return call.end(false);
         }
     }
 
     // Update password
     public static boolean updatePassword(int userId, String currentPassword, String newPassword) {
+        DaoCall call = MetricsRegistry.begin("UserDAO.updatePassword");
         // First verify current password
         String checkSql = "SELECT user_id FROM Users WHERE user_id = ? AND password = ?";
         String hashedCurrent = PasswordUtil.hash(currentPassword);
@@ -156,7 +244,7 @@ public class UserDAO {
 
             try (ResultSet rs = checkPs.executeQuery()) {
                 if (!rs.next()) {
-                    return false; // Current password incorrect
+                    return call.end(false); // Current password incorrect
                 }
             }
 
@@ -169,11 +257,12 @@ public class UserDAO {
                 updatePs.setInt(2, userId);
 
                 int rowsAffected = updatePs.executeUpdate();
-                return rowsAffected > 0;
+                return call.end(rowsAffected > 0);
             }
         } catch (Exception ex) {
-            System.err.println("Update password error: " + ex.getMessage());
-            return false;
+            call.fail(ex);
+            log.error("Update password error", ex);
+            return call.end(false);
         }
     }
 
@@ -183,6 +272,7 @@ public class UserDAO {
      * Get all users (for admin dashboard)
      */
     public static java.util.List<User> getAllUsers() {
+        DaoCall call = MetricsRegistry.begin("UserDAO.getAllUsers");
         java.util.List<User> users = new java.util.ArrayList<>();
         String sql = "SELECT user_id, name, email, phone, default_address, profile_image, " +
                     "COALESCE(is_admin, 0) as is_admin, COALESCE(is_banned, 0) as is_banned " +
@@ -205,9 +295,10 @@ public class UserDAO {
                 ));
             }
         } catch (Exception ex) {
-            System.err.println("Get all users error: " + ex.getMessage());
+            call.fail(ex);
+            log.error("Get all users error", ex);
         }
-        return users;
+        return call.end(users);
     }
 
     /**
@@ -215,6 +306,7 @@ public class UserDAO {
      * @return List of user IDs who are admins
      */
     public static java.util.List<Integer> getAdminUserIds() {
+        DaoCall call = MetricsRegistry.begin("UserDAO.getAdminUserIds");
         java.util.List<Integer> adminIds = new java.util.ArrayList<>();
         String sql = "SELECT user_id FROM Users WHERE is_admin = 1";
 
@@ -225,53 +317,59 @@ public class UserDAO {
             while (rs.next()) {
                 adminIds.add(rs.getInt("user_id"));
             }
-            System.out.println("Found " + adminIds.size() + " admin user(s)");
+            log.debug("Found {} admin user(s)", adminIds.size());
         } catch (Exception ex) {
-            System.err.println("Get admin IDs error: " + ex.getMessage());
+            call.fail(ex);
+            log.error("Get admin IDs error", ex);
         }
-        return adminIds;
+        return call.end(adminIds);
     }
 
     /**
      * Get total user count
      */
     public static int getTotalUserCount() {
+        DaoCall call = MetricsRegistry.begin("UserDAO.getTotalUserCount");
         String sql = "SELECT COUNT(*) as count FROM Users";
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             if (rs.next()) {
-                return rs.getInt("count");
+                return call.end(rs.getInt("count"));
             }
         } catch (Exception ex) {
-            System.err.println("Get user count error: " + ex.getMessage());
+            call.fail(ex);
+            log.error("Get user count error", ex);
         }
-        return 0;
+        return call.end(0);
     }
 
     /**
      * Get users registered today
      */
     public static int getTodayUserCount() {
+        DaoCall call = MetricsRegistry.begin("UserDAO.getTodayUserCount");
         String sql = "SELECT COUNT(*) as count FROM Users WHERE DATE(created_at) = DATE('now')";
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             if (rs.next()) {
-                return rs.getInt("count");
+                return call.end(rs.getInt("count"));
             }
         } catch (Exception ex) {
-            System.err.println("Get today user count error: " + ex.getMessage());
+            call.fail(ex);
+            log.error("Get today user count error", ex);
         }
-        return 0;
+        return call.end(0);
     }
 
     /**
      * Ban/Unban a user (Admin only)
      */
     public static boolean setBanStatus(int userId, boolean banned) {
+        DaoCall call = MetricsRegistry.begin("UserDAO.setBanStatus");
         String sql = "UPDATE Users SET is_banned = ? WHERE user_id = ?";
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -280,17 +378,29 @@ public class UserDAO {
             ps.setInt(2, userId);
 
             int rowsAffected = ps.executeUpdate();
-            return rowsAffected > 0;
+            return call.end(rowsAffected > 0);
         } catch (Exception ex) {
-            System.err.println("Set ban status error: " + ex.getMessage());
-            return false;
+            call.fail(ex);
+            log.error("Set ban status error", ex);
+            return call.end(false);
         }
     }
 
+    /**
+     * Ban/Unban many users in one statement (Admin only). Returns the number
+     * of users whose status changed, or -1 on error.
+     */
+    public static int setBanStatus(java.util.Collection<Integer> userIds, boolean banned) {
+        DaoCall call = MetricsRegistry.begin("UserDAO.setBanStatusBulk");
+        String sql = "UPDATE Users SET is_banned = ? WHERE is_banned <> ? AND user_id IN (SELECT value FROM json_each(?))";
+        return call.end(updateFlag(call, sql, banned, userIds, "Bulk ban status error"));
+    }
+
     /**
      * Set admin status for a user (Admin only)
      */
     public static boolean setAdminStatus(int userId, boolean isAdmin) {
+        DaoCall call = MetricsRegistry.begin("UserDAO.setAdminStatus");
         String sql = "UPDATE Users SET is_admin = ? WHERE user_id = ?";
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -299,28 +409,190 @@ public class UserDAO {
             ps.setInt(2, userId);
 
             int rowsAffected = ps.executeUpdate();
-            return rowsAffected > 0;
+            return call.end(rowsAffected > 0);
         } catch (Exception ex) {
-            System.err.println("Set admin status error: " + ex.getMessage());
-            return false;
+            call.fail(ex);
+            log.error("Set admin status error", ex);
+            return call.end(false);
         }
     }
 
     /**
-     * Delete a user (Admin only)
+     * Set admin status for many users in one statement (Admin only). Returns
+     * the number of users whose role changed, or -1 on error.
      */
-    public static boolean deleteUser(int userId) {
-        String sql = "DELETE FROM Users WHERE user_id = ?";
+    public static int setAdminStatus(java.util.Collection<Integer> userIds, boolean isAdmin) {
+        DaoCall call = MetricsRegistry.begin("UserDAO.setAdminStatusBulk");
+        String sql = "UPDATE Users SET is_admin = ? WHERE is_admin <> ? AND user_id IN (SELECT value FROM json_each(?))";
+        return call.end(updateFlag(call, sql, isAdmin, userIds, "Bulk admin status error"));
+    }
+
+    private static int updateFlag(DaoCall call, String sql, boolean value, java.util.Collection<Integer> userIds,
+                                  String errorMessage) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setInt(1, userId);
-
-            int rowsAffected = ps.executeUpdate();
-            return rowsAffected > 0;
+            ps.setInt(1, value ? 1 : 0);
+            ps.setInt(2, value ? 1 : 0);
+            ps.setString(3, Database.toJsonArray(userIds));
+            return ps.executeUpdate();
         } catch (Exception ex) {
-            System.err.println("Delete user error: " + ex.getMessage());
-            return false;
+            call.fail(ex);
+            log.error(errorMessage, ex);
+            return -1;
+        }
+    }
+
+    /**
+     * Delete a user (Admin only)
+     */
+    public static boolean deleteUser(int userId) {
+        DaoCall call = MetricsRegistry.begin("UserDAO.deleteUser");
+        return call.end(purgeUsers(java.util.List.of(userId)) > 0);
+    }
+
+    /**
+     * Delete many users in one transaction. Orders they placed and ratings they
+     * gave stay, with customer_id set to NULL, so partners keep what they
+     * delivered; the orders still open are cancelled. Their own deliveries,
+     * earnings, received ratings and notifications follow through ON DELETE
+     * CASCADE. Orders other customers placed that a removed partner was still
+     * carrying go back to PENDING. Returns the number of users deleted, or -1
+     * on error.
+     */
+    public static int purgeUsers(java.util.Collection<Integer> userIds) {
+        DaoCall call = MetricsRegistry.begin("UserDAO.purgeUsers");
+        if (userIds.isEmpty()) {
+            return call.end(0);
+        }
+
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            PurgeOutcome outcome;
+            try {
+                createPurgeBatch(conn);
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT OR IGNORE INTO temp.purge_users (user_id) VALUES (?)")) {
+                    for (Integer userId : userIds) {
+                        ps.setInt(1, userId);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                outcome = deletePurgeBatch(conn);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            outcome.publish();
+            return call.end(outcome.usersDeleted);
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error purging users", e);
+            return call.end(-1);
+        }
+    }
+
+    /**
+     * Delete every non-admin user whose email matches a LIKE pattern, e.g.
+     * "%@test.invalid", in one transaction. Returns the number of users
+     * deleted, or -1 on error.
+     */
+    public static int purgeUsersByEmailPattern(String emailPattern) {
+        DaoCall call = MetricsRegistry.begin("UserDAO.purgeUsersByEmailPattern");
+        if (emailPattern == null || emailPattern.isBlank() || emailPattern.replace("%", "").isBlank()) {
+            log.warn("Refusing to purge users with an empty email pattern");
+            return call.end(-1);
+        }
+
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            PurgeOutcome outcome;
+            try {
+                createPurgeBatch(conn);
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO temp.purge_users (user_id) " +
+                        "SELECT user_id FROM Users WHERE email LIKE ? AND is_admin = 0")) {
+                    ps.setString(1, emailPattern);
+                    ps.executeUpdate();
+                }
+                outcome = deletePurgeBatch(conn);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            outcome.publish();
+            return call.end(outcome.usersDeleted);
+
+        } catch (SQLException e) {
+            call.fail(e);
+            log.error("Error purging users by email pattern", e);
+            return call.end(-1);
+        }
+    }
+
+    private static void createPurgeBatch(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TEMP TABLE IF NOT EXISTS purge_users (user_id INTEGER PRIMARY KEY)");
+            stmt.execute("DELETE FROM temp.purge_users");
+        }
+    }
+
+    /**
+     * Delete the users listed in temp.purge_users, noting which of their
+     * orders are cancelled and which are handed back to the market
+     */
+    private static PurgeOutcome deletePurgeBatch(Connection conn) throws SQLException {
+        PurgeOutcome outcome = new PurgeOutcome();
+        String inBatch = "(SELECT user_id FROM temp.purge_users)";
+        String open = "status NOT IN ('DELIVERED', 'CANCELLED') AND customer_id IN " + inBatch;
+        String reopenable = "status IN ('ACCEPTED', 'PICKED_UP', 'ON_THE_WAY') " +
+                "AND (customer_id IS NULL OR customer_id NOT IN " + inBatch + ") " +
+                "AND order_id IN (SELECT order_id FROM Deliveries WHERE delivery_person_id IN " + inBatch + ")";
+
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT order_id FROM Orders WHERE " + open)) {
+                while (rs.next()) {
+                    outcome.ordersCancelled.add(rs.getInt("order_id"));
+                }
+            }
+            stmt.executeUpdate("UPDATE Orders SET status = 'CANCELLED' WHERE " + open);
+            try (ResultSet rs = stmt.executeQuery("SELECT order_id FROM Orders WHERE " + reopenable)) {
+                while (rs.next()) {
+                    outcome.ordersReopened.add(rs.getInt("order_id"));
+                }
+            }
+            stmt.executeUpdate("UPDATE Orders SET status = 'PENDING' WHERE " + reopenable);
+            // Counted first: the update count would include rows the ON DELETE actions changed
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM Users WHERE user_id IN " + inBatch)) {
+                outcome.usersDeleted = rs.next() ? rs.getInt(1) : 0;
+            }
+            stmt.executeUpdate("DELETE FROM Users WHERE user_id IN " + inBatch);
+        }
+        return outcome;
+    }
+
+    /**
+     * What a user purge did to orders, published once the transaction commits
+     */
+    private static class PurgeOutcome {
+        private final java.util.List<Integer> ordersCancelled = new java.util.ArrayList<>();
+        private final java.util.List<Integer> ordersReopened = new java.util.ArrayList<>();
+        private int usersDeleted;
+
+        void publish() {
+            for (Integer orderId : ordersCancelled) {
+                OrderEventBus.publish(OrderEvent.Type.CANCELLED, orderId);
+            }
+            for (Integer orderId : ordersReopened) {
+                OrderEventBus.publish(OrderEvent.Type.UPDATED, orderId);
+            }
         }
     }
 
@@ -328,7 +600,9 @@ public class UserDAO {
      * Admin update user info
      */
     public static boolean adminUpdateUser(int userId, String name, String email, String phone, String address) {
-        String sql = "UPDATE Users SET name = ?, email = ?, phone = ?, default_address = ? WHERE user_id = ?";
+        DaoCall call = MetricsRegistry.begin("UserDAO.adminUpdateUser");
+        String sql = "UPDATE Users SET name = ?, email = ?, phone = ?, default_address = ?, latitude = ?, longitude = ? WHERE user_id = ?";
+        GazetteerDAO.Place place = GazetteerDAO.resolve(address);
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
@@ -336,13 +610,16 @@ public class UserDAO {
             ps.setString(2, email);
             ps.setString(3, phone);
             ps.setString(4, address);
-            ps.setInt(5, userId);
+            ps.setObject(5, place != null ? place.getLatitude() : null);
+            ps.setObject(6, place != null ? place.getLongitude() : null);
+            ps.setInt(7, userId);
 
             int rowsAffected = ps.executeUpdate();
-            return rowsAffected > 0;
+            return call.end(rowsAffected > 0);
         } catch (Exception ex) {
-            System.err.println("Admin update user error: " + ex.getMessage());
-            return false;
+            call.fail(ex);
+            log.error("Admin update user error", ex);
+            return call.end(false);
         }
     }
 }
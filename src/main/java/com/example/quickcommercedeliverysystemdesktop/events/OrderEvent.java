@@ -0,0 +1,48 @@
+package com.example.quickcommercedeliverysystemdesktop.events;
+
+import java.time.LocalDateTime;
+
+/**
+ * Something that happened to an order, published after the change is committed
+ */
+public class OrderEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        ACCEPTED,
+        PICKED_UP,
+        ON_THE_WAY,
+        DELIVERED,
+        RATED,
+        CANCELLED,
+        DELETED
+    }
+
+    private final Type type;
+    private final int orderId;
+    private final int partnerId;
+    private final LocalDateTime occurredAt;
+
+    public OrderEvent(Type type, int orderId, int partnerId) {
+        this.type = type;
+        this.orderId = orderId;
+        this.partnerId = partnerId;
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    public OrderEvent(Type type, int orderId) {
+        this(type, orderId, 0);
+    }
+
+    public Type getType() { return type; }
+    public int getOrderId() { return orderId; }
+    /** Delivery partner involved, or 0 when the event has none */
+    public int getPartnerId() { return partnerId; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+
+    @Override
+    public String toString() {
+        return type + " #" + orderId + (partnerId > 0 ? " by partner " + partnerId : "");
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.quickcommercedeliverysystemdesktop.events;
+
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Process-wide, synchronous publish/subscribe for order changes.
+ *
+ * DAOs publish after their transaction commits, on the caller's thread, so
+ * listeners must be quick and thread-safe. A failing listener is logged and
+ * does not stop the others or the publisher.
+ */
+public final class OrderEventBus {
+
+    private static final Logger log = LogManager.getLogger(OrderEventBus.class);
+
+    private static final List<Consumer<OrderEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    private OrderEventBus() {
+    }
+
+    public static void subscribe(Consumer<OrderEvent> listener) {
+        listeners.add(listener);
+    }
+
+    public static void unsubscribe(Consumer<OrderEvent> listener) {
+        listeners.remove(listener);
+    }
+
+    public static void publish(OrderEvent event) {
+        log.debug("Order event {}", event);
+        for (Consumer<OrderEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                log.error("Order event listener failed for " + event, e);
+            }
+        }
+    }
+
+    public static void publish(OrderEvent.Type type, int orderId) {
+        publish(new OrderEvent(type, orderId));
+    }
+
+    public static void publish(OrderEvent.Type type, int orderId, int partnerId) {
+        publish(new OrderEvent(type, orderId, partnerId));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.quickcommercedeliverysystemdesktop.logging;
+
+/**
+ * A single log record as captured on the calling thread.
+ * Message formatting is deferred to the appender thread.
+ */
+final class LogEvent {
+    final long timestamp;
+    final LogLevel level;
+    final String loggerName;
+    final String threadName;
+    final String pattern;
+    final Object[] args;
+    final Throwable error;
+
+    LogEvent(LogLevel level, String loggerName, String pattern, Object[] args, Throwable error) {
+        this.timestamp = System.currentTimeMillis();
+        this.level = level;
+        this.loggerName = loggerName;
+        this.threadName = Thread.currentThread().getName();
+        this.pattern = pattern;
+        this.args = args;
+        this.error = error;
+    }
+
+    /**
+     * Substitute {} placeholders with the captured arguments
+     */
+    String formatMessage() {
+        if (args == null || args.length == 0 || pattern == null) {
+            return pattern;
+        }
+        StringBuilder sb = new StringBuilder(pattern.length() + 32);
+        int argIndex = 0;
+        int start = 0;
+        int idx;
+        while ((idx = pattern.indexOf("{}", start)) >= 0 && argIndex < args.length) {
+            sb.append(pattern, start, idx);
+            sb.append(args[argIndex++]);
+            start = idx + 2;
+        }
+        sb.append(pattern, start, pattern.length());
+        return sb.toString();
+    }
+}
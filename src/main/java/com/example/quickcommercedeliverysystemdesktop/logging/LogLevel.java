@@ -0,0 +1,28 @@
+package com.example.quickcommercedeliverysystemdesktop.logging;
+
+/**
+ * Log levels in increasing order of severity.
+ * OFF disables a logger completely.
+ */
+public enum LogLevel {
+    TRACE,
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF;
+
+    /**
+     * Parse a level name, falling back to the given default for unknown values
+     */
+    public static LogLevel parse(String value, LogLevel fallback) {
+        if (value == null || value.isBlank()) {
+            return fallback;
+        }
+        try {
+            return LogLevel.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.quickcommercedeliverysystemdesktop.logging;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Entry point of the logging subsystem.
+ *
+ * Callers publish events into a lock-free ring buffer; a single daemon thread
+ * drains it into a rolling log file. Levels are configured per package or
+ * class prefix from (in increasing priority):
+ * <ol>
+ *   <li>the bundled logging.properties resource</li>
+ *   <li>a logging.properties file in the working directory</li>
+ *   <li>-Dlog.* system properties</li>
+ * </ol>
+ * Supported keys: log.level, log.level.&lt;prefix&gt;, log.dir, log.file,
+ * log.maxFileSizeKb, log.maxBackups, log.bufferSize, log.console.
+ */
+public final class LogManager {
+
+    private static final String LEVEL_KEY = "log.level";
+    private static final String LEVEL_PREFIX = "log.level.";
+
+    private static final Map<String, Logger> loggers = new ConcurrentHashMap<>();
+    private static final Map<String, LogLevel> prefixLevels = new ConcurrentHashMap<>();
+    private static volatile LogLevel rootLevel = LogLevel.INFO;
+
+    private static final LogRingBuffer buffer;
+    private static final RollingFileAppender appender;
+    private static final Thread appenderThread;
+    private static volatile boolean running = true;
+
+    static {
+        Properties config = loadConfiguration();
+
+        rootLevel = LogLevel.parse(config.getProperty(LEVEL_KEY), LogLevel.INFO);
+        for (String key : config.stringPropertyNames()) {
+            if (key.startsWith(LEVEL_PREFIX)) {
+                prefixLevels.put(key.substring(LEVEL_PREFIX.length()),
+                        LogLevel.parse(config.getProperty(key), rootLevel));
+            }
+        }
+
+        buffer = new LogRingBuffer(intProperty(config, "log.bufferSize", 8192));
+        appender = new RollingFileAppender(
+                new File(config.getProperty("log.dir", "logs")),
+                config.getProperty("log.file", "quickcommerce.log"),
+                intProperty(config, "log.maxFileSizeKb", 5120) * 1024L,
+                intProperty(config, "log.maxBackups", 5),
+                Boolean.parseBoolean(config.getProperty("log.console", "false"))
+        );
+
+        appenderThread = new Thread(LogManager::drainLoop, "log-appender");
+        appenderThread.setDaemon(true);
+        appenderThread.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(LogManager::shutdown, "log-shutdown"));
+    }
+
+    private LogManager() {
+    }
+
+    public static Logger getLogger(Class<?> type) {
+        return getLogger(type.getName());
+    }
+
+    public static Logger getLogger(String name) {
+        return loggers.computeIfAbsent(name, n -> new Logger(n, effectiveLevel(n)));
+    }
+
+    /**
+     * Change the level for a package or class prefix at runtime.
+     * An empty prefix changes the root level.
+     */
+    public static void setLevel(String prefix, LogLevel level) {
+        if (prefix == null || prefix.isEmpty()) {
+            rootLevel = level;
+        } else {
+            prefixLevels.put(prefix, level);
+        }
+        for (Logger logger : loggers.values()) {
+            logger.setLevel(effectiveLevel(logger.getName()));
+        }
+    }
+
+    /**
+     * Number of events discarded because the ring buffer was full
+     */
+    public static long getDroppedCount() {
+        return buffer.droppedCount();
+    }
+
+    /**
+     * Stop the appender thread after writing out everything still buffered
+     */
+    public static void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(appenderThread);
+        try {
+            appenderThread.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static void publish(LogEvent event) {
+        if (!buffer.offer(event)) {
+            return;
+        }
+        if (event.level == LogLevel.ERROR) {
+            // Errors should reach the file promptly; everything else waits for the next poll
+            LockSupport.unpark(appenderThread);
+        }
+    }
+
+    private static LogLevel effectiveLevel(String name) {
+        String best = null;
+        for (String prefix : prefixLevels.keySet()) {
+            if ((name.equals(prefix) || name.startsWith(prefix + "."))
+                    && (best == null || prefix.length() > best.length())) {
+                best = prefix;
+            }
+        }
+        return best != null ? prefixLevels.get(best) : rootLevel;
+    }
+
+    private static void drainLoop() {
+        while (running) {
+            if (!drainBatch()) {
+                appender.flush();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+            }
+        }
+        while (drainBatch()) {
+            // Write out whatever was buffered before shutdown
+        }
+        appender.flush();
+        appender.close();
+    }
+
+    /**
+     * @return true if at least one event was written
+     */
+    private static boolean drainBatch() {
+        boolean wrote = false;
+        LogEvent event;
+        int budget = buffer.capacity();
+        while (budget-- > 0 && (event = buffer.poll()) != null) {
+            appender.append(event);
+            wrote = true;
+        }
+        return wrote;
+    }
+
+    private static Properties loadConfiguration() {
+        Properties config = new Properties();
+
+        try (InputStream in = LogManager.class.getResourceAsStream(
+                "/com/example/quickcommercedeliverysystemdesktop/logging.properties")) {
+            if (in != null) {
+                config.load(in);
+            }
+        } catch (Exception ignored) {
+            // Fall back to defaults
+        }
+
+        File local = new File("logging.properties");
+        if (local.isFile()) {
+            try (InputStream in = new FileInputStream(local)) {
+                config.load(in);
+            } catch (Exception ignored) {
+                // Fall back to bundled configuration
+            }
+        }
+
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("log.")) {
+                config.setProperty(key, System.getProperty(key));
+            }
+        }
+        return config;
+    }
+
+    private static int intProperty(Properties config, String key, int fallback) {
+        try {
+            return Integer.parseInt(config.getProperty(key, String.valueOf(fallback)).trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
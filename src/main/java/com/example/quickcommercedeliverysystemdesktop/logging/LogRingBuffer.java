@@ -0,0 +1,81 @@
+package com.example.quickcommercedeliverysystemdesktop.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded lock-free multi-producer / single-consumer ring buffer.
+ * Each slot carries a sequence number; producers claim a slot with a CAS on
+ * the tail and publish it by advancing the slot sequence. When the buffer is
+ * full the event is dropped rather than blocking the caller.
+ */
+final class LogRingBuffer {
+
+    private final LogEvent[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    // Only touched by the single consumer thread
+    private long head;
+
+    LogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.slots = new LogEvent[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publish an event. Returns false (and counts a drop) if the buffer is full.
+     */
+    boolean offer(LogEvent event) {
+        long pos;
+        int index;
+        while (true) {
+            pos = tail.get();
+            index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+            } else if (diff < 0) {
+                dropped.increment();
+                return false;
+            }
+            // diff > 0: another producer claimed this slot, retry with fresh tail
+        }
+        slots[index] = event;
+        sequences.lazySet(index, pos + 1);
+        return true;
+    }
+
+    /**
+     * Take the next published event, or null if none is available
+     */
+    LogEvent poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        LogEvent event = slots[index];
+        slots[index] = null;
+        sequences.lazySet(index, head + slots.length);
+        head++;
+        return event;
+    }
+
+    long droppedCount() {
+        return dropped.sum();
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
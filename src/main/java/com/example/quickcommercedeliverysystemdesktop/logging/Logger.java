@@ -0,0 +1,128 @@
+package com.example.quickcommercedeliverysystemdesktop.logging;
+
+import java.util.function.Supplier;
+
+/**
+ * Levelled logger handed out by {@link LogManager}.
+ *
+ * Level checks are a single volatile int comparison, so disabled calls cost
+ * nothing beyond that. Messages use {} placeholders and are formatted on the
+ * background appender thread, never on the caller's thread. Fixed-arity
+ * overloads avoid allocating a varargs array for the common cases.
+ */
+public final class Logger {
+
+    private final String name;
+    private volatile int threshold;
+
+    Logger(String name, LogLevel level) {
+        this.name = name;
+        this.threshold = level.ordinal();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    void setLevel(LogLevel level) {
+        this.threshold = level.ordinal();
+    }
+
+    public boolean isEnabled(LogLevel level) {
+        return level.ordinal() >= threshold;
+    }
+
+    public boolean isTraceEnabled() { return isEnabled(LogLevel.TRACE); }
+    public boolean isDebugEnabled() { return isEnabled(LogLevel.DEBUG); }
+    public boolean isInfoEnabled() { return isEnabled(LogLevel.INFO); }
+
+    // ===== TRACE =====
+
+    public void trace(String msg) {
+        if (isEnabled(LogLevel.TRACE)) log(LogLevel.TRACE, msg, null, null);
+    }
+
+    public void trace(String pattern, Object arg) {
+        if (isEnabled(LogLevel.TRACE)) log(LogLevel.TRACE, pattern, new Object[]{arg}, null);
+    }
+
+    public void trace(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(LogLevel.TRACE)) log(LogLevel.TRACE, pattern, new Object[]{arg1, arg2}, null);
+    }
+
+    // ===== DEBUG =====
+
+    public void debug(String msg) {
+        if (isEnabled(LogLevel.DEBUG)) log(LogLevel.DEBUG, msg, null, null);
+    }
+
+    public void debug(String pattern, Object arg) {
+        if (isEnabled(LogLevel.DEBUG)) log(LogLevel.DEBUG, pattern, new Object[]{arg}, null);
+    }
+
+    public void debug(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(LogLevel.DEBUG)) log(LogLevel.DEBUG, pattern, new Object[]{arg1, arg2}, null);
+    }
+
+    public void debug(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(LogLevel.DEBUG)) log(LogLevel.DEBUG, pattern, new Object[]{arg1, arg2, arg3}, null);
+    }
+
+    public void debug(Supplier<String> message) {
+        if (isEnabled(LogLevel.DEBUG)) log(LogLevel.DEBUG, message.get(), null, null);
+    }
+
+    // ===== INFO =====
+
+    public void info(String msg) {
+        if (isEnabled(LogLevel.INFO)) log(LogLevel.INFO, msg, null, null);
+    }
+
+    public void info(String pattern, Object arg) {
+        if (isEnabled(LogLevel.INFO)) log(LogLevel.INFO, pattern, new Object[]{arg}, null);
+    }
+
+    public void info(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(LogLevel.INFO)) log(LogLevel.INFO, pattern, new Object[]{arg1, arg2}, null);
+    }
+
+    public void info(String pattern, Object... args) {
+        if (isEnabled(LogLevel.INFO)) log(LogLevel.INFO, pattern, args, null);
+    }
+
+    // ===== WARN =====
+
+    public void warn(String msg) {
+        if (isEnabled(LogLevel.WARN)) log(LogLevel.WARN, msg, null, null);
+    }
+
+    public void warn(String pattern, Object arg) {
+        if (isEnabled(LogLevel.WARN)) log(LogLevel.WARN, pattern, new Object[]{arg}, null);
+    }
+
+    public void warn(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(LogLevel.WARN)) log(LogLevel.WARN, pattern, new Object[]{arg1, arg2}, null);
+    }
+
+    public void warn(String msg, Throwable error) {
+        if (isEnabled(LogLevel.WARN)) log(LogLevel.WARN, msg, null, error);
+    }
+
+    // ===== ERROR =====
+
+    public void error(String msg) {
+        if (isEnabled(LogLevel.ERROR)) log(LogLevel.ERROR, msg, null, null);
+    }
+
+    public void error(String msg, Throwable error) {
+        if (isEnabled(LogLevel.ERROR)) log(LogLevel.ERROR, msg, null, error);
+    }
+
+    public void error(String pattern, Object arg, Throwable error) {
+        if (isEnabled(LogLevel.ERROR)) log(LogLevel.ERROR, pattern, new Object[]{arg}, error);
+    }
+
+    private void log(LogLevel level, String pattern, Object[] args, Throwable error) {
+        LogManager.publish(new LogEvent(level, name, pattern, args, error));
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.quickcommercedeliverysystemdesktop.logging;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes formatted log events to a size-bounded set of files:
+ * app.log, app.log.1 ... app.log.N (oldest is discarded on roll over).
+ * Only ever used from the background appender thread.
+ */
+final class RollingFileAppender {
+
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private final File directory;
+    private final String baseName;
+    private final long maxFileBytes;
+    private final int maxBackups;
+    private final boolean echoToConsole;
+
+    private Writer writer;
+    private long currentSize;
+
+    RollingFileAppender(File directory, String baseName, long maxFileBytes, int maxBackups, boolean echoToConsole) {
+        this.directory = directory;
+        this.baseName = baseName;
+        this.maxFileBytes = maxFileBytes;
+        this.maxBackups = maxBackups;
+        this.echoToConsole = echoToConsole;
+    }
+
+    void append(LogEvent event) {
+        String line = format(event);
+        if (echoToConsole || event.level == LogLevel.ERROR) {
+            if (event.level.compareTo(LogLevel.WARN) >= 0) {
+                System.err.print(line);
+            } else {
+                System.out.print(line);
+            }
+        }
+        try {
+            ensureOpen();
+            writer.write(line);
+            currentSize += line.getBytes(StandardCharsets.UTF_8).length;
+            if (currentSize >= maxFileBytes) {
+                rollOver();
+            }
+        } catch (IOException e) {
+            // Never let logging failures escape into the application
+            System.err.print(line);
+        }
+    }
+
+    void flush() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException ignored) {
+            // Nothing sensible to do here
+        }
+    }
+
+    void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException ignored) {
+            // Nothing sensible to do here
+        }
+        writer = null;
+    }
+
+    private String format(LogEvent event) {
+        StringBuilder sb = new StringBuilder(128);
+        sb.append(TIMESTAMP.format(Instant.ofEpochMilli(event.timestamp)))
+          .append(' ')
+          .append(String.format("%-5s", event.level.name()))
+          .append(" [").append(event.threadName).append("] ")
+          .append(shortName(event.loggerName))
+          .append(" - ")
+          .append(event.formatMessage())
+          .append(System.lineSeparator());
+
+        if (event.error != null) {
+            StringWriter sw = new StringWriter();
+            event.error.printStackTrace(new PrintWriter(sw));
+            sb.append(sw);
+        }
+        return sb.toString();
+    }
+
+    private static String shortName(String loggerName) {
+        int idx = loggerName.lastIndexOf('.');
+        return idx >= 0 ? loggerName.substring(idx + 1) : loggerName;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (writer != null) {
+            return;
+        }
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+        File file = new File(directory, baseName);
+        currentSize = file.length();
+        writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file, true), StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private void rollOver() throws IOException {
+        close();
+
+        File oldest = new File(directory, baseName + "." + maxBackups);
+        if (oldest.exists()) {
+            oldest.delete();
+        }
+        for (int i = maxBackups - 1; i >= 1; i--) {
+            File source = new File(directory, baseName + "." + i);
+            if (source.exists()) {
+                source.renameTo(new File(directory, baseName + "." + (i + 1)));
+            }
+        }
+        File current = new File(directory, baseName);
+        if (maxBackups > 0) {
+            current.renameTo(new File(directory, baseName + ".1"));
+        } else {
+            current.delete();
+        }
+        currentSize = 0;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.quickcommercedeliverysystemdesktop.metrics;
+
+import java.sql.SQLException;
+import java.util.Collection;
+
+/**
+ * One in-flight DAO invocation.
+ *
+ * Obtained from {@link MetricsRegistry#begin(String)} at the top of a DAO
+ * method; the method's return values are passed through one of the end(...)
+ * overloads, and catch blocks call {@link #fail(Exception)}. The call is
+ * recorded exactly once, on the first end(...).
+ */
+public class DaoCall {
+
+    /** SQLite primary result codes for a locked database */
+    private static final int SQLITE_BUSY = 5;
+    private static final int SQLITE_LOCKED = 6;
+
+    static final DaoCall NOOP = new DaoCall(null, 0) {
+        @Override
+        void record(long rowCount) {
+        }
+    };
+
+    private final DaoMetric metric;
+    private final long startNanos;
+    private boolean failed;
+    private boolean busy;
+    private boolean recorded;
+
+    DaoCall(DaoMetric metric, long startNanos) {
+        this.metric = metric;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Mark this call as failed. Lock contention errors are counted separately.
+     */
+    public void fail(Exception e) {
+        failed = true;
+        if (e instanceof SQLException sqlException) {
+            int code = sqlException.getErrorCode() & 0xFF;
+            String message = String.valueOf(sqlException.getMessage());
+            if (code == SQLITE_BUSY || code == SQLITE_LOCKED
+                    || message.contains("SQLITE_BUSY") || message.contains("database is locked")) {
+                busy = true;
+            }
+        }
+    }
+
+    public <T> T end(T result) {
+        long rowCount;
+        if (result == null) {
+            rowCount = 0;
+        } else if (result instanceof Collection<?> collection) {
+            rowCount = collection.size();
+        } else {
+            rowCount = 1;
+        }
+        record(rowCount);
+        return result;
+    }
+
+    public boolean end(boolean result) {
+        record(result ? 1 : 0);
+        return result;
+    }
+
+    public int end(int result) {
+        record(1);
+        return result;
+    }
+
+    public long end(long result) {
+        record(1);
+        return result;
+    }
+
+    public double end(double result) {
+        record(1);
+        return result;
+    }
+
+    void record(long rowCount) {
+        if (recorded) {
+            return;
+        }
+        recorded = true;
+        long micros = (System.nanoTime() - startNanos) / 1_000;
+        metric.record(micros, rowCount, failed, busy);
+        MetricsRegistry.afterCall(metric, micros);
+    }
+}
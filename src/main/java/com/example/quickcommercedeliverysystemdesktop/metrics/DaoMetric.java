@@ -0,0 +1,114 @@
+package com.example.quickcommercedeliverysystemdesktop.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency distribution for a single DAO operation
+ */
+public final class DaoMetric {
+
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder busyErrors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    DaoMetric(String name) {
+        this.name = name;
+    }
+
+    void record(long micros, long rowCount, boolean failed, boolean busy) {
+        calls.increment();
+        totalMicros.add(micros);
+        histogram.record(micros);
+        if (rowCount > 0) {
+            rows.add(rowCount);
+        }
+        if (failed) {
+            errors.increment();
+        }
+        if (busy) {
+            busyErrors.increment();
+        }
+        long currentMax = maxMicros.get();
+        while (micros > currentMax && !maxMicros.compareAndSet(currentMax, micros)) {
+            currentMax = maxMicros.get();
+        }
+    }
+
+    void reset() {
+        calls.reset();
+        errors.reset();
+        busyErrors.reset();
+        rows.reset();
+        totalMicros.reset();
+        maxMicros.set(0);
+        histogram.reset();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Snapshot snapshot() {
+        LatencyHistogram.Snapshot latencies = histogram.snapshot();
+        long callCount = calls.sum();
+        return new Snapshot(
+                name,
+                callCount,
+                errors.sum(),
+                busyErrors.sum(),
+                rows.sum(),
+                callCount > 0 ? totalMicros.sum() / (double) callCount : 0.0,
+                latencies.percentile(50),
+                latencies.percentile(95),
+                latencies.percentile(99),
+                maxMicros.get()
+        );
+    }
+
+    /**
+     * Point-in-time view of a metric, latencies in microseconds
+     */
+    public static final class Snapshot {
+        private final String name;
+        private final long calls;
+        private final long errors;
+        private final long busyErrors;
+        private final long rows;
+        private final double meanMicros;
+        private final long p50Micros;
+        private final long p95Micros;
+        private final long p99Micros;
+        private final long maxMicros;
+
+        Snapshot(String name, long calls, long errors, long busyErrors, long rows, double meanMicros,
+                 long p50Micros, long p95Micros, long p99Micros, long maxMicros) {
+            this.name = name;
+            this.calls = calls;
+            this.errors = errors;
+            this.busyErrors = busyErrors;
+            this.rows = rows;
+            this.meanMicros = meanMicros;
+            this.p50Micros = p50Micros;
+            this.p95Micros = p95Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+        }
+
+        public String getName() { return name; }
+        public long getCalls() { return calls; }
+        public long getErrors() { return errors; }
+        public long getBusyErrors() { return busyErrors; }
+        public long getRows() { return rows; }
+        public double getMeanMicros() { return meanMicros; }
+        public long getP50Micros() { return p50Micros; }
+        public long getP95Micros() { return p95Micros; }
+        public long getP99Micros() { return p99Micros; }
+        public long getMaxMicros() { return maxMicros; }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.quickcommercedeliverysystemdesktop.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear latency histogram in microseconds.
+ *
+ * Values below 16µs get an exact bucket; above that every power of two is
+ * split into 16 linear sub-buckets, which bounds the relative error of any
+ * reported percentile to about 6%. Recording is a single atomic increment.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int BUCKET_COUNT = 40 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    public void record(long micros) {
+        counts.incrementAndGet(indexFor(Math.max(0, micros)));
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    /**
+     * Copy the current bucket counts so percentiles are computed on a stable view
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total);
+    }
+
+    static int indexFor(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        int shift = msb - SUB_BUCKET_BITS;
+        int sub = (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+        return Math.min(BUCKET_COUNT - 1, (shift + 1) * SUB_BUCKETS + sub);
+    }
+
+    static long lowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        int sub = index % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << shift;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        return lowerBound(index) + (1L << shift) - 1;
+    }
+
+    /**
+     * Immutable copy of the histogram counts
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long total;
+
+        Snapshot(long[] counts, long total) {
+            this.counts = counts;
+            this.total = total;
+        }
+
+        public long getTotal() { return total; }
+
+        /**
+         * @param percentile value between 0 and 100
+         * @return upper bound of the bucket holding the requested rank, in microseconds
+         */
+        public long percentile(double percentile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile / 100.0 * total);
+            rank = Math.max(1, Math.min(total, rank));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return upperBound(i);
+                }
+            }
+            return upperBound(counts.length - 1);
+        }
+    }
+}
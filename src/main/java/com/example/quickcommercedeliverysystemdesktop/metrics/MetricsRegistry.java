@@ -0,0 +1,133 @@
+package com.example.quickcommercedeliverysystemdesktop.metrics;
+
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry of DAO call metrics.
+ *
+ * DAO methods open a {@link DaoCall} with {@link #begin(String)} and close it
+ * through one of its end(...) overloads. Recording costs two nanoTime reads,
+ * a few LongAdder increments and one histogram bucket increment.
+ *
+ * System properties:
+ * metrics.enabled (default true) and metrics.slowCallMs (default 250).
+ */
+public final class MetricsRegistry {
+
+    private static final Logger log = LogManager.getLogger(MetricsRegistry.class);
+
+    private static final ConcurrentHashMap<String, DaoMetric> metrics = new ConcurrentHashMap<>();
+    private static final long slowCallMicros =
+            Long.getLong("metrics.slowCallMs", 250) * 1_000;
+
+    private static volatile boolean enabled =
+            Boolean.parseBoolean(System.getProperty("metrics.enabled", "true"));
+    private static volatile long lastCallNanos = System.nanoTime();
+    /** Calls from background jobs do not count as activity for idleness checks */
+    private static final ThreadLocal<Boolean> background = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private MetricsRegistry() {
+    }
+
+    /**
+     * Start timing a DAO operation, e.g. begin("OrderDAO.getAllOrders")
+     */
+    public static DaoCall begin(String operation) {
+        long now = System.nanoTime();
+        if (!background.get()) {
+            lastCallNanos = now;
+        }
+        if (!enabled) {
+            return DaoCall.NOOP;
+        }
+        DaoMetric metric = metrics.get(operation);
+        if (metric == null) {
+            metric = metrics.computeIfAbsent(operation, DaoMetric::new);
+        }
+        return new DaoCall(metric, now);
+    }
+
+    /**
+     * Mark the current thread as a background worker; its DAO calls are still
+     * measured but do not reset {@link #nanosSinceLastCall()}
+     */
+    public static void markBackgroundThread() {
+        background.set(Boolean.TRUE);
+    }
+
+    static void afterCall(DaoMetric metric, long micros) {
+        if (micros >= slowCallMicros) {
+            log.warn("Slow DAO call {} took {} ms", metric.getName(), micros / 1_000);
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    /**
+     * Nanoseconds since the most recent DAO call outside background threads
+     * started (a cheap idleness signal)
+     */
+    public static long nanosSinceLastCall() {
+        return System.nanoTime() - lastCallNanos;
+    }
+
+    public static DaoMetric.Snapshot snapshot(String operation) {
+        DaoMetric metric = metrics.get(operation);
+        return metric != null ? metric.snapshot() : null;
+    }
+
+    /**
+     * Snapshot every registered operation, sorted by name
+     */
+    public static List<DaoMetric.Snapshot> snapshotAll() {
+        List<DaoMetric.Snapshot> result = new ArrayList<>(metrics.size());
+        for (DaoMetric metric : metrics.values()) {
+            result.add(metric.snapshot());
+        }
+        result.sort(Comparator.comparing(DaoMetric.Snapshot::getName));
+        return result;
+    }
+
+    public static void reset() {
+        for (DaoMetric metric : metrics.values()) {
+            metric.reset();
+        }
+    }
+
+    /**
+     * Write all metrics as CSV so runs can be compared offline
+     */
+    public static void exportSnapshot(File file) throws IOException {
+        try (PrintWriter out = new PrintWriter(file, StandardCharsets.UTF_8)) {
+            out.println("# DAO metrics snapshot " + LocalDateTime.now());
+            out.println("operation,calls,errors,busy_errors,rows,mean_ms,p50_ms,p95_ms,p99_ms,max_ms");
+            for (DaoMetric.Snapshot s : snapshotAll()) {
+                out.println(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f",
+                        s.getName(), s.getCalls(), s.getErrors(), s.getBusyErrors(), s.getRows(),
+                        s.getMeanMicros() / 1_000.0,
+                        s.getP50Micros() / 1_000.0,
+                        s.getP95Micros() / 1_000.0,
+                        s.getP99Micros() / 1_000.0,
+                        s.getMaxMicros() / 1_000.0));
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.quickcommercedeliverysystemdesktop.models;
+
+/**
+ * A latitude/longitude pair in decimal degrees (WGS84)
+ */
+public class GeoPoint {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final double latitude;
+    private final double longitude;
+
+    public GeoPoint(double latitude, double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public double getLatitude() { return latitude; }
+    public double getLongitude() { return longitude; }
+
+    /**
+     * Great-circle distance to another point in kilometres
+     */
+    public double distanceKmTo(GeoPoint other) {
+        return distanceKm(latitude, longitude, other.latitude, other.longitude);
+    }
+
+    /**
+     * Haversine distance in kilometres
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Degrees of latitude spanned by the given distance
+     */
+    public static double latitudeDelta(double km) {
+        return Math.toDegrees(km / EARTH_RADIUS_KM);
+    }
+
+    /**
+     * Degrees of longitude spanned by the given distance at this latitude
+     */
+    public double longitudeDelta(double km) {
+        double cos = Math.cos(Math.toRadians(latitude));
+        return cos < 1e-6 ? 180.0 : Math.min(180.0, Math.toDegrees(km / (EARTH_RADIUS_KM * cos)));
+    }
+
+    public String getFormattedDistance(GeoPoint other) {
+        double km = distanceKmTo(other);
+        return km < 1 ? String.format("%.0f m", km * 1000) : String.format("%.1f km", km);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.5f, %.5f", latitude, longitude);
+    }
+}
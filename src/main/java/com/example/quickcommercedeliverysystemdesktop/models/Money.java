@@ -0,0 +1,143 @@
+package com.example.quickcommercedeliverysystemdesktop.models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money as a whole number of minor units (cents), as stored in
+ * the fee_minor and amount_minor columns.
+ *
+ * Sums are exact long additions. The append methods write straight into a
+ * caller's StringBuilder, so formatting many amounts allocates nothing beyond
+ * the builder itself.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private static final String SYMBOL = "$";
+    private static final int SCALE = 2;
+
+    private final long minor;
+
+    private Money(long minor) {
+        this.minor = minor;
+    }
+
+    public static Money ofMinor(long minor) {
+        return minor == 0 ? ZERO : new Money(minor);
+    }
+
+    /**
+     * Round a decimal amount, such as a legacy REAL value, to the nearest minor
+     * unit; halves go away from zero, like the migration's ROUND(amount * 100)
+     */
+    public static Money fromDecimal(double amount) {
+        long rounded = Math.round(Math.abs(amount * 100));
+        return ofMinor(amount < 0 ? -rounded : rounded);
+    }
+
+    /**
+     * Parse user input such as "12", "12.5" or "12.50" exactly.
+     * More than two decimals are rounded half-up.
+     *
+     * @throws NumberFormatException if the text is not a number or is out of range
+     */
+    public static Money parse(String text) {
+        BigDecimal value = new BigDecimal(text.trim()).setScale(SCALE, RoundingMode.HALF_UP);
+        try {
+            return ofMinor(value.unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+    }
+
+    public long getMinor() { return minor; }
+
+    /** For charts and scoring only; never sum these */
+    public double toDecimal() { return minor / 100.0; }
+
+    public boolean isPositive() { return minor > 0; }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minor, other.minor));
+    }
+
+    /**
+     * Share of one of {@code count} items, such as an average per delivery,
+     * rounded exactly to the nearest minor unit with halves away from zero
+     */
+    public Money dividedBy(long count) {
+        long quotient = minor / count;
+        long remainder = Math.abs(minor % count);
+        if (remainder >= Math.abs(count) - remainder) {
+            quotient += (minor < 0) == (count < 0) ? 1 : -1;
+        }
+        return ofMinor(quotient);
+    }
+
+    /**
+     * "$12.34"
+     */
+    public static String format(long minor) {
+        return appendTo(new StringBuilder(16), minor).toString();
+    }
+
+    /**
+     * Append "$12.34" to {@code out} and return it
+     */
+    public static StringBuilder appendTo(StringBuilder out, long minor) {
+        if (minor < 0) {
+            out.append('-');
+        }
+        out.append(SYMBOL);
+        return appendDigits(out, minor);
+    }
+
+    /**
+     * Append "12.34" with no symbol, as CSV and input fields want it
+     */
+    public static StringBuilder appendPlain(StringBuilder out, long minor) {
+        if (minor < 0) {
+            out.append('-');
+        }
+        return appendDigits(out, minor);
+    }
+
+    private static StringBuilder appendDigits(StringBuilder out, long minor) {
+        // Work on the negative value so Long.MIN_VALUE does not overflow
+        long negative = minor > 0 ? -minor : minor;
+        long fraction = -(negative % 100);
+        out.append(-(negative / 100)).append('.');
+        if (fraction < 10) {
+            out.append('0');
+        }
+        return out.append(fraction);
+    }
+
+    /** "12.34", for text fields */
+    public String toPlainString() {
+        return appendPlain(new StringBuilder(16), minor).toString();
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minor, other.minor);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && minor == other.minor;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minor);
+    }
+
+    /** "$12.34" */
+    @Override
+    public String toString() {
+        return format(minor);
+    }
+}
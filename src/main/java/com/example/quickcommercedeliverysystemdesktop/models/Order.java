@@ -21,8 +21,11 @@ public class Order {
     // Delivery details
     private String deliveryLocation;
     private String deliveryTimeRange;   // Combined from time_from and time_to
-    private double deliveryFee;
+    private TimeWindow timeWindow;      // From window_start/window_end; parsed from the text if unset
+    private Money deliveryFee;
     private String notesForDelivery;
+    private Double latitude;            // null until the location is resolved
+    private Double longitude;
 
     // Customer info
     private String customerName;
@@ -53,7 +56,7 @@ public class Order {
 
     // Constructor for creating new order
     public Order(int createdByUserId, String productName, String description,
-                 String deliveryLocation, String deliveryTimeRange, double deliveryFee,
+                 String deliveryLocation, String deliveryTimeRange, Money deliveryFee,
                  String notesForDelivery, String customerName, String customerPhone) {
         this.createdByUserId = createdByUserId;
         this.productName = productName;
@@ -71,7 +74,7 @@ public class Order {
     // Full constructor for loading from DB
     public Order(int orderId, int createdByUserId, Integer acceptedByUserId,
                  String productName, String description, String productPhoto,
-                 String deliveryLocation, String deliveryTimeRange, double deliveryFee,
+                 String deliveryLocation, String deliveryTimeRange, Money deliveryFee,
                  String notesForDelivery, String customerName, String customerPhone,
                  OrderStatus status, LocalDateTime orderDate, LocalDateTime acceptedAt,
                  LocalDateTime pickedUpAt, LocalDateTime deliveryDate, Integer ratingId) {
@@ -118,10 +121,21 @@ public class Order {
     public void setDeliveryLocation(String deliveryLocation) { this.deliveryLocation = deliveryLocation; }
 
     public String getDeliveryTimeRange() { return deliveryTimeRange; }
-    public void setDeliveryTimeRange(String deliveryTimeRange) { this.deliveryTimeRange = deliveryTimeRange; }
+    public void setDeliveryTimeRange(String deliveryTimeRange) {
+        this.deliveryTimeRange = deliveryTimeRange;
+        this.timeWindow = null;
+    }
+
+    public void setTimeWindow(TimeWindow timeWindow) { this.timeWindow = timeWindow; }
+
+    public Money getDeliveryFee() { return deliveryFee; }
+    public void setDeliveryFee(Money deliveryFee) { this.deliveryFee = deliveryFee; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
 
-    public double getDeliveryFee() { return deliveryFee; }
-    public void setDeliveryFee(double deliveryFee) { this.deliveryFee = deliveryFee; }
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
 
     public String getNotesForDelivery() { return notesForDelivery; }
     public void setNotesForDelivery(String notesForDelivery) { this.notesForDelivery = notesForDelivery; }
@@ -151,6 +165,17 @@ public class Order {
     public void setRatingId(Integer ratingId) { this.ratingId = ratingId; }
 
     // Helper methods
+    public GeoPoint getLocationPoint() {
+        return latitude != null && longitude != null ? new GeoPoint(latitude, longitude) : null;
+    }
+
+    public TimeWindow getTimeWindow() {
+        if (timeWindow == null) {
+            timeWindow = TimeWindow.parse(deliveryTimeRange);
+        }
+        return timeWindow;
+    }
+
     public boolean isAccepted() {
         return acceptedByUserId != null;
     }
@@ -169,7 +194,7 @@ public class Order {
     }
 
     public String getFormattedDeliveryFee() {
-        return String.format("$%.2f", deliveryFee);
+        return Money.format(deliveryFee.getMinor());
     }
 
     public String getStatusStyleClass() {
@@ -0,0 +1,93 @@
+package com.example.quickcommercedeliverysystemdesktop.models;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * A delivery window as minutes after midnight, parsed from the "h:mm AM - h:mm PM"
+ * text the order forms produce. A bound is -1 when it is missing or unreadable.
+ */
+public class TimeWindow {
+
+    public static final int NONE = -1;
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("h:mm a", Locale.US);
+    /** Older and hand-entered rows sometimes hold 24-hour "14:30" */
+    private static final DateTimeFormatter FORMAT_24H = DateTimeFormatter.ofPattern("H:mm", Locale.US);
+
+    private final int startMinute;
+    private final int endMinute;
+
+    public TimeWindow(int startMinute, int endMinute) {
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
+    }
+
+    /**
+     * Parse a combined range such as "2:00 PM - 4:30 PM"
+     */
+    public static TimeWindow parse(String range) {
+        if (range == null) {
+            return new TimeWindow(NONE, NONE);
+        }
+        String[] parts = range.split(" - ");
+        return new TimeWindow(
+                parseMinuteOfDay(parts.length > 0 ? parts[0] : null),
+                parseMinuteOfDay(parts.length > 1 ? parts[1] : null)
+        );
+    }
+
+    /**
+     * Parse a single bound such as "2:30 PM" into minutes after midnight, or NONE
+     */
+    public static int parseMinuteOfDay(String text) {
+        if (text == null || text.isBlank()) {
+            return NONE;
+        }
+        String normalized = text.trim().toUpperCase(Locale.ROOT);
+        for (DateTimeFormatter format : new DateTimeFormatter[] {FORMAT, FORMAT_24H}) {
+            try {
+                LocalTime time = LocalTime.parse(normalized, format);
+                return time.getHour() * 60 + time.getMinute();
+            } catch (DateTimeParseException e) {
+                // Try the next format
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Format minutes after midnight the way the order forms do, e.g. "2:30 PM"
+     */
+    public static String formatMinuteOfDay(int minute) {
+        if (minute < 0) {
+            return "";
+        }
+        int normalized = minute % MINUTES_PER_DAY;
+        return LocalTime.of(normalized / 60, normalized % 60).format(FORMAT);
+    }
+
+    public int getStartMinute() { return startMinute; }
+    public int getEndMinute() { return endMinute; }
+
+    public boolean hasStart() { return startMinute >= 0; }
+    public boolean hasEnd() { return endMinute >= 0; }
+
+    /**
+     * End of the window on the start's day; windows that run past midnight end after 1440
+     */
+    public int getEffectiveEndMinute() {
+        if (endMinute < 0) {
+            return NONE;
+        }
+        return startMinute >= 0 && endMinute < startMinute ? endMinute + MINUTES_PER_DAY : endMinute;
+    }
+
+    @Override
+    public String toString() {
+        return formatMinuteOfDay(startMinute) + " - " + formatMinuteOfDay(endMinute);
+    }
+}
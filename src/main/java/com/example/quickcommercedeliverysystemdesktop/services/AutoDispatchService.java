@@ -0,0 +1,163 @@
+package com.example.quickcommercedeliverysystemdesktop.services;
+
+import com.example.quickcommercedeliverysystemdesktop.database.DispatchDAO;
+import com.example.quickcommercedeliverysystemdesktop.database.DispatchDAO.AvailablePartner;
+import com.example.quickcommercedeliverysystemdesktop.database.DispatchDAO.PendingJob;
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically assigns pending orders to partners who opted in to auto-dispatch.
+ *
+ * Each round snapshots the open market, solves it with {@link DispatchSolver}
+ * and commits every assignment in one transaction. Partners can still accept
+ * orders by hand; an order taken in between simply fails its guard.
+ *
+ * System properties:
+ * dispatch.enabled (default true), dispatch.intervalSeconds (default 30),
+ * dispatch.refine (default true), dispatch.refineBudgetMs (default 200),
+ * dispatch.maxOrders (default 1000) and dispatch.maxActive (default 3).
+ */
+public final class AutoDispatchService {
+
+    private static final Logger log = LogManager.getLogger(AutoDispatchService.class);
+
+    private static final long INTERVAL_SECONDS = Long.getLong("dispatch.intervalSeconds", 30);
+    private static final boolean REFINE =
+            Boolean.parseBoolean(System.getProperty("dispatch.refine", "true"));
+    private static final long REFINE_BUDGET_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("dispatch.refineBudgetMs", 200));
+    private static final int MAX_ORDERS = Integer.getInteger("dispatch.maxOrders", 1000);
+    /** Partners with this many open deliveries are left out of the round */
+    private static final int MAX_ACTIVE = Integer.getInteger("dispatch.maxActive", 3);
+
+    private static final DispatchSolver solver = new DispatchSolver();
+
+    private static ScheduledFuture<?> task;
+    private static volatile RoundResult lastRound;
+
+    private AutoDispatchService() {
+    }
+
+    /**
+     * Start the periodic rounds unless disabled or already running
+     */
+    public static synchronized void start() {
+        if (task != null || !Boolean.parseBoolean(System.getProperty("dispatch.enabled", "true"))) {
+            return;
+        }
+        task = BackgroundScheduler.scheduleWithFixedDelay("auto-dispatch", AutoDispatchService::runOnce,
+                INTERVAL_SECONDS, INTERVAL_SECONDS, TimeUnit.SECONDS);
+        log.info("Auto-dispatch started, every {} s", INTERVAL_SECONDS);
+    }
+
+    public static synchronized void stop() {
+        if (task == null) {
+            return;
+        }
+        task.cancel(false);
+        task = null;
+        log.info("Auto-dispatch stopped");
+    }
+
+    public static synchronized boolean isRunning() {
+        return task != null;
+    }
+
+    /**
+     * Get the outcome of the most recent round, or null before the first one
+     */
+    public static RoundResult getLastRound() {
+        return lastRound;
+    }
+
+    /**
+     * Run one round now on the calling thread
+     */
+    public static synchronized RoundResult runOnce() {
+        long start = System.nanoTime();
+        DispatchDAO.Snapshot snapshot = DispatchDAO.loadSnapshot(MAX_ORDERS, MAX_ACTIVE);
+        List<PendingJob> jobs = snapshot.getJobs();
+        List<AvailablePartner> partners = snapshot.getPartners();
+
+        if (jobs.isEmpty() || partners.isEmpty()) {
+            lastRound = new RoundResult(jobs.size(), partners.size(), 0, 0, 0, false, 0, System.nanoTime() - start);
+            return lastRound;
+        }
+
+        LocalTime now = LocalTime.now();
+        DispatchSolver.Problem problem = new DispatchSolver.Problem(now.getHour() * 60 + now.getMinute());
+        for (PendingJob job : jobs) {
+            problem.addJob(job.getOrderId(), job.getCustomerId(), job.getLatitude(), job.getLongitude(),
+                    job.getFee(), job.getWindowStart(), job.getWindowEnd());
+        }
+        for (AvailablePartner partner : partners) {
+            problem.addCourier(partner.getPartnerId(), partner.getLatitude(), partner.getLongitude());
+        }
+
+        DispatchSolver.Solution solution = solver.solve(problem, REFINE, REFINE_BUDGET_NANOS);
+
+        Map<Integer, Integer> partnerByOrder = new LinkedHashMap<>();
+        for (int i = 0; i < solution.size(); i++) {
+            partnerByOrder.put(solution.getOrderId(i), solution.getPartnerId(i));
+        }
+        List<Integer> committed = DispatchDAO.commitAssignments(partnerByOrder, MAX_ACTIVE);
+
+        lastRound = new RoundResult(jobs.size(), partners.size(), solution.size(), committed.size(),
+                solution.getTotalScore(), solution.isRefined(), solution.getSolveNanos(), System.nanoTime() - start);
+        if (solution.size() > 0) {
+            log.info("Auto-dispatch: {}", lastRound);
+        }
+        return lastRound;
+    }
+
+    /**
+     * Inner class for the outcome of one round
+     */
+    public static class RoundResult {
+        private final int pendingOrders;
+        private final int availablePartners;
+        private final int proposed;
+        private final int committed;
+        private final double totalScore;
+        private final boolean refined;
+        private final long solveNanos;
+        private final long roundNanos;
+
+        public RoundResult(int pendingOrders, int availablePartners, int proposed, int committed,
+                           double totalScore, boolean refined, long solveNanos, long roundNanos) {
+            this.pendingOrders = pendingOrders;
+            this.availablePartners = availablePartners;
+            this.proposed = proposed;
+            this.committed = committed;
+            this.totalScore = totalScore;
+            this.refined = refined;
+            this.solveNanos = solveNanos;
+            this.roundNanos = roundNanos;
+        }
+
+        public int getPendingOrders() { return pendingOrders; }
+        public int getAvailablePartners() { return availablePartners; }
+        public int getProposed() { return proposed; }
+        public int getCommitted() { return committed; }
+        public double getTotalScore() { return totalScore; }
+        public boolean isRefined() { return refined; }
+        public long getSolveNanos() { return solveNanos; }
+        public long getRoundNanos() { return roundNanos; }
+
+        @Override
+        public String toString() {
+            return String.format("%d orders × %d partners → %d proposed, %d committed (score %.1f%s, solve %d ms, round %d ms)",
+                    pendingOrders, availablePartners, proposed, committed, totalScore,
+                    refined ? ", auction" : ", greedy",
+                    solveNanos / 1_000_000, roundNanos / 1_000_000);
+        }
+    }
+}
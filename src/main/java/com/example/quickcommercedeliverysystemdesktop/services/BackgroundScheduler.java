@@ -0,0 +1,86 @@
+package com.example.quickcommercedeliverysystemdesktop.services;
+
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.metrics.MetricsRegistry;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One small pool of daemon threads for the app's periodic background jobs
+ * (auto-dispatch, archiving, housekeeping), instead of a thread per service.
+ *
+ * Jobs are wrapped so an exception is logged and the job keeps its schedule.
+ * Size the pool with -Dbackground.threads (default 2).
+ */
+public final class BackgroundScheduler {
+
+    private static final Logger log = LogManager.getLogger(BackgroundScheduler.class);
+
+    private static final int THREADS = Integer.getInteger("background.threads", 2);
+
+    private static ScheduledExecutorService executor;
+
+    private BackgroundScheduler() {
+    }
+
+    /**
+     * Run {@code job} repeatedly, {@code period} after the previous run finished
+     */
+    public static synchronized ScheduledFuture<?> scheduleWithFixedDelay(String name, Runnable job,
+                                                                        long initialDelay, long period, TimeUnit unit) {
+        return executor().scheduleWithFixedDelay(wrap(name, job), initialDelay, period, unit);
+    }
+
+    /**
+     * Run {@code job} once after the delay
+     */
+    public static synchronized ScheduledFuture<?> schedule(String name, Runnable job, long delay, TimeUnit unit) {
+        return executor().schedule(wrap(name, job), delay, unit);
+    }
+
+    /**
+     * Stop every job; running ones are interrupted. The scheduler restarts on the next schedule call.
+     */
+    public static synchronized void shutdown() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        executor = null;
+    }
+
+    private static ScheduledExecutorService executor() {
+        if (executor == null) {
+            AtomicInteger count = new AtomicInteger();
+            ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(THREADS, r -> {
+                Thread thread = new Thread(() -> {
+                    MetricsRegistry.markBackgroundThread();
+                    r.run();
+                }, "background-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            });
+            // Cancelled jobs should not linger in the queue until their delay passes
+            pool.setRemoveOnCancelPolicy(true);
+            executor = pool;
+        }
+        return executor;
+    }
+
+    private static Runnable wrap(String name, Runnable job) {
+        return () -> {
+            try {
+                job.run();
+            } catch (RuntimeException e) {
+                // A scheduled job that throws is never run again; keep it alive instead
+                log.error("Background job '" + name + "' failed", e);
+            }
+        };
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.quickcommercedeliverysystemdesktop.services;
+
+import com.example.quickcommercedeliverysystemdesktop.database.BackupDAO;
+import com.example.quickcommercedeliverysystemdesktop.database.Database;
+import com.example.quickcommercedeliverysystemdesktop.database.MaintenanceDAO;
+import com.example.quickcommercedeliverysystemdesktop.database.MaintenanceDAO.PageStats;
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Takes timestamped snapshots of the live database with SQLite's online
+ * backup API while the app keeps running.
+ *
+ * Pages are copied a few at a time with a short pause between steps, so the
+ * read lock is only held for one step and order writes go through in the
+ * gaps. A write from another connection makes SQLite start the copy over;
+ * after {@code backup.maxRestarts} restarts the pauses are dropped so the copy
+ * can finish. Each snapshot is written to a .part file, checked with
+ * quick_check and only then renamed into place; the oldest snapshots beyond
+ * {@code backup.keep} are deleted. Runs are logged to MaintenanceLog.
+ *
+ * System properties:
+ * backup.enabled (default true), backup.intervalMinutes (default 60),
+ * backup.keep (default 24), backup.pagesPerStep (default 64),
+ * backup.stepPauseMillis (default 10), backup.maxRestarts (default 10) and
+ * backup.directory (default database/backups).
+ */
+public final class BackupService {
+
+    private static final Logger log = LogManager.getLogger(BackupService.class);
+
+    private static final long INTERVAL_MINUTES = Long.getLong("backup.intervalMinutes", 60);
+    private static final int KEEP = Integer.getInteger("backup.keep", 24);
+    private static final int PAGES_PER_STEP = Integer.getInteger("backup.pagesPerStep", 64);
+    private static final long STEP_PAUSE_MS = Long.getLong("backup.stepPauseMillis", 10);
+    private static final int MAX_RESTARTS = Integer.getInteger("backup.maxRestarts", 10);
+    private static final long INITIAL_DELAY_MINUTES = 15;
+
+    private static final String TASK = "BACKUP";
+    private static final String SUFFIX = ".db";
+    private static final String PART_SUFFIX = ".part";
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static ScheduledFuture<?> task;
+    private static volatile Report lastReport;
+
+    private BackupService() {
+    }
+
+    public static synchronized void start() {
+        if (task != null || !Boolean.parseBoolean(System.getProperty("backup.enabled", "true"))) {
+            return;
+        }
+        task = BackgroundScheduler.scheduleWithFixedDelay("database-backup", BackupService::runOnce,
+                INITIAL_DELAY_MINUTES, INTERVAL_MINUTES, TimeUnit.MINUTES);
+        log.info("Backup service started: every {} min, keeping {} snapshots", INTERVAL_MINUTES, KEEP);
+    }
+
+    public static synchronized void stop() {
+        if (task == null) {
+            return;
+        }
+        task.cancel(false);
+        task = null;
+    }
+
+    /**
+     * Get the report of the most recent run, or null before the first one
+     */
+    public static Report getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Directory holding the snapshots, next to the main database unless overridden
+     */
+    public static File getBackupDirectory() {
+        String configured = System.getProperty("backup.directory");
+        if (configured != null && !configured.isBlank()) {
+            return new File(configured);
+        }
+        File dbFile = new File(Database.getDatabasePath()).getAbsoluteFile();
+        return new File(dbFile.getParentFile(), "backups");
+    }
+
+    /**
+     * Completed snapshots, newest first
+     */
+    public static List<File> listSnapshots() {
+        String prefix = snapshotPrefix();
+        File[] files = getBackupDirectory().listFiles(
+                (dir, name) -> name.startsWith(prefix) && name.endsWith(SUFFIX));
+        if (files == null) {
+            return new ArrayList<>();
+        }
+        // The timestamp in the name sorts chronologically
+        List<File> snapshots = new ArrayList<>(Arrays.asList(files));
+        snapshots.sort(Comparator.comparing(File::getName).reversed());
+        return snapshots;
+    }
+
+    /**
+     * Take a snapshot now on the calling thread and rotate old ones
+     */
+    public static synchronized Report runOnce() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        PageStats source = MaintenanceDAO.getPageStats();
+
+        File directory = getBackupDirectory();
+        directory.mkdirs();
+        File snapshot = new File(directory, snapshotPrefix() + now.format(STAMP) + SUFFIX);
+        File part = new File(directory, snapshot.getName() + PART_SUFFIX);
+        part.delete();
+
+        Pacer pacer = new Pacer();
+        String outcome;
+        String detail;
+        if (!BackupDAO.backupTo(part, PAGES_PER_STEP, pacer)) {
+            outcome = "FAILED";
+            detail = "Backup API did not complete";
+        } else {
+            List<String> check = BackupDAO.checkSnapshot(part, 10);
+            if (check == null || !(check.size() == 1 && "ok".equalsIgnoreCase(check.get(0)))) {
+                outcome = "FAILED";
+                detail = "Snapshot failed quick_check: " + check;
+            } else {
+                outcome = moveIntoPlace(part, snapshot);
+                detail = snapshot.getName();
+            }
+        }
+        boolean ok = "OK".equals(outcome);
+        if (!ok) {
+            part.delete();
+        }
+        int removed = ok ? rotate() : 0;
+
+        // Only a snapshot that was moved into place has a size worth reporting
+        Report report = new Report(now, ok ? snapshot : null, ok ? snapshot.length() : 0,
+                pacer.steps, pacer.restarts, removed, System.nanoTime() - start);
+        lastReport = report;
+        MaintenanceDAO.recordRun(TASK, now, report.getElapsedNanos() / 1_000_000, source, null, outcome,
+                ok ? report.toString() : detail);
+        if (ok) {
+            log.info("Backup: {}", report);
+        } else {
+            log.warn("Backup failed: {}; {}", detail, report);
+        }
+        return report;
+    }
+
+    private static String moveIntoPlace(File part, File snapshot) {
+        try {
+            Files.move(part.toPath(), snapshot.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            return "OK";
+        } catch (IOException e) {
+            log.error("Could not rename " + part.getName(), e);
+            return "FAILED";
+        }
+    }
+
+    /**
+     * Delete the oldest snapshots beyond the retention count; returns how many went
+     */
+    private static int rotate() {
+        List<File> snapshots = listSnapshots();
+        int removed = 0;
+        for (int i = Math.max(1, KEEP); i < snapshots.size(); i++) {
+            if (snapshots.get(i).delete()) {
+                removed++;
+            } else {
+                log.warn("Could not delete old snapshot {}", snapshots.get(i).getName());
+            }
+        }
+        return removed;
+    }
+
+    private static String snapshotPrefix() {
+        String name = new File(Database.getDatabasePath()).getName();
+        int dot = name.lastIndexOf('.');
+        return (dot > 0 ? name.substring(0, dot) : name) + "-";
+    }
+
+    /**
+     * Sleeps between backup steps and counts restarts caused by concurrent writes
+     */
+    private static class Pacer implements BackupDAO.StepListener {
+        private int steps;
+        private int restarts;
+        private int lastRemaining = Integer.MAX_VALUE;
+
+        @Override
+        public void afterStep(int remaining, int pageCount) {
+            steps++;
+            if (remaining > lastRemaining) {
+                restarts++;
+            }
+            lastRemaining = remaining;
+            if (remaining == 0 || restarts >= MAX_RESTARTS || STEP_PAUSE_MS <= 0) {
+                return;
+            }
+            try {
+                Thread.sleep(STEP_PAUSE_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Inner class for one backup run's outcome
+     */
+    public static class Report {
+        private final LocalDateTime startedAt;
+        private final File snapshot;
+        private final long bytes;
+        private final int steps;
+        private final int restarts;
+        private final int snapshotsRemoved;
+        private final long elapsedNanos;
+
+        public Report(LocalDateTime startedAt, File snapshot, long bytes, int steps, int restarts,
+                      int snapshotsRemoved, long elapsedNanos) {
+            this.startedAt = startedAt;
+            this.snapshot = snapshot;
+            this.bytes = bytes;
+            this.steps = steps;
+            this.restarts = restarts;
+            this.snapshotsRemoved = snapshotsRemoved;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public LocalDateTime getStartedAt() { return startedAt; }
+        /** The new snapshot, or null if the run failed */
+        public File getSnapshot() { return snapshot; }
+        public boolean isSuccess() { return snapshot != null; }
+        /** Size of the new snapshot, or 0 if the run failed */
+        public long getBytes() { return bytes; }
+        public int getSteps() { return steps; }
+        /** Times the copy started over because another connection wrote */
+        public int getRestarts() { return restarts; }
+        public int getSnapshotsRemoved() { return snapshotsRemoved; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        @Override
+        public String toString() {
+            if (snapshot == null) {
+                return String.format("no snapshot after %d steps (%d restarts), %d ms",
+                        steps, restarts, elapsedNanos / 1_000_000);
+            }
+            return String.format("%s, %d KB in %d steps (%d restarts), %d old snapshots removed, %d ms",
+                    snapshot.getName(), bytes / 1024, steps, restarts, snapshotsRemoved, elapsedNanos / 1_000_000);
+        }
+    }
+}
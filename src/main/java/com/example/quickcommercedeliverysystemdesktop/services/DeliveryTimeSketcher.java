@@ -0,0 +1,92 @@
+package com.example.quickcommercedeliverysystemdesktop.services;
+
+import com.example.quickcommercedeliverysystemdesktop.database.DeliveryTimeDAO;
+import com.example.quickcommercedeliverysystemdesktop.events.OrderEvent;
+import com.example.quickcommercedeliverysystemdesktop.events.OrderEventBus;
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Folds completed deliveries into the per-partner delivery-time sketches.
+ *
+ * Runs on a fixed delay and, a few seconds after a delivery is completed, once
+ * more so the percentiles catch up without waiting for the next period. A
+ * burst of deliveries shares one early run. The first run after an upgrade
+ * folds the whole delivery history in batches.
+ *
+ * System properties: sketch.enabled (default true) and
+ * sketch.intervalSeconds (default 30).
+ */
+public final class DeliveryTimeSketcher {
+
+    private static final Logger log = LogManager.getLogger(DeliveryTimeSketcher.class);
+
+    private static final long INTERVAL_SECONDS = Long.getLong("sketch.intervalSeconds", 30);
+    private static final long INITIAL_DELAY_SECONDS = 5;
+    private static final long DEBOUNCE_SECONDS = 2;
+    private static final int BATCH_SIZE = 1_000;
+
+    private static final Consumer<OrderEvent> listener = DeliveryTimeSketcher::onOrderEvent;
+    private static final AtomicBoolean earlyRunPending = new AtomicBoolean();
+
+    private static ScheduledFuture<?> task;
+
+    private DeliveryTimeSketcher() {
+    }
+
+    public static synchronized void start() {
+        if (task != null || !Boolean.parseBoolean(System.getProperty("sketch.enabled", "true"))) {
+            return;
+        }
+        task = BackgroundScheduler.scheduleWithFixedDelay("delivery-time-sketcher", DeliveryTimeSketcher::runOnce,
+                INITIAL_DELAY_SECONDS, INTERVAL_SECONDS, TimeUnit.SECONDS);
+        OrderEventBus.subscribe(listener);
+    }
+
+    public static synchronized void stop() {
+        if (task == null) {
+            return;
+        }
+        OrderEventBus.unsubscribe(listener);
+        task.cancel(false);
+        task = null;
+    }
+
+    /**
+     * Fold every completed delivery not yet sketched, on the calling thread.
+     * Returns the deliveries folded, or -1 on error.
+     */
+    public static int runOnce() {
+        long start = System.nanoTime();
+        int total = 0;
+        int folded;
+        do {
+            folded = DeliveryTimeDAO.foldCompleted(BATCH_SIZE);
+            if (folded < 0) {
+                return -1;
+            }
+            total += folded;
+        } while (folded == BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("Delivery-time sketches folded {} deliveries in {} ms", total,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+        return total;
+    }
+
+    private static void onOrderEvent(OrderEvent event) {
+        if (event.getType() != OrderEvent.Type.DELIVERED || !earlyRunPending.compareAndSet(false, true)) {
+            return;
+        }
+        BackgroundScheduler.schedule("delivery-time-sketcher-early", () -> {
+            earlyRunPending.set(false);
+            runOnce();
+        }, DEBOUNCE_SECONDS, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,393 @@
+package com.example.quickcommercedeliverysystemdesktop.services;
+
+import com.example.quickcommercedeliverysystemdesktop.models.GeoPoint;
+
+import java.util.Arrays;
+
+/**
+ * Batch assignment of pending orders (jobs) to partners (couriers), at most
+ * one new order per partner per round.
+ *
+ * Every feasible pair gets a score that rewards the fee and penalises travel
+ * distance and expected lateness against the order's time window. The greedy
+ * pass takes pairs best-first; the optional refinement runs an auction
+ * on the same scores and is kept only if it beats the greedy total
+ * within the time budget.
+ *
+ * Plain arrays are used throughout so a 1000 × 1000 round stays cheap; the
+ * solver holds no database state and is not thread-safe.
+ */
+public class DispatchSolver {
+
+    /** Marker for pairs that must never be assigned */
+    private static final float INFEASIBLE = Float.NEGATIVE_INFINITY;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final Weights weights;
+
+    public DispatchSolver(Weights weights) {
+        this.weights = weights;
+    }
+
+    public DispatchSolver() {
+        this(new Weights());
+    }
+
+    /**
+     * Solve one round. {@code refine} enables the auction pass, which gets at
+     * most {@code refineBudgetNanos} before the greedy answer is used.
+     */
+    public Solution solve(Problem problem, boolean refine, long refineBudgetNanos) {
+        long start = System.nanoTime();
+        int n = problem.jobCount;
+        int m = problem.courierCount;
+
+        float[] scores = scoreMatrix(problem);
+        int[] greedy = greedy(scores, n, m);
+        double greedyTotal = total(scores, greedy, m);
+
+        int[] best = greedy;
+        double bestTotal = greedyTotal;
+        boolean refined = false;
+
+        if (refine && n > 0 && m > 0) {
+            int[] auction = auction(scores, n, m, start + refineBudgetNanos);
+            if (auction != null) {
+                double auctionTotal = total(scores, auction, m);
+                if (auctionTotal > greedyTotal + 1e-9) {
+                    best = auction;
+                    bestTotal = auctionTotal;
+                    refined = true;
+                }
+            }
+        }
+
+        return new Solution(problem, best, scores, m, greedyTotal, bestTotal, refined, System.nanoTime() - start);
+    }
+
+    // ===== SCORING =====
+
+    float[] scoreMatrix(Problem p) {
+        int n = p.jobCount;
+        int m = p.courierCount;
+        float[] scores = new float[n * m];
+
+        for (int i = 0; i < n; i++) {
+            double jobLat = p.jobLat[i];
+            double jobLon = p.jobLon[i];
+            double feeTerm = p.jobFee[i] * weights.feeWeight;
+            int row = i * m;
+
+            for (int j = 0; j < m; j++) {
+                if (p.courierId[j] == p.jobOwner[i]) {
+                    scores[row + j] = INFEASIBLE;
+                    continue;
+                }
+                double km = GeoPoint.distanceKm(p.courierLat[j], p.courierLon[j], jobLat, jobLon);
+                if (km > weights.maxDistanceKm) {
+                    scores[row + j] = INFEASIBLE;
+                    continue;
+                }
+                double arrival = p.nowMinute + km / weights.speedKmh * 60.0;
+                double late = lateness(arrival, p.windowStart[i], p.windowEnd[i]);
+                if (late > weights.maxLatenessMinutes) {
+                    scores[row + j] = INFEASIBLE;
+                    continue;
+                }
+                double score = feeTerm - km * weights.distanceWeight - late * weights.latenessWeight;
+                scores[row + j] = score > 0 ? (float) score : INFEASIBLE;
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Minutes past the end of the window at the given arrival time (0 when on time or unwindowed)
+     */
+    static double lateness(double arrivalMinute, int windowStart, int windowEnd) {
+        if (windowEnd < 0) {
+            return 0;
+        }
+        double end = windowEnd;
+        if (windowStart >= 0 && windowEnd < windowStart) {
+            end += MINUTES_PER_DAY; // window runs past midnight
+        }
+        return Math.max(0, arrivalMinute - end);
+    }
+
+    // ===== GREEDY =====
+
+    /**
+     * Best-first over all feasible pairs. Each pair is packed into a long as
+     * (order-preserving score bits << 32 | cell) so one primitive sort ranks them.
+     */
+    static int[] greedy(float[] scores, int n, int m) {
+        int[] assignment = new int[n];
+        Arrays.fill(assignment, -1);
+
+        int feasible = 0;
+        for (float s : scores) {
+            if (s != INFEASIBLE) {
+                feasible++;
+            }
+        }
+        long[] keys = new long[feasible];
+        int k = 0;
+        for (int cell = 0; cell < scores.length; cell++) {
+            float s = scores[cell];
+            if (s != INFEASIBLE) {
+                keys[k++] = ((long) sortableBits(s) << 32) | cell;
+            }
+        }
+        Arrays.sort(keys);
+
+        boolean[] courierTaken = new boolean[m];
+        int assigned = 0;
+        int limit = Math.min(n, m);
+        for (int idx = keys.length - 1; idx >= 0 && assigned < limit; idx--) {
+            int cell = (int) keys[idx];
+            int job = cell / m;
+            int courier = cell - job * m;
+            if (assignment[job] < 0 && !courierTaken[courier]) {
+                assignment[job] = courier;
+                courierTaken[courier] = true;
+                assigned++;
+            }
+        }
+        return assignment;
+    }
+
+    /** Map a float to an int whose signed order matches the float order */
+    private static int sortableBits(float f) {
+        int bits = Float.floatToIntBits(f);
+        return bits >= 0 ? bits : bits ^ 0x7fffffff;
+    }
+
+    // ===== AUCTION =====
+
+    /**
+     * Forward auction: jobs bid for couriers, and leaving a job unassigned is
+     * worth 0, so only positive-score pairs are ever bought. Prices start at
+     * zero and the run uses a single ε, which keeps the unbalanced (jobs ≠
+     * couriers) case correct: the total is within jobs × ε of the optimum.
+     * Returns null if the deadline passes first.
+     */
+    int[] auction(float[] scores, int n, int m, long deadlineNanos) {
+        double eps = weights.auctionEpsilon;
+        double[] price = new double[m];
+        int[] owner = new int[m];
+        int[] assignment = new int[n];
+        Arrays.fill(owner, -1);
+        Arrays.fill(assignment, -1);
+
+        // Circular queue of unassigned jobs; it starts full
+        int[] queue = new int[n];
+        for (int i = 0; i < n; i++) {
+            queue[i] = i;
+        }
+        int head = 0;
+        int tail = 0;
+        int pending = n;
+
+        int bids = 0;
+        while (pending > 0) {
+            if ((++bids & 0xff) == 0 && System.nanoTime() > deadlineNanos) {
+                return null;
+            }
+            int job = queue[head];
+            head = (head + 1) % n;
+            pending--;
+
+            int row = job * m;
+            int bestCourier = -1;
+            double bestValue = 0;   // value of staying unassigned
+            double secondValue = 0;
+            for (int j = 0; j < m; j++) {
+                float s = scores[row + j];
+                if (s == INFEASIBLE) {
+                    continue;
+                }
+                double value = s - price[j];
+                if (value > bestValue) {
+                    secondValue = bestValue;
+                    bestValue = value;
+                    bestCourier = j;
+                } else if (value > secondValue) {
+                    secondValue = value;
+                }
+            }
+            if (bestCourier < 0) {
+                continue; // nothing is worth more than staying unassigned
+            }
+
+            price[bestCourier] += bestValue - secondValue + eps;
+            int previous = owner[bestCourier];
+            owner[bestCourier] = job;
+            assignment[job] = bestCourier;
+            if (previous >= 0) {
+                assignment[previous] = -1;
+                queue[tail] = previous;
+                tail = (tail + 1) % n;
+                pending++;
+            }
+        }
+        return assignment;
+    }
+
+    private static double total(float[] scores, int[] assignment, int m) {
+        double sum = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] >= 0) {
+                sum += scores[i * m + assignment[i]];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Scoring weights and limits
+     */
+    public static class Weights {
+        /** Score per unit of delivery fee */
+        private double feeWeight = 1.0;
+        /** Score lost per km between partner and drop-off */
+        private double distanceWeight = 2.0;
+        /** Score lost per minute of expected lateness */
+        private double latenessWeight = 0.5;
+        private double maxDistanceKm = 15.0;
+        private double maxLatenessMinutes = 60.0;
+        private double speedKmh = 20.0;
+        /** Minimum auction bid increment; smaller is closer to optimal but slower */
+        private double auctionEpsilon = 0.01;
+
+        public Weights feeWeight(double value) { this.feeWeight = value; return this; }
+        public Weights distanceWeight(double value) { this.distanceWeight = value; return this; }
+        public Weights latenessWeight(double value) { this.latenessWeight = value; return this; }
+        public Weights maxDistanceKm(double value) { this.maxDistanceKm = value; return this; }
+        public Weights maxLatenessMinutes(double value) { this.maxLatenessMinutes = value; return this; }
+        public Weights speedKmh(double value) { this.speedKmh = value; return this; }
+        public Weights auctionEpsilon(double value) { this.auctionEpsilon = value; return this; }
+
+        public double getSpeedKmh() { return speedKmh; }
+    }
+
+    /**
+     * Input of one round; jobs and couriers are added in any order
+     */
+    public static class Problem {
+        private final int nowMinute;
+        private int jobCount;
+        private int courierCount;
+
+        private int[] jobId = new int[16];
+        private int[] jobOwner = new int[16];
+        private double[] jobLat = new double[16];
+        private double[] jobLon = new double[16];
+        private double[] jobFee = new double[16];
+        private int[] windowStart = new int[16];
+        private int[] windowEnd = new int[16];
+
+        private int[] courierId = new int[16];
+        private double[] courierLat = new double[16];
+        private double[] courierLon = new double[16];
+
+        /**
+         * @param nowMinute minutes after midnight at which the round is solved
+         */
+        public Problem(int nowMinute) {
+            this.nowMinute = nowMinute;
+        }
+
+        /**
+         * Add a pending order; window bounds are minutes after midnight, or -1
+         */
+        public Problem addJob(int orderId, int customerId, double latitude, double longitude,
+                              double fee, int windowStartMinute, int windowEndMinute) {
+            if (jobCount == jobId.length) {
+                int size = jobCount * 2;
+                jobId = Arrays.copyOf(jobId, size);
+                jobOwner = Arrays.copyOf(jobOwner, size);
+                jobLat = Arrays.copyOf(jobLat, size);
+                jobLon = Arrays.copyOf(jobLon, size);
+                jobFee = Arrays.copyOf(jobFee, size);
+                windowStart = Arrays.copyOf(windowStart, size);
+                windowEnd = Arrays.copyOf(windowEnd, size);
+            }
+            jobId[jobCount] = orderId;
+            jobOwner[jobCount] = customerId;
+            jobLat[jobCount] = latitude;
+            jobLon[jobCount] = longitude;
+            jobFee[jobCount] = fee;
+            windowStart[jobCount] = windowStartMinute;
+            windowEnd[jobCount] = windowEndMinute;
+            jobCount++;
+            return this;
+        }
+
+        public Problem addCourier(int partnerId, double latitude, double longitude) {
+            if (courierCount == courierId.length) {
+                int size = courierCount * 2;
+                courierId = Arrays.copyOf(courierId, size);
+                courierLat = Arrays.copyOf(courierLat, size);
+                courierLon = Arrays.copyOf(courierLon, size);
+            }
+            courierId[courierCount] = partnerId;
+            courierLat[courierCount] = latitude;
+            courierLon[courierCount] = longitude;
+            courierCount++;
+            return this;
+        }
+
+        public int getJobCount() { return jobCount; }
+        public int getCourierCount() { return courierCount; }
+    }
+
+    /**
+     * Result of one round
+     */
+    public static class Solution {
+        private final int[] orderIds;
+        private final int[] partnerIds;
+        private final double[] pairScores;
+        private final double greedyScore;
+        private final double totalScore;
+        private final boolean refined;
+        private final long solveNanos;
+
+        Solution(Problem problem, int[] assignment, float[] scores, int m,
+                 double greedyScore, double totalScore, boolean refined, long solveNanos) {
+            int count = 0;
+            for (int courier : assignment) {
+                if (courier >= 0) {
+                    count++;
+                }
+            }
+            this.orderIds = new int[count];
+            this.partnerIds = new int[count];
+            this.pairScores = new double[count];
+            int k = 0;
+            for (int i = 0; i < assignment.length; i++) {
+                if (assignment[i] >= 0) {
+                    orderIds[k] = problem.jobId[i];
+                    partnerIds[k] = problem.courierId[assignment[i]];
+                    pairScores[k] = scores[i * m + assignment[i]];
+                    k++;
+                }
+            }
+            this.greedyScore = greedyScore;
+            this.totalScore = totalScore;
+            this.refined = refined;
+            this.solveNanos = solveNanos;
+        }
+
+        public int size() { return orderIds.length; }
+        public int getOrderId(int index) { return orderIds[index]; }
+        public int getPartnerId(int index) { return partnerIds[index]; }
+        public double getScore(int index) { return pairScores[index]; }
+        public double getGreedyScore() { return greedyScore; }
+        public double getTotalScore() { return totalScore; }
+        /** True if the auction result replaced the greedy one */
+        public boolean isRefined() { return refined; }
+        public long getSolveNanos() { return solveNanos; }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.quickcommercedeliverysystemdesktop.services;
+
+import com.example.quickcommercedeliverysystemdesktop.models.GeoPoint;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pairwise distances between keyed points, rebuilt incrementally.
+ *
+ * {@link #update} takes the current node list and copies every distance it
+ * already knows (same key, same position) from the previous build, so a
+ * replan after one accept or one delivery only computes the new row and column.
+ */
+public class DistanceMatrix {
+
+    private long[] keys = new long[0];
+    private double[] latitudes = new double[0];
+    private double[] longitudes = new double[0];
+    private double[] km = new double[0];
+    private final Map<Long, Integer> indexByKey = new HashMap<>();
+
+    private long computed;
+    private long reused;
+
+    /**
+     * Make this matrix describe exactly the given nodes, in that order
+     */
+    public void update(long[] newKeys, double[] newLatitudes, double[] newLongitudes) {
+        int n = newKeys.length;
+        int[] oldIndex = new int[n];
+        for (int i = 0; i < n; i++) {
+            Integer previous = indexByKey.get(newKeys[i]);
+            boolean samePlace = previous != null
+                    && latitudes[previous] == newLatitudes[i]
+                    && longitudes[previous] == newLongitudes[i];
+            oldIndex[i] = samePlace ? previous : -1;
+        }
+
+        int oldSize = keys.length;
+        double[] next = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double d;
+                if (oldIndex[i] >= 0 && oldIndex[j] >= 0) {
+                    d = km[oldIndex[i] * oldSize + oldIndex[j]];
+                    reused++;
+                } else {
+                    d = GeoPoint.distanceKm(newLatitudes[i], newLongitudes[i], newLatitudes[j], newLongitudes[j]);
+                    computed++;
+                }
+                next[i * n + j] = d;
+                next[j * n + i] = d;
+            }
+        }
+
+        keys = newKeys.clone();
+        latitudes = newLatitudes.clone();
+        longitudes = newLongitudes.clone();
+        km = next;
+        indexByKey.clear();
+        for (int i = 0; i < n; i++) {
+            indexByKey.put(keys[i], i);
+        }
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Distance in kilometres between the nodes at positions i and j of the last update
+     */
+    public double get(int i, int j) {
+        return km[i * keys.length + j];
+    }
+
+    /** Pairs computed from scratch since this matrix was created */
+    public long getComputedCount() { return computed; }
+    /** Pairs copied from an earlier build */
+    public long getReusedCount() { return reused; }
+}
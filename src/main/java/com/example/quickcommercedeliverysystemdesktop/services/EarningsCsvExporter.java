@@ -0,0 +1,224 @@
+package com.example.quickcommercedeliverysystemdesktop.services;
+
+import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO;
+import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO.AdminEarningRecord;
+import com.example.quickcommercedeliverysystemdesktop.database.EarningsQuery;
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.models.Money;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Streams the admin earnings report to a CSV file.
+ *
+ * Rows come straight off DeliveryDAO.streamEarnings and are written through
+ * one reused line buffer into a buffered writer, so a full-history export
+ * runs in constant memory however many earnings there are. The report is
+ * written to a .part file and only renamed into place once complete; a
+ * cancelled or failed export leaves nothing behind.
+ *
+ * Meant to run off the FX thread; progress is reported every
+ * {@code PROGRESS_EVERY} rows and cancellation is checked on every row.
+ */
+public final class EarningsCsvExporter {
+
+    private static final Logger log = LogManager.getLogger(EarningsCsvExporter.class);
+
+    private static final int BUFFER_CHARS = 1 << 16;
+    private static final int PROGRESS_EVERY = 4096;
+    private static final String HEADER = "Earning ID,Order ID,Delivery Person,Customer,Product,Amount,Date\n";
+
+    /**
+     * Called with the rows written so far and the expected total (-1 if unknown)
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long written, long total);
+    }
+
+    private EarningsCsvExporter() {
+    }
+
+    /**
+     * Write every earning matching the query to {@code file}; its paging is ignored
+     */
+    public static Result export(File file, EarningsQuery query,
+                                ProgressListener progress, BooleanSupplier cancelled) throws IOException {
+        long start = System.nanoTime();
+        long total = DeliveryDAO.countEarnings(query);
+        progress.onProgress(0, total);
+
+        File part = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".part");
+        RowWriter rows;
+        long visited;
+
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(part), StandardCharsets.UTF_8), BUFFER_CHARS)) {
+
+            writer.write(HEADER);
+            rows = new RowWriter(writer, total, progress, cancelled);
+            visited = DeliveryDAO.streamEarnings(query, rows::write);
+            if (rows.error != null) {
+                throw rows.error;
+            }
+            if (visited < 0) {
+                throw new IOException("Could not read earnings from the database");
+            }
+
+            if (!rows.stopped) {
+                StringBuilder summary = new StringBuilder("\nTotal:,,,,,");
+                Money.appendPlain(summary, rows.totalCents);
+                summary.append(",\nTransactions:,,,,,").append(rows.written).append(",\n")
+                        .append("Export Date:,,,,,,").append(LocalDate.now()).append('\n');
+                writer.write(summary.toString());
+            }
+        } catch (IOException e) {
+            part.delete();
+            throw e;
+        }
+
+        if (rows.stopped) {
+            part.delete();
+            log.info("Earnings export to {} cancelled after {} rows", file.getName(), rows.written);
+            return new Result(rows.written, rows.totalCents, true, System.nanoTime() - start);
+        }
+
+        Files.move(part.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        progress.onProgress(rows.written, rows.written);
+        Result result = new Result(rows.written, rows.totalCents, false, System.nanoTime() - start);
+        log.info("Exported {} earnings to {} in {} ms", rows.written, file.getName(), result.getElapsedNanos() / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Formats each visited row into a reused buffer and writes it out
+     */
+    private static class RowWriter {
+        private final Writer writer;
+        private final long total;
+        private final ProgressListener progress;
+        private final BooleanSupplier cancelled;
+        private final StringBuilder line = new StringBuilder(256);
+        private long written;
+        private long totalCents;
+        private boolean stopped;
+        private IOException error;
+
+        private RowWriter(Writer writer, long total, ProgressListener progress, BooleanSupplier cancelled) {
+            this.writer = writer;
+            this.total = total;
+            this.progress = progress;
+            this.cancelled = cancelled;
+        }
+
+        private boolean write(AdminEarningRecord record) {
+            if (cancelled.getAsBoolean()) {
+                stopped = true;
+                return false;
+            }
+
+            long cents = record.getAmount().getMinor();
+            line.setLength(0);
+            line.append(record.getEarningId()).append(',')
+                    .append(record.getOrderId()).append(',');
+            appendQuoted(line, record.getDeliveryPersonName());
+            line.append(',');
+            appendQuoted(line, record.getCustomerName());
+            line.append(',');
+            appendQuoted(line, record.getProductName());
+            line.append(',');
+            Money.appendPlain(line, cents);
+            line.append(',');
+            appendDateTime(line, record.getEarnedAt());
+            line.append('\n');
+
+            try {
+                writer.append(line);
+            } catch (IOException e) {
+                // Surfaced by export() once the cursor is closed
+                error = e;
+                return false;
+            }
+
+            written++;
+            totalCents += cents;
+            if (written % PROGRESS_EVERY == 0) {
+                progress.onProgress(written, total);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Quote a text field, doubling any quotes inside it
+     */
+    private static void appendQuoted(StringBuilder out, String value) {
+        out.append('"');
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    out.append('"');
+                }
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    /**
+     * Same "yyyy-MM-dd HH:mm" text as AdminEarningRecord.getFormattedDateTime
+     */
+    private static void appendDateTime(StringBuilder out, LocalDateTime time) {
+        out.append(time.getYear()).append('-');
+        appendTwoDigits(out, time.getMonthValue());
+        out.append('-');
+        appendTwoDigits(out, time.getDayOfMonth());
+        out.append(' ');
+        appendTwoDigits(out, time.getHour());
+        out.append(':');
+        appendTwoDigits(out, time.getMinute());
+    }
+
+    private static void appendTwoDigits(StringBuilder out, int value) {
+        if (value < 10) {
+            out.append('0');
+        }
+        out.append(value);
+    }
+
+    /**
+     * Inner class for the outcome of one export
+     */
+    public static class Result {
+        private final long rows;
+        private final long totalCents;
+        private final boolean cancelled;
+        private final long elapsedNanos;
+
+        public Result(long rows, long totalCents, boolean cancelled, long elapsedNanos) {
+            this.rows = rows;
+            this.totalCents = totalCents;
+            this.cancelled = cancelled;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getRows() { return rows; }
+        public long getTotalCents() { return totalCents; }
+        public Money getTotal() { return Money.ofMinor(totalCents); }
+        public boolean isCancelled() { return cancelled; }
+        public long getElapsedNanos() { return elapsedNanos; }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.quickcommercedeliverysystemdesktop.services;
+
+import com.example.quickcommercedeliverysystemdesktop.database.MaintenanceDAO;
+import com.example.quickcommercedeliverysystemdesktop.database.MaintenanceDAO.PageStats;
+import com.example.quickcommercedeliverysystemdesktop.database.NotificationDAO;
+import com.example.quickcommercedeliverysystemdesktop.database.UserDAO;
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.metrics.MetricsRegistry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs SQLite housekeeping while the app is idle.
+ *
+ * Every minute it checks how long ago the last interactive DAO call started
+ * ({@link MetricsRegistry#nanosSinceLastCall()}, which ignores background
+ * jobs). Once that passes the idle threshold, any task that is due runs, and
+ * idleness is checked again before each one. ANALYZE samples a bounded number
+ * of rows, and free pages are released in small chunks, so a user who comes
+ * back waits at most one short step. Every run goes to MaintenanceLog with
+ * its duration and the file size before and after.
+ *
+ * System properties:
+ * maintenance.enabled (default true), maintenance.idleSeconds (default 120),
+ * maintenance.vacuumChunkPages (default 256) and maintenance.analysisLimit
+ * (default 1000).
+ */
+public final class MaintenanceScheduler {
+
+    private static final Logger log = LogManager.getLogger(MaintenanceScheduler.class);
+
+    private static final long IDLE_NANOS = TimeUnit.SECONDS.toNanos(Long.getLong("maintenance.idleSeconds", 120));
+    private static final int VACUUM_CHUNK_PAGES = Integer.getInteger("maintenance.vacuumChunkPages", 256);
+    private static final int ANALYSIS_LIMIT = Integer.getInteger("maintenance.analysisLimit", 1000);
+    private static final long CHECK_SECONDS = 60;
+    private static final long PAUSE_BETWEEN_CHUNKS_MS = 20;
+    private static final int MAX_INTEGRITY_ERRORS = 20;
+
+    public enum Task {
+        OPTIMIZE(Duration.ofHours(6)),
+        INCREMENTAL_VACUUM(Duration.ofHours(6)),
+        ANALYZE(Duration.ofDays(1)),
+        QUICK_CHECK(Duration.ofDays(1)),
+        INTEGRITY_CHECK(Duration.ofDays(7));
+
+        private final Duration interval;
+
+        Task(Duration interval) {
+            this.interval = interval;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+    }
+
+    private static final Map<String, LocalDateTime> lastRuns = new ConcurrentHashMap<>();
+    private static volatile boolean historyLoaded;
+    private static ScheduledFuture<?> task;
+
+    private MaintenanceScheduler() {
+    }
+
+    public static synchronized void start() {
+        if (task != null || !Boolean.parseBoolean(System.getProperty("maintenance.enabled", "true"))) {
+            return;
+        }
+        task = BackgroundScheduler.scheduleWithFixedDelay("db-maintenance", MaintenanceScheduler::runDueTasks,
+                CHECK_SECONDS, CHECK_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void stop() {
+        if (task == null) {
+            return;
+        }
+        task.cancel(false);
+        task = null;
+    }
+
+    public static boolean isIdle() {
+        return MetricsRegistry.nanosSinceLastCall() >= IDLE_NANOS;
+    }
+
+    /**
+     * Run every due task while the app stays idle
+     */
+    public static synchronized void runDueTasks() {
+        if (!isIdle()) {
+            return;
+        }
+        if (!historyLoaded) {
+            lastRuns.putAll(MaintenanceDAO.getLastRunTimes());
+            historyLoaded = true;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Task due : Task.values()) {
+            LocalDateTime last = lastRuns.get(due.name());
+            if (last != null && last.plus(due.getInterval()).isAfter(now)) {
+                continue;
+            }
+            if (!isIdle()) {
+                log.debug("Maintenance paused: the app is busy again");
+                return;
+            }
+            run(due);
+        }
+    }
+
+    /**
+     * Run one task now, idle or not, and log it
+     */
+    public static synchronized void run(Task maintenanceTask) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        PageStats before = MaintenanceDAO.getPageStats();
+
+        String outcome = "OK";
+        String detail = null;
+        switch (maintenanceTask) {
+            case OPTIMIZE -> outcome = MaintenanceDAO.optimize() ? "OK" : "FAILED";
+            case ANALYZE -> outcome = MaintenanceDAO.analyze(ANALYSIS_LIMIT) ? "OK" : "FAILED";
+            case INCREMENTAL_VACUUM -> {
+                long released = vacuumWhileIdle();
+                outcome = released < 0 ? "FAILED" : "OK";
+                detail = Math.max(0, released) + " pages released";
+                if (before != null && !before.isIncremental()) {
+                    detail = "auto_vacuum is not INCREMENTAL; nothing to release";
+                }
+            }
+            case QUICK_CHECK, INTEGRITY_CHECK -> {
+                List<String> messages = MaintenanceDAO.checkIntegrity(
+                        maintenanceTask == Task.INTEGRITY_CHECK, MAX_INTEGRITY_ERRORS);
+                if (messages == null) {
+                    outcome = "FAILED";
+                } else if (messages.size() == 1 && "ok".equalsIgnoreCase(messages.get(0))) {
+                    outcome = "OK";
+                } else {
+                    outcome = "CORRUPT";
+                    detail = String.join("\n", messages);
+                    reportCorruption(maintenanceTask, messages);
+                }
+            }
+        }
+
+        PageStats after = MaintenanceDAO.getPageStats();
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        MaintenanceDAO.recordRun(maintenanceTask.name(), startedAt, durationMs, before, after, outcome, detail);
+        lastRuns.put(maintenanceTask.name(), startedAt);
+
+        long delta = before != null && after != null ? before.getFileBytes() - after.getFileBytes() : 0;
+        log.info("Maintenance {} {} in {} ms ({} KB reclaimed)", maintenanceTask, outcome, durationMs, delta / 1024);
+    }
+
+    /**
+     * Release free pages a chunk at a time until none are left or the app is busy
+     */
+    private static long vacuumWhileIdle() {
+        long total = 0;
+        while (true) {
+            long released = MaintenanceDAO.incrementalVacuum(VACUUM_CHUNK_PAGES);
+            if (released < 0) {
+                return total > 0 ? total : -1;
+            }
+            total += released;
+            if (released < VACUUM_CHUNK_PAGES || !isIdle()) {
+                return total;
+            }
+            try {
+                Thread.sleep(PAUSE_BETWEEN_CHUNKS_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return total;
+            }
+        }
+    }
+
+    private static void reportCorruption(Task check, List<String> messages) {
+        log.error("Database " + check + " found " + messages.size() + " problem(s): " + messages.get(0));
+        for (Integer adminId : UserDAO.getAdminUserIds()) {
+            NotificationDAO.createNotification(
+                adminId,
+                "Database Integrity Problem",
+                "The scheduled " + check.name().toLowerCase().replace('_', ' ') + " reported " + messages.size() +
+                    " problem(s). Restore from a backup or run a full check.",
+                "WARNING",
+                null
+            );
+        }
+    }
+}
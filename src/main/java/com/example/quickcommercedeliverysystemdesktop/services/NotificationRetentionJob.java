@@ -0,0 +1,184 @@
+package com.example.quickcommercedeliverysystemdesktop.services;
+
+import com.example.quickcommercedeliverysystemdesktop.database.MaintenanceDAO;
+import com.example.quickcommercedeliverysystemdesktop.database.MaintenanceDAO.PageStats;
+import com.example.quickcommercedeliverysystemdesktop.database.NotificationDAO;
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the Notifications table from growing without bound.
+ *
+ * Each run first folds read notices that repeat (same user, title and type on
+ * one day) into a single digest row, then deletes read notifications past the
+ * TTL in small batches with a pause between them so interactive writes get
+ * the lock, and finally returns the freed pages with an incremental vacuum.
+ * Unread notifications are never touched. Runs are logged to MaintenanceLog.
+ *
+ * System properties:
+ * retention.enabled (default true), retention.ttlDays (default 30),
+ * retention.digestAfterDays (default 1), retention.digestMinGroup (default 5),
+ * retention.batchSize (default 500) and retention.intervalHours (default 24).
+ */
+public final class NotificationRetentionJob {
+
+    private static final Logger log = LogManager.getLogger(NotificationRetentionJob.class);
+
+    private static final long TTL_DAYS = Long.getLong("retention.ttlDays", 30);
+    private static final long DIGEST_AFTER_DAYS = Long.getLong("retention.digestAfterDays", 1);
+    private static final int DIGEST_MIN_GROUP = Integer.getInteger("retention.digestMinGroup", 5);
+    private static final int BATCH_SIZE = Integer.getInteger("retention.batchSize", 500);
+    private static final long INTERVAL_HOURS = Long.getLong("retention.intervalHours", 24);
+    private static final long INITIAL_DELAY_MINUTES = 10;
+    /** Digest groups handled per pass, each in its own short transaction */
+    private static final int DIGEST_GROUPS_PER_PASS = 200;
+    private static final long PAUSE_BETWEEN_BATCHES_MS = 50;
+    private static final int VACUUM_CHUNK_PAGES = 1024;
+
+    private static ScheduledFuture<?> task;
+    private static volatile Report lastReport;
+
+    private NotificationRetentionJob() {
+    }
+
+    public static synchronized void start() {
+        if (task != null || !Boolean.parseBoolean(System.getProperty("retention.enabled", "true"))) {
+            return;
+        }
+        task = BackgroundScheduler.scheduleWithFixedDelay("notification-retention", NotificationRetentionJob::runOnce,
+                INITIAL_DELAY_MINUTES, TimeUnit.HOURS.toMinutes(INTERVAL_HOURS), TimeUnit.MINUTES);
+    }
+
+    public static synchronized void stop() {
+        if (task == null) {
+            return;
+        }
+        task.cancel(false);
+        task = null;
+    }
+
+    /**
+     * Get the report of the most recent run, or null before the first one
+     */
+    public static Report getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Run digest, TTL delete and vacuum now on the calling thread
+     */
+    public static synchronized Report runOnce() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        PageStats before = MaintenanceDAO.getPageStats();
+
+        int digests = 0;
+        int digested = 0;
+        while (true) {
+            NotificationDAO.DigestResult pass = NotificationDAO.digestReadBefore(
+                    now.minusDays(DIGEST_AFTER_DAYS), DIGEST_MIN_GROUP, DIGEST_GROUPS_PER_PASS);
+            digests += pass.getDigestsWritten();
+            digested += pass.getNotificationsReplaced();
+            if (pass.getDigestsWritten() < DIGEST_GROUPS_PER_PASS || !pause()) {
+                break;
+            }
+        }
+
+        int deleted = 0;
+        LocalDateTime ttlCutoff = now.minusDays(TTL_DAYS);
+        while (true) {
+            int batch = NotificationDAO.deleteReadBefore(ttlCutoff, BATCH_SIZE);
+            if (batch <= 0) {
+                break;
+            }
+            deleted += batch;
+            if (batch < BATCH_SIZE || !pause()) {
+                break;
+            }
+        }
+
+        long pagesReleased = 0;
+        if (before != null && before.isIncremental()) {
+            while (true) {
+                long released = MaintenanceDAO.incrementalVacuum(VACUUM_CHUNK_PAGES);
+                if (released <= 0) {
+                    break;
+                }
+                pagesReleased += released;
+                if (released < VACUUM_CHUNK_PAGES || !pause()) {
+                    break;
+                }
+            }
+        }
+        PageStats after = MaintenanceDAO.getPageStats();
+
+        long bytesReclaimed = before != null && after != null ? before.getFileBytes() - after.getFileBytes() : 0;
+        Report report = new Report(now, deleted, digested, digests, pagesReleased, bytesReclaimed,
+                System.nanoTime() - start);
+        lastReport = report;
+        MaintenanceDAO.recordRun("NOTIFICATION_RETENTION", now, report.getElapsedNanos() / 1_000_000,
+                before, after, "OK", report.toString());
+        log.info("Notification retention: {}", report);
+        return report;
+    }
+
+    /**
+     * Give other connections a chance at the write lock; false if interrupted
+     */
+    private static boolean pause() {
+        try {
+            Thread.sleep(PAUSE_BETWEEN_BATCHES_MS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Inner class for one run's outcome
+     */
+    public static class Report {
+        private final LocalDateTime startedAt;
+        private final int deleted;
+        private final int digested;
+        private final int digestsWritten;
+        private final long pagesReleased;
+        private final long bytesReclaimed;
+        private final long elapsedNanos;
+
+        public Report(LocalDateTime startedAt, int deleted, int digested, int digestsWritten,
+                      long pagesReleased, long bytesReclaimed, long elapsedNanos) {
+            this.startedAt = startedAt;
+            this.deleted = deleted;
+            this.digested = digested;
+            this.digestsWritten = digestsWritten;
+            this.pagesReleased = pagesReleased;
+            this.bytesReclaimed = bytesReclaimed;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public LocalDateTime getStartedAt() { return startedAt; }
+        /** Read notifications deleted for being past the TTL */
+        public int getDeleted() { return deleted; }
+        /** Notifications folded into digests */
+        public int getDigested() { return digested; }
+        public int getDigestsWritten() { return digestsWritten; }
+        /** Net rows removed from the table */
+        public int getRowsReclaimed() { return deleted + digested - digestsWritten; }
+        public long getPagesReleased() { return pagesReleased; }
+        public long getBytesReclaimed() { return bytesReclaimed; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows reclaimed (%d past TTL, %d folded into %d digests), %d pages / %d KB released in %d ms",
+                    getRowsReclaimed(), deleted, digested, digestsWritten, pagesReleased, bytesReclaimed / 1024,
+                    elapsedNanos / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.quickcommercedeliverysystemdesktop.services;
+
+import com.example.quickcommercedeliverysystemdesktop.database.ArchiveDAO;
+import com.example.quickcommercedeliverysystemdesktop.database.RollupDAO;
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically moves closed orders older than a cut-off into the monthly
+ * archive files, in small batches so the main database is never locked for long.
+ *
+ * System properties:
+ * archive.enabled (default true), archive.ageDays (default 90),
+ * archive.intervalHours (default 6), archive.batchSize (default 500) and
+ * archive.maxPerRun (default 20000).
+ */
+public final class OrderArchiver {
+
+    private static final Logger log = LogManager.getLogger(OrderArchiver.class);
+
+    private static final long AGE_DAYS = Long.getLong("archive.ageDays", 90);
+    private static final long INTERVAL_HOURS = Long.getLong("archive.intervalHours", 6);
+    private static final int BATCH_SIZE = Integer.getInteger("archive.batchSize", 500);
+    private static final int MAX_PER_RUN = Integer.getInteger("archive.maxPerRun", 20_000);
+    /** Leave startup alone; the first run waits a few minutes */
+    private static final long INITIAL_DELAY_MINUTES = 5;
+
+    private static ScheduledFuture<?> task;
+
+    private OrderArchiver() {
+    }
+
+    public static synchronized void start() {
+        if (task != null || !Boolean.parseBoolean(System.getProperty("archive.enabled", "true"))) {
+            return;
+        }
+        task = BackgroundScheduler.scheduleWithFixedDelay("order-archiver", OrderArchiver::runOnce,
+                TimeUnit.MINUTES.toMillis(INITIAL_DELAY_MINUTES), TimeUnit.HOURS.toMillis(INTERVAL_HOURS),
+                TimeUnit.MILLISECONDS);
+        log.info("Order archiver started: closed orders older than {} days, every {} h", AGE_DAYS, INTERVAL_HOURS);
+    }
+
+    public static synchronized void stop() {
+        if (task == null) {
+            return;
+        }
+        task.cancel(false);
+        task = null;
+    }
+
+    /**
+     * Archive everything currently past the cut-off, up to the per-run limit.
+     * Returns the number of orders moved.
+     */
+    public static int runOnce() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(AGE_DAYS);
+        long start = System.nanoTime();
+        int total = 0;
+
+        // Rollups and sketches read the live tables, so count anything new before it moves out
+        if (RollupDAO.refresh() < 0) {
+            log.warn("Skipping archive run: stats rollups could not be brought up to date");
+            return 0;
+        }
+        if (DeliveryTimeSketcher.runOnce() < 0) {
+            log.warn("Skipping archive run: delivery-time sketches could not be brought up to date");
+            return 0;
+        }
+
+        while (total < MAX_PER_RUN) {
+            int moved = ArchiveDAO.archiveClosedOrders(cutoff, Math.min(BATCH_SIZE, MAX_PER_RUN - total));
+            if (moved == 0) {
+                break;
+            }
+            total += moved;
+        }
+
+        if (total > 0) {
+            // The moved earnings leave the live tables without an order event
+            PartnerLeaderboard.invalidate();
+            log.info("Archived {} closed orders older than {} in {} ms", total, cutoff.toLocalDate(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+        return total;
+    }
+}
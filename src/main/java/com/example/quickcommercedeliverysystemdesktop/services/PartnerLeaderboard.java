@@ -0,0 +1,379 @@
+package com.example.quickcommercedeliverysystemdesktop.services;
+
+import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO;
+import com.example.quickcommercedeliverysystemdesktop.database.RatingDAO;
+import com.example.quickcommercedeliverysystemdesktop.events.OrderEvent;
+import com.example.quickcommercedeliverysystemdesktop.events.OrderEventBus;
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.models.Money;
+import com.example.quickcommercedeliverysystemdesktop.utils.IndexedHeap;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Partner rankings by earnings, completed deliveries and average rating over
+ * today, this week, this month and all time, kept up to date in memory.
+ *
+ * Each window holds per-partner totals and one indexed heap per ranking.
+ * DELIVERED and RATED events read only the earnings or ratings above the
+ * highest ids already counted, add them to every window they fall in and
+ * move the affected partner within each heap in O(log n), so a top-k read
+ * walks k heap slots instead of grouping the whole Earnings table.
+ *
+ * Windows start at local midnight, Monday and the first of the month. The
+ * first read on a new day rebuilds every window, as does the first read
+ * after an order is deleted, since deletes cascade to its earning and
+ * rating, or after an archive run has moved earnings out. Like the other
+ * live views, all time covers the live tables only.
+ */
+public final class PartnerLeaderboard {
+
+    private static final Logger log = LogManager.getLogger(PartnerLeaderboard.class);
+
+    /** Period a ranking covers */
+    public enum Window {
+        TODAY("Today"),
+        THIS_WEEK("This Week"),
+        THIS_MONTH("This Month"),
+        ALL_TIME("All Time");
+
+        private final String label;
+
+        Window(String label) {
+            this.label = label;
+        }
+
+        /**
+         * First day of the window holding {@code today}, or null for all time
+         */
+        public LocalDate startOn(LocalDate today) {
+            return switch (this) {
+                case TODAY -> today;
+                case THIS_WEEK -> today.with(DayOfWeek.MONDAY);
+                case THIS_MONTH -> today.withDayOfMonth(1);
+                case ALL_TIME -> null;
+            };
+        }
+
+        @Override
+        public String toString() { return label; }
+    }
+
+    /** What partners are ranked by, highest first */
+    public enum Ranking {
+        EARNINGS("Earnings", Comparator.comparingLong((Stats s) -> s.earningsMinor).reversed()
+                .thenComparing(Comparator.comparingLong((Stats s) -> s.deliveries).reversed())),
+        DELIVERIES("Deliveries", Comparator.comparingLong((Stats s) -> s.deliveries).reversed()
+                .thenComparing(Comparator.comparingLong((Stats s) -> s.earningsMinor).reversed())),
+        RATING("Rating", PartnerLeaderboard::compareRatings);
+
+        private final String label;
+        /** Ties go to the lower partner id so the order is stable */
+        private final Comparator<Stats> order;
+
+        Ranking(String label, Comparator<Stats> order) {
+            this.label = label;
+            this.order = order.thenComparingInt(s -> s.partnerId);
+        }
+
+        @Override
+        public String toString() { return label; }
+    }
+
+    private static final Object lock = new Object();
+
+    /** Guarded by lock */
+    private static final Map<Window, Board> boards = new EnumMap<>(Window.class);
+    private static final Map<Integer, String> names = new HashMap<>();
+    private static long maxEarningId;
+    private static long maxRatingId;
+    /** Day the windows were built for; null until the first load succeeds */
+    private static LocalDate loadedFor;
+    private static volatile boolean stale;
+    private static boolean subscribed;
+
+    private PartnerLeaderboard() {
+    }
+
+    /**
+     * The first {@code k} partners of a window by one ranking. Partners with
+     * nothing to rank by in the window (no deliveries, or no ratings for the
+     * rating ranking) are left out.
+     */
+    public static List<Standing> top(Window window, Ranking ranking, int k) {
+        synchronized (lock) {
+            ensureCurrent();
+            List<Standing> standings = new ArrayList<>();
+            Board board = boards.get(window);
+            if (board == null) {
+                return standings;
+            }
+            for (Stats stats : board.heaps.get(ranking).top(k)) {
+                standings.add(new Standing(standings.size() + 1, stats.partnerId,
+                        names.getOrDefault(stats.partnerId, "Partner #" + stats.partnerId),
+                        stats.deliveries, stats.earningsMinor, stats.ratingSum, stats.ratingCount));
+            }
+            return standings;
+        }
+    }
+
+    /**
+     * Every ranked partner of a window, in rank order
+     */
+    public static List<Standing> all(Window window, Ranking ranking) {
+        return top(window, ranking, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Rebuild every window from the database
+     */
+    public static void reload() {
+        synchronized (lock) {
+            subscribe();
+            long start = System.nanoTime();
+            LocalDate today = LocalDate.now();
+            boards.clear();
+            names.clear();
+            maxEarningId = 0;
+            maxRatingId = 0;
+            loadedFor = null;
+            stale = false;
+            for (Window window : Window.values()) {
+                boards.put(window, new Board(startMillis(window.startOn(today))));
+            }
+            if (!catchUpEarnings() || !catchUpRatings()) {
+                // Retry on the next read
+                boards.clear();
+                return;
+            }
+            loadedFor = today;
+            log.info("Partner leaderboard loaded {} partners in {} ms",
+                    boards.get(Window.ALL_TIME).byPartner.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Count earnings and ratings added since the last load, including any
+     * written without an event
+     */
+    public static void refresh() {
+        synchronized (lock) {
+            if (stale || !LocalDate.now().equals(loadedFor)) {
+                reload();
+            } else if (catchUpEarnings()) {
+                catchUpRatings();
+            }
+        }
+    }
+
+    /**
+     * Rebuild on the next read; for changes that remove earnings without an
+     * order event, such as an archive run
+     */
+    public static void invalidate() {
+        stale = true;
+    }
+
+    // ===== LOADING =====
+
+    /**
+     * Caller holds the lock
+     */
+    private static void ensureCurrent() {
+        if (stale || !LocalDate.now().equals(loadedFor)) {
+            reload();
+        }
+    }
+
+    private static void subscribe() {
+        if (!subscribed) {
+            OrderEventBus.subscribe(PartnerLeaderboard::onOrderEvent);
+            subscribed = true;
+        }
+    }
+
+    private static void onOrderEvent(OrderEvent event) {
+        switch (event.getType()) {
+            case DELIVERED -> {
+                synchronized (lock) {
+                    if (loadedFor != null) {
+                        catchUpEarnings();
+                    }
+                }
+            }
+            case RATED -> {
+                synchronized (lock) {
+                    if (loadedFor != null) {
+                        catchUpRatings();
+                    }
+                }
+            }
+            case DELETED -> stale = true;
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Count earnings above maxEarningId; caller holds the lock
+     */
+    private static boolean catchUpEarnings() {
+        long maxId = DeliveryDAO.loadEarningsSince(maxEarningId,
+                (earningId, partnerId, name, orderId, earnedAtMillis, amountMinor) -> {
+                    remember(partnerId, name);
+                    for (Board board : boards.values()) {
+                        if (earnedAtMillis >= board.startMillis) {
+                            Stats stats = board.statsOf(partnerId);
+                            stats.deliveries++;
+                            stats.earningsMinor += amountMinor;
+                            board.reposition(stats);
+                        }
+                    }
+                });
+        if (maxId < 0) {
+            return false;
+        }
+        maxEarningId = maxId;
+        return true;
+    }
+
+    /**
+     * Count ratings above maxRatingId; caller holds the lock
+     */
+    private static boolean catchUpRatings() {
+        long maxId = RatingDAO.loadRatingsSince(maxRatingId,
+                (ratingId, partnerId, name, ratedAtMillis, rating) -> {
+                    remember(partnerId, name);
+                    for (Board board : boards.values()) {
+                        if (ratedAtMillis >= board.startMillis) {
+                            Stats stats = board.statsOf(partnerId);
+                            stats.ratingSum += rating;
+                            stats.ratingCount++;
+                            board.reposition(stats);
+                        }
+                    }
+                });
+        if (maxId < 0) {
+            return false;
+        }
+        maxRatingId = maxId;
+        return true;
+    }
+
+    private static void remember(int partnerId, String name) {
+        if (name != null) {
+            names.put(partnerId, name);
+        }
+    }
+
+    private static long startMillis(LocalDate day) {
+        return day == null ? Long.MIN_VALUE : day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Higher average first, then more ratings; compared as fractions so
+     * there is no rounding
+     */
+    private static int compareRatings(Stats a, Stats b) {
+        int byAverage = Long.compare(b.ratingSum * a.ratingCount, a.ratingSum * b.ratingCount);
+        return byAverage != 0 ? byAverage : Long.compare(b.ratingCount, a.ratingCount);
+    }
+
+    /**
+     * One window's totals and rankings
+     */
+    private static final class Board {
+        private final long startMillis;
+        private final Map<Integer, Stats> byPartner = new HashMap<>();
+        private final Map<Ranking, IndexedHeap<Stats>> heaps = new EnumMap<>(Ranking.class);
+
+        private Board(long startMillis) {
+            this.startMillis = startMillis;
+            for (Ranking ranking : Ranking.values()) {
+                heaps.put(ranking, new IndexedHeap<>(ranking.order));
+            }
+        }
+
+        private Stats statsOf(int partnerId) {
+            return byPartner.computeIfAbsent(partnerId, Stats::new);
+        }
+
+        /**
+         * Move a partner whose totals just grew; counts never shrink, so a
+         * partner never drops out of a ranking once in it
+         */
+        private void reposition(Stats stats) {
+            if (stats.deliveries > 0) {
+                heaps.get(Ranking.EARNINGS).update(stats);
+                heaps.get(Ranking.DELIVERIES).update(stats);
+            }
+            if (stats.ratingCount > 0) {
+                heaps.get(Ranking.RATING).update(stats);
+            }
+        }
+    }
+
+    /**
+     * Running totals of one partner in one window; identity equality, so it
+     * can sit in the heaps while its counts change
+     */
+    private static final class Stats {
+        private final int partnerId;
+        private long deliveries;
+        private long earningsMinor;
+        private long ratingSum;
+        private long ratingCount;
+
+        private Stats(int partnerId) {
+            this.partnerId = partnerId;
+        }
+    }
+
+    /**
+     * Inner class for one partner's place in a ranking
+     */
+    public static class Standing {
+        private final int rank;
+        private final int partnerId;
+        private final String name;
+        private final long deliveries;
+        private final long earningsMinor;
+        private final long ratingSum;
+        private final long ratingCount;
+
+        public Standing(int rank, int partnerId, String name, long deliveries, long earningsMinor,
+                        long ratingSum, long ratingCount) {
+            this.rank = rank;
+            this.partnerId = partnerId;
+            this.name = name;
+            this.deliveries = deliveries;
+            this.earningsMinor = earningsMinor;
+            this.ratingSum = ratingSum;
+            this.ratingCount = ratingCount;
+        }
+
+        public int getRank() { return rank; }
+        public int getPartnerId() { return partnerId; }
+        public String getName() { return name; }
+        public long getDeliveries() { return deliveries; }
+        public Money getEarnings() { return Money.ofMinor(earningsMinor); }
+        public long getRatingCount() { return ratingCount; }
+
+        public double getAverageRating() {
+            return ratingCount > 0 ? (double) ratingSum / ratingCount : 0.0;
+        }
+
+        public String getFormattedRating() {
+            return ratingCount > 0 ? String.format("%.1f ⭐ (%d)", getAverageRating(), ratingCount) : "-";
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.quickcommercedeliverysystemdesktop.services;
+
+import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO;
+import com.example.quickcommercedeliverysystemdesktop.events.OrderEvent;
+import com.example.quickcommercedeliverysystemdesktop.events.OrderEventBus;
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.models.Order;
+import com.example.quickcommercedeliverysystemdesktop.models.TimeWindow;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Live, in-memory book of every PENDING order, kept in sync by order events.
+ *
+ * Orders are indexed by fee, creation time and window start in concurrent
+ * skip lists, so the Available tab can read the first K orders in any of those
+ * orders without sorting, and an accept or cancel costs O(log n) instead of a
+ * full reload. Readers never block.
+ *
+ * Every event is queued and applied in order on a background thread, which
+ * re-reads created and updated orders, so publishers never wait on the
+ * database. Events that leave an order out of the pending set also remove it
+ * at once, so a partner who just accepted an order does not see it again.
+ * Events that arrive while the book is loading stay queued and are replayed
+ * on top of the snapshot.
+ *
+ * Changes made by another process on the same database are not published;
+ * {@link #refreshIfStale()} compares a cheap count/id/fee fingerprint and
+ * reloads when it differs.
+ */
+public final class PendingOrderBook {
+
+    private static final Logger log = LogManager.getLogger(PendingOrderBook.class);
+
+    public enum Ordering {
+        NEWEST,
+        HIGHEST_FEE,
+        EARLIEST_WINDOW
+    }
+
+    /** Guards the indexes; held only while they change */
+    private static final Object lock = new Object();
+    /** Serialises reloads and event replay, which read the database */
+    private static final Object writer = new Object();
+    private static final Map<Integer, Order> byId = new ConcurrentHashMap<>();
+    private static final ConcurrentSkipListSet<Key> byFee = new ConcurrentSkipListSet<>();
+    private static final ConcurrentSkipListSet<Key> byCreated = new ConcurrentSkipListSet<>();
+    private static final ConcurrentSkipListSet<Key> byWindow = new ConcurrentSkipListSet<>();
+
+    private static final Queue<OrderEvent> inbox = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    private static volatile boolean loaded;
+    private static boolean subscribed;
+
+    private PendingOrderBook() {
+    }
+
+    /**
+     * Up to {@code limit} pending orders in the given ordering that pass the filter
+     */
+    public static List<Order> top(Ordering ordering, int limit, Predicate<Order> filter) {
+        ensureLoaded();
+        List<Order> result = new ArrayList<>(Math.min(limit, Math.max(byId.size(), 1)));
+        for (Key key : index(ordering)) {
+            if (result.size() >= limit) {
+                break;
+            }
+            // The skip lists are weakly consistent; the order may have left the book
+            Order order = byId.get(key.orderId);
+            if (order != null && (filter == null || filter.test(order))) {
+                result.add(order);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Every pending order in the given ordering that passes the filter
+     */
+    public static List<Order> list(Ordering ordering, Predicate<Order> filter) {
+        return top(ordering, Integer.MAX_VALUE, filter);
+    }
+
+    public static Order get(int orderId) {
+        ensureLoaded();
+        return byId.get(orderId);
+    }
+
+    public static int size() {
+        ensureLoaded();
+        return byId.size();
+    }
+
+    /**
+     * Rebuild the book from the database, then replay the events that arrived
+     * while it was read
+     */
+    public static void reload() {
+        synchronized (writer) {
+            // Subscribe first so no change between the read and the swap is missed
+            subscribe();
+            List<Order> pending = DeliveryDAO.getAvailableOrders();
+            synchronized (lock) {
+                byId.clear();
+                byFee.clear();
+                byCreated.clear();
+                byWindow.clear();
+                for (Order order : pending) {
+                    add(order);
+                }
+                loaded = true;
+            }
+            log.debug("Pending order book loaded with {} orders", byId.size());
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Reload if the pending set in the database no longer matches the book.
+     * Returns true when a reload happened.
+     */
+    public static boolean refreshIfStale() {
+        if (!loaded) {
+            reload();
+            return true;
+        }
+        DeliveryDAO.PendingFingerprint fingerprint = DeliveryDAO.getPendingFingerprint();
+        if (fingerprint == null) {
+            return false;
+        }
+        int count = 0;
+        int maxId = 0;
+        long idSum = 0;
+        long feeSum = 0;
+        for (Order order : byId.values()) {
+            count++;
+            maxId = Math.max(maxId, order.getOrderId());
+            idSum += order.getOrderId();
+            feeSum += order.getDeliveryFee().getMinor();
+        }
+        if (fingerprint.getCount() == count && fingerprint.getMaxOrderId() == maxId
+                && fingerprint.getOrderIdSum() == idSum && fingerprint.getFeeMinorSum() == feeSum) {
+            return false;
+        }
+        log.info("Pending order book is stale ({} in database, {} in book), reloading",
+                fingerprint.getCount(), byId.size());
+        reload();
+        return true;
+    }
+
+    // ===== EVENT HANDLING =====
+
+    private static void ensureLoaded() {
+        if (!loaded) {
+            synchronized (writer) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    private static void subscribe() {
+        if (!subscribed) {
+            OrderEventBus.subscribe(PendingOrderBook::onOrderEvent);
+            subscribed = true;
+        }
+    }
+
+    /**
+     * Runs on the publisher's thread, so it never touches the database
+     */
+    private static void onOrderEvent(OrderEvent event) {
+        inbox.add(event);
+        if (loaded && !rereads(event)) {
+            synchronized (lock) {
+                remove(event.getOrderId());
+            }
+        }
+        scheduleDrain();
+    }
+
+    private static boolean rereads(OrderEvent event) {
+        return event.getType() == OrderEvent.Type.CREATED || event.getType() == OrderEvent.Type.UPDATED;
+    }
+
+    private static void scheduleDrain() {
+        if (loaded && !inbox.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+            BackgroundScheduler.schedule("pending-order-book", PendingOrderBook::drain, 0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Apply queued events in order. Each read happens after its event was
+     * published, and any later change queues another event, so the book ends
+     * up matching the database.
+     */
+    private static void drain() {
+        drainScheduled.set(false);
+        synchronized (writer) {
+            OrderEvent event;
+            while (loaded && (event = inbox.poll()) != null) {
+                int orderId = event.getOrderId();
+                Order order = rereads(event) ? DeliveryDAO.getPendingOrder(orderId) : null;
+                synchronized (lock) {
+                    remove(orderId);
+                    if (order != null) {
+                        add(order);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void add(Order order) {
+        int orderId = order.getOrderId();
+        byId.put(orderId, order);
+        byFee.add(new Key(-order.getDeliveryFee().getMinor(), orderId));
+        byCreated.add(new Key(-createdMillis(order), orderId));
+        byWindow.add(new Key(windowStart(order), orderId));
+    }
+
+    private static void remove(int orderId) {
+        Order order = byId.remove(orderId);
+        if (order == null) {
+            return;
+        }
+        byFee.remove(new Key(-order.getDeliveryFee().getMinor(), orderId));
+        byCreated.remove(new Key(-createdMillis(order), orderId));
+        byWindow.remove(new Key(windowStart(order), orderId));
+    }
+
+    private static ConcurrentSkipListSet<Key> index(Ordering ordering) {
+        return switch (ordering) {
+            case HIGHEST_FEE -> byFee;
+            case EARLIEST_WINDOW -> byWindow;
+            case NEWEST -> byCreated;
+        };
+    }
+
+    private static long createdMillis(Order order) {
+        return order.getOrderDate() == null ? Long.MIN_VALUE + 1
+                : order.getOrderDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /** Orders without a window sort after every windowed one */
+    private static long windowStart(Order order) {
+        TimeWindow window = order.getTimeWindow();
+        return window.hasStart() ? window.getStartMinute() : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Sort key for one index: the ordering value, then the order id to keep keys unique
+     */
+    private static final class Key implements Comparable<Key> {
+        private final long value;
+        private final int orderId;
+
+        Key(long value, int orderId) {
+            this.value = value;
+            this.orderId = orderId;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int cmp = Long.compare(value, other.value);
+            return cmp != 0 ? cmp : Integer.compare(orderId, other.orderId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && value == other.value && orderId == other.orderId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(value) * 31 + orderId;
+        }
+    }
+}
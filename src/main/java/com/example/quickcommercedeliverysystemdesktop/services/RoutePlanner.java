@@ -0,0 +1,391 @@
+package com.example.quickcommercedeliverysystemdesktop.services;
+
+import com.example.quickcommercedeliverysystemdesktop.models.GeoPoint;
+import com.example.quickcommercedeliverysystemdesktop.models.Order;
+import com.example.quickcommercedeliverysystemdesktop.models.TimeWindow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suggests the order in which a partner should drop off their open deliveries.
+ *
+ * The route is an open path from the partner's position. It is built by a
+ * nearest-neighbour pass and then improved with 2-opt (reverse a stretch) and
+ * or-opt (move a run of up to three stops) until no move helps or the time
+ * budget runs out. Cost is kilometres driven plus a penalty per minute of
+ * arrival after a window closes; arriving before a window opens means waiting.
+ *
+ * Each partner keeps a {@link DistanceMatrix}, so replans after an accept or a
+ * delivery only compute distances for the stops that changed.
+ */
+public final class RoutePlanner {
+
+    private static final double SPEED_KMH = 20.0;
+    /** Minutes spent at each drop-off */
+    private static final int SERVICE_MINUTES = 5;
+    /** Cost of one minute late, in kilometres */
+    private static final double LATE_PENALTY_KM_PER_MINUTE = 1.0;
+    private static final long DEFAULT_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final int MAX_OR_OPT_SEGMENT = 3;
+
+    private static final long START_KEY = -1L;
+
+    private static final Map<Integer, DistanceMatrix> matrices = new ConcurrentHashMap<>();
+
+    private RoutePlanner() {
+    }
+
+    /**
+     * Plan a route with the default time budget
+     */
+    public static Route plan(int partnerId, GeoPoint start, List<Order> orders, int nowMinute) {
+        return plan(partnerId, start, orders, nowMinute, DEFAULT_BUDGET_NANOS);
+    }
+
+    /**
+     * Plan a route for the given open orders. {@code start} may be null, in which
+     * case the route begins at whichever stop suits it best. Orders without
+     * coordinates cannot be placed and are returned separately.
+     */
+    public static Route plan(int partnerId, GeoPoint start, List<Order> orders, int nowMinute, long budgetNanos) {
+        long began = System.nanoTime();
+
+        List<Order> placed = new ArrayList<>();
+        List<Order> unplaced = new ArrayList<>();
+        for (Order order : orders) {
+            if (order.getLocationPoint() != null) {
+                placed.add(order);
+            } else {
+                unplaced.add(order);
+            }
+        }
+
+        int k = placed.size();
+        long[] keys = new long[k + 1];
+        double[] lats = new double[k + 1];
+        double[] lons = new double[k + 1];
+        int[] windowStart = new int[k + 1];
+        int[] windowEnd = new int[k + 1];
+        keys[0] = START_KEY;
+        if (start != null) {
+            lats[0] = start.getLatitude();
+            lons[0] = start.getLongitude();
+        }
+        for (int i = 0; i < k; i++) {
+            Order order = placed.get(i);
+            TimeWindow window = order.getTimeWindow();
+            keys[i + 1] = order.getOrderId();
+            lats[i + 1] = order.getLatitude();
+            lons[i + 1] = order.getLongitude();
+            windowStart[i + 1] = window.getStartMinute();
+            windowEnd[i + 1] = window.getEffectiveEndMinute();
+        }
+
+        DistanceMatrix matrix = matrices.computeIfAbsent(partnerId, id -> new DistanceMatrix());
+        synchronized (matrix) {
+            matrix.update(keys, lats, lons);
+            Evaluator evaluator = new Evaluator(matrix, start != null, windowStart, windowEnd, nowMinute);
+
+            int[] sequence = nearestNeighbour(evaluator, k);
+            long deadline = System.nanoTime() + budgetNanos;
+            int moves = improve(evaluator, sequence, deadline);
+
+            return buildRoute(evaluator, sequence, placed, unplaced, moves, System.nanoTime() - began);
+        }
+    }
+
+    /**
+     * The given orders by straight-line distance from {@code start}, nearest
+     * first. Orders without coordinates follow the rest; ties and the orders
+     * without coordinates keep their given order. Nothing is dropped.
+     */
+    public static List<Order> nearestFirst(GeoPoint start, List<Order> orders) {
+        int n = orders.size();
+        double[] km = new double[n];
+        Integer[] ranked = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            GeoPoint point = orders.get(i).getLocationPoint();
+            km[i] = point != null ? start.distanceKmTo(point) : Double.POSITIVE_INFINITY;
+            ranked[i] = i;
+        }
+        // Stable, so equal distances and the unlocated orders stay in input order
+        Arrays.sort(ranked, Comparator.comparingDouble(i -> km[i]));
+
+        List<Order> result = new ArrayList<>(n);
+        for (int index : ranked) {
+            result.add(orders.get(index));
+        }
+        return result;
+    }
+
+    /**
+     * Drop a partner's cached distances, e.g. on logout
+     */
+    public static void forget(int partnerId) {
+        matrices.remove(partnerId);
+    }
+
+    // ===== CONSTRUCTION =====
+
+    /**
+     * Repeatedly go to the stop that is cheapest to reach next, counting lateness there
+     */
+    private static int[] nearestNeighbour(Evaluator evaluator, int k) {
+        int[] sequence = new int[k];
+        boolean[] visited = new boolean[k + 1];
+        int current = 0;
+        double clock = evaluator.nowMinute;
+
+        for (int position = 0; position < k; position++) {
+            int best = -1;
+            double bestCost = Double.MAX_VALUE;
+            double bestClock = 0;
+            for (int stop = 1; stop <= k; stop++) {
+                if (visited[stop]) {
+                    continue;
+                }
+                double leg = evaluator.leg(current, stop);
+                double arrival = evaluator.arrive(clock, leg, stop);
+                double cost = leg + LATE_PENALTY_KM_PER_MINUTE * evaluator.lateness(arrival, stop);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    best = stop;
+                    bestClock = arrival + SERVICE_MINUTES;
+                }
+            }
+            visited[best] = true;
+            sequence[position] = best;
+            current = best;
+            clock = bestClock;
+        }
+        return sequence;
+    }
+
+    // ===== IMPROVEMENT =====
+
+    /**
+     * First-improvement 2-opt and or-opt until a local optimum or the deadline
+     */
+    private static int improve(Evaluator evaluator, int[] sequence, long deadline) {
+        int k = sequence.length;
+        if (k < 2) {
+            return 0;
+        }
+
+        int[] candidate = new int[k];
+        double bestCost = evaluator.cost(sequence);
+        int moves = 0;
+        boolean improved = true;
+
+        while (improved && System.nanoTime() < deadline) {
+            improved = false;
+
+            // 2-opt: reverse sequence[i..j]
+            for (int i = 0; i < k - 1 && !improved; i++) {
+                for (int j = i + 1; j < k; j++) {
+                    System.arraycopy(sequence, 0, candidate, 0, k);
+                    reverse(candidate, i, j);
+                    double cost = evaluator.cost(candidate);
+                    if (cost < bestCost - 1e-9) {
+                        System.arraycopy(candidate, 0, sequence, 0, k);
+                        bestCost = cost;
+                        moves++;
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+            if (improved || System.nanoTime() >= deadline) {
+                continue;
+            }
+
+            // or-opt: move sequence[i..i+len-1] so it starts at position p
+            for (int len = 1; len <= MAX_OR_OPT_SEGMENT && len < k && !improved; len++) {
+                for (int i = 0; i + len <= k && !improved; i++) {
+                    for (int p = 0; p <= k - len; p++) {
+                        if (p == i) {
+                            continue;
+                        }
+                        moveSegment(sequence, candidate, i, len, p);
+                        double cost = evaluator.cost(candidate);
+                        if (cost < bestCost - 1e-9) {
+                            System.arraycopy(candidate, 0, sequence, 0, k);
+                            bestCost = cost;
+                            moves++;
+                            improved = true;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return moves;
+    }
+
+    private static void reverse(int[] array, int from, int to) {
+        while (from < to) {
+            int tmp = array[from];
+            array[from++] = array[to];
+            array[to--] = tmp;
+        }
+    }
+
+    /**
+     * Write into {@code out} the sequence with the run at [i, i+len) reinserted at position p
+     */
+    private static void moveSegment(int[] sequence, int[] out, int i, int len, int p) {
+        int k = sequence.length;
+        int[] rest = new int[k - len];
+        int r = 0;
+        for (int x = 0; x < k; x++) {
+            if (x < i || x >= i + len) {
+                rest[r++] = sequence[x];
+            }
+        }
+        int o = 0;
+        for (int x = 0; x < p; x++) {
+            out[o++] = rest[x];
+        }
+        for (int x = 0; x < len; x++) {
+            out[o++] = sequence[i + x];
+        }
+        for (int x = p; x < rest.length; x++) {
+            out[o++] = rest[x];
+        }
+    }
+
+    private static Route buildRoute(Evaluator evaluator, int[] sequence, List<Order> placed,
+                                    List<Order> unplaced, int moves, long planNanos) {
+        List<Stop> stops = new ArrayList<>();
+        int previous = 0;
+        double clock = evaluator.nowMinute;
+        double totalKm = 0;
+        double totalLate = 0;
+
+        for (int node : sequence) {
+            double leg = evaluator.leg(previous, node);
+            double arrival = evaluator.arrive(clock, leg, node);
+            double late = evaluator.lateness(arrival, node);
+            stops.add(new Stop(placed.get(node - 1), leg, (int) Math.round(arrival), (int) Math.round(late)));
+            totalKm += leg;
+            totalLate += late;
+            clock = arrival + SERVICE_MINUTES;
+            previous = node;
+        }
+        return new Route(stops, unplaced, totalKm, (int) Math.round(totalLate), moves, planNanos);
+    }
+
+    /**
+     * Simulates a sequence against the distance matrix and the time windows
+     */
+    private static class Evaluator {
+        private final DistanceMatrix matrix;
+        private final boolean hasStart;
+        private final int[] windowStart;
+        private final int[] windowEnd;
+        private final int nowMinute;
+
+        Evaluator(DistanceMatrix matrix, boolean hasStart, int[] windowStart, int[] windowEnd, int nowMinute) {
+            this.matrix = matrix;
+            this.hasStart = hasStart;
+            this.windowStart = windowStart;
+            this.windowEnd = windowEnd;
+            this.nowMinute = nowMinute;
+        }
+
+        double leg(int from, int to) {
+            return from == 0 && !hasStart ? 0 : matrix.get(from, to);
+        }
+
+        /** Arrival (or service start, if we wait for the window) at a stop */
+        double arrive(double clock, double legKm, int stop) {
+            double arrival = clock + legKm / SPEED_KMH * 60.0;
+            return Math.max(arrival, windowStart[stop]);
+        }
+
+        double lateness(double arrival, int stop) {
+            return windowEnd[stop] < 0 ? 0 : Math.max(0, arrival - windowEnd[stop]);
+        }
+
+        double cost(int[] sequence) {
+            int previous = 0;
+            double clock = nowMinute;
+            double cost = 0;
+            for (int node : sequence) {
+                double leg = leg(previous, node);
+                double arrival = arrive(clock, leg, node);
+                cost += leg + LATE_PENALTY_KM_PER_MINUTE * lateness(arrival, node);
+                clock = arrival + SERVICE_MINUTES;
+                previous = node;
+            }
+            return cost;
+        }
+    }
+
+    /**
+     * Inner class for one planned drop-off
+     */
+    public static class Stop {
+        private final Order order;
+        private final double legKm;
+        private final int etaMinute;
+        private final int lateMinutes;
+
+        public Stop(Order order, double legKm, int etaMinute, int lateMinutes) {
+            this.order = order;
+            this.legKm = legKm;
+            this.etaMinute = etaMinute;
+            this.lateMinutes = lateMinutes;
+        }
+
+        public Order getOrder() { return order; }
+        public double getLegKm() { return legKm; }
+        /** Minutes after midnight; may exceed one day for long routes */
+        public int getEtaMinute() { return etaMinute; }
+        public int getLateMinutes() { return lateMinutes; }
+        public boolean isLate() { return lateMinutes > 0; }
+
+        public String getFormattedEta() {
+            return TimeWindow.formatMinuteOfDay(etaMinute);
+        }
+    }
+
+    /**
+     * Inner class for a planned route
+     */
+    public static class Route {
+        private final List<Stop> stops;
+        private final List<Order> unplaced;
+        private final double totalKm;
+        private final int totalLateMinutes;
+        private final int improvingMoves;
+        private final long planNanos;
+
+        public Route(List<Stop> stops, List<Order> unplaced, double totalKm, int totalLateMinutes,
+                     int improvingMoves, long planNanos) {
+            this.stops = Collections.unmodifiableList(stops);
+            this.unplaced = Collections.unmodifiableList(unplaced);
+            this.totalKm = totalKm;
+            this.totalLateMinutes = totalLateMinutes;
+            this.improvingMoves = improvingMoves;
+            this.planNanos = planNanos;
+        }
+
+        public List<Stop> getStops() { return stops; }
+        /** Orders whose address could not be located; visit them last */
+        public List<Order> getUnplaced() { return unplaced; }
+        public double getTotalKm() { return totalKm; }
+        public int getTotalLateMinutes() { return totalLateMinutes; }
+        /** True if every stop is reached before its window closes */
+        public boolean isFeasible() { return totalLateMinutes == 0; }
+        public int getImprovingMoves() { return improvingMoves; }
+        public long getPlanNanos() { return planNanos; }
+    }
+}
@@ -0,0 +1,352 @@
+package com.example.quickcommercedeliverysystemdesktop.services;
+
+import com.example.quickcommercedeliverysystemdesktop.database.NotificationDAO;
+import com.example.quickcommercedeliverysystemdesktop.database.OrderDAO;
+import com.example.quickcommercedeliverysystemdesktop.database.OrderDAO.OrderTiming;
+import com.example.quickcommercedeliverysystemdesktop.database.UserDAO;
+import com.example.quickcommercedeliverysystemdesktop.events.OrderEvent;
+import com.example.quickcommercedeliverysystemdesktop.events.OrderEventBus;
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+import com.example.quickcommercedeliverysystemdesktop.metrics.MetricsRegistry;
+import com.example.quickcommercedeliverysystemdesktop.models.Order.OrderStatus;
+import com.example.quickcommercedeliverysystemdesktop.models.TimeWindow;
+import com.example.quickcommercedeliverysystemdesktop.utils.HashedTimingWheel;
+import com.example.quickcommercedeliverysystemdesktop.utils.HashedTimingWheel.Timeout;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Watches open orders for SLA breaches with one timer per order.
+ *
+ * A PENDING order first gets a "stale" check a fixed time after creation, which
+ * alerts the customer and admins, then (if auto-cancel is on) an "expired"
+ * check when its window has closed, which cancels it. Accepted and in-transit
+ * orders get a "late" check at the end of their window, which alerts the
+ * customer and the partner. Timers live on a {@link HashedTimingWheel} and are
+ * replaced on every order event instead of polling the Orders table.
+ *
+ * Deadlines that passed while the app was closed do not alert at startup;
+ * those orders move straight to their next check.
+ *
+ * System properties:
+ * sla.enabled (default true), sla.pendingMinutes (default 30),
+ * sla.graceMinutes (default 10), sla.autoCancel (default false) and
+ * sla.tickMillis (default 1000).
+ */
+public final class SlaMonitor {
+
+    private static final Logger log = LogManager.getLogger(SlaMonitor.class);
+
+    private static final long PENDING_MINUTES = Long.getLong("sla.pendingMinutes", 30);
+    /** Minutes after a window closes before an order counts as late or expired */
+    private static final long GRACE_MINUTES = Long.getLong("sla.graceMinutes", 10);
+    private static final boolean AUTO_CANCEL =
+            Boolean.parseBoolean(System.getProperty("sla.autoCancel", "false"));
+    private static final long TICK_MILLIS = Long.getLong("sla.tickMillis", 1000);
+    private static final int WHEEL_SIZE = 512;
+
+    public enum Check {
+        STALE,
+        EXPIRED,
+        LATE
+    }
+
+    private static final Map<Integer, Timeout<Scheduled>> timers = new ConcurrentHashMap<>();
+    /** Orders that already had their stale or late alert, so replans do not repeat it */
+    private static final Set<Integer> staleAlerted = ConcurrentHashMap.newKeySet();
+    private static final Set<Integer> lateAlerted = ConcurrentHashMap.newKeySet();
+    private static final Consumer<OrderEvent> listener = SlaMonitor::onOrderEvent;
+    private static final AtomicLong fired = new AtomicLong();
+
+    private static HashedTimingWheel<Scheduled> wheel;
+    private static ExecutorService actions;
+
+    private SlaMonitor() {
+    }
+
+    /**
+     * Load the open orders, schedule their checks and start listening for changes
+     */
+    public static synchronized void start() {
+        if (wheel != null || !Boolean.parseBoolean(System.getProperty("sla.enabled", "true"))) {
+            return;
+        }
+        // Timer callbacks only hand off; notifications and cancels run here
+        actions = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(() -> {
+                MetricsRegistry.markBackgroundThread();
+                r.run();
+            }, "sla-actions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        wheel = new HashedTimingWheel<>("sla-wheel", TICK_MILLIS, TimeUnit.MILLISECONDS, WHEEL_SIZE,
+                scheduled -> actions.execute(() -> runCheck(scheduled)));
+        wheel.start();
+
+        OrderEventBus.subscribe(listener);
+        List<OrderTiming> open = OrderDAO.getOpenOrderTimings();
+        for (OrderTiming timing : open) {
+            schedule(timing, false);
+        }
+        log.info("SLA monitor started with {} timers for {} open orders", timers.size(), open.size());
+    }
+
+    public static synchronized void stop() {
+        if (wheel == null) {
+            return;
+        }
+        OrderEventBus.unsubscribe(listener);
+        wheel.stop();
+        actions.shutdown();
+        timers.clear();
+        staleAlerted.clear();
+        lateAlerted.clear();
+        wheel = null;
+        actions = null;
+        log.info("SLA monitor stopped");
+    }
+
+    public static synchronized boolean isRunning() {
+        return wheel != null;
+    }
+
+    /** Orders with a check scheduled */
+    public static int getLiveTimerCount() {
+        return timers.size();
+    }
+
+    /** Checks that have fired since start, whether or not they acted */
+    public static long getFiredCount() {
+        return fired.get();
+    }
+
+    // ===== SCHEDULING =====
+
+    private static void onOrderEvent(OrderEvent event) {
+        ExecutorService executor = actions;
+        if (executor != null) {
+            // Keep the DAO caller (often the UI thread) free of the follow-up read
+            executor.execute(() -> reschedule(event));
+        }
+    }
+
+    private static void reschedule(OrderEvent event) {
+        switch (event.getType()) {
+            case DELIVERED, RATED, CANCELLED, DELETED -> {
+                cancel(event.getOrderId());
+                staleAlerted.remove(event.getOrderId());
+                lateAlerted.remove(event.getOrderId());
+            }
+            default -> {
+                OrderTiming timing = OrderDAO.getOrderTiming(event.getOrderId());
+                if (timing != null) {
+                    schedule(timing, true);
+                } else {
+                    cancel(event.getOrderId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Replace the order's timer with its next check.
+     * With {@code catchUp} false, an alert whose time has passed is skipped rather than fired.
+     */
+    private static void schedule(OrderTiming timing, boolean catchUp) {
+        Scheduled next = nextCheck(timing, LocalDateTime.now(), catchUp);
+        if (next == null) {
+            cancel(timing.getOrderId());
+        } else {
+            schedule(next);
+        }
+    }
+
+    private static void schedule(Scheduled next) {
+        HashedTimingWheel<Scheduled> current = wheel;
+        if (current == null) {
+            return;
+        }
+        long delayMillis = Math.max(0, Duration.between(LocalDateTime.now(), next.due).toMillis());
+        Timeout<Scheduled> previous = timers.put(next.orderId,
+                current.schedule(next, delayMillis, TimeUnit.MILLISECONDS));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private static Scheduled nextCheck(OrderTiming timing, LocalDateTime now, boolean catchUp) {
+        LocalDateTime windowClose = windowClose(timing);
+        switch (timing.getStatus()) {
+            case PENDING -> {
+                LocalDateTime staleAt = timing.getCreatedAt().plusMinutes(PENDING_MINUTES);
+                if (!staleAlerted.contains(timing.getOrderId()) && (catchUp || staleAt.isAfter(now))) {
+                    return new Scheduled(timing.getOrderId(), Check.STALE, staleAt);
+                }
+                return expiredCheck(timing, windowClose);
+            }
+            case ACCEPTED, PICKED_UP, ON_THE_WAY -> {
+                if (windowClose == null || lateAlerted.contains(timing.getOrderId())
+                        || !catchUp && !windowClose.isAfter(now)) {
+                    return null;
+                }
+                return new Scheduled(timing.getOrderId(), Check.LATE, windowClose);
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    private static Scheduled expiredCheck(OrderTiming timing, LocalDateTime windowClose) {
+        if (!AUTO_CANCEL || windowClose == null) {
+            return null;
+        }
+        return new Scheduled(timing.getOrderId(), Check.EXPIRED, windowClose);
+    }
+
+    /**
+     * When the order's window closes plus grace, on the first such time after creation; null without a window end
+     */
+    private static LocalDateTime windowClose(OrderTiming timing) {
+        TimeWindow window = timing.getWindow();
+        if (!window.hasEnd()) {
+            return null;
+        }
+        LocalDateTime created = timing.getCreatedAt();
+        LocalDateTime close = created.toLocalDate().atStartOfDay()
+                .plusMinutes(window.getEffectiveEndMinute() % TimeWindow.MINUTES_PER_DAY)
+                .plusMinutes(GRACE_MINUTES);
+        return close.isBefore(created) ? close.plusDays(1) : close;
+    }
+
+    private static void cancel(int orderId) {
+        Timeout<Scheduled> previous = timers.remove(orderId);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    // ===== CHECKS =====
+
+    private static void runCheck(Scheduled scheduled) {
+        fired.incrementAndGet();
+        Timeout<Scheduled> timeout = timers.get(scheduled.orderId);
+        if (timeout == null || timeout.getValue() != scheduled) {
+            // Replaced by a newer event in the meantime
+            return;
+        }
+        timers.remove(scheduled.orderId, timeout);
+
+        try {
+            // Re-read: the timer may have raced an event from another process
+            OrderTiming timing = OrderDAO.getOrderTiming(scheduled.orderId);
+            if (timing == null) {
+                return;
+            }
+            switch (scheduled.check) {
+                case STALE -> {
+                    if (timing.getStatus() == OrderStatus.PENDING && staleAlerted.add(timing.getOrderId())) {
+                        alertStale(timing);
+                        schedule(timing, false);
+                    }
+                }
+                case EXPIRED -> {
+                    if (timing.getStatus() == OrderStatus.PENDING && OrderDAO.cancelIfPending(timing.getOrderId())) {
+                        NotificationDAO.createNotification(
+                            timing.getCustomerId(),
+                            "Order Cancelled",
+                            "Order #" + timing.getOrderId() + " was cancelled because no delivery partner took it before its delivery window closed.",
+                            "ORDER_UPDATE",
+                            timing.getOrderId()
+                        );
+                        log.info("SLA: auto-cancelled expired order #{}", timing.getOrderId());
+                    }
+                }
+                case LATE -> {
+                    if (timing.getStatus() == OrderStatus.ACCEPTED
+                            || timing.getStatus() == OrderStatus.PICKED_UP
+                            || timing.getStatus() == OrderStatus.ON_THE_WAY) {
+                        if (lateAlerted.add(timing.getOrderId())) {
+                            alertLate(timing);
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("SLA check failed for order #" + scheduled.orderId, e);
+        }
+    }
+
+    private static void alertStale(OrderTiming timing) {
+        int orderId = timing.getOrderId();
+        NotificationDAO.createNotification(
+            timing.getCustomerId(),
+            "Still Looking for a Partner",
+            "Order #" + orderId + " has been waiting for a delivery partner for over " + PENDING_MINUTES + " minutes.",
+            "ORDER_UPDATE",
+            orderId
+        );
+        for (Integer adminId : UserDAO.getAdminUserIds()) {
+            if (!adminId.equals(timing.getCustomerId())) {
+                NotificationDAO.createNotification(
+                    adminId,
+                    "Order Waiting Too Long",
+                    "Order #" + orderId + " is still pending after " + PENDING_MINUTES + " minutes",
+                    "INFO",
+                    orderId
+                );
+            }
+        }
+        log.info("SLA: order #{} is stale", orderId);
+    }
+
+    private static void alertLate(OrderTiming timing) {
+        int orderId = timing.getOrderId();
+        if (timing.getCustomerId() > 0) {
+            NotificationDAO.createNotification(
+                timing.getCustomerId(),
+                "Delivery Running Late",
+                "Order #" + orderId + " has not been delivered and its delivery window has closed.",
+                "DELIVERY_UPDATE",
+                orderId
+            );
+        }
+        if (timing.getPartnerId() > 0) {
+            NotificationDAO.createNotification(
+                timing.getPartnerId(),
+                "Delivery Overdue",
+                "Order #" + orderId + " is past its delivery window. Please deliver it or update the customer.",
+                "DELIVERY_UPDATE",
+                orderId
+            );
+        }
+        log.info("SLA: order #{} is late", orderId);
+    }
+
+    /**
+     * One pending check for one order
+     */
+    private static final class Scheduled {
+        private final int orderId;
+        private final Check check;
+        private final LocalDateTime due;
+
+        Scheduled(int orderId, Check check, LocalDateTime due) {
+            this.orderId = orderId;
+            this.check = check;
+            this.due = due;
+        }
+    }
+}
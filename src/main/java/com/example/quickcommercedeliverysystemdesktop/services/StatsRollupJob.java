@@ -0,0 +1,60 @@
+package com.example.quickcommercedeliverysystemdesktop.services;
+
+import com.example.quickcommercedeliverysystemdesktop.database.RollupDAO;
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the StatsRollup buckets behind the trend charts current.
+ *
+ * Each run folds only the orders and earnings added since the last one, so it
+ * stays cheap at a short interval. The first run after an upgrade folds the
+ * whole live history once.
+ *
+ * System properties: rollup.enabled (default true) and
+ * rollup.intervalSeconds (default 60).
+ */
+public final class StatsRollupJob {
+
+    private static final Logger log = LogManager.getLogger(StatsRollupJob.class);
+
+    private static final long INTERVAL_SECONDS = Long.getLong("rollup.intervalSeconds", 60);
+    private static final long INITIAL_DELAY_SECONDS = 5;
+
+    private static ScheduledFuture<?> task;
+
+    private StatsRollupJob() {
+    }
+
+    public static synchronized void start() {
+        if (task != null || !Boolean.parseBoolean(System.getProperty("rollup.enabled", "true"))) {
+            return;
+        }
+        task = BackgroundScheduler.scheduleWithFixedDelay("stats-rollup", StatsRollupJob::runOnce,
+                INITIAL_DELAY_SECONDS, INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void stop() {
+        if (task == null) {
+            return;
+        }
+        task.cancel(false);
+        task = null;
+    }
+
+    /**
+     * Fold new activity into the rollups now, on the calling thread.
+     * Returns the rows folded, or -1 on error.
+     */
+    public static int runOnce() {
+        long start = System.nanoTime();
+        int folded = RollupDAO.refresh();
+        if (folded > 0) {
+            log.info("Stats rollup folded {} rows in {} ms", folded, (System.nanoTime() - start) / 1_000_000);
+        }
+        return folded;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.quickcommercedeliverysystemdesktop.services;
+
+import com.example.quickcommercedeliverysystemdesktop.database.RollupDAO;
+import com.example.quickcommercedeliverysystemdesktop.database.RollupDAO.Grain;
+import com.example.quickcommercedeliverysystemdesktop.database.RollupDAO.RollupPoint;
+import com.example.quickcommercedeliverysystemdesktop.utils.Lttb;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chart-ready trend series read from the StatsRollup buckets.
+ *
+ * Each range reads one grain over a fixed number of buckets, so the cost of a
+ * chart does not grow with the history behind it. Empty buckets are filled
+ * with zeros so the x axis is continuous, and a series with more points than
+ * the chart has room for is thinned with LTTB.
+ */
+public final class TrendSeries {
+
+    /** What the series counts */
+    public enum Metric {
+        ORDERS("Orders"),
+        DELIVERIES("Deliveries"),
+        EARNINGS("Earnings");
+
+        private final String label;
+
+        Metric(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() { return label; }
+    }
+
+    /** Chart ranges; all time reads the monthly buckets */
+    public enum Range {
+        LAST_24_HOURS("Last 24 Hours", Grain.HOUR, 24, "HH:00"),
+        LAST_30_DAYS("Last 30 Days", Grain.DAY, 30, "MMM dd"),
+        LAST_YEAR("Last 12 Months", Grain.DAY, 365, "MMM dd, yy"),
+        ALL_TIME("All Time", Grain.MONTH, 0, "MMM yyyy");
+
+        private final String label;
+        private final Grain grain;
+        /** Buckets ending with the current one; 0 for everything */
+        private final int buckets;
+        private final DateTimeFormatter labelFormat;
+
+        Range(String label, Grain grain, int buckets, String labelPattern) {
+            this.label = label;
+            this.grain = grain;
+            this.buckets = buckets;
+            this.labelFormat = DateTimeFormatter.ofPattern(labelPattern);
+        }
+
+        public Grain getGrain() { return grain; }
+
+        @Override
+        public String toString() { return label; }
+    }
+
+    private TrendSeries() {
+    }
+
+    /**
+     * Load a series for the whole system ({@link RollupDAO#ALL_PARTNERS}) or
+     * one partner, with at most {@code maxPoints} points (at least 3).
+     * Earnings are in currency units, for plotting only.
+     */
+    public static List<Point> load(Range range, int partnerId, Metric metric, int maxPoints) {
+        Grain grain = range.grain;
+        LocalDateTime last = grain.truncate(LocalDateTime.now());
+        LocalDateTime first = range.buckets > 0 ? grain.plus(last, 1 - range.buckets) : null;
+
+        List<RollupPoint> stored = RollupDAO.getSeries(grain, partnerId,
+                first != null ? grain.bucketOf(first) : null);
+        Map<String, RollupPoint> byBucket = new HashMap<>();
+        for (RollupPoint point : stored) {
+            byBucket.put(point.getBucket(), point);
+        }
+        if (first == null) {
+            first = stored.isEmpty() ? last : grain.parse(stored.get(0).getBucket());
+        }
+
+        List<LocalDateTime> starts = new ArrayList<>();
+        for (LocalDateTime start = first; !start.isAfter(last); start = grain.plus(start, 1)) {
+            starts.add(start);
+        }
+
+        int n = starts.size();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+            y[i] = valueOf(byBucket.get(grain.bucketOf(starts.get(i))), metric);
+        }
+
+        List<Point> points = new ArrayList<>();
+        for (int index : Lttb.downsample(x, y, Math.max(3, maxPoints))) {
+            LocalDateTime start = starts.get(index);
+            points.add(new Point(range.labelFormat.format(start), start, y[index]));
+        }
+        return points;
+    }
+
+    private static double valueOf(RollupPoint point, Metric metric) {
+        if (point == null) {
+            return 0;
+        }
+        return switch (metric) {
+            case ORDERS -> point.getOrders();
+            case DELIVERIES -> point.getDeliveries();
+            case EARNINGS -> point.getEarnings().toDecimal();
+        };
+    }
+
+    /**
+     * Inner class for one plotted point
+     */
+    public static class Point {
+        private final String label;
+        private final LocalDateTime bucketStart;
+        private final double value;
+
+        public Point(String label, LocalDateTime bucketStart, double value) {
+            this.label = label;
+            this.bucketStart = bucketStart;
+            this.value = value;
+        }
+
+        public String getLabel() { return label; }
+        public LocalDateTime getBucketStart() { return bucketStart; }
+        public double getValue() { return value; }
+    }
+}
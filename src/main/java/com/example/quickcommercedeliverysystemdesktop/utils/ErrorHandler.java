@@ -1,5 +1,7 @@
 package com.example.quickcommercedeliverysystemdesktop.utils;
 
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
 import javafx.scene.control.Alert;
 import javafx.scene.control.TextArea;
 import javafx.scene.layout.GridPane;
@@ -7,8 +9,6 @@ import javafx.scene.layout.Priority;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Error Handler Utility - Day 14
@@ -16,7 +16,7 @@ import java.time.format.DateTimeFormatter;
  */
 public class ErrorHandler {
 
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final Logger log = LogManager.getLogger(ErrorHandler.class);
 
     /**
      * Handle general exception with user-friendly message
@@ -110,31 +110,24 @@ public class ErrorHandler {
     }
 
     /**
-     * Log error to console (in production, would log to file)
+     * Log error through the asynchronous application log
      */
     public static void logError(Exception e) {
-        String timestamp = LocalDateTime.now().format(formatter);
-        System.err.println("=== ERROR LOG [" + timestamp + "] ===");
-        System.err.println("Exception: " + e.getClass().getSimpleName());
-        System.err.println("Message: " + e.getMessage());
-        e.printStackTrace();
-        System.err.println("=== END ERROR LOG ===\n");
+        log.error(e.getClass().getSimpleName() + ": " + e.getMessage(), e);
     }
 
     /**
      * Log info message
      */
     public static void logInfo(String message) {
-        String timestamp = LocalDateTime.now().format(formatter);
-        System.out.println("[INFO " + timestamp + "] " + message);
+        log.info(message);
     }
 
     /**
      * Log warning message
      */
     public static void logWarning(String message) {
-        String timestamp = LocalDateTime.now().format(formatter);
-        System.out.println("[WARNING " + timestamp + "] " + message);
+        log.warn(message);
     }
 
     /**
@@ -0,0 +1,316 @@
+package com.example.quickcommercedeliverysystemdesktop.utils;
+
+import com.example.quickcommercedeliverysystemdesktop.logging.LogManager;
+import com.example.quickcommercedeliverysystemdesktop.logging.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for large numbers of coarse timers.
+ *
+ * A ring of buckets is advanced one bucket per tick by a single daemon thread.
+ * A timer lands in the bucket of its deadline tick and carries how many full
+ * turns of the wheel remain, so scheduling and cancelling are O(1) no matter
+ * how many timers are live, and each tick only touches one bucket. Deadlines
+ * are accurate to one tick.
+ *
+ * Timers fire on the wheel thread; the callback should hand real work to
+ * another executor. Cancelled timers are unlinked on the next tick.
+ */
+public class HashedTimingWheel<T> {
+
+    private static final Logger log = LogManager.getLogger(HashedTimingWheel.class);
+
+    /** Upper bound on newly scheduled timers moved into the wheel per tick */
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final String name;
+    private final long tickNanos;
+    private final Bucket<T>[] wheel;
+    private final int mask;
+    private final Consumer<T> onExpire;
+
+    private final Queue<Timeout<T>> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout<T>> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+
+    private volatile long startNanos;
+    private volatile Thread worker;
+    private volatile boolean running;
+    private long tick;
+
+    /**
+     * @param ticksPerWheel rounded up to a power of two
+     */
+    public HashedTimingWheel(String name, long tickDuration, TimeUnit unit, int ticksPerWheel, Consumer<T> onExpire) {
+        if (tickDuration <= 0 || ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        int size = 1;
+        while (size < ticksPerWheel) {
+            size <<= 1;
+        }
+        this.name = name;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = newBuckets(size);
+        this.mask = size - 1;
+        this.onExpire = onExpire;
+    }
+
+    /**
+     * Generic arrays cannot be created directly; every slot gets its own bucket
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Bucket<T>[] newBuckets(int size) {
+        Bucket<T>[] buckets = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new Bucket<>();
+        }
+        return buckets;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        startNanos = System.nanoTime();
+        tick = 0;
+        Thread thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    /**
+     * Stop the wheel thread; timers that have not fired are dropped
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker = null;
+        for (Bucket<T> bucket : wheel) {
+            bucket.clear();
+        }
+        scheduled.clear();
+        cancelled.clear();
+        pending.set(0);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Fire {@code value} after the delay; a delay of zero or less fires on the next tick
+     */
+    public Timeout<T> schedule(T value, long delay, TimeUnit unit) {
+        if (!running) {
+            start();
+        }
+        long deadline = System.nanoTime() + Math.max(0, unit.toNanos(delay)) - startNanos;
+        Timeout<T> timeout = new Timeout<>(this, value, deadline);
+        pending.incrementAndGet();
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Timers scheduled and neither fired nor cancelled
+     */
+    public long getPendingCount() {
+        return pending.get();
+    }
+
+    // ===== WORKER =====
+
+    private void run() {
+        while (running) {
+            long deadline = waitForNextTick();
+            if (deadline < 0) {
+                continue;
+            }
+            Bucket<T> bucket = wheel[(int) (tick & mask)];
+            processCancelled();
+            transferScheduled();
+            bucket.expire(deadline);
+            tick++;
+        }
+    }
+
+    /**
+     * Sleep until the end of the current tick; returns the elapsed time then, or -1 if interrupted
+     */
+    private long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long now = System.nanoTime() - startNanos;
+            long sleepMillis = (deadline - now + 999_999) / 1_000_000;
+            if (sleepMillis <= 0) {
+                return now;
+            }
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    private void transferScheduled() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout<T> timeout = scheduled.poll();
+            if (timeout == null) {
+                break;
+            }
+            if (timeout.state.get() != Timeout.ST_INIT) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void processCancelled() {
+        Timeout<T> timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void expire(Timeout<T> timeout) {
+        if (!timeout.state.compareAndSet(Timeout.ST_INIT, Timeout.ST_EXPIRED)) {
+            return;
+        }
+        pending.decrementAndGet();
+        try {
+            onExpire.accept(timeout.value);
+        } catch (RuntimeException e) {
+            log.error("Timer callback failed on " + name, e);
+        }
+    }
+
+    /**
+     * Handle to one scheduled timer
+     */
+    public static final class Timeout<T> {
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final HashedTimingWheel<T> timer;
+        private final T value;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+
+        // Owned by the wheel thread
+        private long remainingRounds;
+        private Timeout<T> next;
+        private Timeout<T> prev;
+        private Bucket<T> bucket;
+
+        private Timeout(HashedTimingWheel<T> timer, T value, long deadline) {
+            this.timer = timer;
+            this.value = value;
+            this.deadline = deadline;
+        }
+
+        public T getValue() { return value; }
+
+        /**
+         * Cancel the timer; returns false if it already fired or was cancelled
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            timer.pending.decrementAndGet();
+            timer.cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() { return state.get() == ST_CANCELLED; }
+        public boolean isExpired() { return state.get() == ST_EXPIRED; }
+    }
+
+    /**
+     * Doubly linked list of the timers in one slot
+     */
+    private static final class Bucket<T> {
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire(long deadline) {
+            Timeout<T> timeout = head;
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                    remove(timeout);
+                    timeout.timer.expire(timeout);
+                } else if (timeout.remainingRounds > 0) {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            Timeout<T> next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        void clear() {
+            head = null;
+            tail = null;
+        }
+    }
+}
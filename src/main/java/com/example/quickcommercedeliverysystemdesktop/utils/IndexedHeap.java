@@ -0,0 +1,144 @@
+package com.example.quickcommercedeliverysystemdesktop.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Binary heap that knows where each item sits, so an item whose score
+ * changed can be moved to its new place in O(log n) instead of being removed
+ * and re-added by a linear search.
+ *
+ * The item ranked first by the comparator is at the root. top(k) walks the
+ * heap from the root with a small frontier queue, touching O(k) slots and
+ * leaving the heap as it was. Items must keep their equals and hashCode
+ * while they are in the heap; their score may change as long as update() is
+ * called afterwards. Not thread-safe.
+ */
+public class IndexedHeap<T> {
+
+    private final Comparator<? super T> order;
+    private final List<T> slots = new ArrayList<>();
+    private final Map<T, Integer> positions = new HashMap<>();
+
+    public IndexedHeap(Comparator<? super T> order) {
+        this.order = order;
+    }
+
+    public int size() { return slots.size(); }
+    public boolean isEmpty() { return slots.isEmpty(); }
+    public boolean contains(T item) { return positions.containsKey(item); }
+
+    /**
+     * Add {@code item}, or move it to match its changed score if it is already in
+     */
+    public void update(T item) {
+        Integer position = positions.get(item);
+        if (position == null) {
+            slots.add(item);
+            positions.put(item, slots.size() - 1);
+            siftUp(slots.size() - 1);
+        } else if (!siftUp(position)) {
+            siftDown(position);
+        }
+    }
+
+    public boolean remove(T item) {
+        Integer position = positions.remove(item);
+        if (position == null) {
+            return false;
+        }
+        T last = slots.remove(slots.size() - 1);
+        if (position < slots.size()) {
+            slots.set(position, last);
+            positions.put(last, position);
+            if (!siftUp(position)) {
+                siftDown(position);
+            }
+        }
+        return true;
+    }
+
+    public void clear() {
+        slots.clear();
+        positions.clear();
+    }
+
+    /**
+     * The first {@code k} items in rank order, without changing the heap
+     */
+    public List<T> top(int k) {
+        int limit = Math.min(k, slots.size());
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        List<T> result = new ArrayList<>(limit);
+
+        // Slots whose parents were taken; the next item is always among them
+        PriorityQueue<Integer> frontier = new PriorityQueue<>(
+                (a, b) -> order.compare(slots.get(a), slots.get(b)));
+        frontier.add(0);
+        while (result.size() < limit) {
+            int slot = frontier.poll();
+            result.add(slots.get(slot));
+            int child = 2 * slot + 1;
+            if (child < slots.size()) {
+                frontier.add(child);
+            }
+            if (child + 1 < slots.size()) {
+                frontier.add(child + 1);
+            }
+        }
+        return result;
+    }
+
+    // ===== SIFTING =====
+
+    /**
+     * Returns true if the item moved
+     */
+    private boolean siftUp(int position) {
+        int start = position;
+        T item = slots.get(position);
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            T above = slots.get(parent);
+            if (order.compare(item, above) >= 0) {
+                break;
+            }
+            place(above, position);
+            position = parent;
+        }
+        place(item, position);
+        return position != start;
+    }
+
+    private void siftDown(int position) {
+        T item = slots.get(position);
+        int size = slots.size();
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && order.compare(slots.get(child + 1), slots.get(child)) < 0) {
+                child++;
+            }
+            T below = slots.get(child);
+            if (order.compare(below, item) >= 0) {
+                break;
+            }
+            place(below, position);
+            position = child;
+        }
+        place(item, position);
+    }
+
+    private void place(T item, int position) {
+        slots.set(position, item);
+        positions.put(item, position);
+    }
+}
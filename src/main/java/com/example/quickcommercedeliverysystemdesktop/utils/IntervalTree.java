@@ -0,0 +1,236 @@
+package com.example.quickcommercedeliverysystemdesktop.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Half-open integer intervals [start, end) with a value each, in an AVL tree
+ * ordered by start and augmented with the largest end in every subtree.
+ *
+ * Insert, remove and "does anything overlap" are O(log n); listing the
+ * overlapping intervals is O(log n + k). Not thread-safe.
+ */
+public class IntervalTree<T> {
+
+    private Node<T> root;
+    private int size;
+
+    /**
+     * Add an interval; empty intervals (end <= start) are ignored
+     */
+    public void insert(int start, int end, T value) {
+        if (end <= start) {
+            return;
+        }
+        root = insert(root, new Node<>(start, end, value));
+        size++;
+    }
+
+    /**
+     * Remove one interval with exactly these bounds and an equal value
+     */
+    public boolean remove(int start, int end, T value) {
+        int before = size;
+        root = remove(root, start, end, value);
+        return size < before;
+    }
+
+    /**
+     * True if any stored interval overlaps [start, end)
+     */
+    public boolean overlapsAny(int start, int end) {
+        Node<T> node = root;
+        while (node != null) {
+            if (node.start < end && start < node.end) {
+                return true;
+            }
+            // Go left only if something there can still reach past our start
+            if (node.left != null && node.left.maxEnd > start) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Values of every stored interval overlapping [start, end), in start order
+     */
+    public List<T> query(int start, int end) {
+        List<T> result = new ArrayList<>();
+        collect(root, start, end, result);
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Levels from the root to the deepest leaf; at most about 1.44 log2(n) while balanced
+     */
+    int height() {
+        return height(root);
+    }
+
+    // ===== TREE MAINTENANCE =====
+
+    private static <T> void collect(Node<T> node, int start, int end, List<T> out) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        collect(node.left, start, end, out);
+        if (node.start < end && start < node.end) {
+            out.add(node.value);
+        }
+        if (node.start < end) {
+            collect(node.right, start, end, out);
+        }
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.end, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return rebalance(node);
+    }
+
+    private Node<T> remove(Node<T> node, int start, int end, T value) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, end, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, end, value);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, end, value);
+        } else if (Objects.equals(node.value, value)) {
+            size--;
+            return unlink(node);
+        } else {
+            // Equal bounds can sit on either side after rotations
+            int before = size;
+            node.left = remove(node.left, start, end, value);
+            if (size == before) {
+                node.right = remove(node.right, start, end, value);
+            }
+        }
+        return rebalance(node);
+    }
+
+    private Node<T> unlink(Node<T> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node<T> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        successor.right = removeMin(node.right);
+        successor.left = node.left;
+        return rebalance(successor);
+    }
+
+    private Node<T> removeMin(Node<T> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private static <T> int compare(int start, int end, Node<T> node) {
+        if (start != node.start) {
+            return Integer.compare(start, node.start);
+        }
+        return Integer.compare(end, node.end);
+    }
+
+    private Node<T> rebalance(Node<T> node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static <T> void update(Node<T> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        int maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd > maxEnd) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd > maxEnd) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static class Node<T> {
+        private final int start;
+        private final int end;
+        private final T value;
+        private int maxEnd;
+        private int height = 1;
+        private Node<T> left;
+        private Node<T> right;
+
+        Node(int start, int end, T value) {
+            this.start = start;
+            this.end = end;
+            this.value = value;
+            this.maxEnd = end;
+        }
+    }
+}
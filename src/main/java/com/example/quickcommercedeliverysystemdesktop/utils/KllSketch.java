@@ -0,0 +1,289 @@
+package com.example.quickcommercedeliverysystemdesktop.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * KLL quantile sketch (Karnin, Lang and Liberty) for streams of numbers.
+ *
+ * Items sit in levels where an item on level h stands for 2^h inputs. When a
+ * level fills up it is sorted and every other item, picked by a coin flip,
+ * moves up a level. Capacities shrink by 2/3 per level below the top one, so
+ * the sketch holds O(k log n) items and ranks are off by about 1.7/k of n
+ * (roughly 1% at the default k = 200). Sketches of the same data split in
+ * any way can be merged. The exact min and max are kept as well.
+ *
+ * toBytes() stores items as 32-bit floats: about seven significant digits,
+ * which is plenty for durations in seconds. Not thread-safe.
+ */
+public class KllSketch {
+
+    public static final int DEFAULT_K = 200;
+
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final byte FORMAT_VERSION = 1;
+
+    private final int k;
+    private final List<Level> levels = new ArrayList<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    /** Items held over all levels, and the total that triggers a compaction */
+    private int size;
+    private int maxSize;
+
+    public KllSketch() {
+        this(DEFAULT_K);
+    }
+
+    public KllSketch(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k must be at least 8: " + k);
+        }
+        this.k = k;
+        grow();
+    }
+
+    public void update(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        levels.get(0).add(value);
+        size++;
+        count++;
+        min = count == 1 ? value : Math.min(min, value);
+        max = count == 1 ? value : Math.max(max, value);
+        if (size >= maxSize) {
+            compress();
+        }
+    }
+
+    /**
+     * Fold another sketch into this one; {@code other} is left unchanged
+     */
+    public void merge(KllSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        while (levels.size() < other.levels.size()) {
+            grow();
+        }
+        for (int h = 0; h < other.levels.size(); h++) {
+            levels.get(h).addAll(other.levels.get(h));
+        }
+        size += other.size;
+        min = count == 0 ? other.min : Math.min(min, other.min);
+        max = count == 0 ? other.max : Math.max(max, other.max);
+        count += other.count;
+        while (size >= maxSize) {
+            compress();
+        }
+    }
+
+    public long getCount() { return count; }
+    public boolean isEmpty() { return count == 0; }
+    public double getMin() { return min; }
+    public double getMax() { return max; }
+
+    /**
+     * Approximate value at {@code fraction} (0 to 1) of the sorted input, NaN when empty
+     */
+    public double quantile(double fraction) {
+        return quantiles(fraction)[0];
+    }
+
+    /**
+     * Several quantiles at once, sorting the retained items only once
+     */
+    public double[] quantiles(double... fractions) {
+        double[] result = new double[fractions.length];
+        if (count == 0) {
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+
+        // Retained items with their weights, sorted by value
+        double[] values = new double[size];
+        long[] weights = new long[size];
+        int n = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            Level level = levels.get(h);
+            for (int i = 0; i < level.size; i++) {
+                values[n] = level.items[i];
+                weights[n] = 1L << h;
+                n++;
+            }
+        }
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        long totalWeight = 0;
+        for (int i = 0; i < n; i++) {
+            totalWeight += weights[i];
+        }
+
+        for (int q = 0; q < fractions.length; q++) {
+            double fraction = fractions[q];
+            if (fraction <= 0) {
+                result[q] = min;
+            } else if (fraction >= 1) {
+                result[q] = max;
+            } else {
+                double target = fraction * totalWeight;
+                long cumulative = 0;
+                result[q] = max;
+                for (int i = 0; i < n; i++) {
+                    cumulative += weights[order[i]];
+                    if (cumulative >= target) {
+                        result[q] = values[order[i]];
+                        break;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    // ===== COMPACTION =====
+
+    private void grow() {
+        levels.add(new Level());
+        maxSize = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            maxSize += capacity(h);
+        }
+    }
+
+    private int capacity(int level) {
+        int depth = levels.size() - level - 1;
+        return (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)) + 1;
+    }
+
+    /**
+     * Compact the lowest full level, then the next, until under the total
+     * again; lazily, so small levels are not emptied before they must be
+     */
+    private void compress() {
+        for (int h = 0; h < levels.size(); h++) {
+            Level level = levels.get(h);
+            if (level.size >= capacity(h)) {
+                if (h + 1 >= levels.size()) {
+                    grow();
+                }
+                int before = level.size;
+                int promoted = level.compactInto(levels.get(h + 1), random.nextBoolean());
+                size -= before - level.size - promoted;
+                if (size < maxSize) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * One level's items, unsorted until it is compacted
+     */
+    private static class Level {
+        private double[] items = new double[16];
+        private int size;
+
+        private void add(double value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+
+        private void addAll(Level other) {
+            if (size + other.size > items.length) {
+                items = Arrays.copyOf(items, Math.max(items.length * 2, size + other.size));
+            }
+            System.arraycopy(other.items, 0, items, size, other.size);
+            size += other.size;
+        }
+
+        /**
+         * Sort, move one item of each adjacent pair up a level and keep the odd
+         * one out, if any. Returns how many items were moved.
+         */
+        private int compactInto(Level next, boolean takeLower) {
+            Arrays.sort(items, 0, size);
+            int keep = size % 2;
+            int promoted = 0;
+            for (int i = keep + (takeLower ? 0 : 1); i < size; i += 2) {
+                next.add(items[i]);
+                promoted++;
+            }
+            size = keep;
+            return promoted;
+        }
+    }
+
+    // ===== SERIALIZATION =====
+
+    /**
+     * Compact binary form for storage; read back with fromBytes
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + size * 4 + levels.size() * 4);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeShort(k);
+            out.writeLong(count);
+            out.writeDouble(min);
+            out.writeDouble(max);
+            out.writeByte(levels.size());
+            for (Level level : levels) {
+                out.writeInt(level.size);
+                for (int i = 0; i < level.size; i++) {
+                    out.writeFloat((float) level.items[i]);
+                }
+            }
+        } catch (IOException e) {
+            // A ByteArrayOutputStream does not throw
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not a sketch written by toBytes
+     */
+    public static KllSketch fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unknown sketch format " + version);
+            }
+            KllSketch sketch = new KllSketch(in.readShort());
+            sketch.count = in.readLong();
+            sketch.min = in.readDouble();
+            sketch.max = in.readDouble();
+            int levelCount = in.readByte();
+            while (sketch.levels.size() < levelCount) {
+                sketch.grow();
+            }
+            for (int h = 0; h < levelCount; h++) {
+                Level level = sketch.levels.get(h);
+                int n = in.readInt();
+                for (int i = 0; i < n; i++) {
+                    level.add(in.readFloat());
+                }
+                sketch.size += n;
+            }
+            return sketch;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated sketch", e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.quickcommercedeliverysystemdesktop.utils;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling for line charts.
+ *
+ * Keeps the first and last points and, from each of {@code threshold - 2}
+ * equal buckets in between, the point that forms the largest triangle with
+ * the point kept before it and the average of the next bucket. Peaks and
+ * dips survive, unlike plain averaging or every-nth sampling. O(n).
+ */
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * Indices of the points to draw, in order. When there are no more than
+     * {@code threshold} points (or fewer than three are asked for) every index
+     * is returned.
+     *
+     * @param x ascending x values
+     * @param y y values, same length as {@code x}
+     */
+    public static int[] downsample(double[] x, double[] y, int threshold) {
+        int n = x.length;
+        if (threshold >= n || threshold < 3) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] kept = new int[threshold];
+        int count = 0;
+        kept[count++] = 0;
+
+        // Points between the fixed first and last, spread over threshold - 2 buckets
+        int buckets = threshold - 2;
+        int previous = 0;
+
+        for (int i = 0; i < buckets; i++) {
+            int start = bucketStart(i, n, buckets);
+            int end = bucketStart(i + 1, n, buckets);
+
+            // Average of the next bucket; the last point stands in for it at the end
+            int nextStart = end;
+            int nextEnd = i + 1 < buckets ? bucketStart(i + 2, n, buckets) : n;
+            double averageX = 0;
+            double averageY = 0;
+            for (int j = nextStart; j < nextEnd; j++) {
+                averageX += x[j];
+                averageY += y[j];
+            }
+            int nextCount = nextEnd - nextStart;
+            averageX /= nextCount;
+            averageY /= nextCount;
+
+            double maxArea = -1;
+            int chosen = start;
+            for (int j = start; j < end; j++) {
+                // Twice the triangle's area; only the comparison matters
+                double area = Math.abs((x[previous] - averageX) * (y[j] - y[previous])
+                        - (x[previous] - x[j]) * (averageY - y[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = j;
+                }
+            }
+
+            kept[count++] = chosen;
+            previous = chosen;
+        }
+
+        kept[count] = n - 1;
+        return kept;
+    }
+
+    /**
+     * First index of a bucket, in integer arithmetic so the buckets tile the
+     * inner points exactly; floating-point steps can drift a point out of every bucket
+     */
+    private static int bucketStart(int bucket, int n, int buckets) {
+        return 1 + (int) ((long) bucket * (n - 2) / buckets);
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.quickcommercedeliverysystemdesktop.database;
+
+import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO.AdminEarningRecord;
+import com.example.quickcommercedeliverysystemdesktop.database.DeliveryDAO.EarningsPage;
+import com.example.quickcommercedeliverysystemdesktop.models.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Date filters and ordering of the admin earnings queries over both forms of
+ * Earnings.created_at: INTEGER millis written by the DAOs and local-time text
+ * left by older versions.
+ */
+class EarningsQueryTest {
+
+    private Path directory;
+    private int partnerId;
+    private int customerId;
+
+    @BeforeEach
+    void createDatabase() throws IOException, SQLException {
+        // Monthly archives are written next to the database file
+        directory = Files.createTempDirectory("earnings-query");
+        System.setProperty(Database.PATH_PROPERTY, directory.resolve("test.db").toString());
+        DatabaseInitializer.initialize();
+        customerId = insertUser("Customer", "customer@test.local");
+        partnerId = insertUser("Partner", "partner@test.local");
+    }
+
+    @AfterEach
+    void deleteDatabase() throws IOException {
+        System.clearProperty(Database.PATH_PROPERTY);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void dateFilterFindsEarningWrittenByCompleteDelivery() throws SQLException {
+        int orderId = insertPickedUpOrder();
+        assertTrue(DeliveryDAO.completeDelivery(orderId, partnerId, Money.ofMinor(1234)));
+        assertEquals("integer", earningStorageType(orderId));
+
+        LocalDate today = LocalDate.now();
+        EarningsPage page = DeliveryDAO.queryEarnings(EarningsQuery.create().between(today, today));
+        assertEquals(1, page.getTotalCount());
+        assertEquals(Money.ofMinor(1234), page.getTotalAmount());
+        assertEquals(orderId, page.getRecords().get(0).getOrderId());
+
+        assertEquals(1, DeliveryDAO.countEarnings(EarningsQuery.create().between(today, null)));
+        assertEquals(1, DeliveryDAO.countEarnings(EarningsQuery.create().between(null, today)));
+        assertEquals(0, DeliveryDAO.countEarnings(EarningsQuery.create().between(null, today.minusDays(1))));
+        assertEquals(0, DeliveryDAO.countEarnings(EarningsQuery.create().between(today.plusDays(1), null)));
+    }
+
+    @Test
+    void dateFilterStillMatchesTextTimestamps() throws SQLException {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        insertTextEarning(insertPickedUpOrder(), yesterday.atTime(10, 30), 500);
+
+        assertEquals(1, DeliveryDAO.countEarnings(EarningsQuery.create().between(yesterday, yesterday)));
+        assertEquals(0, DeliveryDAO.countEarnings(EarningsQuery.create().between(LocalDate.now(), null)));
+        assertEquals(1, DeliveryDAO.countEarnings(EarningsQuery.create().between(null, yesterday)));
+    }
+
+    @Test
+    void pageAndStreamListMixedStorageNewestFirst() throws SQLException {
+        LocalDate today = LocalDate.now();
+        int olderTextOrder = insertPickedUpOrder();
+        insertTextEarning(olderTextOrder, today.minusDays(2).atTime(9, 0), 100);
+        int newestOrder = insertPickedUpOrder();
+        assertTrue(DeliveryDAO.completeDelivery(newestOrder, partnerId, Money.ofMinor(300)));
+        int newerTextOrder = insertPickedUpOrder();
+        insertTextEarning(newerTextOrder, today.minusDays(1).atTime(9, 0), 200);
+
+        EarningsQuery query = EarningsQuery.create().between(today.minusDays(7), today);
+        List<Integer> paged = new ArrayList<>();
+        for (AdminEarningRecord record : DeliveryDAO.queryEarnings(query).getRecords()) {
+            paged.add(record.getOrderId());
+        }
+        assertEquals(List.of(newestOrder, newerTextOrder, olderTextOrder), paged);
+
+        // The second page continues the same order
+        EarningsPage second = DeliveryDAO.queryEarnings(EarningsQuery.create().between(today.minusDays(7), today).page(1, 2));
+        assertEquals(List.of(olderTextOrder), second.getRecords().stream().map(AdminEarningRecord::getOrderId).toList());
+
+        List<Integer> streamed = new ArrayList<>();
+        DeliveryDAO.streamEarnings(query, record -> streamed.add(record.getOrderId()));
+        assertEquals(3, streamed.size());
+    }
+
+    @Test
+    void archivedEarningsMatchDateRange() throws SQLException {
+        int orderId = insertPickedUpOrder();
+        assertTrue(DeliveryDAO.completeDelivery(orderId, partnerId, Money.ofMinor(700)));
+        assertEquals(1, ArchiveDAO.archiveClosedOrders(LocalDateTime.now().plusDays(1), 10));
+        // Without a date range only the live table is searched
+        assertEquals(0, DeliveryDAO.countEarnings(EarningsQuery.create()));
+
+        LocalDate today = LocalDate.now();
+        List<AdminEarningRecord> archived = DeliveryDAO.getEarningsByDateRange(today.toString(), today.toString());
+        assertEquals(List.of(orderId), archived.stream().map(AdminEarningRecord::getOrderId).toList());
+
+        EarningsPage page = DeliveryDAO.queryEarnings(EarningsQuery.create().between(today, today));
+        assertEquals(1, page.getTotalCount());
+        assertEquals(Money.ofMinor(700), page.getTotalAmount());
+        assertTrue(DeliveryDAO.getEarningsByDateRange(today.minusDays(3).toString(),
+                today.minusDays(1).toString()).isEmpty());
+    }
+
+    // ===== FIXTURES =====
+
+    private int insertUser(String name, String email) throws SQLException {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "INSERT INTO Users (name, email, password) VALUES (?, ?, 'x')",
+                     Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, name);
+            ps.setString(2, email);
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    /** An order already picked up by the partner, ready for completeDelivery */
+    private int insertPickedUpOrder() throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            int orderId;
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO Orders (customer_id, product_name, delivery_location, status) " +
+                    "VALUES (?, 'Parcel', 'Somewhere', 'PICKED_UP')", Statement.RETURN_GENERATED_KEYS)) {
+                ps.setInt(1, customerId);
+                ps.executeUpdate();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    keys.next();
+                    orderId = keys.getInt(1);
+                }
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO Deliveries (order_id, delivery_person_id, status, created_at) VALUES (?, ?, 'Picked Up', ?)")) {
+                ps.setInt(1, orderId);
+                ps.setInt(2, partnerId);
+                ps.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+                ps.executeUpdate();
+            }
+            return orderId;
+        }
+    }
+
+    /** An earning stored the way older versions and hand-written SQL did, as local-time text */
+    private void insertTextEarning(int orderId, LocalDateTime earnedAt, long amountMinor) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement("UPDATE Orders SET status = 'DELIVERED' WHERE order_id = ?")) {
+                ps.setInt(1, orderId);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO Earnings (delivery_person_id, order_id, amount_minor, created_at) VALUES (?, ?, ?, ?)")) {
+                ps.setInt(1, partnerId);
+                ps.setInt(2, orderId);
+                ps.setLong(3, amountMinor);
+                ps.setString(4, Timestamp.valueOf(earnedAt).toString());
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    private String earningStorageType(int orderId) throws SQLException {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT typeof(created_at) FROM Earnings WHERE order_id = ?")) {
+            ps.setInt(1, orderId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.quickcommercedeliverysystemdesktop.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Retention batches over both forms of Notifications.created_at: INTEGER
+ * millis written by the DAO and local-time text left by older versions.
+ */
+class NotificationDAOTest {
+
+    private static final DateTimeFormatter TEXT_FORM = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private Path directory;
+    private int userId;
+    private LocalDateTime cutoff;
+
+    @BeforeEach
+    void createDatabase() throws IOException, SQLException {
+        directory = Files.createTempDirectory("notification-dao");
+        System.setProperty(Database.PATH_PROPERTY, directory.resolve("test.db").toString());
+        DatabaseInitializer.initialize();
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "INSERT INTO users (name, email, password) VALUES ('Reader', 'reader@test.local', 'x')",
+                     Statement.RETURN_GENERATED_KEYS)) {
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                keys.next();
+                userId = keys.getInt(1);
+            }
+        }
+        cutoff = LocalDateTime.now().minusDays(30).withNano(0);
+    }
+
+    @AfterEach
+    void deleteDatabase() throws IOException {
+        System.clearProperty(Database.PATH_PROPERTY);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void deleteReadBeforeTakesOldReadRowsOfBothFormsInBatches() throws SQLException {
+        for (int i = 0; i < 5; i++) {
+            insert("Old", true, cutoff.minusHours(i + 1), i % 2 == 0);
+        }
+        // Right at the cutoff, newer, or unread: all kept
+        insert("Edge", true, cutoff, true);
+        insert("Edge", true, cutoff, false);
+        insert("New", true, cutoff.plusSeconds(1), true);
+        insert("New", true, cutoff.plusSeconds(1), false);
+        insert("Unread", false, cutoff.minusDays(3), true);
+        insert("Unread", false, cutoff.minusDays(3), false);
+
+        assertEquals(2, NotificationDAO.deleteReadBefore(cutoff, 2));
+        assertEquals(2, NotificationDAO.deleteReadBefore(cutoff, 2));
+        assertEquals(1, NotificationDAO.deleteReadBefore(cutoff, 2));
+        assertEquals(0, NotificationDAO.deleteReadBefore(cutoff, 2));
+
+        assertEquals(0, count("title = 'Old'"));
+        assertEquals(2, count("title = 'Edge'"));
+        assertEquals(2, count("title = 'New'"));
+        assertEquals(2, count("title = 'Unread'"));
+    }
+
+    @Test
+    void digestReadBeforeFoldsOneGroupPerDayAcrossBothForms() throws SQLException {
+        LocalDateTime day = cutoff.minusDays(2).withHour(9).withMinute(0).withSecond(0);
+        for (int i = 0; i < 3; i++) {
+            insert("Order update", true, day.plusMinutes(i), true);
+            insert("Order update", true, day.plusMinutes(10 + i), false);
+        }
+        // Too small a group, and a group past the cutoff
+        insert("Promo", true, day, true);
+        insert("Promo", true, day.plusMinutes(1), false);
+        for (int i = 0; i < 6; i++) {
+            insert("Recent", true, cutoff.plusMinutes(i + 1), i % 2 == 0);
+        }
+
+        NotificationDAO.DigestResult result = NotificationDAO.digestReadBefore(cutoff, 5, 10);
+        assertEquals(1, result.getDigestsWritten());
+        assertEquals(6, result.getNotificationsReplaced());
+        assertEquals(1, count("title = 'Order update (6×)' AND digest_count = 6"));
+        assertEquals(0, count("title = 'Order update'"));
+        assertEquals(2, count("title = 'Promo'"));
+        assertEquals(6, count("title = 'Recent'"));
+
+        // A second pass folds only the small group; the digest row is never folded again
+        NotificationDAO.DigestResult again = NotificationDAO.digestReadBefore(cutoff, 1, 10);
+        assertEquals(1, again.getDigestsWritten());
+        assertEquals(2, again.getNotificationsReplaced());
+        assertEquals(1, count("digest_count = 6"));
+    }
+
+    @Test
+    void retentionBoundIsServedByTheReadIndex() throws SQLException {
+        List<String> plan = new ArrayList<>();
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement("EXPLAIN QUERY PLAN " + NotificationDAO.READ_BEFORE)) {
+            ps.setLong(1, Timestamp.valueOf(cutoff).getTime());
+            ps.setString(2, cutoff.format(TEXT_FORM));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    plan.add(rs.getString("detail"));
+                }
+            }
+        }
+        // One range search per storage form, never a scan of every read row
+        String range = "idx_notifications_read (is_read=? AND created_at>? AND created_at<?)";
+        assertEquals(2, plan.stream().filter(step -> step.contains(range)).count(), plan.toString());
+    }
+
+    private void insert(String title, boolean read, LocalDateTime createdAt, boolean asMillis) throws SQLException {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement("INSERT INTO Notifications " +
+                     "(user_id, title, message, type, is_read, created_at) VALUES (?, ?, 'body', 'INFO', ?, ?)")) {
+            ps.setInt(1, userId);
+            ps.setString(2, title);
+            ps.setInt(3, read ? 1 : 0);
+            if (asMillis) {
+                ps.setTimestamp(4, Timestamp.valueOf(createdAt));
+            } else {
+                ps.setString(4, createdAt.format(TEXT_FORM));
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    private int count(String condition) throws SQLException {
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM Notifications WHERE " + condition)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.quickcommercedeliverysystemdesktop.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Migration 7 on a version 6 database holding the orphans older versions
+ * left behind, and the delete rules it installs.
+ */
+class SchemaMigratorTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void useTemporaryDatabase() throws IOException {
+        directory = Files.createTempDirectory("schema-migrator");
+        System.setProperty(Database.PATH_PROPERTY, directory.resolve("test.db").toString());
+    }
+
+    @AfterEach
+    void deleteDatabase() throws IOException {
+        System.clearProperty(Database.PATH_PROPERTY);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void upgradeKeepsOrdersOfDeletedCustomersAndArchivesTrueOrphans() throws SQLException {
+        DatabaseInitializer.initialize(6);
+        int customer;
+        int partner;
+        int delivered;
+        int pending;
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement()) {
+            // Older versions deleted users and orders without touching their children
+            stmt.execute("PRAGMA foreign_keys = OFF");
+            customer = insert(conn, "INSERT INTO users (name, email, password) VALUES ('Gone', 'gone@test.local', 'x')");
+            partner = insert(conn, "INSERT INTO users (name, email, password) VALUES ('Rider', 'rider@test.local', 'x')");
+            delivered = insert(conn, "INSERT INTO orders (customer_id, product_name, delivery_location, fee, status) " +
+                    "VALUES (" + customer + ", 'Bread', 'Banani', 4.5, 'DELIVERED')");
+            pending = insert(conn, "INSERT INTO orders (customer_id, product_name, delivery_location, fee, status) " +
+                    "VALUES (" + customer + ", 'Milk', 'Banani', 3.0, 'PENDING')");
+            stmt.execute("INSERT INTO Deliveries (order_id, delivery_person_id, status, delivered_time) VALUES (" +
+                    delivered + ", " + partner + ", 'DELIVERED', CURRENT_TIMESTAMP)");
+            stmt.execute("INSERT INTO Earnings (delivery_person_id, order_id, amount) VALUES (" +
+                    partner + ", " + delivered + ", 4.5)");
+            stmt.execute("INSERT INTO Ratings (order_id, customer_id, delivery_person_id, rating) VALUES (" +
+                    delivered + ", " + customer + ", " + partner + ", 5)");
+            // A delivery and earning whose order was deleted by hand, and a notice to a deleted user
+            stmt.execute("INSERT INTO Deliveries (order_id, delivery_person_id, status, delivered_time) VALUES (999, " +
+                    partner + ", 'DELIVERED', CURRENT_TIMESTAMP)");
+            stmt.execute("INSERT INTO Earnings (delivery_person_id, order_id, amount) VALUES (" + partner + ", 999, 2.5)");
+            stmt.execute("INSERT INTO Notifications (user_id, title, message) VALUES (777, 'Hi', 'Lost notice')");
+            stmt.execute("DELETE FROM users WHERE user_id = " + customer);
+
+            SchemaMigrator.migrate(conn);
+            assertEquals(SchemaMigrator.getLatestVersion(), SchemaMigrator.getVersion(conn));
+
+            // The customer's orders and rating stay, without a customer; the partner keeps the earning
+            assertNull(scalar(conn, "SELECT customer_id FROM orders WHERE order_id = " + delivered));
+            assertEquals("DELIVERED", scalar(conn, "SELECT status FROM orders WHERE order_id = " + delivered));
+            assertEquals("CANCELLED", scalar(conn, "SELECT status FROM orders WHERE order_id = " + pending));
+            assertEquals(450L, scalar(conn, "SELECT amount_minor FROM Earnings WHERE order_id = " + delivered));
+            assertNull(scalar(conn, "SELECT customer_id FROM Ratings WHERE order_id = " + delivered));
+
+            // Only the true orphans left, and they count in the partner's archived totals
+            assertEquals(0L, scalar(conn, "SELECT COUNT(*) FROM Earnings WHERE order_id = 999"));
+            assertEquals(0L, scalar(conn, "SELECT COUNT(*) FROM Deliveries WHERE order_id = 999"));
+            assertEquals(0L, scalar(conn, "SELECT COUNT(*) FROM Notifications WHERE user_id = 777"));
+            assertEquals(1L, scalar(conn, "SELECT deliveries FROM ArchivedPartnerTotals WHERE delivery_person_id = " + partner));
+            assertEquals(1L, scalar(conn, "SELECT completed FROM ArchivedPartnerTotals WHERE delivery_person_id = " + partner));
+            assertEquals(250L, scalar(conn, "SELECT earnings_minor FROM ArchivedPartnerTotals WHERE delivery_person_id = " + partner));
+            try (ResultSet rs = stmt.executeQuery("PRAGMA foreign_key_check")) {
+                assertFalse(rs.next(), "rows still break a foreign key");
+            }
+        }
+
+        File orphans = new File(ArchiveDAO.getArchiveDirectory(), SchemaMigrator.ORPHAN_FILE);
+        assertTrue(orphans.isFile());
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("ATTACH DATABASE '" + orphans.getPath() + "' AS saved");
+            assertEquals(2.5, ((Number) scalar(conn, "SELECT amount FROM saved.Earnings WHERE order_id = 999")).doubleValue());
+            assertEquals(1L, scalar(conn, "SELECT COUNT(*) FROM saved.Deliveries WHERE order_id = 999"));
+            assertEquals("Lost notice", scalar(conn, "SELECT message FROM saved.Notifications WHERE user_id = 777"));
+            assertEquals(0L, scalar(conn, "SELECT COUNT(*) FROM saved.sqlite_master WHERE name = 'orders'"));
+            stmt.execute("DETACH DATABASE saved");
+        }
+    }
+
+    @Test
+    void deletingACustomerKeepsWhatPartnersDelivered() throws SQLException {
+        DatabaseInitializer.initialize();
+        assertFalse(new File(ArchiveDAO.getArchiveDirectory(), SchemaMigrator.ORPHAN_FILE).exists(),
+                "a clean upgrade must not leave an orphan archive");
+
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement()) {
+            int customer = insert(conn, "INSERT INTO users (name, email, password) VALUES ('Buyer', 'buyer@test.local', 'x')");
+            int other = insert(conn, "INSERT INTO users (name, email, password) VALUES ('Other', 'other@test.local', 'x')");
+            int partner = insert(conn, "INSERT INTO users (name, email, password) VALUES ('Rider', 'rider@test.local', 'x')");
+            int delivered = insertOrder(conn, customer, "DELIVERED");
+            int pending = insertOrder(conn, customer, "PENDING");
+            int carried = insertOrder(conn, other, "PICKED_UP");
+            stmt.execute("INSERT INTO Deliveries (order_id, delivery_person_id, status) VALUES (" + delivered + ", " + partner + ", 'DELIVERED')");
+            stmt.execute("INSERT INTO Earnings (delivery_person_id, order_id, amount_minor) VALUES (" + partner + ", " + delivered + ", 450)");
+            stmt.execute("INSERT INTO Deliveries (order_id, delivery_person_id, status) VALUES (" + carried + ", " + partner + ", 'PICKED_UP')");
+
+            assertEquals(1, UserDAO.purgeUsers(List.of(customer)));
+            assertNull(scalar(conn, "SELECT customer_id FROM orders WHERE order_id = " + delivered));
+            assertEquals("CANCELLED", scalar(conn, "SELECT status FROM orders WHERE order_id = " + pending));
+            assertEquals(450L, scalar(conn, "SELECT amount_minor FROM Earnings WHERE order_id = " + delivered));
+
+            // Deleting the order itself still takes its children with it
+            assertEquals(1, OrderDAO.purgeOrders(List.of(delivered)));
+            assertEquals(0L, scalar(conn, "SELECT COUNT(*) FROM Earnings WHERE order_id = " + delivered));
+            assertEquals(0L, scalar(conn, "SELECT COUNT(*) FROM Deliveries WHERE order_id = " + delivered));
+
+            // A deleted partner's own records go, and what they carried is offered again
+            assertEquals(1, UserDAO.purgeUsers(List.of(partner)));
+            assertEquals("PENDING", scalar(conn, "SELECT status FROM orders WHERE order_id = " + carried));
+            assertEquals(0L, scalar(conn, "SELECT COUNT(*) FROM Deliveries WHERE delivery_person_id = " + partner));
+        }
+    }
+
+    private static int insertOrder(Connection conn, int customerId, String status) throws SQLException {
+        return insert(conn, "INSERT INTO orders (customer_id, product_name, delivery_location, fee_minor, status) " +
+                "VALUES (" + customerId + ", 'Parcel', 'Gulshan', 300, '" + status + "')");
+    }
+
+    private static int insert(Connection conn, String sql) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    private static Object scalar(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next(), sql);
+            Object value = rs.getObject(1);
+            return value instanceof Integer i ? Long.valueOf(i) : value;
+        }
+    }
+}
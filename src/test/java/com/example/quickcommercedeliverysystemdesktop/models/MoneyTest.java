@@ -0,0 +1,112 @@
+package com.example.quickcommercedeliverysystemdesktop.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Formatting, parsing and rounding checked against BigDecimal, with negative
+ * amounts and the ends of the long range included.
+ */
+class MoneyTest {
+
+    private static final long[] EDGES = {
+            0, 1, -1, 5, -5, 9, -9, 10, -10, 99, -99, 100, -100, 101, -101, 1_234_567, -1_234_567,
+            Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE - 1, Long.MIN_VALUE + 1
+    };
+
+    @Test
+    void formattingMatchesBigDecimal() {
+        Random random = new Random(29);
+        for (long minor : EDGES) {
+            assertFormatted(minor);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertFormatted(random.nextBoolean() ? random.nextLong() : random.nextInt(20_000) - 10_000);
+        }
+    }
+
+    @Test
+    void appendWritesIntoTheCallersBuilder() {
+        StringBuilder out = new StringBuilder("Total: ");
+        assertSame(out, Money.appendTo(out, -1_050));
+        assertEquals("Total: -$10.50", out.toString());
+        assertEquals("0.07", Money.ofMinor(7).toPlainString());
+        assertEquals("-$0.07", Money.ofMinor(-7).toString());
+    }
+
+    @Test
+    void parseRoundsHalfUpLikeBigDecimal() {
+        String[] inputs = {"0", "12", "12.5", "12.50", "-12.5", "0.005", "-0.005", "0.004", "-0.004",
+                "1.995", "-1.995", " 7.10 ", "92233720368547758.07", "-92233720368547758.08"};
+        for (String input : inputs) {
+            BigDecimal expected = new BigDecimal(input.trim()).setScale(2, RoundingMode.HALF_UP);
+            assertEquals(expected.unscaledValue().longValueExact(), Money.parse(input).getMinor(), input);
+        }
+        Random random = new Random(31);
+        for (int i = 0; i < 20_000; i++) {
+            BigDecimal value = BigDecimal.valueOf(random.nextLong() / 1000, 3 + random.nextInt(3));
+            long expected = value.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+            assertEquals(expected, Money.parse(value.toPlainString()).getMinor(), value.toPlainString());
+        }
+    }
+
+    @Test
+    void parseRejectsGarbageAndOverflow() {
+        assertThrows(NumberFormatException.class, () -> Money.parse("abc"));
+        assertThrows(NumberFormatException.class, () -> Money.parse(""));
+        assertThrows(NumberFormatException.class, () -> Money.parse("92233720368547758.08"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("-92233720368547758.09"));
+    }
+
+    @Test
+    void dividedByRoundsHalvesAwayFromZero() {
+        Random random = new Random(37);
+        for (int i = 0; i < 100_000; i++) {
+            long minor = i % 2 == 0 ? random.nextLong() : random.nextInt(2_000) - 1_000;
+            long count = i % 3 == 0 ? 1 + random.nextInt(10) : random.nextLong(1, Long.MAX_VALUE);
+            if (random.nextInt(4) == 0) {
+                count = -count;
+            }
+            long expected = BigDecimal.valueOf(minor)
+                    .divide(BigDecimal.valueOf(count), 0, RoundingMode.HALF_UP).longValueExact();
+            assertEquals(expected, Money.ofMinor(minor).dividedBy(count).getMinor(), minor + " / " + count);
+        }
+        assertEquals(-3, Money.ofMinor(-5).dividedBy(2).getMinor());
+        assertEquals(3, Money.ofMinor(5).dividedBy(2).getMinor());
+        assertEquals(-2, Money.ofMinor(-7).dividedBy(3).getMinor());
+    }
+
+    @Test
+    void fromDecimalRoundsTheScaledValueHalfAwayFromZero() {
+        Random random = new Random(41);
+        for (int i = 0; i < 100_000; i++) {
+            double amount = (random.nextInt(2_000_000) - 1_000_000) / (random.nextBoolean() ? 1000.0 : 100.0);
+            long expected = new BigDecimal(amount * 100).setScale(0, RoundingMode.HALF_UP).longValueExact();
+            assertEquals(expected, Money.fromDecimal(amount).getMinor(), Double.toString(amount));
+        }
+        assertEquals(-3, Money.fromDecimal(-0.025).getMinor());
+        assertEquals(3, Money.fromDecimal(0.025).getMinor());
+    }
+
+    @Test
+    void plusIsExactAndRefusesToOverflow() {
+        assertEquals(Money.ofMinor(-1), Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(Long.MIN_VALUE)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).plus(Money.ofMinor(-1)));
+    }
+
+    private static void assertFormatted(long minor) {
+        String digits = BigDecimal.valueOf(minor, 2).abs().toPlainString();
+        String sign = minor < 0 ? "-" : "";
+        assertEquals(sign + "$" + digits, Money.format(minor), Long.toString(minor));
+        assertEquals(sign + digits, Money.appendPlain(new StringBuilder(), minor).toString());
+        assertEquals(minor, Money.parse(sign + digits).getMinor());
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.quickcommercedeliverysystemdesktop.services;
+
+import com.example.quickcommercedeliverysystemdesktop.services.DispatchSolver.Problem;
+import com.example.quickcommercedeliverysystemdesktop.services.DispatchSolver.Solution;
+import com.example.quickcommercedeliverysystemdesktop.services.DispatchSolver.Weights;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Greedy and auction assignment checked against exhaustive search on small
+ * random score matrices.
+ */
+class DispatchSolverTest {
+
+    private static final double EPSILON = 0.01;
+
+    private final DispatchSolver solver = new DispatchSolver(new Weights().auctionEpsilon(EPSILON));
+
+    @Test
+    void auctionIsWithinJobsTimesEpsilonOfOptimum() {
+        Random random = new Random(7);
+        for (int round = 0; round < 500; round++) {
+            int n = 1 + random.nextInt(6);
+            int m = 1 + random.nextInt(6);
+            float[] scores = randomScores(random, n, m);
+
+            int[] auction = solver.auction(scores, n, m, Long.MAX_VALUE);
+            assertNotNull(auction);
+            assertValid(scores, auction, m);
+            double optimum = bestTotal(scores, n, m, 0, new boolean[m]);
+            assertTrue(total(scores, auction, m) >= optimum - n * EPSILON - 1e-6,
+                    "round " + round + ": " + total(scores, auction, m) + " vs optimum " + optimum);
+        }
+    }
+
+    @Test
+    void greedyTakesPairsBestFirst() {
+        Random random = new Random(11);
+        for (int round = 0; round < 500; round++) {
+            int n = 1 + random.nextInt(8);
+            int m = 1 + random.nextInt(8);
+            float[] scores = randomScores(random, n, m);
+
+            int[] greedy = DispatchSolver.greedy(scores, n, m);
+            assertValid(scores, greedy, m);
+            assertArrayEquals(slowGreedy(scores, n, m), greedy, "round " + round);
+        }
+    }
+
+    @Test
+    void auctionGivesUpAtTheDeadline() {
+        // Two jobs with equal scores for the same two couriers and a tiny
+        // increment: prices climb by epsilon per bid, far past any deadline
+        int n = 3;
+        int m = 2;
+        float[] scores = new float[n * m];
+        Arrays.fill(scores, 10f);
+        DispatchSolver slow = new DispatchSolver(new Weights().auctionEpsilon(1e-9));
+
+        assertNull(slow.auction(scores, n, m, System.nanoTime() - 1));
+
+        long start = System.nanoTime();
+        assertNull(slow.auction(scores, n, m, start + TimeUnit.MILLISECONDS.toNanos(20)));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    void solveKeepsGreedyWhenRefinementRunsOutOfTime() {
+        Problem problem = new Problem(600);
+        for (int i = 0; i < 3; i++) {
+            problem.addJob(100 + i, 1, 23.78, 90.40, 50, -1, -1);
+        }
+        problem.addCourier(200, 23.78, 90.40);
+        problem.addCourier(201, 23.78, 90.40);
+
+        DispatchSolver slow = new DispatchSolver(new Weights().auctionEpsilon(1e-9));
+        Solution solution = slow.solve(problem, true, TimeUnit.MILLISECONDS.toNanos(10));
+        assertFalse(solution.isRefined());
+        assertEquals(2, solution.size());
+        assertEquals(solution.getGreedyScore(), solution.getTotalScore());
+    }
+
+    @Test
+    void solveNeverAssignsAnOrderToItsOwnCustomer() {
+        Problem problem = new Problem(600)
+                .addJob(1, 50, 23.78, 90.40, 80, -1, -1)
+                .addCourier(50, 23.78, 90.40)
+                .addCourier(51, 23.80, 90.41);
+
+        Solution solution = solver.solve(problem, true, TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, solution.size());
+        assertEquals(51, solution.getPartnerId(0));
+        assertTrue(solution.getTotalScore() >= solution.getGreedyScore());
+    }
+
+    @Test
+    void latenessWrapsWindowsPastMidnight() {
+        assertEquals(0, DispatchSolver.lateness(600, -1, -1));
+        assertEquals(30, DispatchSolver.lateness(690, 540, 660));
+        // 23:00 to 01:00 ends at minute 1500 of the day it started
+        assertEquals(0, DispatchSolver.lateness(1450, 1380, 60));
+        assertEquals(20, DispatchSolver.lateness(1520, 1380, 60));
+    }
+
+    // ===== ORACLES =====
+
+    /** About a quarter of the pairs are infeasible; the rest score 1 to 100 */
+    private static float[] randomScores(Random random, int n, int m) {
+        float[] scores = new float[n * m];
+        for (int cell = 0; cell < scores.length; cell++) {
+            scores[cell] = random.nextInt(4) == 0 ? Float.NEGATIVE_INFINITY : 1 + random.nextFloat() * 99;
+        }
+        return scores;
+    }
+
+    /** Best total over every partial matching, jobs in row order */
+    private static double bestTotal(float[] scores, int n, int m, int job, boolean[] taken) {
+        if (job == n) {
+            return 0;
+        }
+        double best = bestTotal(scores, n, m, job + 1, taken);
+        for (int j = 0; j < m; j++) {
+            float s = scores[job * m + j];
+            if (!taken[j] && s != Float.NEGATIVE_INFINITY) {
+                taken[j] = true;
+                best = Math.max(best, s + bestTotal(scores, n, m, job + 1, taken));
+                taken[j] = false;
+            }
+        }
+        return best;
+    }
+
+    /** Repeatedly take the highest remaining pair; ties go to the later cell like the packed sort */
+    private static int[] slowGreedy(float[] scores, int n, int m) {
+        int[] assignment = new int[n];
+        Arrays.fill(assignment, -1);
+        boolean[] taken = new boolean[m];
+        while (true) {
+            int bestCell = -1;
+            for (int cell = 0; cell < scores.length; cell++) {
+                if (scores[cell] == Float.NEGATIVE_INFINITY || assignment[cell / m] >= 0 || taken[cell % m]) {
+                    continue;
+                }
+                if (bestCell < 0 || scores[cell] >= scores[bestCell]) {
+                    bestCell = cell;
+                }
+            }
+            if (bestCell < 0) {
+                return assignment;
+            }
+            assignment[bestCell / m] = bestCell % m;
+            taken[bestCell % m] = true;
+        }
+    }
+
+    private static void assertValid(float[] scores, int[] assignment, int m) {
+        boolean[] taken = new boolean[m];
+        for (int job = 0; job < assignment.length; job++) {
+            int courier = assignment[job];
+            if (courier < 0) {
+                continue;
+            }
+            assertFalse(taken[courier], "courier " + courier + " assigned twice");
+            taken[courier] = true;
+            assertTrue(scores[job * m + courier] != Float.NEGATIVE_INFINITY, "infeasible pair assigned");
+        }
+    }
+
+    private static double total(float[] scores, int[] assignment, int m) {
+        double sum = 0;
+        for (int job = 0; job < assignment.length; job++) {
+            if (assignment[job] >= 0) {
+                sum += scores[job * m + assignment[job]];
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.quickcommercedeliverysystemdesktop.services;
+
+import com.example.quickcommercedeliverysystemdesktop.models.GeoPoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Incremental rebuilds checked against distances computed from scratch.
+ */
+class DistanceMatrixTest {
+
+    @Test
+    void everyUpdateMatchesFreshDistances() {
+        Random random = new Random(3);
+        DistanceMatrix matrix = new DistanceMatrix();
+        Map<Long, double[]> places = new HashMap<>();
+        Map<Long, double[]> previous = new HashMap<>();
+
+        for (int round = 0; round < 300; round++) {
+            // Keep, drop, add and sometimes move keys, in a shuffled order
+            List<Long> keys = new ArrayList<>();
+            for (long key = 0; key < 15; key++) {
+                if (random.nextInt(3) > 0) {
+                    keys.add(key);
+                    if (!places.containsKey(key) || random.nextInt(10) == 0) {
+                        places.put(key, new double[] {23.7 + random.nextDouble() * 0.2, 90.3 + random.nextDouble() * 0.2});
+                    }
+                }
+            }
+            Collections.shuffle(keys, random);
+
+            int n = keys.size();
+            long[] keyArray = new long[n];
+            double[] lats = new double[n];
+            double[] lons = new double[n];
+            int stillThere = 0;
+            for (int i = 0; i < n; i++) {
+                keyArray[i] = keys.get(i);
+                lats[i] = places.get(keys.get(i))[0];
+                lons[i] = places.get(keys.get(i))[1];
+                double[] before = previous.get(keys.get(i));
+                if (before != null && before[0] == lats[i] && before[1] == lons[i]) {
+                    stillThere++;
+                }
+            }
+
+            long computedBefore = matrix.getComputedCount();
+            long reusedBefore = matrix.getReusedCount();
+            matrix.update(keyArray, lats, lons);
+
+            assertEquals(n, matrix.size());
+            for (int i = 0; i < n; i++) {
+                assertEquals(0.0, matrix.get(i, i));
+                for (int j = 0; j < n; j++) {
+                    if (i != j) {
+                        assertEquals(GeoPoint.distanceKm(lats[i], lons[i], lats[j], lons[j]), matrix.get(i, j), 1e-9);
+                    }
+                }
+            }
+            // Only pairs of unchanged nodes are copied; everything else is computed
+            long pairs = (long) n * (n - 1) / 2;
+            long reusable = (long) stillThere * (stillThere - 1) / 2;
+            assertEquals(reusable, matrix.getReusedCount() - reusedBefore, "round " + round);
+            assertEquals(pairs - reusable, matrix.getComputedCount() - computedBefore, "round " + round);
+
+            previous.clear();
+            for (int i = 0; i < n; i++) {
+                previous.put(keyArray[i], new double[] {lats[i], lons[i]});
+            }
+        }
+    }
+
+    @Test
+    void emptyUpdateClearsTheMatrix() {
+        DistanceMatrix matrix = new DistanceMatrix();
+        matrix.update(new long[] {1, 2}, new double[] {23.7, 23.8}, new double[] {90.4, 90.4});
+        matrix.update(new long[0], new double[0], new double[0]);
+        assertEquals(0, matrix.size());
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.quickcommercedeliverysystemdesktop.services;
+
+import com.example.quickcommercedeliverysystemdesktop.models.GeoPoint;
+import com.example.quickcommercedeliverysystemdesktop.models.Money;
+import com.example.quickcommercedeliverysystemdesktop.models.Order;
+import com.example.quickcommercedeliverysystemdesktop.models.TimeWindow;
+import com.example.quickcommercedeliverysystemdesktop.services.RoutePlanner.Route;
+import com.example.quickcommercedeliverysystemdesktop.services.RoutePlanner.Stop;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Planned routes checked against every permutation of the stops, using an
+ * independent copy of the planner's cost model.
+ */
+class RoutePlannerTest {
+
+    // Mirrors RoutePlanner's cost model
+    private static final double SPEED_KMH = 20.0;
+    private static final int SERVICE_MINUTES = 5;
+    private static final double LATE_PENALTY_KM_PER_MINUTE = 1.0;
+
+    private static final long BUDGET = TimeUnit.SECONDS.toNanos(2);
+
+    @Test
+    void routeIsALocalOptimumNoWorseThanNearestNeighbour() {
+        Random random = new Random(5);
+        for (int round = 0; round < 200; round++) {
+            int k = 1 + random.nextInt(7);
+            GeoPoint start = random.nextBoolean() ? randomPoint(random) : null;
+            int now = 8 * 60 + random.nextInt(600);
+            List<Order> orders = randomOrders(random, k, now);
+
+            Route route = RoutePlanner.plan(1, start, orders, now, BUDGET);
+            List<Order> visited = visitOrder(route);
+            assertEquals(new HashSet<>(orders), new HashSet<>(visited), "round " + round);
+
+            double cost = cost(start, visited, now);
+            double optimum = bestCost(start, orders, now, new ArrayList<>(), new boolean[k]);
+            assertTrue(cost >= optimum - 1e-9);
+            assertTrue(cost <= cost(start, nearestNeighbour(start, orders, now), now) + 1e-9, "round " + round);
+            assertTrue(noMoveImproves(start, visited, now, cost), "round " + round + " is not 2-opt/or-opt optimal");
+            if (k <= 3) {
+                // Every other order of three stops is one move away
+                assertEquals(optimum, cost, 1e-9, "round " + round);
+            }
+
+            double km = 0;
+            for (Stop stop : route.getStops()) {
+                km += stop.getLegKm();
+            }
+            assertEquals(km, route.getTotalKm(), 1e-9);
+        }
+    }
+
+    @Test
+    void ordersWithoutCoordinatesAreReturnedUnplaced() {
+        Random random = new Random(9);
+        List<Order> orders = randomOrders(random, 3, 600);
+        Order unknown = order(99, null, null, TimeWindow.NONE, TimeWindow.NONE);
+        orders.add(1, unknown);
+
+        Route route = RoutePlanner.plan(2, randomPoint(random), orders, 600, BUDGET);
+        assertEquals(3, route.getStops().size());
+        assertEquals(List.of(unknown), route.getUnplaced());
+    }
+
+    @Test
+    void replanWithCachedDistancesMatchesAFreshPlan() {
+        Random random = new Random(13);
+        GeoPoint start = randomPoint(random);
+        List<Order> orders = randomOrders(random, 6, 600);
+
+        RoutePlanner.forget(3);
+        RoutePlanner.plan(3, start, orders.subList(0, 5), 600, BUDGET);
+        Route incremental = RoutePlanner.plan(3, start, orders, 600, BUDGET);
+        RoutePlanner.forget(3);
+        Route fresh = RoutePlanner.plan(3, start, orders, 600, BUDGET);
+        RoutePlanner.forget(3);
+
+        assertEquals(visitOrder(fresh), visitOrder(incremental));
+        assertEquals(fresh.getTotalKm(), incremental.getTotalKm(), 1e-9);
+    }
+
+    @Test
+    void nearestFirstKeepsEveryOrderAndPutsUnlocatedOnesLast() {
+        Random random = new Random(17);
+        for (int round = 0; round < 500; round++) {
+            GeoPoint start = randomPoint(random);
+            List<Order> orders = randomOrders(random, random.nextInt(80), 600);
+            for (int i = 0; i < orders.size(); i++) {
+                if (random.nextInt(5) == 0) {
+                    orders.set(i, order(1_000 + i, null, null, TimeWindow.NONE, TimeWindow.NONE));
+                } else if (i > 0 && random.nextInt(8) == 0) {
+                    // Same spot as the order before it, to check ties keep their order
+                    Order before = orders.get(i - 1);
+                    orders.set(i, order(2_000 + i, before.getLatitude(), before.getLongitude(),
+                            TimeWindow.NONE, TimeWindow.NONE));
+                }
+            }
+
+            List<Order> ranked = RoutePlanner.nearestFirst(start, orders);
+            assertEquals(byDistance(start, orders), ranked, "round " + round);
+        }
+
+        Order unknown = order(7, null, null, TimeWindow.NONE, TimeWindow.NONE);
+        assertEquals(List.of(unknown), RoutePlanner.nearestFirst(new GeoPoint(23.8, 90.4), List.of(unknown)));
+        assertTrue(RoutePlanner.nearestFirst(new GeoPoint(23.8, 90.4), List.of()).isEmpty());
+    }
+
+    // ===== ORACLES =====
+
+    private static double cost(GeoPoint start, List<Order> sequence, int now) {
+        GeoPoint previous = start;
+        double clock = now;
+        double cost = 0;
+        for (Order order : sequence) {
+            double leg = previous == null ? 0 : GeoPoint.distanceKm(previous.getLatitude(), previous.getLongitude(),
+                    order.getLatitude(), order.getLongitude());
+            TimeWindow window = order.getTimeWindow();
+            double arrival = Math.max(clock + leg / SPEED_KMH * 60.0, window.getStartMinute());
+            int end = window.getEffectiveEndMinute();
+            double late = end < 0 ? 0 : Math.max(0, arrival - end);
+            cost += leg + LATE_PENALTY_KM_PER_MINUTE * late;
+            clock = arrival + SERVICE_MINUTES;
+            previous = order.getLocationPoint();
+        }
+        return cost;
+    }
+
+    private static double bestCost(GeoPoint start, List<Order> orders, int now, List<Order> prefix, boolean[] used) {
+        if (prefix.size() == orders.size()) {
+            return cost(start, prefix, now);
+        }
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < orders.size(); i++) {
+            if (!used[i]) {
+                used[i] = true;
+                prefix.add(orders.get(i));
+                best = Math.min(best, bestCost(start, orders, now, prefix, used));
+                prefix.remove(prefix.size() - 1);
+                used[i] = false;
+            }
+        }
+        return best;
+    }
+
+    /** Cheapest next stop each time, lateness included, first stop on ties */
+    private static List<Order> nearestNeighbour(GeoPoint start, List<Order> orders, int now) {
+        List<Order> sequence = new ArrayList<>();
+        Set<Order> left = new HashSet<>(orders);
+        while (!left.isEmpty()) {
+            Order best = null;
+            double bestCost = Double.MAX_VALUE;
+            double base = cost(start, sequence, now);
+            for (Order order : orders) {
+                if (!left.contains(order)) {
+                    continue;
+                }
+                sequence.add(order);
+                double step = cost(start, sequence, now) - base;
+                sequence.remove(sequence.size() - 1);
+                if (step < bestCost) {
+                    bestCost = step;
+                    best = order;
+                }
+            }
+            sequence.add(best);
+            left.remove(best);
+        }
+        return sequence;
+    }
+
+    private static boolean noMoveImproves(GeoPoint start, List<Order> sequence, int now, double cost) {
+        int k = sequence.size();
+        for (int i = 0; i < k; i++) {
+            for (int j = i + 1; j < k; j++) {
+                List<Order> reversed = new ArrayList<>(sequence);
+                Collections.reverse(reversed.subList(i, j + 1));
+                if (cost(start, reversed, now) < cost - 1e-9) {
+                    return false;
+                }
+            }
+        }
+        for (int len = 1; len <= 3 && len < k; len++) {
+            for (int i = 0; i + len <= k; i++) {
+                for (int p = 0; p <= k - len; p++) {
+                    List<Order> rest = new ArrayList<>(sequence);
+                    List<Order> run = new ArrayList<>(rest.subList(i, i + len));
+                    rest.subList(i, i + len).clear();
+                    rest.addAll(p, run);
+                    if (cost(start, rest, now) < cost - 1e-9) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Located orders by insertion into a list kept in distance order, later
+     * orders after equal ones; then the rest as given
+     */
+    private static List<Order> byDistance(GeoPoint start, List<Order> orders) {
+        List<Order> located = new ArrayList<>();
+        List<Order> unlocated = new ArrayList<>();
+        for (Order order : orders) {
+            GeoPoint point = order.getLocationPoint();
+            if (point == null) {
+                unlocated.add(order);
+                continue;
+            }
+            double km = start.distanceKmTo(point);
+            int at = located.size();
+            while (at > 0 && start.distanceKmTo(located.get(at - 1).getLocationPoint()) > km) {
+                at--;
+            }
+            located.add(at, order);
+        }
+        located.addAll(unlocated);
+        return located;
+    }
+
+    // ===== FIXTURES =====
+
+    private static List<Order> visitOrder(Route route) {
+        List<Order> visited = new ArrayList<>();
+        for (Stop stop : route.getStops()) {
+            visited.add(stop.getOrder());
+        }
+        return visited;
+    }
+
+    private static GeoPoint randomPoint(Random random) {
+        return new GeoPoint(23.70 + random.nextDouble() * 0.15, 90.35 + random.nextDouble() * 0.15);
+    }
+
+    /** Half the orders get a window somewhere in the next few hours, some of them tight */
+    private static List<Order> randomOrders(Random random, int k, int now) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < k; i++) {
+            GeoPoint point = randomPoint(random);
+            int windowStart = TimeWindow.NONE;
+            int windowEnd = TimeWindow.NONE;
+            if (random.nextBoolean()) {
+                windowStart = now + random.nextInt(120);
+                windowEnd = windowStart + 10 + random.nextInt(60);
+            }
+            orders.add(order(i + 1, point.getLatitude(), point.getLongitude(), windowStart, windowEnd));
+        }
+        return orders;
+    }
+
+    private static Order order(int orderId, Double latitude, Double longitude, int windowStart, int windowEnd) {
+        Order order = new Order(1, "Parcel", "", "Somewhere", "", Money.ZERO, "", "Customer", "");
+        order.setOrderId(orderId);
+        order.setLatitude(latitude);
+        order.setLongitude(longitude);
+        order.setTimeWindow(new TimeWindow(windowStart, windowEnd));
+        return order;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.quickcommercedeliverysystemdesktop.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Firing times and cancellation on a small, fast wheel, so most timers need
+ * several turns. Each firing is checked against its own deadline rather than
+ * a fixed sleep.
+ */
+class HashedTimingWheelTest {
+
+    private static final long TICK_MILLIS = 5;
+    /** Eight slots of 5 ms: one turn is 40 ms */
+    private static final int SLOTS = 8;
+
+    private final Map<Integer, Long> firedAt = new ConcurrentHashMap<>();
+    private final HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>("test-wheel", TICK_MILLIS,
+            TimeUnit.MILLISECONDS, SLOTS, id -> firedAt.put(id, System.nanoTime()));
+
+    @AfterEach
+    void stopWheel() {
+        wheel.stop();
+    }
+
+    @Test
+    void timersFireNoEarlierThanTheirDelayAcrossManyRounds() throws InterruptedException {
+        Random random = new Random(23);
+        Map<Integer, Long> dueAt = new ConcurrentHashMap<>();
+        Set<Integer> cancelled = new HashSet<>();
+        Map<Integer, HashedTimingWheel.Timeout<Integer>> timeouts = new ConcurrentHashMap<>();
+
+        for (int id = 0; id < 400; id++) {
+            // Up to ten turns of the wheel
+            long delayMillis = random.nextInt(400);
+            dueAt.put(id, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+            timeouts.put(id, wheel.schedule(id, delayMillis, TimeUnit.MILLISECONDS));
+        }
+        for (int id = 0; id < 400; id += 3) {
+            if (timeouts.get(id).cancel()) {
+                cancelled.add(id);
+            }
+        }
+
+        awaitQuiet(TimeUnit.SECONDS.toMillis(5));
+
+        assertEquals(0, wheel.getPendingCount());
+        for (int id = 0; id < 400; id++) {
+            HashedTimingWheel.Timeout<Integer> timeout = timeouts.get(id);
+            if (cancelled.contains(id)) {
+                assertFalse(firedAt.containsKey(id), "cancelled timer " + id + " fired");
+                assertTrue(timeout.isCancelled());
+                continue;
+            }
+            assertTrue(firedAt.containsKey(id), "timer " + id + " never fired");
+            assertTrue(timeout.isExpired());
+            assertFalse(timeout.cancel());
+            // Rounds must hold a timer back until its own turn, never an earlier one
+            assertTrue(firedAt.get(id) >= dueAt.get(id), "timer " + id + " fired early");
+        }
+    }
+
+    @Test
+    void timerDueInALaterRoundWaitsForIt() throws InterruptedException {
+        long start = System.nanoTime();
+        // Same slot as a 5 ms timer, two turns later
+        wheel.schedule(1, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        wheel.schedule(2, TICK_MILLIS + 2 * SLOTS * TICK_MILLIS, TimeUnit.MILLISECONDS);
+
+        awaitQuiet(TimeUnit.SECONDS.toMillis(2));
+        long first = TimeUnit.NANOSECONDS.toMillis(firedAt.get(1) - start);
+        long second = TimeUnit.NANOSECONDS.toMillis(firedAt.get(2) - start);
+        assertTrue(first >= TICK_MILLIS);
+        assertTrue(second >= TICK_MILLIS + 2 * SLOTS * TICK_MILLIS, "fired after " + second + " ms");
+    }
+
+    @Test
+    void cancelIsOnceAndStopDropsPendingTimers() {
+        HashedTimingWheel.Timeout<Integer> timeout = wheel.schedule(1, 1, TimeUnit.HOURS);
+        wheel.schedule(2, 1, TimeUnit.HOURS);
+        assertEquals(2, wheel.getPendingCount());
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertEquals(1, wheel.getPendingCount());
+
+        wheel.stop();
+        assertFalse(wheel.isRunning());
+        assertEquals(0, wheel.getPendingCount());
+        assertTrue(firedAt.isEmpty());
+    }
+
+    @Test
+    void failingCallbackDoesNotStopTheWheel() throws InterruptedException {
+        HashedTimingWheel<Integer> failing = new HashedTimingWheel<>("failing-wheel", TICK_MILLIS,
+                TimeUnit.MILLISECONDS, SLOTS, id -> {
+                    if (id == 1) {
+                        throw new IllegalStateException("boom");
+                    }
+                    firedAt.put(id, System.nanoTime());
+                });
+        try {
+            failing.schedule(1, 0, TimeUnit.MILLISECONDS);
+            failing.schedule(2, 20, TimeUnit.MILLISECONDS);
+            long deadline = System.currentTimeMillis() + 2_000;
+            while (!firedAt.containsKey(2) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(firedAt.containsKey(2));
+        } finally {
+            failing.stop();
+        }
+    }
+
+    /** Wait until nothing is pending, up to the limit */
+    private void awaitQuiet(long limitMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + limitMillis;
+        while (wheel.getPendingCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(TICK_MILLIS);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.quickcommercedeliverysystemdesktop.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Random adds, score changes and removes checked against sorting a plain list.
+ */
+class IndexedHeapTest {
+
+    /** Mutable score with identity equality, like the leaderboard's totals */
+    private static final class Entry {
+        private final int id;
+        private long score;
+
+        Entry(int id, long score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        @Override
+        public String toString() {
+            return id + ":" + score;
+        }
+    }
+
+    /** Highest score first, lower id on ties, so the expected order is total */
+    private static final Comparator<Entry> ORDER =
+            Comparator.comparingLong((Entry e) -> e.score).reversed().thenComparingInt(e -> e.id);
+
+    @Test
+    void topMatchesSortedListAfterUpdatesAndRemoves() {
+        Random random = new Random(71);
+        IndexedHeap<Entry> heap = new IndexedHeap<>(ORDER);
+        List<Entry> live = new ArrayList<>();
+        int nextId = 0;
+
+        for (int op = 0; op < 50_000; op++) {
+            int action = live.isEmpty() ? 0 : random.nextInt(4);
+            if (action == 0) {
+                Entry entry = new Entry(nextId++, random.nextInt(100));
+                heap.update(entry);
+                live.add(entry);
+            } else if (action == 1) {
+                // Scores move both ways, as after a reload
+                Entry entry = live.get(random.nextInt(live.size()));
+                entry.score += random.nextInt(41) - 20;
+                heap.update(entry);
+            } else if (action == 2) {
+                Entry entry = live.remove(random.nextInt(live.size()));
+                assertTrue(heap.remove(entry));
+                assertFalse(heap.remove(entry));
+                assertFalse(heap.contains(entry));
+            } else {
+                // Updating an unchanged entry must not move it
+                heap.update(live.get(random.nextInt(live.size())));
+            }
+
+            assertEquals(live.size(), heap.size());
+            int k = random.nextInt(12);
+            List<Entry> expected = new ArrayList<>(live);
+            expected.sort(ORDER);
+            assertEquals(expected.subList(0, Math.min(k, expected.size())), heap.top(k), "op " + op + " k=" + k);
+            if (op % 1_000 == 0) {
+                assertEquals(expected, heap.top(Integer.MAX_VALUE), "op " + op);
+            }
+        }
+    }
+
+    @Test
+    void topLeavesTheHeapUnchanged() {
+        IndexedHeap<Entry> heap = new IndexedHeap<>(ORDER);
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Entry entry = new Entry(i, (i * 7L) % 13);
+            entries.add(entry);
+            heap.update(entry);
+        }
+        List<Entry> first = heap.top(20);
+        assertEquals(first, heap.top(20));
+        assertEquals(first.subList(0, 5), heap.top(5));
+
+        entries.sort(ORDER);
+        assertEquals(entries, first);
+    }
+
+    @Test
+    void emptyAndNonPositiveLimits() {
+        IndexedHeap<Entry> heap = new IndexedHeap<>(ORDER);
+        assertTrue(heap.top(5).isEmpty());
+        assertFalse(heap.remove(new Entry(1, 1)));
+
+        Entry entry = new Entry(1, 1);
+        heap.update(entry);
+        assertTrue(heap.top(0).isEmpty());
+        assertTrue(heap.top(-1).isEmpty());
+        assertEquals(List.of(entry), heap.top(3));
+
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(entry));
+    }
+}
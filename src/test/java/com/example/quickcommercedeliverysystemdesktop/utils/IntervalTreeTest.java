@@ -0,0 +1,137 @@
+package com.example.quickcommercedeliverysystemdesktop.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Random inserts and removes checked against a plain list scanned in full.
+ * Queries prune on each subtree's largest end, so a maxEnd left stale by a
+ * rotation shows up as a missing result.
+ */
+class IntervalTreeTest {
+
+    @Test
+    void queriesMatchALinearScan() {
+        Random random = new Random(17);
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        Map<Integer, int[]> live = new HashMap<>();
+        int nextId = 0;
+
+        for (int op = 0; op < 20_000; op++) {
+            if (live.isEmpty() || random.nextInt(3) > 0) {
+                // Narrow bounds so equal intervals with different values are common
+                int start = random.nextInt(200);
+                int end = start + 1 + random.nextInt(random.nextInt(10) == 0 ? 150 : 15);
+                tree.insert(start, end, nextId);
+                live.put(nextId++, new int[] {start, end});
+            } else {
+                int id = pickLive(random, live);
+                int[] bounds = live.remove(id);
+                assertTrue(tree.remove(bounds[0], bounds[1], id));
+                assertFalse(tree.remove(bounds[0], bounds[1], id));
+            }
+            assertEquals(live.size(), tree.size());
+
+            int start = random.nextInt(220);
+            int end = start + random.nextInt(40);
+            List<Integer> expected = scan(live, start, end);
+            List<Integer> actual = tree.query(start, end);
+            assertEquals(sorted(expected), sorted(actual), "op " + op + " [" + start + ", " + end + ")");
+            assertEquals(!expected.isEmpty(), tree.overlapsAny(start, end), "op " + op);
+            for (int i = 1; i < actual.size(); i++) {
+                assertTrue(live.get(actual.get(i - 1))[0] <= live.get(actual.get(i))[0], "results out of start order");
+            }
+            assertTrue(tree.height() <= maxAvlHeight(tree.size()), "height " + tree.height() + " for " + tree.size());
+        }
+    }
+
+    @Test
+    void sortedInsertsStayBalanced() {
+        IntervalTree<Integer> ascending = new IntervalTree<>();
+        IntervalTree<Integer> descending = new IntervalTree<>();
+        int n = 4096;
+        for (int i = 0; i < n; i++) {
+            ascending.insert(i, i + 2, i);
+            descending.insert(n - i, n - i + 2, i);
+        }
+        // Both are perfectly balanced or close to it; a plain BST would be a 4096-long chain
+        assertTrue(ascending.height() <= maxAvlHeight(n));
+        assertTrue(descending.height() <= maxAvlHeight(n));
+
+        // A long interval buried at the bottom-left must still be found from the far right
+        ascending.insert(0, 10_000, -1);
+        assertEquals(List.of(-1), ascending.query(9_000, 9_500));
+        assertTrue(ascending.remove(0, 10_000, -1));
+        assertFalse(ascending.overlapsAny(9_000, 9_500));
+
+        for (int i = 0; i < n; i += 2) {
+            assertTrue(ascending.remove(i, i + 2, i));
+        }
+        assertEquals(n / 2, ascending.size());
+        assertTrue(ascending.height() <= maxAvlHeight(n / 2));
+        assertEquals(List.of(1, 3), ascending.query(2, 4));
+    }
+
+    @Test
+    void emptyIntervalsAreIgnoredAndBoundsAreHalfOpen() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.insert(5, 5, "empty");
+        tree.insert(7, 3, "backwards");
+        assertTrue(tree.isEmpty());
+
+        tree.insert(10, 20, "a");
+        assertFalse(tree.overlapsAny(0, 10));
+        assertFalse(tree.overlapsAny(20, 30));
+        assertTrue(tree.overlapsAny(19, 30));
+        assertFalse(tree.remove(10, 20, "b"));
+        assertTrue(tree.remove(10, 20, "a"));
+        assertTrue(tree.isEmpty());
+    }
+
+    // ===== ORACLES =====
+
+    private static List<Integer> scan(Map<Integer, int[]> live, int start, int end) {
+        List<Integer> result = new ArrayList<>();
+        for (Map.Entry<Integer, int[]> entry : live.entrySet()) {
+            int[] bounds = entry.getValue();
+            if (bounds[0] < end && start < bounds[1]) {
+                result.add(entry.getKey());
+            }
+        }
+        return result;
+    }
+
+    /** Tallest possible AVL tree with n nodes: the smallest h whose minimal tree exceeds n */
+    private static int maxAvlHeight(int n) {
+        long smaller = 0;
+        long minimal = 1;
+        int height = 1;
+        while (minimal <= n) {
+            long next = minimal + smaller + 1;
+            smaller = minimal;
+            minimal = next;
+            height++;
+        }
+        return height - 1;
+    }
+
+    private static int pickLive(Random random, Map<Integer, int[]> live) {
+        List<Integer> ids = new ArrayList<>(live.keySet());
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static List<Integer> sorted(List<Integer> values) {
+        List<Integer> copy = new ArrayList<>(values);
+        copy.sort(null);
+        return copy;
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.quickcommercedeliverysystemdesktop.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Quantile estimates checked against the exact rank of the returned value in
+ * the sorted input. The sketch flips its own coins, so bounds are set at about
+ * three times the expected error to keep the tests deterministic in practice.
+ */
+class KllSketchTest {
+
+    private static final double[] FRACTIONS = {0.01, 0.05, 0.1, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99};
+
+    @Test
+    void shortStreamsAreExact() {
+        Random random = new Random(53);
+        for (int n = 1; n <= KllSketch.DEFAULT_K; n += 7) {
+            KllSketch sketch = new KllSketch();
+            double[] data = new double[n];
+            for (int i = 0; i < n; i++) {
+                data[i] = random.nextInt(50);
+                sketch.update(data[i]);
+            }
+            Arrays.sort(data);
+            for (double fraction : FRACTIONS) {
+                int index = (int) Math.ceil(fraction * n) - 1;
+                assertEquals(data[Math.max(index, 0)], sketch.quantile(fraction), "n=" + n + " q=" + fraction);
+            }
+        }
+    }
+
+    @Test
+    void rankErrorStaysSmallForShuffledSortedAndReversedStreams() {
+        Random random = new Random(59);
+        int n = 200_000;
+        double[] shuffled = new double[n];
+        for (int i = 0; i < n; i++) {
+            shuffled[i] = random.nextGaussian() * 30 + 600;
+        }
+        double[] sorted = shuffled.clone();
+        Arrays.sort(sorted);
+        double[] reversed = new double[n];
+        for (int i = 0; i < n; i++) {
+            reversed[i] = sorted[n - 1 - i];
+        }
+
+        for (double[] stream : new double[][] {shuffled, sorted, reversed}) {
+            KllSketch sketch = new KllSketch();
+            for (double value : stream) {
+                sketch.update(value);
+            }
+            assertRankError(sketch, sorted, 0.025);
+            assertEquals(n, sketch.getCount());
+            assertEquals(sorted[0], sketch.getMin());
+            assertEquals(sorted[n - 1], sketch.getMax());
+        }
+    }
+
+    @Test
+    void compactionKeepsTheSketchSmall() {
+        KllSketch sketch = new KllSketch();
+        int previous = 0;
+        for (int i = 1; i <= 1_000_000; i++) {
+            sketch.update(i);
+            if (i % 100_000 == 0) {
+                int bytes = sketch.toBytes().length;
+                // About 3k items in all; a million floats would be 4 MB
+                assertTrue(bytes < 4 * 4 * KllSketch.DEFAULT_K, bytes + " bytes after " + i);
+                previous = Math.max(previous, bytes);
+            }
+        }
+        assertTrue(previous > 0);
+
+        KllSketch small = new KllSketch(8);
+        double[] data = new double[50_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (i * 7919L) % data.length;
+            small.update(data[i]);
+        }
+        Arrays.sort(data);
+        // k = 8 compacts at almost every step and still tracks the ranks loosely
+        assertRankError(small, data, 0.4);
+    }
+
+    @Test
+    void mergedPartsMatchTheWhole() {
+        Random random = new Random(61);
+        int n = 120_000;
+        double[] data = new double[n];
+        KllSketch merged = new KllSketch();
+        KllSketch part = new KllSketch();
+        for (int i = 0; i < n; i++) {
+            data[i] = random.nextDouble() * 3_600;
+            part.update(data[i]);
+            // Uneven parts, like one sketch per partner and day
+            if (random.nextInt(500) == 0 || i == n - 1) {
+                merged.merge(part);
+                part = new KllSketch();
+            }
+        }
+        merged.merge(new KllSketch());
+        Arrays.sort(data);
+
+        assertEquals(n, merged.getCount());
+        assertEquals(data[0], merged.getMin());
+        assertEquals(data[n - 1], merged.getMax());
+        assertRankError(merged, data, 0.025);
+    }
+
+    @Test
+    void bytesRoundTripToTheSameQuantiles() {
+        Random random = new Random(67);
+        KllSketch sketch = new KllSketch();
+        for (int i = 0; i < 50_000; i++) {
+            sketch.update(random.nextDouble() * 1_000);
+        }
+        KllSketch copy = KllSketch.fromBytes(sketch.toBytes());
+
+        assertEquals(sketch.getCount(), copy.getCount());
+        assertEquals(sketch.getMin(), copy.getMin());
+        assertEquals(sketch.getMax(), copy.getMax());
+        double[] before = sketch.quantiles(FRACTIONS);
+        double[] after = copy.quantiles(FRACTIONS);
+        for (int i = 0; i < FRACTIONS.length; i++) {
+            // Items are stored as floats
+            assertEquals(before[i], after[i], Math.ulp((float) before[i]));
+        }
+
+        // The copy keeps working
+        copy.update(2_000);
+        assertEquals(2_000, copy.getMax());
+    }
+
+    @Test
+    void emptyNanAndBadBytes() {
+        KllSketch sketch = new KllSketch();
+        sketch.update(Double.NaN);
+        assertTrue(sketch.isEmpty());
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+
+        sketch.update(4);
+        sketch.update(2);
+        assertEquals(2, sketch.quantile(0));
+        assertEquals(4, sketch.quantile(1));
+
+        byte[] bytes = sketch.toBytes();
+        assertThrows(IllegalArgumentException.class, () -> KllSketch.fromBytes(Arrays.copyOf(bytes, bytes.length - 3)));
+        bytes[0] = 99;
+        assertThrows(IllegalArgumentException.class, () -> KllSketch.fromBytes(bytes));
+        assertThrows(IllegalArgumentException.class, () -> new KllSketch(4));
+    }
+
+    /** The exact rank of each estimate must be within {@code maxError} of its fraction */
+    private static void assertRankError(KllSketch sketch, double[] sorted, double maxError) {
+        double[] estimates = sketch.quantiles(FRACTIONS);
+        for (int i = 0; i < FRACTIONS.length; i++) {
+            double rank = (double) upperBound(sorted, estimates[i]) / sorted.length;
+            assertTrue(Math.abs(rank - FRACTIONS[i]) <= maxError,
+                    "q=" + FRACTIONS[i] + " landed at rank " + rank);
+        }
+    }
+
+    /** Number of values at or below {@code value} */
+    private static int upperBound(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
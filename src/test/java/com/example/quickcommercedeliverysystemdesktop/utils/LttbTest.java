@@ -0,0 +1,145 @@
+package com.example.quickcommercedeliverysystemdesktop.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Downsampling checked against a direct LTTB that computes every bucket
+ * bound with exact integer arithmetic.
+ */
+class LttbTest {
+
+    @Test
+    void matchesReferenceOnRandomSeries() {
+        Random random = new Random(43);
+        for (int round = 0; round < 2_000; round++) {
+            int n = 3 + random.nextInt(400);
+            int threshold = 3 + random.nextInt(n - 2);
+            double[] x = ascending(random, n);
+            double[] y = new double[n];
+            for (int i = 0; i < n; i++) {
+                y[i] = random.nextGaussian() * 100;
+            }
+
+            int[] kept = Lttb.downsample(x, y, threshold);
+            assertArrayEquals(reference(x, y, threshold), kept, "n=" + n + " threshold=" + threshold);
+        }
+    }
+
+    @Test
+    void keepsEndpointsAndOnePointPerBucket() {
+        Random random = new Random(47);
+        for (int round = 0; round < 2_000; round++) {
+            int n = 3 + random.nextInt(5_000);
+            int threshold = 3 + random.nextInt(Math.min(n, 500) - 2);
+            double[] x = ascending(random, n);
+            double[] y = new double[n];
+
+            int[] kept = Lttb.downsample(x, y, threshold);
+            assertEquals(Math.min(threshold, n), kept.length);
+            assertEquals(0, kept[0]);
+            assertEquals(n - 1, kept[kept.length - 1]);
+            if (threshold < n) {
+                for (int i = 1; i < kept.length - 1; i++) {
+                    long bucket = i - 1;
+                    assertTrue(kept[i] >= 1 + bucket * (n - 2) / (threshold - 2), "n=" + n + " threshold=" + threshold);
+                    assertTrue(kept[i] < 1 + (bucket + 1) * (n - 2) / (threshold - 2), "n=" + n + " threshold=" + threshold);
+                }
+            }
+        }
+    }
+
+    @Test
+    void lonePeakSurvives() {
+        int n = 10_000;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+        }
+        y[6_543] = 1_000;
+
+        int[] kept = Lttb.downsample(x, y, 50);
+        boolean found = false;
+        for (int index : kept) {
+            found |= index == 6_543;
+        }
+        assertTrue(found);
+    }
+
+    @Test
+    void smallThresholdsAndShortSeriesKeepEveryPoint() {
+        double[] x = {0, 1, 2, 3, 4};
+        double[] y = {5, 1, 4, 2, 3};
+        int[] all = {0, 1, 2, 3, 4};
+        for (int threshold : new int[] {-1, 0, 1, 2, 5, 6, 100}) {
+            assertArrayEquals(all, Lttb.downsample(x, y, threshold), "threshold " + threshold);
+        }
+        assertArrayEquals(new int[0], Lttb.downsample(new double[0], new double[0], 10));
+        assertArrayEquals(new int[] {0}, Lttb.downsample(new double[] {1}, new double[] {2}, 3));
+        assertArrayEquals(new int[] {0, 1}, Lttb.downsample(new double[] {1, 2}, new double[] {2, 3}, 3));
+    }
+
+    // ===== ORACLE =====
+
+    /**
+     * LTTB as published: bucket b of the n - 2 inner points covers
+     * [1 + b(n-2)/(t-2), 1 + (b+1)(n-2)/(t-2)) in exact integer division
+     */
+    private static int[] reference(double[] x, double[] y, int threshold) {
+        int n = x.length;
+        int buckets = threshold - 2;
+        int[] kept = new int[threshold];
+        kept[0] = 0;
+        int previous = 0;
+        for (int b = 0; b < buckets; b++) {
+            int start = bound(b, n, buckets);
+            int end = bound(b + 1, n, buckets);
+            int nextStart = end;
+            int nextEnd = b + 1 < buckets ? bound(b + 2, n, buckets) : n;
+
+            double averageX = 0;
+            double averageY = 0;
+            for (int j = nextStart; j < nextEnd; j++) {
+                averageX += x[j];
+                averageY += y[j];
+            }
+            averageX /= nextEnd - nextStart;
+            averageY /= nextEnd - nextStart;
+
+            int chosen = start;
+            double maxArea = -1;
+            for (int j = start; j < end; j++) {
+                double area = Math.abs((x[previous] - averageX) * (y[j] - y[previous])
+                        - (x[previous] - x[j]) * (averageY - y[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = j;
+                }
+            }
+            kept[b + 1] = chosen;
+            previous = chosen;
+        }
+        kept[threshold - 1] = n - 1;
+        return kept;
+    }
+
+    private static int bound(int bucket, int n, int buckets) {
+        return 1 + (int) ((long) bucket * (n - 2) / buckets);
+    }
+
+    private static double[] ascending(Random random, int n) {
+        double[] x = new double[n];
+        double value = 0;
+        for (int i = 0; i < n; i++) {
+            value += 0.5 + random.nextDouble();
+            x[i] = value;
+        }
+        return x;
+    }
+}